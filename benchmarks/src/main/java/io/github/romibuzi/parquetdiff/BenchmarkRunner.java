@@ -0,0 +1,45 @@
+package io.github.romibuzi.parquetdiff;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+import java.io.IOException;
+
+/**
+ * Entry point of the benchmarks jar. Takes the same arguments as the JMH command line and always adds the
+ * {@link GCProfiler}, so that the allocation rate of each benchmark is reported next to its throughput and average
+ * time.
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * @param args The JMH command line arguments.
+     * @throws CommandLineOptionException If the arguments are invalid.
+     * @throws RunnerException            If a benchmark fails.
+     * @throws IOException                If the benchmark list can't be read.
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        // an explicit -prof gc would otherwise run the profiler twice
+        if (commandLine.getProfilers().stream().map(ProfilerConfig::getKlass)
+                .noneMatch(profiler -> profiler.equals("gc") || profiler.equals(GCProfiler.class.getName()))) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNode;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.io.LocalOutputFile;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Parquet schemas of a given size and common settings for benchmarks.
+ */
+public final class BenchmarkSchemas {
+    public static final int WARMUP_ITERATIONS = 3;
+    public static final int MEASUREMENT_ITERATIONS = 5;
+
+    private static final int COLUMNS_PER_GROUP = 10;
+    private static final int ROWS_PER_ROW_GROUP = 10;
+    private static final int DECIMAL_LENGTH = 16;
+    private static final int DECIMAL_SCALE = 4;
+    private static final int DECIMAL_PRECISION = 38;
+    private static final List<Function<String, Type>> PRIMITIVES = List.of(
+            name -> Types.required(PrimitiveType.PrimitiveTypeName.INT64).named(name),
+            name -> Types.optional(PrimitiveType.PrimitiveTypeName.BINARY)
+                    .as(LogicalTypeAnnotation.stringType()).named(name),
+            name -> Types.optional(PrimitiveType.PrimitiveTypeName.DOUBLE).named(name),
+            name -> Types.optional(PrimitiveType.PrimitiveTypeName.INT64)
+                    .as(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MICROS))
+                    .named(name),
+            name -> Types.optional(PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY).length(DECIMAL_LENGTH)
+                    .as(LogicalTypeAnnotation.decimalType(DECIMAL_SCALE, DECIMAL_PRECISION)).named(name),
+            name -> Types.optional(PrimitiveType.PrimitiveTypeName.BOOLEAN).named(name));
+
+    private BenchmarkSchemas() {
+    }
+
+    /**
+     * Top level fields alternate between a primitive and a group of 10 columns nested at the given depth, so most
+     * columns are nested when the depth is above 1.
+     * A nested group with depth {@code d} is a chain of {@code d} groups holding its primitives.
+     *
+     * @param columns The number of primitive columns.
+     * @param depth   The maximum depth of nested columns, 1 for a flat schema.
+     * @return The generated schema.
+     */
+    public static MessageType generate(int columns, int depth) {
+        List<Type> fields = new ArrayList<>();
+        int remaining = columns;
+        int index = 0;
+        while (remaining > 0) {
+            if (depth <= 1 || index % 2 == 0) {
+                fields.add(primitive(index));
+                remaining--;
+            } else {
+                int groupColumns = Math.min(remaining, COLUMNS_PER_GROUP);
+                fields.add(nestedGroup(index, groupColumns, depth - 1));
+                remaining -= groupColumns;
+            }
+            index++;
+        }
+        return new MessageType("benchmark", fields);
+    }
+
+    /**
+     * @param schema A parquet-mr schema.
+     * @return The schema extracted with {@link ParquetTypeVisitor}, as read from a footer.
+     */
+    public static ParquetSchemaNode extract(MessageType schema) {
+        ParquetTypeVisitor visitor = new ParquetTypeVisitor();
+        schema.accept(visitor);
+        return visitor.getSchema();
+    }
+
+    /**
+     * Writes a local Parquet file of the given schema. Only the required top-level columns get values, a row group
+     * being flushed every 10 rows.
+     *
+     * @param schema    The schema of the file.
+     * @param file      The local file to write.
+     * @param rowGroups The number of row groups.
+     * @throws IOException If the file can't be written.
+     */
+    static void write(MessageType schema, Path file, int rowGroups) throws IOException {
+        SimpleGroupFactory groups = new SimpleGroupFactory(schema);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new LocalOutputFile(file))
+                .withType(schema)
+                .withRowGroupSize(1)
+                .withMinRowCountForPageSizeCheck(ROWS_PER_ROW_GROUP)
+                .withMaxRowCountForPageSizeCheck(ROWS_PER_ROW_GROUP)
+                .build()) {
+            for (long row = 0; row < (long) rowGroups * ROWS_PER_ROW_GROUP; row++) {
+                Group group = groups.newGroup();
+                for (Type field : schema.getFields()) {
+                    if (field.isPrimitive() && field.isRepetition(Type.Repetition.REQUIRED)) {
+                        group.append(field.getName(), row);
+                    }
+                }
+                writer.write(group);
+            }
+        }
+    }
+
+    private static Type nestedGroup(int index, int columns, int levels) {
+        List<Type> leaves = new ArrayList<>(columns);
+        for (int i = 0; i < columns; i++) {
+            leaves.add(primitive(i));
+        }
+        GroupType group = new GroupType(Type.Repetition.OPTIONAL, "level_" + levels, leaves);
+        for (int level = levels - 1; level > 0; level--) {
+            group = new GroupType(Type.Repetition.OPTIONAL, "level_" + level, List.<Type>of(group));
+        }
+        return new GroupType(Type.Repetition.OPTIONAL, "struct_" + index, List.<Type>of(group));
+    }
+
+    private static Type primitive(int index) {
+        return PRIMITIVES.get(index % PRIMITIVES.size()).apply("column_" + index);
+    }
+}
@@ -0,0 +1,272 @@
+package io.github.romibuzi.parquetdiff;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.FilterFileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * A filesystem standing in for a remote one, such as HDFS or an object store, on top of a local filesystem. Each
+ * remote call waits for a configurable latency, plus a random jitter, before being delegated. Example:
+ * <pre>{@code
+ * LatencyFileSystem fileSystem = LatencyFileSystem.builder(FileSystem.getLocal(conf).getRawFileSystem())
+ *         .latency(LatencyFileSystem.Call.LIST_STATUS, Duration.ofMillis(20))
+ *         .latency(LatencyFileSystem.Call.READ, Duration.ofMillis(5))
+ *         .jitter(Duration.ofMillis(2))
+ *         .maxConcurrentCalls(64)
+ *         .build();
+ * }</pre>
+ * <p>
+ * Calls beyond the maximum number of concurrent calls are throttled: they wait for a running call to complete, as
+ * a NameNode handler pool or an object store request rate limit would. Every call is counted, see
+ * {@link #getCallCount(Call)}.
+ */
+public final class LatencyFileSystem extends FilterFileSystem {
+    /**
+     * The remote calls with a latency.
+     */
+    public enum Call {
+        /**
+         * Listing a directory, {@link FileSystem#listStatus(Path)}.
+         */
+        LIST_STATUS,
+        /**
+         * Getting the status of a path, {@link FileSystem#getFileStatus(Path)}, also done by
+         * {@link FileSystem#exists(Path)}.
+         */
+        GET_FILE_STATUS,
+        /**
+         * Opening a file, {@link FileSystem#open(Path, int)}.
+         */
+        OPEN,
+        /**
+         * Reading bytes from an opened file, sequentially or at a given position.
+         */
+        READ
+    }
+
+    private final Map<Call, Long> latenciesNanos;
+    private final long jitterNanos;
+    private final Semaphore permits;
+    private final Map<Call, LongAdder> callCounts = new EnumMap<>(Call.class);
+
+    private LatencyFileSystem(Builder builder) {
+        super(builder.fileSystem);
+        this.latenciesNanos = new EnumMap<>(builder.latenciesNanos);
+        this.jitterNanos = builder.jitterNanos;
+        this.permits = builder.maxConcurrentCalls > 0 ? new Semaphore(builder.maxConcurrentCalls, true) : null;
+        for (Call call : Call.values()) {
+            callCounts.put(call, new LongAdder());
+        }
+    }
+
+    /**
+     * @param fileSystem The filesystem the calls are delegated to, typically a raw local filesystem.
+     * @return A new {@link Builder} instance, without latency by default.
+     */
+    public static Builder builder(FileSystem fileSystem) {
+        return new Builder(fileSystem);
+    }
+
+    @Override
+    public FileStatus[] listStatus(Path path) throws IOException {
+        return call(Call.LIST_STATUS, () -> super.listStatus(path));
+    }
+
+    @Override
+    public FileStatus getFileStatus(Path path) throws IOException {
+        return call(Call.GET_FILE_STATUS, () -> super.getFileStatus(path));
+    }
+
+    @Override
+    public FSDataInputStream open(Path path, int bufferSize) throws IOException {
+        FSDataInputStream stream = call(Call.OPEN, () -> super.open(path, bufferSize));
+        return new FSDataInputStream(new LatencyInputStream(stream));
+    }
+
+    /**
+     * @param call A remote call.
+     * @return The number of such calls since the creation of the filesystem or the last reset.
+     */
+    public long getCallCount(Call call) {
+        return callCounts.get(call).sum();
+    }
+
+    /**
+     * @return The number of remote calls of all kinds.
+     */
+    public long getTotalCallCount() {
+        return callCounts.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * Resets the calls counts, e.g. between two benchmark iterations.
+     */
+    public void resetCallCounts() {
+        callCounts.values().forEach(LongAdder::reset);
+    }
+
+    private <T> T call(Call call, RemoteCall<T> action) throws IOException {
+        callCounts.get(call).increment();
+        try {
+            if (permits != null) {
+                permits.acquire();
+            }
+            try {
+                long latency = latenciesNanos.getOrDefault(call, 0L)
+                        + (jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos) : 0);
+                if (latency > 0) {
+                    TimeUnit.NANOSECONDS.sleep(latency);
+                }
+                return action.call();
+            } finally {
+                if (permits != null) {
+                    permits.release();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException exception = new InterruptedIOException("Interrupted during " + call);
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    /**
+     * A delegated call.
+     *
+     * @param <T> The result of the call.
+     */
+    private interface RemoteCall<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * Adds the read latency to the bulk and positioned reads of a stream. Single byte reads are delegated as is, as
+     * they are served from a buffer by remote filesystems.
+     */
+    private final class LatencyInputStream extends FSInputStream {
+        private final FSDataInputStream stream;
+
+        LatencyInputStream(FSDataInputStream stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return stream.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            return call(Call.READ, () -> stream.read(buffer, offset, length));
+        }
+
+        @Override
+        public int read(long position, byte[] buffer, int offset, int length) throws IOException {
+            return call(Call.READ, () -> stream.read(position, buffer, offset, length));
+        }
+
+        @Override
+        public void readFully(long position, byte[] buffer, int offset, int length) throws IOException {
+            call(Call.READ, () -> {
+                stream.readFully(position, buffer, offset, length);
+                return null;
+            });
+        }
+
+        @Override
+        public void seek(long position) throws IOException {
+            stream.seek(position);
+        }
+
+        @Override
+        public long getPos() throws IOException {
+            return stream.getPos();
+        }
+
+        @Override
+        public boolean seekToNewSource(long targetPosition) {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            stream.close();
+        }
+    }
+
+    /**
+     * Configures a {@link LatencyFileSystem}.
+     */
+    public static final class Builder {
+        private final FileSystem fileSystem;
+        private final Map<Call, Long> latenciesNanos = new EnumMap<>(Call.class);
+        private long jitterNanos;
+        private int maxConcurrentCalls;
+
+        private Builder(FileSystem fileSystem) {
+            this.fileSystem = fileSystem;
+        }
+
+        /**
+         * @param call    A remote call.
+         * @param latency The minimum duration of each such call.
+         * @return This builder.
+         * @throws IllegalArgumentException if latency is negative.
+         */
+        public Builder latency(Call call, Duration latency) throws IllegalArgumentException {
+            if (latency.isNegative()) {
+                throw new IllegalArgumentException("Latency must be positive or zero: " + latency);
+            }
+            this.latenciesNanos.put(call, latency.toNanos());
+            return this;
+        }
+
+        /**
+         * @param jitter The maximum random duration added to the latency of each call.
+         * @return This builder.
+         * @throws IllegalArgumentException if jitter is negative.
+         */
+        public Builder jitter(Duration jitter) throws IllegalArgumentException {
+            if (jitter.isNegative()) {
+                throw new IllegalArgumentException("Jitter must be positive or zero: " + jitter);
+            }
+            this.jitterNanos = jitter.toNanos();
+            return this;
+        }
+
+        /**
+         * @param calls The maximum number of calls running at the same time, 0 for no limit.
+         * @return This builder.
+         * @throws IllegalArgumentException if calls is negative.
+         */
+        public Builder maxConcurrentCalls(int calls) throws IllegalArgumentException {
+            if (calls < 0) {
+                throw new IllegalArgumentException("Max concurrent calls must be positive or zero: " + calls);
+            }
+            this.maxConcurrentCalls = calls;
+            return this;
+        }
+
+        /**
+         * @return A configured LatencyFileSystem.
+         */
+        public LatencyFileSystem build() {
+            return new LatencyFileSystem(this);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the footer of a generated local Parquet file with {@link ParquetReader#readParquetFile(Path)}, decoding the
+ * schema only or the whole footer with its row groups metadata.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = BenchmarkSchemas.WARMUP_ITERATIONS, time = 1)
+@Measurement(iterations = BenchmarkSchemas.MEASUREMENT_ITERATIONS, time = 1)
+@Fork(1)
+public class ReadParquetFileBenchmark {
+    private static final int DEPTH = 3;
+
+    @Param({"10", "100", "1000"})
+    public int columns;
+
+    @Param({"1", "100"})
+    public int rowGroups;
+
+    @Param({"true", "false"})
+    public boolean schemaOnlyFooters;
+
+    private java.nio.file.Path directory;
+    private Path file;
+    private ParquetReader reader;
+
+    /**
+     * Writes a file with the benchmarked number of columns and row groups.
+     *
+     * @throws IOException If the file can't be written.
+     */
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("parquetdiff-benchmark");
+        java.nio.file.Path localFile = directory.resolve("part-00000.parquet");
+        BenchmarkSchemas.write(BenchmarkSchemas.generate(columns, DEPTH), localFile, rowGroups);
+        file = new Path(localFile.toUri());
+        reader = ParquetReader.builder(FileSystem.getLocal(new Configuration()))
+                .schemaOnlyFooters(schemaOnlyFooters)
+                .build();
+    }
+
+    /**
+     * Deletes the generated file.
+     *
+     * @throws IOException If the file can't be deleted.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(directory.resolve("part-00000.parquet"));
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * @return The details of the file.
+     * @throws IOException If the file can't be read.
+     */
+    @Benchmark
+    public ParquetDetails readParquetFile() throws IOException {
+        return reader.readParquetFile(file);
+    }
+}
@@ -0,0 +1,213 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * Scans a generated tree of Parquet files with {@link ParquetReader#readParquetDirectory(Path)} through a
+ * {@link LatencyFileSystem}, to compare listing and footer reading strategies under remote filesystem latencies.
+ * Example, on a smaller tree:
+ * <pre>{@code
+ * java -jar benchmarks/target/benchmarks.jar Scan -p files=10000 -p threads=32 -p readLatencyMillis=10
+ * }</pre>
+ * <p>
+ * The tree has 10 "hour" partitions per "date" partition and 100 files per hour, all files being copies of the same
+ * small file. The remote calls of each scan are reported as secondary results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = ScanBenchmark.MEASUREMENT_ITERATIONS)
+@Fork(1)
+public class ScanBenchmark {
+    static final int MEASUREMENT_ITERATIONS = 3;
+
+    private static final int COLUMNS = 50;
+    private static final int DEPTH = 3;
+    private static final int HOURS = 10;
+    private static final int FILES_PER_DIRECTORY = 100;
+
+    @Param({"100000"})
+    public int files;
+
+    @Param({"16", "64"})
+    public int threads;
+
+    @Param({"1", "16"})
+    public int listingThreads;
+
+    @Param({"20"})
+    public int listLatencyMillis;
+
+    @Param({"5"})
+    public int readLatencyMillis;
+
+    @Param({"64"})
+    public int maxConcurrentCalls;
+
+    private java.nio.file.Path directory;
+    private LatencyFileSystem fileSystem;
+    private ExecutorService executor;
+    private ParquetReader reader;
+
+    /**
+     * The remote calls of the scans of an iteration, reported by their public accessors.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Calls {
+        private long listStatus;
+        private long getFileStatus;
+        private long open;
+        private long read;
+
+        /**
+         * Resets the counters before an iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            listStatus = 0;
+            getFileStatus = 0;
+            open = 0;
+            read = 0;
+        }
+
+        /**
+         * @param fileSystem The filesystem whose calls since its last reset are added.
+         */
+        void add(LatencyFileSystem fileSystem) {
+            listStatus += fileSystem.getCallCount(LatencyFileSystem.Call.LIST_STATUS);
+            getFileStatus += fileSystem.getCallCount(LatencyFileSystem.Call.GET_FILE_STATUS);
+            open += fileSystem.getCallCount(LatencyFileSystem.Call.OPEN);
+            read += fileSystem.getCallCount(LatencyFileSystem.Call.READ);
+        }
+
+        /**
+         * @return The number of directories listings.
+         */
+        public long listStatus() {
+            return listStatus;
+        }
+
+        /**
+         * @return The number of file status calls.
+         */
+        public long getFileStatus() {
+            return getFileStatus;
+        }
+
+        /**
+         * @return The number of opened files.
+         */
+        public long open() {
+            return open;
+        }
+
+        /**
+         * @return The number of reads.
+         */
+        public long read() {
+            return read;
+        }
+    }
+
+    /**
+     * Generates the tree of files and the reader.
+     *
+     * @throws IOException If the tree can't be written.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("parquetdiff-scan-benchmark");
+        java.nio.file.Path template = directory.resolve("template.parquet");
+        BenchmarkSchemas.write(BenchmarkSchemas.generate(COLUMNS, DEPTH), template, 1);
+        java.nio.file.Path root = directory.resolve("data.parquet");
+        for (int file = 0; file < files; file++) {
+            int leaf = file / FILES_PER_DIRECTORY;
+            java.nio.file.Path leafDirectory = root
+                    .resolve(String.format("date=%05d", leaf / HOURS))
+                    .resolve(String.format("hour=%02d", leaf % HOURS));
+            if (file % FILES_PER_DIRECTORY == 0) {
+                Files.createDirectories(leafDirectory);
+            }
+            java.nio.file.Path target = leafDirectory.resolve(String.format("part-%05d.parquet", file));
+            try {
+                Files.createLink(target, template);
+            } catch (UnsupportedOperationException | IOException e) {
+                Files.copy(template, target);
+            }
+        }
+
+        fileSystem = LatencyFileSystem.builder(FileSystem.getLocal(new Configuration()).getRawFileSystem())
+                .latency(LatencyFileSystem.Call.LIST_STATUS, Duration.ofMillis(listLatencyMillis))
+                .latency(LatencyFileSystem.Call.GET_FILE_STATUS, Duration.ofMillis(readLatencyMillis))
+                .latency(LatencyFileSystem.Call.OPEN, Duration.ofMillis(readLatencyMillis))
+                .latency(LatencyFileSystem.Call.READ, Duration.ofMillis(readLatencyMillis))
+                .jitter(Duration.ofMillis(readLatencyMillis / 2))
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .build();
+        executor = Executors.newFixedThreadPool(threads);
+        reader = ParquetReader.builder(fileSystem)
+                .footerExecutor(executor)
+                .listingParallelism(listingThreads)
+                .build();
+    }
+
+    /**
+     * Deletes the generated tree.
+     *
+     * @throws IOException If the tree can't be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        try (Stream<java.nio.file.Path> paths = Files.walk(directory)) {
+            for (java.nio.file.Path path : (Iterable<java.nio.file.Path>) paths
+                    .sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * @param calls The remote calls counters.
+     * @return All files of the tree.
+     * @throws IOException If the tree can't be read.
+     */
+    @Benchmark
+    public List<ParquetDetails> scan(Calls calls) throws IOException {
+        fileSystem.resetCallCounts();
+        List<ParquetDetails> parquets = reader.readParquetDirectory(new Path(directory.resolve("data.parquet")
+                .toUri()));
+        calls.add(fileSystem);
+        return parquets;
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNode;
+import org.apache.parquet.format.SchemaElement;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.schema.MessageType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the extraction of a schema from the footer schema elements, through the parquet-mr MessageType and
+ * {@link ParquetTypeVisitor} or directly with {@link ParquetSchemaElementConverter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = BenchmarkSchemas.WARMUP_ITERATIONS, time = 1)
+@Measurement(iterations = BenchmarkSchemas.MEASUREMENT_ITERATIONS, time = 1)
+@Fork(1)
+public class SchemaExtractionBenchmark {
+    private static final ParquetMetadataConverter METADATA_CONVERTER = new ParquetMetadataConverter();
+
+    @Param({"10", "100", "1000", "10000"})
+    public int columns;
+
+    @Param({"1", "5", "20"})
+    public int depth;
+
+    private List<SchemaElement> elements;
+
+    /**
+     * Generates the footer schema elements of the benchmarked schema.
+     */
+    @Setup
+    public void setup() {
+        MessageType schema = BenchmarkSchemas.generate(columns, depth);
+        elements = METADATA_CONVERTER.toParquetSchema(schema);
+    }
+
+    /**
+     * @return The schema built from a parquet-mr MessageType.
+     */
+    @Benchmark
+    public ParquetSchemaNode visitor() {
+        MessageType messageType = METADATA_CONVERTER.fromParquetSchema(elements, null);
+        ParquetTypeVisitor visitor = new ParquetTypeVisitor();
+        messageType.accept(visitor);
+        return visitor.getSchema();
+    }
+
+    /**
+     * @return The schema built directly from the footer schema elements.
+     * @throws IOException Never, the generated schema is valid.
+     */
+    @Benchmark
+    public ParquetSchemaNode schemaElements() throws IOException {
+        return ParquetSchemaElementConverter.convert(elements);
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNodePath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends a component to a {@link ParquetSchemaNodePath}, done for each node walked when comparing schemas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = BenchmarkSchemas.WARMUP_ITERATIONS, time = 1)
+@Measurement(iterations = BenchmarkSchemas.MEASUREMENT_ITERATIONS, time = 1)
+@Fork(1)
+public class SchemaNodePathBenchmark {
+    @Param({"1", "5", "20"})
+    public int depth;
+
+    private ParquetSchemaNodePath path;
+
+    /**
+     * Builds a path of the benchmarked depth.
+     */
+    @Setup
+    public void setup() {
+        path = new ParquetSchemaNodePath("benchmark");
+        for (int level = 1; level < depth; level++) {
+            path = path.add("level_" + level);
+        }
+    }
+
+    /**
+     * @return The path of a child node.
+     */
+    @Benchmark
+    public ParquetSchemaNodePath add() {
+        return path.add("column_0");
+    }
+}
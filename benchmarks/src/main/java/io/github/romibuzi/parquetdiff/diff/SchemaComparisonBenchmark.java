@@ -0,0 +1,116 @@
+package io.github.romibuzi.parquetdiff.diff;
+
+import io.github.romibuzi.parquetdiff.BenchmarkSchemas;
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartitions;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaFingerprint;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares two schemas node by node with {@link ParquetComparator#compareSchemas(ParquetDetails, ParquetDetails)},
+ * on identical, slightly divergent and heavily divergent trees. The schemas never have the same fingerprint, so that
+ * identical trees are walked as well.
+ * <p>
+ * Lives in the package of {@link ParquetComparator} to call the comparison itself, without the wrapping of
+ * {@link ParquetComparator#findSchemasDifferences(ParquetDetails, ParquetDetails)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = BenchmarkSchemas.WARMUP_ITERATIONS, time = 1)
+@Measurement(iterations = BenchmarkSchemas.MEASUREMENT_ITERATIONS, time = 1)
+@Fork(1)
+public class SchemaComparisonBenchmark {
+    /**
+     * How much the second schema differs from the first one.
+     */
+    public enum Divergence {
+        /**
+         * The same schema.
+         */
+        IDENTICAL,
+        /**
+         * The last top-level column is retyped.
+         */
+        SLIGHT,
+        /**
+         * Every other top-level column is retyped, nested columns being replaced by a primitive.
+         */
+        HEAVY
+    }
+
+    @Param({"100", "1000", "10000"})
+    public int columns;
+
+    @Param({"1", "5", "20"})
+    public int depth;
+
+    @Param({"IDENTICAL", "SLIGHT", "HEAVY"})
+    public Divergence divergence;
+
+    private ParquetDetails first;
+    private ParquetDetails second;
+
+    /**
+     * Extracts both schemas as separate trees.
+     */
+    @Setup
+    public void setup() {
+        MessageType schema = BenchmarkSchemas.generate(columns, depth);
+        first = details("v1.parquet", schema, null);
+        MessageType secondSchema = diverge(BenchmarkSchemas.generate(columns, depth), divergence);
+        // identical trees get the fingerprint of another schema, otherwise the comparison is skipped
+        ParquetSchemaFingerprint secondFingerprint = divergence == Divergence.IDENTICAL
+                ? ParquetSchemaFingerprint.of(BenchmarkSchemas.extract(diverge(schema, Divergence.SLIGHT)))
+                : null;
+        second = details("v2.parquet", secondSchema, secondFingerprint);
+        first.getFingerprint();
+        second.getFingerprint();
+    }
+
+    /**
+     * @return The differences between both schemas.
+     */
+    @Benchmark
+    public ParquetSchemaDiff compareSchemas() {
+        return ParquetComparator.compareSchemas(first, second);
+    }
+
+    private static ParquetDetails details(String directory, MessageType schema,
+                                          ParquetSchemaFingerprint fingerprint) {
+        Path path = new Path(directory, "part-00000.parquet");
+        return new ParquetDetails(path, 1, BenchmarkSchemas.extract(schema), ParquetPartitions.fromPath(path),
+                fingerprint);
+    }
+
+    private static MessageType diverge(MessageType schema, Divergence divergence) {
+        List<Type> fields = new ArrayList<>(schema.getFields());
+        for (int i = 0; i < fields.size(); i++) {
+            boolean retyped = divergence == Divergence.HEAVY ? i % 2 == 1
+                    : divergence == Divergence.SLIGHT && i == fields.size() - 1;
+            if (retyped) {
+                fields.set(i, Types.optional(PrimitiveType.PrimitiveTypeName.INT32).named(fields.get(i).getName()));
+            }
+        }
+        return new MessageType(schema.getName(), fields);
+    }
+}
@@ -1,14 +1,33 @@
 package io.github.romibuzi.parquetdiff;
 
+import io.github.romibuzi.parquetdiff.diff.ParquetColumnDrift;
 import io.github.romibuzi.parquetdiff.diff.ParquetComparator;
+import io.github.romibuzi.parquetdiff.diff.ParquetPartitionComparison;
 import io.github.romibuzi.parquetdiff.diff.ParquetSchemaDiff;
+import io.github.romibuzi.parquetdiff.diff.ParquetSchemaGroup;
+import io.github.romibuzi.parquetdiff.metadata.ParquetContentFingerprint;
 import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
 import io.github.romibuzi.parquetdiff.metadata.ParquetPartitions;
+import io.github.romibuzi.parquetdiff.metrics.ParquetScanCounters;
+import io.github.romibuzi.parquetdiff.metrics.ParquetScanMetrics;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.management.JMException;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public final class Main {
     private static final Logger LOGGER = LoggerFactory.getLogger(Main.class);
@@ -17,19 +36,51 @@ public final class Main {
     private static final String UNICODE_LARGE_YELLOW_SQUARE = toUnicodeString(0x1F7E8);
 
     private final ParquetReader parquetReader;
+    private final boolean groupBySchema;
+    private final ParquetSampling sampling;
+    private final boolean incremental;
 
     public Main(ParquetReader parquetReader) {
+        this(parquetReader, false, null);
+    }
+
+    /**
+     * @param parquetReader The reader of the Parquet directory.
+     * @param groupBySchema Whether files are grouped by distinct schema instead of being compared one by one.
+     * @param sampling      The sampling of the files read in each partition, null to read all files.
+     */
+    public Main(ParquetReader parquetReader, boolean groupBySchema, ParquetSampling sampling) {
+        this(parquetReader, groupBySchema, sampling, false);
+    }
+
+    /**
+     * @param parquetReader The reader of the Parquet directory.
+     * @param groupBySchema Whether files are grouped by distinct schema instead of being compared one by one.
+     * @param sampling      The sampling of the files read in each partition, null to read all files.
+     * @param incremental   Whether only new or changed files are compared to the reference of the scan state of
+     *                      the reader.
+     */
+    public Main(ParquetReader parquetReader, boolean groupBySchema, ParquetSampling sampling, boolean incremental) {
         this.parquetReader = parquetReader;
+        this.groupBySchema = groupBySchema;
+        this.sampling = sampling;
+        this.incremental = incremental;
     }
 
     /**
      * @param parquetDirectory the Parquet directory to analyze.
+     * @return the Parquet files read, the sampled ones only when sampling, to be analyzed further without reading
+     * the directory again.
      */
-    public void run(String parquetDirectory) throws IOException {
-        List<ParquetDetails> parquets = parquetReader.readParquetDirectory(parquetDirectory);
+    public List<ParquetDetails> run(String parquetDirectory) throws IOException {
+        if (incremental) {
+            return runIncremental(parquetDirectory);
+        }
+
+        List<ParquetDetails> parquets = readParquets(parquetDirectory);
         if (parquets.isEmpty()) {
             LOGGER.info("No parquets files found");
-            return;
+            return parquets;
         }
 
         LOGGER.info("Found {} partitions and {} parquets files", countNumberOfPartitions(parquets), parquets.size());
@@ -43,14 +94,244 @@ public final class Main {
             partitionsDifferences.forEach(System.out::println);
         }
 
-        List<ParquetSchemaDiff> schemasDifferences = ParquetComparator.findSchemasDifferences(parquets);
+        if (groupBySchema) {
+            printSchemasGroups(ParquetComparator.groupBySchema(parquets));
+        } else {
+            printSchemasDifferences(parquets.get(0), ParquetComparator.findSchemasDifferences(parquets,
+                    parquetReader.getMetrics()));
+        }
+        return parquets;
+    }
+
+    /**
+     * Watches the Parquet directory until interrupted, comparing new files to the reference schema as they land.
+     * The reader must have a scan state.
+     *
+     * @param parquetDirectory the Parquet directory to watch.
+     * @param pollInterval     the interval between two scans.
+     */
+    public void watch(String parquetDirectory, Duration pollInterval) throws IOException, InterruptedException {
+        ParquetDirectoryWatcher watcher = new ParquetDirectoryWatcher(parquetReader, new Path(parquetDirectory),
+                pollInterval);
+        LOGGER.info("Watching {}", parquetDirectory);
+        watcher.watch(this::printNewParquets);
+    }
+
+    /**
+     * Compares two Parquet directories partition by partition, see
+     * {@link #compare(String, String, Consumer, Consumer)}.
+     *
+     * @param firstDirectory  the first Parquet directory.
+     * @param secondDirectory the Parquet directory compared to the first one.
+     */
+    public void compare(String firstDirectory, String secondDirectory) throws IOException {
+        compare(firstDirectory, secondDirectory, parquet -> { }, parquet -> { });
+    }
+
+    /**
+     * Compares two Parquet directories partition by partition. Both directories are listed concurrently, the
+     * footers of both sides being read ahead concurrently when the reader has a footer executor.
+     *
+     * @param firstDirectory  the first Parquet directory.
+     * @param secondDirectory the Parquet directory compared to the first one.
+     * @param firstParquets   receives the Parquet files read in the first directory, e.g. to be analyzed further
+     *                        without reading the directory again.
+     * @param secondParquets  receives the Parquet files read in the second directory.
+     */
+    public void compare(String firstDirectory, String secondDirectory, Consumer<ParquetDetails> firstParquets,
+                        Consumer<ParquetDetails> secondParquets) throws IOException {
+        long numPartitions = 0;
+        long numDifferentPartitions = 0;
+        ExecutorService listingExecutor = Executors.newSingleThreadExecutor();
+        try {
+            // the second directory is listed while the first one is listed by the current thread
+            Future<Stream<ParquetDetails>> secondListing = listingExecutor.submit(
+                    () -> parquetReader.streamParquetDirectory(secondDirectory));
+            try (Stream<ParquetDetails> first = streamParquetDirectory(firstDirectory, secondListing)
+                    .peek(firstParquets);
+                 Stream<ParquetDetails> second = Futures.await(secondListing).peek(secondParquets);
+                 Stream<ParquetPartitionComparison> comparisons = ParquetComparator.compareDatasets(first, second,
+                         parquetReader.getMetrics())) {
+                for (ParquetPartitionComparison comparison : (Iterable<ParquetPartitionComparison>)
+                        comparisons::iterator) {
+                    numPartitions++;
+                    if (comparison.hasDifferences()) {
+                        numDifferentPartitions++;
+                        comparison.print(System.out);
+                    }
+                }
+            }
+        } finally {
+            listingExecutor.shutdownNow();
+        }
+
+        LOGGER.info("Compared {} partitions", numPartitions);
+        if (numDifferentPartitions == 0) {
+            System.out.println(UNICODE_GREEN_CROSS + " Both Parquet datasets have the same partitions, rows counts "
+                    + "and schemas.");
+        } else {
+            System.out.println(UNICODE_RED_CROSS + " " + numDifferentPartitions + " out of " + numPartitions
+                    + " partitions differ.");
+        }
+    }
+
+    /**
+     * Reads all rows of the given Parquet files and prints the files holding the same rows.
+     *
+     * @param parquets the Parquet files of the analyzed directory, as returned by {@link #run(String)}.
+     * @param executor the executor reading files, null to read them sequentially.
+     */
+    public void printSameContentFiles(List<ParquetDetails> parquets, ExecutorService executor) throws IOException {
+        List<ParquetContentFingerprint> fingerprints = new ParquetContentFingerprinter(parquetReader, executor)
+                .fingerprint(parquets, ParquetContentFingerprinter.findCommonColumns(parquets));
+        List<List<ParquetDetails>> sameContentFiles = ParquetComparator.findSameContentFiles(parquets, fingerprints);
+        if (sameContentFiles.isEmpty()) {
+            System.out.println(UNICODE_GREEN_CROSS + " All Parquet files have distinct contents.");
+            return;
+        }
+        System.out.println(UNICODE_LARGE_YELLOW_SQUARE + " Parquet files with the same content found.");
+        for (List<ParquetDetails> group : sameContentFiles) {
+            System.out.println("Same " + group.get(0).getNumRows() + " rows in:");
+            group.forEach(parquet -> System.out.println("  " + parquet.getPath()));
+        }
+    }
+
+    /**
+     * Reads all rows of the Parquet files of two directories and prints the partitions whose content differs.
+     *
+     * @param first    the Parquet files of the first directory.
+     * @param second   the Parquet files of the directory compared to the first one.
+     * @param executor the executor reading files, null to read them sequentially.
+     */
+    public void compareContents(List<ParquetDetails> first, List<ParquetDetails> second, ExecutorService executor)
+            throws IOException {
+        List<ParquetDetails> all = new ArrayList<>(first);
+        all.addAll(second);
+        List<String> columns = ParquetContentFingerprinter.findCommonColumns(all);
+        ParquetContentFingerprinter fingerprinter = new ParquetContentFingerprinter(parquetReader, executor);
+        Map<ParquetPartitions, ParquetContentFingerprint> firstPartitions =
+                ParquetComparator.mergeByPartitions(first, fingerprinter.fingerprint(first, columns));
+        Map<ParquetPartitions, ParquetContentFingerprint> secondPartitions =
+                ParquetComparator.mergeByPartitions(second, fingerprinter.fingerprint(second, columns));
+
+        List<ParquetPartitions> differentPartitions =
+                ParquetComparator.findDifferentPartitionsContent(firstPartitions, secondPartitions);
+        if (differentPartitions.isEmpty()) {
+            System.out.println(UNICODE_GREEN_CROSS + " Both Parquet datasets have the same content in columns "
+                    + columns + ".");
+            return;
+        }
+        System.out.println(UNICODE_RED_CROSS + " " + differentPartitions.size()
+                + " partitions have a different content in columns " + columns + ".");
+        for (ParquetPartitions partitions : differentPartitions) {
+            ParquetContentFingerprint firstFingerprint = firstPartitions.get(partitions);
+            ParquetContentFingerprint secondFingerprint = secondPartitions.get(partitions);
+            if (firstFingerprint == null) {
+                System.out.println(partitions + ": only in second dataset.");
+            } else if (secondFingerprint == null) {
+                System.out.println(partitions + ": only in first dataset.");
+            } else {
+                System.out.println(partitions + ": " + firstFingerprint.getNumRows() + " rows and "
+                        + secondFingerprint.getNumRows() + " rows, different columns "
+                        + firstFingerprint.findDifferentColumns(secondFingerprint) + ".");
+            }
+        }
+    }
+
+    /**
+     * Prints the partitions whose column statistics deviate from the neighbouring partitions. The reader must
+     * extract column statistics.
+     *
+     * @param parquets the Parquet files of the analyzed directory, as returned by {@link #run(String)}.
+     */
+    public void printColumnsDrift(List<ParquetDetails> parquets) {
+        List<ParquetColumnDrift> drifts = ParquetComparator.findColumnsDrift(parquets);
+        if (drifts.isEmpty()) {
+            System.out.println(UNICODE_GREEN_CROSS + " No column statistics drift between partitions.");
+            return;
+        }
+        System.out.println(UNICODE_LARGE_YELLOW_SQUARE + " " + drifts.size()
+                + " column statistics drift from the neighbouring partitions.");
+        drifts.forEach(drift -> drift.print(System.out));
+    }
+
+    /**
+     * Streams a directory while another one is listed, the other listing being stopped, or its stream closed, when
+     * this one fails.
+     */
+    private Stream<ParquetDetails> streamParquetDirectory(String directory, Future<Stream<ParquetDetails>> other)
+            throws IOException {
+        try {
+            return parquetReader.streamParquetDirectory(directory);
+        } catch (IOException | RuntimeException e) {
+            if (!other.cancel(true)) {
+                try {
+                    Futures.await(other).close();
+                } catch (IOException | RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private void printNewParquets(ParquetIncrementalScan scan) {
+        LOGGER.info("Found {} new or changed parquets files, {} parquets files in total",
+                scan.getChangedParquets().size(), scan.getParquets().size());
+        List<ParquetSchemaDiff> schemasDifferences = scan.findSchemasDifferences();
+        if (schemasDifferences.isEmpty()) {
+            System.out.println(UNICODE_GREEN_CROSS + " " + scan.getChangedParquets().size()
+                    + " new Parquet files have the reference schema.");
+        } else {
+            System.out.println(UNICODE_LARGE_YELLOW_SQUARE + " Parquet schemas differences found in new files.");
+            schemasDifferences.forEach(diff -> diff.print(System.out));
+        }
+    }
+
+    private List<ParquetDetails> runIncremental(String parquetDirectory) throws IOException {
+        ParquetIncrementalScan scan = parquetReader.scanParquetDirectory(parquetDirectory);
+        if (scan.getParquets().isEmpty()) {
+            LOGGER.info("No parquets files found");
+            return scan.getParquets();
+        }
+
+        LOGGER.info("Found {} partitions and {} parquets files, {} new or changed since the previous scan",
+                countNumberOfPartitions(scan.getParquets()), scan.getParquets().size(),
+                scan.getChangedParquets().size());
+        LOGGER.info("Total rows: {}", countNumberOfRows(scan.getParquets()));
+        printSchemasDifferences(scan.getReference().orElseThrow(), scan.findSchemasDifferences());
+        return scan.getParquets();
+    }
+
+    private List<ParquetDetails> readParquets(String parquetDirectory) throws IOException {
+        if (sampling == null) {
+            return parquetReader.readParquetDirectory(parquetDirectory);
+        }
+
+        ParquetSample sample = parquetReader.sampleParquetDirectory(parquetDirectory, sampling);
+        LOGGER.info("Sampled {} out of {} parquets files ({}), {} skipped", sample.getParquets().size(),
+                sample.getNumFiles(), sampling, sample.getSkippedFiles().size());
+        sample.getEscalatedPartitions().forEach(partition ->
+                LOGGER.info("Diverging schemas, all files read in {}", partition));
+        sample.getSkippedFiles().forEach(file -> LOGGER.debug("Skipped {}", file));
+        return sample.getParquets();
+    }
+
+    private void printSchemasGroups(List<ParquetSchemaGroup> groups) {
+        System.out.println("Found " + groups.size() + " distinct schemas:");
+        groups.forEach(group -> group.print(System.out));
+        printSchemasDifferences(groups.get(0).getRepresentative(),
+                ParquetComparator.findSchemasGroupsDifferences(groups, parquetReader.getMetrics()));
+    }
+
+    private void printSchemasDifferences(ParquetDetails reference, List<ParquetSchemaDiff> schemasDifferences) {
         if (schemasDifferences.isEmpty()) {
             System.out.println(UNICODE_GREEN_CROSS + " All Parquet partitions have the same schema.");
-            parquets.get(0).printSchema(System.out);
+            reference.printSchema(System.out);
         } else {
             System.out.println(UNICODE_LARGE_YELLOW_SQUARE + " Parquet schemas differences found.");
             System.out.println("Reference schema:");
-            parquets.get(0).printSchema(System.out);
+            reference.printSchema(System.out);
             schemasDifferences.forEach(diff -> diff.print(System.out));
         }
     }
@@ -71,17 +352,103 @@ public final class Main {
      * @param args CLI arguments.
      */
     public static void main(String[] args) {
-        if (args.length < 1) {
-            System.out.println("Usage: parquetdiff <parquet-path>");
+        MainOptions options = null;
+        try {
+            options = MainOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.out.println(MainOptions.USAGE);
             System.exit(1);
         }
 
-        try {
-            Main main = new Main(ParquetReader.getDefault());
-            main.run(args[0]);
+        // footers of both compared datasets are read ahead, with at least one thread per dataset
+        int footerThreads = options.getOtherParquetPath() != null
+                ? Math.max(2, options.getThreads())
+                : options.getThreads();
+        ExecutorService footerExecutor = footerThreads > 1 ? Executors.newFixedThreadPool(footerThreads) : null;
+        try (ParquetFooterCache footerCache = openFooterCache(options);
+             ParquetScanState scanState = openScanState(options)) {
+            if (options.getGenerator() != null) {
+                generate(options, footerExecutor);
+                return;
+            }
+            boolean incremental = scanState != null;
+            ParquetScanCounters counters = options.isMetrics() ? newScanCounters(options) : null;
+            ParquetReader.Builder builder = ParquetReader.builder(FileSystem.get(new Configuration()))
+                    .footerExecutor(footerExecutor)
+                    .listingParallelism(options.getListingThreads())
+                    .footerCache(footerCache)
+                    .summaryFiles(options.isSummaryFiles())
+                    .deltaLog(options.isDeltaLog())
+                    .columnStatistics(options.isColumnDrift())
+                    .metrics(counters != null ? counters : ParquetScanMetrics.NOOP)
+                    .scanState(incremental || !options.isWatch() ? scanState : ParquetScanState.inMemory());
+            options.getPartitionFilters().forEach(builder::partitionFilter);
+            ParquetReader parquetReader = builder.build();
+            Main main = new Main(parquetReader, options.isGroupBySchema(), options.getSampling(), incremental);
+            if (options.getOtherParquetPath() != null && options.isContentFingerprints()) {
+                // the streamed files are kept to fingerprint them without listing both directories again
+                List<ParquetDetails> first = new ArrayList<>();
+                List<ParquetDetails> second = new ArrayList<>();
+                main.compare(options.getParquetPath(), options.getOtherParquetPath(), first::add, second::add);
+                main.compareContents(first, second, footerExecutor);
+            } else if (options.getOtherParquetPath() != null) {
+                main.compare(options.getParquetPath(), options.getOtherParquetPath());
+            } else if (options.isWatch()) {
+                main.watch(options.getParquetPath(), Duration.ofSeconds(options.getPollInterval()));
+            } else {
+                List<ParquetDetails> parquets = main.run(options.getParquetPath());
+                if (options.isContentFingerprints()) {
+                    main.printSameContentFiles(parquets, footerExecutor);
+                }
+                if (options.isColumnDrift()) {
+                    main.printColumnsDrift(parquets);
+                }
+            }
+            if (counters != null) {
+                System.out.println("Scan metrics:");
+                System.out.println(counters);
+            }
         } catch (IOException e) {
             LOGGER.error("Error occurred", e);
             System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (footerExecutor != null) {
+                footerExecutor.shutdownNow();
+            }
+        }
+    }
+
+    private static void generate(MainOptions options, ExecutorService executor) throws IOException {
+        List<java.nio.file.Path> files = options.getGenerator()
+                .generate(Paths.get(options.getParquetPath()), executor);
+        System.out.println(UNICODE_GREEN_CROSS + " " + files.size() + " Parquet files generated in "
+                + options.getParquetPath());
+    }
+
+    private static ParquetScanCounters newScanCounters(MainOptions options) {
+        ParquetScanCounters counters = new ParquetScanCounters();
+        try {
+            LOGGER.info("Scan metrics exposed as JMX MBean {}", counters.registerMBean(options.getParquetPath()));
+        } catch (JMException e) {
+            LOGGER.warn("Could not register the scan metrics MBean", e);
+        }
+        return counters;
+    }
+
+    private static ParquetFooterCache openFooterCache(MainOptions options) throws IOException {
+        if (options.getFooterCacheDirectory() == null) {
+            return null;
+        }
+        return ParquetFooterCache.open(Paths.get(options.getFooterCacheDirectory()), options.getFooterCacheSize());
+    }
+
+    private static ParquetScanState openScanState(MainOptions options) throws IOException {
+        if (options.getStateFile() == null) {
+            return null;
         }
+        return ParquetScanState.open(Paths.get(options.getStateFile()));
     }
 }
@@ -0,0 +1,565 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartition;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartitionFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parsed command line arguments.
+ */
+final class MainOptions {
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: parquetdiff [watch] [options] <parquet-path> [<other-parquet-path>]",
+            "       parquetdiff generate [generate-options] <local-directory>",
+            "  With two paths, both datasets are compared partition by partition, both being listed and read",
+            "  concurrently.",
+            "Commands:",
+            "  watch                   Keep running and compare the new files to the reference schema as they land.",
+            "  generate                Write a synthetic partitioned dataset to an empty local directory.",
+            "Options:",
+            "  --threads <n>           Number of Parquet footers read concurrently (default: 1, 2 with two paths).",
+            "  --listing-threads <n>   Number of directories listed concurrently (default: 1).",
+            "  --footer-cache <dir>    Local directory caching footers of unchanged files between runs.",
+            "  --footer-cache-size <n> Maximum number of footers kept in the cache (default: 1000000).",
+            "  --group-by-schema       Group files by distinct schema and compare one file per schema.",
+            "  --partition <k=v1,v2>   Only read the partitions with one of the given values, repeatable.",
+            "  --partition-range <k=from..to>",
+            "                          Only read the partitions within the inclusive range, a bound can be empty.",
+            "  --partition-glob <k=glob>",
+            "                          Only read the partitions with a value matching the glob pattern.",
+            "  --partition-newest <k=n>",
+            "                          Only read the n greatest values of the partition, e.g. the last n days.",
+            "  --sample-files <n>      Only read n files per partition, including the first and the last ones.",
+            "  --sample-fraction <f>   Only read a fraction of the files per partition, within ]0, 1].",
+            "  --sample-escalate       Read all files of partitions whose sampled schemas diverge.",
+            "  --summary-files         Use the _metadata summary file of the directory when present.",
+            "  --delta-log             Discover the files from the _delta_log transaction log of a Delta table.",
+            "  --state <file>          Local file storing the scan state, only new or changed files are read and",
+            "                          compared to the reference schema, an interrupted scan is resumed.",
+            "  --poll-interval <s>     Seconds between two scans in watch mode (default: 10), local directories",
+            "                          are also scanned on change.",
+            "  --content-fingerprints  Read all rows and report files with the same content, or with two paths the",
+            "                          partitions whose content differs.",
+            "  --column-drift          Read the column statistics of the footers and report the partitions whose",
+            "                          null ratios, value counts or ranges deviate from the neighbouring ones.",
+            "  --metrics               Expose the scan metrics as a JMX MBean while running and print them at the",
+            "                          end: listings, footer reads, schema extraction and comparison.",
+            "Generate options:",
+            "  --threads <n>           Number of files written concurrently (default: 1).",
+            "  --partitions <depth>,<n>",
+            "                          Partition levels, 0 for none, and partitions per level (default: 1,2).",
+            "  --files <n>             Number of files per leaf partition (default: 1).",
+            "  --columns <n>,<depth>   Primitive columns and maximum nesting depth, 1 for flat (default: 20,1).",
+            "  --row-groups <n>        Number of row groups per file (default: 1).",
+            "  --rows <n>              Number of rows per row group (default: 10).",
+            "  --add-column <p=name>   Add a string column from the p-th leaf partition on, repeatable.",
+            "  --remove-column <p=name>",
+            "                          Remove a top-level column from the p-th leaf partition on, repeatable.",
+            "  --retype-column <p=name>",
+            "                          Change a top-level column to INT32 from the p-th leaf partition on,",
+            "                          repeatable.");
+    static final int DEFAULT_POLL_INTERVAL = 10;
+    static final int DEFAULT_FOOTER_CACHE_SIZE = 1_000_000;
+
+    private static final String THREADS_OPTION = "--threads";
+    private static final String LISTING_THREADS_OPTION = "--listing-threads";
+    private static final String FOOTER_CACHE_OPTION = "--footer-cache";
+    private static final String FOOTER_CACHE_SIZE_OPTION = "--footer-cache-size";
+    private static final String GROUP_BY_SCHEMA_OPTION = "--group-by-schema";
+    private static final String PARTITION_OPTION = "--partition";
+    private static final String PARTITION_RANGE_OPTION = "--partition-range";
+    private static final String PARTITION_GLOB_OPTION = "--partition-glob";
+    private static final String PARTITION_NEWEST_OPTION = "--partition-newest";
+    private static final String SAMPLE_FILES_OPTION = "--sample-files";
+    private static final String SAMPLE_FRACTION_OPTION = "--sample-fraction";
+    private static final String SAMPLE_ESCALATE_OPTION = "--sample-escalate";
+    private static final String SUMMARY_FILES_OPTION = "--summary-files";
+    private static final String DELTA_LOG_OPTION = "--delta-log";
+    private static final String STATE_OPTION = "--state";
+    private static final String POLL_INTERVAL_OPTION = "--poll-interval";
+    private static final String CONTENT_FINGERPRINTS_OPTION = "--content-fingerprints";
+    private static final String COLUMN_DRIFT_OPTION = "--column-drift";
+    private static final String METRICS_OPTION = "--metrics";
+    private static final String PARTITIONS_OPTION = "--partitions";
+    private static final String FILES_OPTION = "--files";
+    private static final String COLUMNS_OPTION = "--columns";
+    private static final String ROW_GROUPS_OPTION = "--row-groups";
+    private static final String ROWS_OPTION = "--rows";
+    private static final String ADD_COLUMN_OPTION = "--add-column";
+    private static final String REMOVE_COLUMN_OPTION = "--remove-column";
+    private static final String RETYPE_COLUMN_OPTION = "--retype-column";
+    private static final String WATCH_COMMAND = "watch";
+    private static final String GENERATE_COMMAND = "generate";
+    private static final String RANGE_SEPARATOR = "..";
+
+    private final String parquetPath;
+    private final String otherParquetPath;
+    private final int threads;
+    private final int listingThreads;
+    private final String footerCacheDirectory;
+    private final int footerCacheSize;
+    private final boolean groupBySchema;
+    private final List<ParquetPartitionFilter> partitionFilters;
+    private final ParquetSampling sampling;
+    private final boolean summaryFiles;
+    private final boolean deltaLog;
+    private final String stateFile;
+    private final boolean watch;
+    private final int pollInterval;
+    private final boolean contentFingerprints;
+    private final boolean columnDrift;
+    private final boolean metrics;
+    private final ParquetDatasetGenerator generator;
+
+    private MainOptions(Builder builder) {
+        this.parquetPath = builder.parquetPath;
+        this.otherParquetPath = builder.otherParquetPath;
+        this.threads = builder.threads;
+        this.listingThreads = builder.listingThreads;
+        this.footerCacheDirectory = builder.footerCacheDirectory;
+        this.footerCacheSize = builder.footerCacheSize;
+        this.groupBySchema = builder.groupBySchema;
+        this.partitionFilters = List.copyOf(builder.partitionFilters);
+        this.sampling = builder.sampling != null && builder.sampleEscalation
+                ? builder.sampling.withEscalation()
+                : builder.sampling;
+        this.summaryFiles = builder.summaryFiles;
+        this.deltaLog = builder.deltaLog;
+        this.stateFile = builder.stateFile;
+        this.watch = builder.watch;
+        this.pollInterval = builder.pollInterval;
+        this.contentFingerprints = builder.contentFingerprints;
+        this.columnDrift = builder.columnDrift;
+        this.metrics = builder.metrics;
+        this.generator = builder.generator;
+    }
+
+    /**
+     * Parses the CLI arguments. Options accept both "--option value" and "--option=value" forms, flags take no
+     * value.
+     *
+     * @param args CLI arguments.
+     * @return The parsed options.
+     * @throws IllegalArgumentException if the arguments are invalid.
+     */
+    static MainOptions parse(String[] args) throws IllegalArgumentException {
+        if (args.length > 0 && GENERATE_COMMAND.equals(args[0])) {
+            return parseGenerate(args);
+        }
+        Builder options = new Builder();
+
+        int first = 0;
+        if (args.length > 0 && WATCH_COMMAND.equals(args[0])) {
+            options.watch = true;
+            first = 1;
+        }
+        for (int i = first; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                if (options.parquetPath == null) {
+                    options.parquetPath = arg;
+                } else if (options.otherParquetPath == null) {
+                    options.otherParquetPath = arg;
+                } else {
+                    throw new IllegalArgumentException("Unexpected argument: " + arg);
+                }
+                continue;
+            }
+            if (GROUP_BY_SCHEMA_OPTION.equals(arg)) {
+                options.groupBySchema = true;
+                continue;
+            }
+            if (SAMPLE_ESCALATE_OPTION.equals(arg)) {
+                options.sampleEscalation = true;
+                continue;
+            }
+            if (SUMMARY_FILES_OPTION.equals(arg)) {
+                options.summaryFiles = true;
+                continue;
+            }
+            if (DELTA_LOG_OPTION.equals(arg)) {
+                options.deltaLog = true;
+                continue;
+            }
+            if (CONTENT_FINGERPRINTS_OPTION.equals(arg)) {
+                options.contentFingerprints = true;
+                continue;
+            }
+            if (COLUMN_DRIFT_OPTION.equals(arg)) {
+                options.columnDrift = true;
+                continue;
+            }
+            if (METRICS_OPTION.equals(arg)) {
+                options.metrics = true;
+                continue;
+            }
+
+            String name = arg;
+            String value;
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                name = arg.substring(0, separator);
+                value = arg.substring(separator + 1);
+            } else if (i + 1 < args.length) {
+                value = args[++i];
+            } else {
+                throw new IllegalArgumentException("Missing value for option: " + arg);
+            }
+
+            if (THREADS_OPTION.equals(name)) {
+                options.threads = parsePositiveInt(name, value);
+            } else if (LISTING_THREADS_OPTION.equals(name)) {
+                options.listingThreads = parsePositiveInt(name, value);
+            } else if (FOOTER_CACHE_OPTION.equals(name)) {
+                options.footerCacheDirectory = value;
+            } else if (FOOTER_CACHE_SIZE_OPTION.equals(name)) {
+                options.footerCacheSize = parsePositiveInt(name, value);
+            } else if (name.startsWith(PARTITION_OPTION)) {
+                options.partitionFilters.add(parsePartitionFilter(name, value));
+            } else if (SAMPLE_FILES_OPTION.equals(name)) {
+                options.sampling = ParquetSampling.maxFilesPerPartition(parsePositiveInt(name, value));
+            } else if (SAMPLE_FRACTION_OPTION.equals(name)) {
+                options.sampling = ParquetSampling.fraction(parseFraction(name, value));
+            } else if (STATE_OPTION.equals(name)) {
+                options.stateFile = value;
+            } else if (POLL_INTERVAL_OPTION.equals(name)) {
+                options.pollInterval = parsePositiveInt(name, value);
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + name);
+            }
+        }
+
+        if (options.parquetPath == null) {
+            throw new IllegalArgumentException("Missing Parquet path");
+        }
+        if (options.sampleEscalation && options.sampling == null) {
+            throw new IllegalArgumentException(SAMPLE_ESCALATE_OPTION + " requires " + SAMPLE_FILES_OPTION + " or "
+                    + SAMPLE_FRACTION_OPTION);
+        }
+        if (options.stateFile != null && (options.sampling != null || options.groupBySchema)) {
+            throw new IllegalArgumentException(STATE_OPTION + " can't be combined with sampling or "
+                    + GROUP_BY_SCHEMA_OPTION);
+        }
+        if (options.watch && (options.sampling != null || options.groupBySchema)) {
+            throw new IllegalArgumentException(WATCH_COMMAND + " can't be combined with sampling or "
+                    + GROUP_BY_SCHEMA_OPTION);
+        }
+        if (options.otherParquetPath != null && (options.sampling != null || options.groupBySchema
+                || options.stateFile != null || options.watch)) {
+            throw new IllegalArgumentException("Comparing two datasets can't be combined with sampling, "
+                    + GROUP_BY_SCHEMA_OPTION + ", " + STATE_OPTION + " or " + WATCH_COMMAND);
+        }
+        if (options.contentFingerprints && (options.sampling != null || options.stateFile != null
+                || options.watch)) {
+            throw new IllegalArgumentException(CONTENT_FINGERPRINTS_OPTION + " can't be combined with sampling, "
+                    + STATE_OPTION + " or " + WATCH_COMMAND);
+        }
+        if (options.columnDrift && (options.sampling != null || options.stateFile != null || options.watch
+                || options.otherParquetPath != null)) {
+            throw new IllegalArgumentException(COLUMN_DRIFT_OPTION + " can't be combined with sampling, "
+                    + STATE_OPTION + ", " + WATCH_COMMAND + " or two datasets");
+        }
+        return new MainOptions(options);
+    }
+
+    /**
+     * The generate command only accepts the generator options, its path is the local directory to write.
+     */
+    private static MainOptions parseGenerate(String[] args) throws IllegalArgumentException {
+        Builder options = new Builder();
+        ParquetDatasetGenerator.Builder generator = ParquetDatasetGenerator.builder();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                if (options.parquetPath != null) {
+                    throw new IllegalArgumentException("Unexpected argument: " + arg);
+                }
+                options.parquetPath = arg;
+                continue;
+            }
+
+            String name = arg;
+            String value;
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                name = arg.substring(0, separator);
+                value = arg.substring(separator + 1);
+            } else if (i + 1 < args.length) {
+                value = args[++i];
+            } else {
+                throw new IllegalArgumentException("Missing value for option: " + arg);
+            }
+
+            if (THREADS_OPTION.equals(name)) {
+                options.threads = parsePositiveInt(name, value);
+            } else if (PARTITIONS_OPTION.equals(name)) {
+                int[] partitions = parseIntPair(name, value);
+                generator.partitions(partitions[0], partitions[1]);
+            } else if (FILES_OPTION.equals(name)) {
+                generator.files(parsePositiveInt(name, value));
+            } else if (COLUMNS_OPTION.equals(name)) {
+                int[] columns = parseIntPair(name, value);
+                generator.columns(columns[0], columns[1]);
+            } else if (ROW_GROUPS_OPTION.equals(name)) {
+                generator.rowGroups(parsePositiveInt(name, value));
+            } else if (ROWS_OPTION.equals(name)) {
+                generator.rows(parsePositiveInt(name, value));
+            } else if (ADD_COLUMN_OPTION.equals(name)) {
+                ParquetPartition event = parseSchemaEvent(name, value);
+                generator.addColumn(Integer.parseInt(event.getKey()), event.getValue());
+            } else if (REMOVE_COLUMN_OPTION.equals(name)) {
+                ParquetPartition event = parseSchemaEvent(name, value);
+                generator.removeColumn(Integer.parseInt(event.getKey()), event.getValue());
+            } else if (RETYPE_COLUMN_OPTION.equals(name)) {
+                ParquetPartition event = parseSchemaEvent(name, value);
+                generator.retypeColumn(Integer.parseInt(event.getKey()), event.getValue());
+            } else {
+                throw new IllegalArgumentException("Unknown option for " + GENERATE_COMMAND + ": " + name);
+            }
+        }
+
+        if (options.parquetPath == null) {
+            throw new IllegalArgumentException("Missing directory to generate");
+        }
+        options.generator = generator.build();
+        return new MainOptions(options);
+    }
+
+    /**
+     * Schema evolution events are "partition=column", parsed like partition directory names.
+     */
+    private static ParquetPartition parseSchemaEvent(String name, String value) {
+        try {
+            ParquetPartition event = ParquetPartition.fromString(value);
+            if (Integer.parseInt(event.getKey()) >= 0 && !event.getValue().isEmpty()) {
+                return event;
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below, NumberFormatException included
+        }
+        throw new IllegalArgumentException("Invalid value for " + name + ", expected partition=column: " + value);
+    }
+
+    private static int[] parseIntPair(String name, String value) {
+        String[] parts = value.split(",", -1);
+        try {
+            if (parts.length == 2) {
+                return new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid value for " + name + ", expected two numbers a,b: " + value);
+    }
+
+    /**
+     * Partition filters values are "key=spec", parsed like partition directory names.
+     */
+    private static ParquetPartitionFilter parsePartitionFilter(String name, String value) {
+        ParquetPartition partition;
+        try {
+            partition = ParquetPartition.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value for " + name + ", expected key=value: " + value);
+        }
+        String key = partition.getKey();
+        String spec = partition.getValue();
+
+        if (PARTITION_OPTION.equals(name)) {
+            return ParquetPartitionFilter.in(key, spec.split(","));
+        } else if (PARTITION_RANGE_OPTION.equals(name)) {
+            int separator = spec.indexOf(RANGE_SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid value for " + name + ", expected key=from..to: " + value);
+            }
+            String from = spec.substring(0, separator);
+            String to = spec.substring(separator + RANGE_SEPARATOR.length());
+            return ParquetPartitionFilter.between(key, from.isEmpty() ? null : from, to.isEmpty() ? null : to);
+        } else if (PARTITION_GLOB_OPTION.equals(name)) {
+            return ParquetPartitionFilter.glob(key, spec);
+        } else if (PARTITION_NEWEST_OPTION.equals(name)) {
+            return ParquetPartitionFilter.newest(key, parsePositiveInt(name, spec));
+        }
+        throw new IllegalArgumentException("Unknown option: " + name);
+    }
+
+    private static double parseFraction(String name, String value) {
+        try {
+            double result = Double.parseDouble(value);
+            if (result > 0 && result <= 1) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid value for " + name + ", expected a number within ]0, 1]: "
+                + value);
+    }
+
+    private static int parsePositiveInt(String name, String value) {
+        try {
+            int result = Integer.parseInt(value);
+            if (result > 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid value for " + name + ", expected a positive number: " + value);
+    }
+
+    /**
+     * @return the Parquet directory to analyze.
+     */
+    String getParquetPath() {
+        return parquetPath;
+    }
+
+    /**
+     * @return the Parquet directory compared to the first one partition by partition, null to analyze a single
+     * directory.
+     */
+    String getOtherParquetPath() {
+        return otherParquetPath;
+    }
+
+    /**
+     * @return the number of Parquet footers read concurrently.
+     */
+    int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return the number of directories listed concurrently.
+     */
+    int getListingThreads() {
+        return listingThreads;
+    }
+
+    /**
+     * @return the local directory of the footer cache, null if footers are not cached.
+     */
+    String getFooterCacheDirectory() {
+        return footerCacheDirectory;
+    }
+
+    /**
+     * @return the maximum number of footers kept in the cache.
+     */
+    int getFooterCacheSize() {
+        return footerCacheSize;
+    }
+
+    /**
+     * @return whether files are grouped by distinct schema.
+     */
+    boolean isGroupBySchema() {
+        return groupBySchema;
+    }
+
+    /**
+     * @return the filters selecting the partitions to read, empty to read all partitions.
+     */
+    List<ParquetPartitionFilter> getPartitionFilters() {
+        return partitionFilters;
+    }
+
+    /**
+     * @return the sampling of the files read in each partition, null to read all files.
+     */
+    ParquetSampling getSampling() {
+        return sampling;
+    }
+
+    /**
+     * @return whether the _metadata summary file of the directory is used when present.
+     */
+    boolean isSummaryFiles() {
+        return summaryFiles;
+    }
+
+    /**
+     * @return whether the files are discovered from the Delta transaction log of the directory.
+     */
+    boolean isDeltaLog() {
+        return deltaLog;
+    }
+
+    /**
+     * @return the local file storing the scan state of incremental scans, null for a full scan.
+     */
+    String getStateFile() {
+        return stateFile;
+    }
+
+    /**
+     * @return whether the directory is watched, new files being compared to the reference schema as they land.
+     */
+    boolean isWatch() {
+        return watch;
+    }
+
+    /**
+     * @return the number of seconds between two scans in watch mode.
+     */
+    int getPollInterval() {
+        return pollInterval;
+    }
+
+    /**
+     * @return whether the content of the files is fingerprinted, reading all their rows.
+     */
+    boolean isContentFingerprints() {
+        return contentFingerprints;
+    }
+
+    /**
+     * @return whether the column statistics of the footers are read to report drifting partitions.
+     */
+    boolean isColumnDrift() {
+        return columnDrift;
+    }
+
+    /**
+     * @return whether the scan metrics are exposed as a JMX MBean and printed at the end.
+     */
+    boolean isMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the generator of the synthetic dataset written to the Parquet path, null unless the generate command
+     * is used.
+     */
+    ParquetDatasetGenerator getGenerator() {
+        return generator;
+    }
+
+    /**
+     * Options being parsed, with their default values.
+     */
+    private static final class Builder {
+        private final List<ParquetPartitionFilter> partitionFilters = new ArrayList<>();
+        private String parquetPath;
+        private String otherParquetPath;
+        private int threads = 1;
+        private int listingThreads = 1;
+        private String footerCacheDirectory;
+        private int footerCacheSize = DEFAULT_FOOTER_CACHE_SIZE;
+        private boolean groupBySchema;
+        private ParquetSampling sampling;
+        private boolean sampleEscalation;
+        private boolean summaryFiles;
+        private boolean deltaLog;
+        private String stateFile;
+        private boolean watch;
+        private int pollInterval = DEFAULT_POLL_INTERVAL;
+        private boolean contentFingerprints;
+        private boolean columnDrift;
+        private boolean metrics;
+        private ParquetDatasetGenerator generator;
+    }
+}
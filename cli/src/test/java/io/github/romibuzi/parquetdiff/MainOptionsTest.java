@@ -0,0 +1,226 @@
+package io.github.romibuzi.parquetdiff;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MainOptionsTest {
+    @Test
+    void parsePathOnly() {
+        MainOptions options = MainOptions.parse(new String[]{"/data.parquet"});
+        assertEquals("/data.parquet", options.getParquetPath());
+        assertEquals(1, options.getThreads());
+        assertEquals(1, options.getListingThreads());
+        assertFalse(options.isGroupBySchema());
+        assertFalse(options.isSummaryFiles());
+    }
+
+    @Test
+    void parseThreads() {
+        MainOptions options = MainOptions.parse(new String[]{"--threads", "8", "/data.parquet"});
+        assertEquals("/data.parquet", options.getParquetPath());
+        assertEquals(8, options.getThreads());
+    }
+
+    @Test
+    void parseThreadsWithEqualSign() {
+        MainOptions options = MainOptions.parse(new String[]{"/data.parquet", "--threads=4"});
+        assertEquals(4, options.getThreads());
+    }
+
+    @Test
+    void parseListingThreads() {
+        MainOptions options = MainOptions.parse(new String[]{"--listing-threads", "32", "/data.parquet"});
+        assertEquals(32, options.getListingThreads());
+    }
+
+    @Test
+    void parseFooterCache() {
+        MainOptions options = MainOptions.parse(new String[]{"--footer-cache", "/tmp/cache", "/data.parquet"});
+        assertEquals("/tmp/cache", options.getFooterCacheDirectory());
+        assertEquals(MainOptions.DEFAULT_FOOTER_CACHE_SIZE, options.getFooterCacheSize());
+
+        options = MainOptions.parse(new String[]{"--footer-cache=/tmp/cache", "--footer-cache-size=10", "/data"});
+        assertEquals(10, options.getFooterCacheSize());
+    }
+
+    @Test
+    void parseGroupBySchema() {
+        MainOptions options = MainOptions.parse(new String[]{"--group-by-schema", "/data.parquet", "--threads", "2"});
+        assertEquals("/data.parquet", options.getParquetPath());
+        assertTrue(options.isGroupBySchema());
+        assertFalse(options.isSummaryFiles());
+        assertTrue(MainOptions.parse(new String[]{"--summary-files", "/data.parquet"}).isSummaryFiles());
+        assertFalse(options.isDeltaLog());
+        assertTrue(MainOptions.parse(new String[]{"--delta-log", "/table"}).isDeltaLog());
+        assertEquals(2, options.getThreads());
+    }
+
+    @Test
+    void parsePartitionFilters() {
+        MainOptions options = MainOptions.parse(new String[]{"--partition", "country=France,Spain",
+                "--partition-range=date=2024-01-01..", "--partition-glob", "hour=0*",
+                "--partition-newest", "date=7", "/data.parquet"});
+        assertEquals(List.of("country in France, Spain", "date between 2024-01-01 and *", "hour matches 0*",
+                        "date newest 7"),
+                options.getPartitionFilters().stream().map(Object::toString).collect(Collectors.toList()));
+    }
+
+    @Test
+    void parseInvalidPartitionFilter() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> MainOptions.parse(new String[]{"--partition-range", "date=2024-01-01", "/data.parquet"}));
+        assertEquals("Invalid value for --partition-range, expected key=from..to: date=2024-01-01",
+                exception.getMessage());
+    }
+
+    @Test
+    void parseSampling() {
+        assertNull(MainOptions.parse(new String[]{"/data.parquet"}).getSampling());
+
+        MainOptions options = MainOptions.parse(new String[]{"--sample-files", "4", "--sample-escalate", "/data"});
+        assertEquals("4 files per partition, with escalation", options.getSampling().toString());
+
+        options = MainOptions.parse(new String[]{"--sample-fraction=0.5", "/data"});
+        assertEquals("50.0% of files per partition", options.getSampling().toString());
+    }
+
+    @Test
+    void parseInvalidSampling() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> MainOptions.parse(new String[]{"--sample-fraction", "2", "/data.parquet"}));
+        assertEquals("Invalid value for --sample-fraction, expected a number within ]0, 1]: 2",
+                exception.getMessage());
+
+        exception = assertThrows(IllegalArgumentException.class,
+                () -> MainOptions.parse(new String[]{"--sample-escalate", "/data.parquet"}));
+        assertEquals("--sample-escalate requires --sample-files or --sample-fraction", exception.getMessage());
+    }
+
+    @Test
+    void parseState() {
+        assertNull(MainOptions.parse(new String[]{"/data.parquet"}).getStateFile());
+        assertEquals("/tmp/data.state",
+                MainOptions.parse(new String[]{"--state", "/tmp/data.state", "/data.parquet"}).getStateFile());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> MainOptions.parse(new String[]{"--state", "/tmp/data.state", "--group-by-schema", "/data"}));
+        assertEquals("--state can't be combined with sampling or --group-by-schema", exception.getMessage());
+    }
+
+    @Test
+    void parseWatch() {
+        MainOptions options = MainOptions.parse(new String[]{"/data.parquet"});
+        assertFalse(options.isWatch());
+        assertEquals(MainOptions.DEFAULT_POLL_INTERVAL, options.getPollInterval());
+
+        options = MainOptions.parse(new String[]{"watch", "--poll-interval", "30", "/data.parquet"});
+        assertTrue(options.isWatch());
+        assertEquals(30, options.getPollInterval());
+        assertEquals("/data.parquet", options.getParquetPath());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> MainOptions.parse(new String[]{"watch", "--sample-files", "4", "/data.parquet"}));
+        assertEquals("watch can't be combined with sampling or --group-by-schema", exception.getMessage());
+    }
+
+    @Test
+    void parseTwoDatasets() {
+        assertNull(MainOptions.parse(new String[]{"/data.parquet"}).getOtherParquetPath());
+
+        MainOptions options = MainOptions.parse(new String[]{"/old.parquet", "--threads", "8", "/new.parquet"});
+        assertEquals("/old.parquet", options.getParquetPath());
+        assertEquals("/new.parquet", options.getOtherParquetPath());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> MainOptions.parse(new String[]{"/old.parquet", "/new.parquet", "/other.parquet"}));
+        assertEquals("Unexpected argument: /other.parquet", exception.getMessage());
+    }
+
+    @Test
+    void parseContentFingerprints() {
+        assertFalse(MainOptions.parse(new String[]{"/data.parquet"}).isContentFingerprints());
+        assertTrue(MainOptions.parse(new String[]{"--content-fingerprints", "/data.parquet"})
+                .isContentFingerprints());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> MainOptions.parse(new String[]{"--content-fingerprints", "--sample-files", "2", "/data"}));
+        assertEquals("--content-fingerprints can't be combined with sampling, --state or watch",
+                exception.getMessage());
+    }
+
+    @Test
+    void parseColumnDrift() {
+        assertFalse(MainOptions.parse(new String[]{"/data.parquet"}).isColumnDrift());
+        assertTrue(MainOptions.parse(new String[]{"--column-drift", "/data.parquet"}).isColumnDrift());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> MainOptions.parse(new String[]{"--column-drift", "/first", "/second"}));
+        assertEquals("--column-drift can't be combined with sampling, --state, watch or two datasets",
+                exception.getMessage());
+    }
+
+    @Test
+    void parseMetrics() {
+        assertFalse(MainOptions.parse(new String[]{"/data.parquet"}).isMetrics());
+        assertTrue(MainOptions.parse(new String[]{"--metrics", "/data.parquet"}).isMetrics());
+    }
+
+    @Test
+    void parseGenerate() {
+        assertNull(MainOptions.parse(new String[]{"/data.parquet"}).getGenerator());
+
+        MainOptions options = MainOptions.parse(new String[]{"generate", "--threads", "4", "--partitions", "2,3",
+                "--files=2", "--columns", "50,3", "--row-groups", "2", "--rows", "5", "--add-column", "4=added",
+                "--retype-column=6=column_1", "/tmp/generated"});
+        assertEquals("/tmp/generated", options.getParquetPath());
+        assertEquals(4, options.getThreads());
+        assertNotNull(options.getGenerator());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> MainOptions.parse(new String[]{"generate", "--group-by-schema", "/tmp/generated"}));
+        assertEquals("Unknown option for generate: --group-by-schema", exception.getMessage());
+
+        exception = assertThrows(IllegalArgumentException.class,
+                () -> MainOptions.parse(new String[]{"generate", "--partitions", "2", "/tmp/generated"}));
+        assertEquals("Invalid value for --partitions, expected two numbers a,b: 2", exception.getMessage());
+
+        exception = assertThrows(IllegalArgumentException.class,
+                () -> MainOptions.parse(new String[]{"generate", "--remove-column", "x=column_1", "/tmp/generated"}));
+        assertEquals("Invalid value for --remove-column, expected partition=column: x=column_1",
+                exception.getMessage());
+
+        exception = assertThrows(IllegalArgumentException.class,
+                () -> MainOptions.parse(new String[]{"generate", "--threads", "2"}));
+        assertEquals("Missing directory to generate", exception.getMessage());
+    }
+
+    @Test
+    void parseInvalidThreads() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> MainOptions.parse(new String[]{"--threads", "0", "/data.parquet"}));
+        assertEquals("Invalid value for --threads, expected a positive number: 0", exception.getMessage());
+    }
+
+    @Test
+    void parseMissingPath() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> MainOptions.parse(new String[]{"--threads", "2"}));
+        assertEquals("Missing Parquet path", exception.getMessage());
+    }
+
+    @Test
+    void parseUnknownOption() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> MainOptions.parse(new String[]{"--unknown", "2", "/data.parquet"}));
+        assertEquals("Unknown option: --unknown", exception.getMessage());
+    }
+}
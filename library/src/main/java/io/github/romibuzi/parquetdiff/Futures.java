@@ -0,0 +1,89 @@
+package io.github.romibuzi.parquetdiff;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Helpers to wait for tasks submitted by the reader while preserving {@link IOException}s.
+ */
+final class Futures {
+    private Futures() {
+    }
+
+    /**
+     * Waits for the given task and rethrows its failure as thrown by the task.
+     *
+     * @param future The task to wait for.
+     * @param <T>    The task result type.
+     * @return The task result.
+     * @throws IOException If the task failed with an IOException or if the current thread got interrupted.
+     */
+    static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a Parquet task");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Runs the tasks on the executor, or sequentially in the current thread without executor. Pending tasks are
+     * cancelled when one of them fails.
+     *
+     * @param executor The executor running the tasks, null to run them sequentially.
+     * @param tasks    The tasks to run.
+     * @param <T>      The tasks result type.
+     * @return The results of the tasks, in order.
+     * @throws IOException If a task failed with an IOException or if the current thread got interrupted.
+     */
+    static <T> List<T> runAll(ExecutorService executor, List<Callable<T>> tasks) throws IOException {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (executor == null) {
+            for (Callable<T> task : tasks) {
+                results.add(call(task));
+            }
+            return results;
+        }
+
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<T> future : futures) {
+                results.add(await(future));
+            }
+        } finally {
+            // no-op for completed futures, stops pending tasks when one of them failed
+            futures.forEach(future -> future.cancel(true));
+        }
+        return results;
+    }
+
+    private static <T> T call(Callable<T> task) throws IOException {
+        try {
+            return task.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+}
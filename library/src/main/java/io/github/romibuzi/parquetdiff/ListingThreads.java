@@ -0,0 +1,27 @@
+package io.github.romibuzi.parquetdiff;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads used to list directories concurrently.
+ * On Java 21 and above, the multi-release JAR replaces this class with a virtual threads implementation.
+ */
+final class ListingThreads {
+    private ListingThreads() {
+    }
+
+    /**
+     * @param parallelism The maximum number of directories listed at the same time.
+     * @return A new executor backed by a fixed pool of daemon platform threads.
+     */
+    static ExecutorService newExecutor(int parallelism) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "parquetdiff-listing-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetContentFingerprint;
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * Computes the content fingerprints of Parquet files, see {@link ParquetContentFingerprint}. Example:
+ * <pre>{@code
+ * List<ParquetDetails> parquets = reader.readParquetDirectory("my_data.parquet");
+ * ParquetContentFingerprinter fingerprinter = new ParquetContentFingerprinter(reader, executor);
+ * List<ParquetContentFingerprint> fingerprints = fingerprinter.fingerprint(parquets,
+ *         ParquetContentFingerprinter.findCommonColumns(parquets));
+ * ParquetComparator.findSameContentFiles(parquets, fingerprints).forEach(System.out::println);
+ * }</pre>
+ * <p>
+ * All rows of each file are read, but only the fingerprinted columns. Binary values, strings included, are hashed from
+ * their bytes rather than from their UTF-8 decoding, and decimals from their value and scale. Lists and groups are
+ * hashed from a length-prefixed encoding of their elements and fields, nulls included, rather than from their
+ * display. Files are read concurrently with the given executor. Fingerprints of partitions are merged from the
+ * fingerprints of their files, see
+ * {@link io.github.romibuzi.parquetdiff.diff.ParquetComparator#mergeByPartitions(List, List)}.
+ */
+public final class ParquetContentFingerprinter {
+    private final ParquetReader parquetReader;
+    private final ExecutorService executor;
+
+    /**
+     * @param parquetReader The reader of the Parquet files, whose filesystem is used to read rows.
+     * @param executor      The executor reading files, null to read them sequentially. It is not shut down by the
+     *                      fingerprinter.
+     */
+    public ParquetContentFingerprinter(ParquetReader parquetReader, ExecutorService executor) {
+        this.parquetReader = parquetReader;
+        this.executor = executor;
+    }
+
+    /**
+     * Fingerprints the rows of the given files.
+     *
+     * @param parquets The Parquet files to read.
+     * @param columns  The fingerprinted columns, top-level columns of the files or partition keys.
+     * @return The fingerprints of the files, in the same order.
+     * @throws IOException If a file can't be read.
+     */
+    public List<ParquetContentFingerprint> fingerprint(List<ParquetDetails> parquets, List<String> columns)
+            throws IOException {
+        List<String> fingerprintedColumns = List.copyOf(columns);
+        List<Callable<ParquetContentFingerprint>> tasks = new ArrayList<>(parquets.size());
+        for (ParquetDetails parquet : parquets) {
+            tasks.add(() -> fingerprint(parquet, fingerprintedColumns));
+        }
+        return Futures.runAll(executor, tasks);
+    }
+
+    /**
+     * Columns are sorted by name, so that datasets whose files have the same columns in different orders have equal
+     * fingerprints.
+     *
+     * @param parquets Parquet files, of one or several datasets.
+     * @return The top-level columns present in all files, sorted by name.
+     */
+    public static List<String> findCommonColumns(List<ParquetDetails> parquets) {
+        Set<String> commonColumns = null;
+        for (ParquetDetails parquet : parquets) {
+            Set<String> fileColumns = parquet.getSchema().getChildren().stream()
+                    .map(ParquetSchemaNode::getName)
+                    .collect(Collectors.toCollection(TreeSet::new));
+            if (commonColumns == null) {
+                commonColumns = fileColumns;
+            } else {
+                commonColumns.retainAll(fileColumns);
+            }
+        }
+        return commonColumns == null ? List.of() : new ArrayList<>(commonColumns);
+    }
+
+    private ParquetContentFingerprint fingerprint(ParquetDetails parquet, List<String> columns) throws IOException {
+        ParquetContentFingerprint.Accumulator accumulator = ParquetContentFingerprint.accumulator(columns);
+        try (ParquetRowReader rowReader = new ParquetRowReader(parquetReader.getFileSystem().getConf(), parquet,
+                columns, true)) {
+            for (String[] row = rowReader.read(); row != null; row = rowReader.read()) {
+                accumulator.add(row);
+            }
+        }
+        return accumulator.toFingerprint();
+    }
+}
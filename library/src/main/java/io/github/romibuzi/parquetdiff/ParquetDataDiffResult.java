@@ -0,0 +1,113 @@
+package io.github.romibuzi.parquetdiff;
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The counts of a data diff between two Parquet datasets, see {@link ParquetDataDiffer}.
+ */
+public final class ParquetDataDiffResult {
+    private final List<String> keyColumns;
+    private final List<String> comparedColumns;
+    private final long firstNumRows;
+    private final long secondNumRows;
+    private final long missingRows;
+    private final long extraRows;
+    private final long changedRows;
+
+    /**
+     * @param keyColumns      The key columns.
+     * @param comparedColumns The compared columns.
+     * @param firstNumRows    The number of rows read in the first dataset.
+     * @param secondNumRows   The number of rows read in the second dataset.
+     * @param missingRows     The number of rows only in the first dataset.
+     * @param extraRows       The number of rows only in the second dataset.
+     * @param changedRows     The number of rows with different values.
+     */
+    ParquetDataDiffResult(List<String> keyColumns, List<String> comparedColumns, long firstNumRows,
+                          long secondNumRows, long missingRows, long extraRows, long changedRows) {
+        this.keyColumns = keyColumns;
+        this.comparedColumns = comparedColumns;
+        this.firstNumRows = firstNumRows;
+        this.secondNumRows = secondNumRows;
+        this.missingRows = missingRows;
+        this.extraRows = extraRows;
+        this.changedRows = changedRows;
+    }
+
+    /**
+     * @return The key columns.
+     */
+    public List<String> getKeyColumns() {
+        return Collections.unmodifiableList(keyColumns);
+    }
+
+    /**
+     * @return The compared columns, besides the key columns.
+     */
+    public List<String> getComparedColumns() {
+        return Collections.unmodifiableList(comparedColumns);
+    }
+
+    /**
+     * @return The number of rows read in the first dataset.
+     */
+    public long getFirstNumRows() {
+        return firstNumRows;
+    }
+
+    /**
+     * @return The number of rows read in the second dataset.
+     */
+    public long getSecondNumRows() {
+        return secondNumRows;
+    }
+
+    /**
+     * @return The number of rows of the first dataset whose key is not in the second dataset.
+     */
+    public long getMissingRows() {
+        return missingRows;
+    }
+
+    /**
+     * @return The number of rows of the second dataset whose key is not in the first dataset.
+     */
+    public long getExtraRows() {
+        return extraRows;
+    }
+
+    /**
+     * @return The number of rows whose key is in both datasets, with different values.
+     */
+    public long getChangedRows() {
+        return changedRows;
+    }
+
+    /**
+     * @return The number of rows whose key is in both datasets, with the same values.
+     */
+    public long getMatchingRows() {
+        return firstNumRows - missingRows - changedRows;
+    }
+
+    /**
+     * @return Whether any row is missing, extra or changed.
+     */
+    public boolean hasDifferences() {
+        return missingRows > 0 || extraRows > 0 || changedRows > 0;
+    }
+
+    /**
+     * Prints a summary of the data diff.
+     *
+     * @param out The stream to write into, ex: System.out.
+     */
+    public void print(PrintStream out) {
+        out.printf("Compared %d rows with %d rows on key %s and columns %s.%s", firstNumRows, secondNumRows,
+                keyColumns, comparedColumns, System.lineSeparator());
+        out.printf("%d matching, %d missing, %d extra and %d changed rows.%s", getMatchingRows(), missingRows,
+                extraRows, changedRows, System.lineSeparator());
+    }
+}
@@ -0,0 +1,413 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNode;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * Compares the rows of two Parquet datasets, matched by their key columns. Example:
+ * <pre>{@code
+ * ParquetDataDiffer differ = ParquetDataDiffer.builder(reader, "id")
+ *         .executor(Executors.newFixedThreadPool(8))
+ *         .build();
+ * ParquetDataDiffResult result = differ.diff(new Path("v1.parquet"), new Path("v2.parquet"),
+ *         diff -> diff.print(System.out));
+ * }</pre>
+ * <p>
+ * Both datasets are listed and their footers read with the given {@link ParquetReader}, the extracted schemas being
+ * used to check the key columns and to find the compared columns before any row is read. Only the key and compared
+ * columns are then read, and the rows of each dataset are hash-partitioned by key into buckets which are spilled to
+ * local disk when the memory budget is exceeded. Buckets are finally compared one by one, the rows of a bucket of the
+ * first dataset being loaded in memory while the rows of the same bucket of the second dataset are streamed. A bucket
+ * larger than its share of the budget, half of it divided by the number of buckets compared concurrently, is first
+ * re-partitioned into smaller buckets with another hash seed, which are compared one after the other.
+ * <p>
+ * Key and compared columns are top-level columns of the files or partition keys of their directories. Values are
+ * compared by their string representation, nested groups included. Rows sharing the same key in a dataset are
+ * matched pairwise in no particular order, the unmatched ones being reported as missing or extra.
+ */
+public final class ParquetDataDiffer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParquetDataDiffer.class);
+    private static final int DEFAULT_BUCKETS = 64;
+    private static final long DEFAULT_MEMORY_BUDGET = 256L * 1024 * 1024;
+    // rows sharing the same key can't be spread, their bucket is loaded in memory after a few re-partitions
+    private static final int MAX_REPARTITIONS = 3;
+    private static final int MAX_REPARTITION_BUCKETS = 64;
+
+    private final ParquetReader parquetReader;
+    private final List<String> keyColumns;
+    private final List<String> columns;
+    private final int numBuckets;
+    private final long memoryBudget;
+    private final java.nio.file.Path spillDirectory;
+    private final ExecutorService executor;
+
+    private ParquetDataDiffer(Builder builder) {
+        this.parquetReader = builder.parquetReader;
+        this.keyColumns = builder.keyColumns;
+        this.columns = builder.columns;
+        this.numBuckets = builder.numBuckets;
+        this.memoryBudget = builder.memoryBudget;
+        this.spillDirectory = builder.spillDirectory;
+        this.executor = builder.executor;
+    }
+
+    /**
+     * @param parquetReader The reader listing the datasets and extracting their schemas.
+     * @param keyColumns    The columns identifying a row in both datasets.
+     * @return A new {@link Builder} instance.
+     * @throws IllegalArgumentException if no key column is given.
+     */
+    public static Builder builder(ParquetReader parquetReader, String... keyColumns) throws IllegalArgumentException {
+        return new Builder(parquetReader, List.of(keyColumns));
+    }
+
+    /**
+     * Compares the rows of two Parquet datasets.
+     *
+     * @param first    The first Parquet directory, the reference.
+     * @param second   The Parquet directory compared to the first one.
+     * @param listener Receives each missing, extra or changed row, one call at a time but from the executor threads.
+     * @return The number of rows read, missing, extra and changed.
+     * @throws IOException              If a dataset can't be listed or read, or if a bucket can't be spilled.
+     * @throws IllegalArgumentException if a key column or a given compared column is missing from a file.
+     */
+    public ParquetDataDiffResult diff(Path first, Path second, Consumer<ParquetRowDiff> listener)
+            throws IOException {
+        Objects.requireNonNull(listener, "listener");
+        List<ParquetDetails> firstParquets = parquetReader.readParquetDirectory(first);
+        List<ParquetDetails> secondParquets = parquetReader.readParquetDirectory(second);
+        List<String> comparedColumns = findComparedColumns(firstParquets, secondParquets);
+        List<String> projectedColumns = new ArrayList<>(keyColumns);
+        projectedColumns.addAll(comparedColumns);
+        LOGGER.debug("Comparing rows on key {} and columns {}", keyColumns, comparedColumns);
+
+        // each side gets half of the budget, buckets of both sides are compared once both were read
+        try (ParquetRowBuckets firstRows = new ParquetRowBuckets(numBuckets, keyColumns.size(), memoryBudget / 2,
+                spillDirectory);
+             ParquetRowBuckets secondRows = new ParquetRowBuckets(numBuckets, keyColumns.size(), memoryBudget / 2,
+                     spillDirectory)) {
+            long firstNumRows = readRows(firstParquets, projectedColumns, firstRows);
+            long secondNumRows = readRows(secondParquets, projectedColumns, secondRows);
+            LOGGER.debug("Read {} and {} rows into {} buckets, {} buckets spilled to disk", firstNumRows,
+                    secondNumRows, numBuckets, firstRows.getNumSpills() + secondRows.getNumSpills());
+
+            Object listenerLock = new Object();
+            Consumer<ParquetRowDiff> serializedListener = diff -> {
+                synchronized (listenerLock) {
+                    listener.accept(diff);
+                }
+            };
+            long bucketBudget = Math.max(1, memoryBudget / 2 / comparisonParallelism());
+            List<Callable<long[]>> tasks = new ArrayList<>(numBuckets);
+            for (int i = 0; i < numBuckets; i++) {
+                int bucket = i;
+                tasks.add(() -> diffBucket(bucket, firstRows, secondRows, comparedColumns, serializedListener,
+                        bucketBudget, 0));
+            }
+            long[] counts = new long[ParquetRowDiff.Kind.values().length];
+            for (long[] bucketCounts : Futures.runAll(executor, tasks)) {
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += bucketCounts[i];
+                }
+            }
+            return new ParquetDataDiffResult(keyColumns, comparedColumns, firstNumRows, secondNumRows,
+                    counts[ParquetRowDiff.Kind.MISSING.ordinal()], counts[ParquetRowDiff.Kind.EXTRA.ordinal()],
+                    counts[ParquetRowDiff.Kind.CHANGED.ordinal()]);
+        }
+    }
+
+    /**
+     * @see ParquetDataDiffer#diff(Path, Path, Consumer)
+     */
+    public ParquetDataDiffResult diff(String first, String second, Consumer<ParquetRowDiff> listener)
+            throws IOException {
+        return diff(new Path(first), new Path(second), listener);
+    }
+
+    /**
+     * @return The given compared columns, or the columns of all files of both datasets besides the key columns.
+     */
+    private List<String> findComparedColumns(List<ParquetDetails> firstParquets,
+                                             List<ParquetDetails> secondParquets) {
+        List<ParquetDetails> parquets = new ArrayList<>(firstParquets);
+        parquets.addAll(secondParquets);
+        Set<String> commonColumns = null;
+        for (ParquetDetails parquet : parquets) {
+            Set<String> fileColumns = columnsOf(parquet);
+            for (String keyColumn : keyColumns) {
+                if (!fileColumns.contains(keyColumn)) {
+                    throw new IllegalArgumentException("Key column '" + keyColumn + "' not found in "
+                            + parquet.getPath());
+                }
+            }
+            if (columns != null) {
+                for (String column : columns) {
+                    if (!fileColumns.contains(column)) {
+                        throw new IllegalArgumentException("Column '" + column + "' not found in "
+                                + parquet.getPath());
+                    }
+                }
+            } else if (commonColumns == null) {
+                commonColumns = fileColumns;
+            } else {
+                commonColumns.retainAll(fileColumns);
+            }
+        }
+        if (columns != null) {
+            return columns;
+        }
+        if (commonColumns == null) {
+            return List.of();
+        }
+        commonColumns.removeAll(keyColumns);
+        return new ArrayList<>(commonColumns);
+    }
+
+    /**
+     * @return The top-level columns of the file followed by the partition keys of its directory, in order.
+     */
+    private static Set<String> columnsOf(ParquetDetails parquet) {
+        Set<String> fileColumns = new LinkedHashSet<>();
+        for (ParquetSchemaNode child : parquet.getSchema().getChildren()) {
+            fileColumns.add(child.getName());
+        }
+        fileColumns.addAll(parquet.getPartitions().getKeys());
+        return fileColumns;
+    }
+
+    private long readRows(List<ParquetDetails> parquets, List<String> projectedColumns, ParquetRowBuckets buckets)
+            throws IOException {
+        List<Callable<Long>> tasks = new ArrayList<>(parquets.size());
+        for (ParquetDetails parquet : parquets) {
+            tasks.add(() -> readRows(parquet, projectedColumns, buckets));
+        }
+        long numRows = 0;
+        for (long fileNumRows : Futures.runAll(executor, tasks)) {
+            numRows += fileNumRows;
+        }
+        return numRows;
+    }
+
+    private long readRows(ParquetDetails parquet, List<String> projectedColumns, ParquetRowBuckets buckets)
+            throws IOException {
+        long numRows = 0;
+        try (ParquetRowReader rowReader = new ParquetRowReader(parquetReader.getFileSystem().getConf(), parquet,
+                projectedColumns)) {
+            for (String[] row = rowReader.read(); row != null; row = rowReader.read()) {
+                buckets.add(row);
+                numRows++;
+            }
+        }
+        return numRows;
+    }
+
+    /**
+     * @return The number of buckets compared concurrently by the executor.
+     */
+    private int comparisonParallelism() {
+        int parallelism;
+        if (executor == null) {
+            parallelism = 1;
+        } else if (executor instanceof ThreadPoolExecutor) {
+            parallelism = ((ThreadPoolExecutor) executor).getMaximumPoolSize();
+        } else if (executor instanceof ForkJoinPool) {
+            parallelism = ((ForkJoinPool) executor).getParallelism();
+        } else {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        return Math.max(1, Math.min(parallelism, numBuckets));
+    }
+
+    /**
+     * Compares the rows of a bucket, re-partitioned first if the rows of the first dataset exceed the budget of a
+     * bucket (grace hash join).
+     */
+    private long[] diffBucket(int bucket, ParquetRowBuckets firstRows, ParquetRowBuckets secondRows,
+                              List<String> comparedColumns, Consumer<ParquetRowDiff> listener, long bucketBudget,
+                              int repartitions) throws IOException {
+        long bucketSize = firstRows.getBucketSize(bucket);
+        if (bucketSize > bucketBudget && repartitions < MAX_REPARTITIONS) {
+            int numSubBuckets = (int) Math.min(MAX_REPARTITION_BUCKETS, bucketSize / bucketBudget + 1);
+            LOGGER.debug("Re-partitioning a bucket of {} bytes into {} buckets", bucketSize, numSubBuckets);
+            // the rows of the new buckets kept in memory share the budget of the compared bucket
+            try (ParquetRowBuckets firstSubRows = firstRows.repartition(bucket, numSubBuckets,
+                    Math.max(1, bucketBudget / 2), repartitions + 1);
+                 ParquetRowBuckets secondSubRows = secondRows.repartition(bucket, numSubBuckets,
+                         Math.max(1, bucketBudget / 2), repartitions + 1)) {
+                long[] counts = new long[ParquetRowDiff.Kind.values().length];
+                for (int i = 0; i < numSubBuckets; i++) {
+                    long[] subCounts = diffBucket(i, firstSubRows, secondSubRows, comparedColumns, listener,
+                            bucketBudget, repartitions + 1);
+                    for (int kind = 0; kind < counts.length; kind++) {
+                        counts[kind] += subCounts[kind];
+                    }
+                }
+                return counts;
+            }
+        }
+
+        int numKeyColumns = keyColumns.size();
+        Map<List<String>, Deque<String[]>> firstRowsByKey = new HashMap<>();
+        firstRows.readBucket(bucket, row ->
+                firstRowsByKey.computeIfAbsent(keyOf(row), key -> new ArrayDeque<>()).add(row));
+
+        long[] counts = new long[ParquetRowDiff.Kind.values().length];
+        secondRows.readBucket(bucket, secondRow -> {
+            List<String> key = keyOf(secondRow);
+            Deque<String[]> candidates = firstRowsByKey.get(key);
+            if (candidates == null) {
+                counts[ParquetRowDiff.Kind.EXTRA.ordinal()]++;
+                listener.accept(new ParquetRowDiff(ParquetRowDiff.Kind.EXTRA, toMap(keyColumns, secondRow, 0),
+                        null, toMap(comparedColumns, secondRow, numKeyColumns), List.of()));
+                return;
+            }
+            String[] firstRow = candidates.poll();
+            if (candidates.isEmpty()) {
+                firstRowsByKey.remove(key);
+            }
+            List<String> changedColumns = new ArrayList<>();
+            for (int i = 0; i < comparedColumns.size(); i++) {
+                if (!Objects.equals(firstRow[numKeyColumns + i], secondRow[numKeyColumns + i])) {
+                    changedColumns.add(comparedColumns.get(i));
+                }
+            }
+            if (!changedColumns.isEmpty()) {
+                counts[ParquetRowDiff.Kind.CHANGED.ordinal()]++;
+                listener.accept(new ParquetRowDiff(ParquetRowDiff.Kind.CHANGED, toMap(keyColumns, secondRow, 0),
+                        toMap(comparedColumns, firstRow, numKeyColumns),
+                        toMap(comparedColumns, secondRow, numKeyColumns), changedColumns));
+            }
+        });
+
+        for (Deque<String[]> missingRows : firstRowsByKey.values()) {
+            for (String[] firstRow : missingRows) {
+                counts[ParquetRowDiff.Kind.MISSING.ordinal()]++;
+                listener.accept(new ParquetRowDiff(ParquetRowDiff.Kind.MISSING, toMap(keyColumns, firstRow, 0),
+                        toMap(comparedColumns, firstRow, numKeyColumns), null, List.of()));
+            }
+        }
+        return counts;
+    }
+
+    private List<String> keyOf(String[] row) {
+        return Arrays.asList(Arrays.copyOf(row, keyColumns.size()));
+    }
+
+    private static Map<String, String> toMap(List<String> names, String[] row, int offset) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            values.put(names.get(i), row[offset + i]);
+        }
+        return values;
+    }
+
+    /**
+     * Configures a {@link ParquetDataDiffer}.
+     */
+    public static final class Builder {
+        private final ParquetReader parquetReader;
+        private final List<String> keyColumns;
+        private List<String> columns;
+        private int numBuckets = DEFAULT_BUCKETS;
+        private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+        private java.nio.file.Path spillDirectory = Paths.get(System.getProperty("java.io.tmpdir"));
+        private ExecutorService executor;
+
+        private Builder(ParquetReader parquetReader, List<String> keyColumns) {
+            if (keyColumns.isEmpty()) {
+                throw new IllegalArgumentException("At least one key column is required");
+            }
+            this.parquetReader = Objects.requireNonNull(parquetReader, "parquetReader");
+            this.keyColumns = keyColumns;
+        }
+
+        /**
+         * Only compares the given columns besides the key columns, the other columns are not read.
+         *
+         * @param compared The compared columns, all columns common to the files of both datasets by default.
+         * @return This builder.
+         */
+        public Builder columns(String... compared) {
+            List<String> comparedColumns = List.of(compared);
+            this.columns = comparedColumns.stream().filter(column -> !keyColumns.contains(column))
+                    .collect(Collectors.toList());
+            return this;
+        }
+
+        /**
+         * Rows are hash-partitioned by key into the given number of buckets. Each comparison task holds a bucket of
+         * the first dataset in memory, more buckets mean smaller tasks. Buckets exceeding their share of the memory
+         * budget are re-partitioned before being compared.
+         *
+         * @param buckets The number of buckets, 64 by default.
+         * @return This builder.
+         * @throws IllegalArgumentException if the number of buckets is not positive.
+         */
+        public Builder buckets(int buckets) throws IllegalArgumentException {
+            if (buckets < 1) {
+                throw new IllegalArgumentException("Number of buckets must be positive: " + buckets);
+            }
+            this.numBuckets = buckets;
+            return this;
+        }
+
+        /**
+         * Bounds the memory used by the rows read before being compared, the largest buckets being spilled to the
+         * spill directory once the budget is exceeded. Half of the budget is given to each dataset.
+         *
+         * @param bytes The memory budget of the read rows, 256 MiB by default.
+         * @return This builder.
+         * @throws IllegalArgumentException if the budget is not positive.
+         */
+        public Builder memoryBudget(long bytes) throws IllegalArgumentException {
+            if (bytes < 1) {
+                throw new IllegalArgumentException("Memory budget must be positive: " + bytes);
+            }
+            this.memoryBudget = bytes;
+            return this;
+        }
+
+        /**
+         * @param directory The local directory of the spilled buckets, the temporary directory by default. Spill
+         *                  files are deleted once the diff is done.
+         * @return This builder.
+         */
+        public Builder spillDirectory(java.nio.file.Path directory) {
+            this.spillDirectory = Objects.requireNonNull(directory, "directory");
+            return this;
+        }
+
+        /**
+         * Reads files and compares buckets concurrently with the given executor, which is not shut down by the
+         * differ.
+         *
+         * @param diffExecutor The executor reading files and comparing buckets, null to run sequentially.
+         * @return This builder.
+         */
+        public Builder executor(ExecutorService diffExecutor) {
+            this.executor = diffExecutor;
+            return this;
+        }
+
+        /**
+         * @return A new ParquetDataDiffer instance.
+         */
+        public ParquetDataDiffer build() {
+            return new ParquetDataDiffer(this);
+        }
+    }
+}
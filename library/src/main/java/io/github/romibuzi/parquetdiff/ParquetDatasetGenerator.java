@@ -0,0 +1,434 @@
+package io.github.romibuzi.parquetdiff;
+
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.io.LocalOutputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * Writes a synthetic partitioned Parquet dataset to a local directory, to test and benchmark the reader at scale.
+ * Example:
+ * <pre>{@code
+ * ParquetDatasetGenerator generator = ParquetDatasetGenerator.builder()
+ *         .partitions(2, 10)
+ *         .files(5)
+ *         .columns(200, 3)
+ *         .rowGroups(4)
+ *         .addColumn(50, "added_column")
+ *         .retypeColumn(80, "column_0")
+ *         .build();
+ * List<java.nio.file.Path> files = generator.generate(Paths.get("/tmp/generated.parquet"),
+ *         Executors.newFixedThreadPool(8));
+ * }</pre>
+ * <p>
+ * The partition directories are named "level1=000/level2=000" and so on, leaf partitions being numbered from 0 in
+ * listing order. Files are written with the parquet-hadoop writer, their footers holding the row groups, column
+ * chunks and statistics of real files. With a depth of 1, all columns are top-level primitives of common types.
+ * Otherwise top-level fields alternate between a primitive and a group nesting 10 primitive columns, so most columns
+ * are nested: {@code columns(200, 3)} gives 19 top-level primitives and 181 nested columns in 19 groups. Top-level
+ * columns get values, one out of 10 being null for optional columns, nested columns are null.
+ * <p>
+ * Schema evolution events apply to the given leaf partition and all the following ones, in the order they are added.
+ */
+public final class ParquetDatasetGenerator {
+    private static final String PARTITION_KEY_PREFIX = "level";
+    private static final String COLUMN_PREFIX = "column_";
+    private static final int COLUMNS_PER_GROUP = 10;
+    private static final int NULL_PERIOD = 10;
+    private static final int DECIMAL_LENGTH = 16;
+    private static final int DECIMAL_SCALE = 4;
+    private static final int DECIMAL_PRECISION = 38;
+    private static final int DEFAULT_COLUMNS = 20;
+    private static final int DEFAULT_ROWS_PER_ROW_GROUP = 10;
+    private static final List<Function<String, Type>> PRIMITIVES = List.of(
+            name -> Types.required(PrimitiveType.PrimitiveTypeName.INT64).named(name),
+            name -> Types.optional(PrimitiveType.PrimitiveTypeName.BINARY)
+                    .as(LogicalTypeAnnotation.stringType()).named(name),
+            name -> Types.optional(PrimitiveType.PrimitiveTypeName.DOUBLE).named(name),
+            name -> Types.optional(PrimitiveType.PrimitiveTypeName.INT64)
+                    .as(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MICROS))
+                    .named(name),
+            name -> Types.optional(PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY).length(DECIMAL_LENGTH)
+                    .as(LogicalTypeAnnotation.decimalType(DECIMAL_SCALE, DECIMAL_PRECISION)).named(name),
+            name -> Types.optional(PrimitiveType.PrimitiveTypeName.BOOLEAN).named(name));
+
+    private final int partitionDepth;
+    private final int fanOut;
+    private final int filesPerPartition;
+    private final int rowGroups;
+    private final int rowsPerRowGroup;
+    private final List<Integer> schemaChanges;
+    private final List<MessageType> schemas;
+
+    private ParquetDatasetGenerator(Builder builder) throws IllegalArgumentException {
+        this.partitionDepth = builder.partitionDepth;
+        this.fanOut = builder.fanOut;
+        this.filesPerPartition = builder.filesPerPartition;
+        this.rowGroups = builder.rowGroups;
+        this.rowsPerRowGroup = builder.rowsPerRowGroup;
+
+        // one schema per version, a new version starting at each event
+        List<SchemaEvent> events = new ArrayList<>(builder.events);
+        events.sort(Comparator.comparingInt(event -> event.partition));
+        this.schemaChanges = new ArrayList<>(events.size());
+        this.schemas = new ArrayList<>(events.size() + 1);
+        Map<String, Type> fields = new LinkedHashMap<>();
+        for (Type field : generateFields(builder.columns, builder.nestingDepth)) {
+            fields.put(field.getName(), field);
+        }
+        schemas.add(new MessageType("generated", new ArrayList<>(fields.values())));
+        for (SchemaEvent event : events) {
+            event.apply(fields);
+            schemaChanges.add(event.partition);
+            schemas.add(new MessageType("generated", new ArrayList<>(fields.values())));
+        }
+    }
+
+    /**
+     * @return A new {@link Builder} instance, generating 2 partitions of one file of 20 flat columns by default.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Writes all files of the dataset.
+     *
+     * @param directory The local directory of the dataset, created if it does not exist.
+     * @param executor  The executor writing files, null to write them sequentially. It is not shut down by the
+     *                  generator.
+     * @return The written files, in listing order.
+     * @throws IOException If the directory is not empty or if a file can't be written.
+     */
+    public List<Path> generate(Path directory, ExecutorService executor) throws IOException {
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> children = Files.list(directory)) {
+                if (children.findAny().isPresent()) {
+                    throw new FileAlreadyExistsException(directory.toString(), null, "directory is not empty");
+                }
+            }
+        }
+
+        int numPartitions = (int) Math.pow(fanOut, partitionDepth);
+        List<Callable<Path>> tasks = new ArrayList<>(numPartitions * filesPerPartition);
+        for (int partition = 0; partition < numPartitions; partition++) {
+            Path partitionDirectory = partitionDirectory(directory, partition);
+            MessageType schema = schemaAt(partition);
+            for (int file = 0; file < filesPerPartition; file++) {
+                Path path = partitionDirectory.resolve(String.format("part-%05d.parquet", file));
+                long firstRow = ((long) partition * filesPerPartition + file) * rowGroups * rowsPerRowGroup;
+                tasks.add(() -> write(path, schema, firstRow));
+            }
+        }
+        return Futures.runAll(executor, tasks);
+    }
+
+    /**
+     * @param partition A leaf partition number.
+     * @return The schema of the files of the partition, once the events of the previous partitions are applied.
+     */
+    MessageType schemaAt(int partition) {
+        int version = 0;
+        while (version < schemaChanges.size() && schemaChanges.get(version) <= partition) {
+            version++;
+        }
+        return schemas.get(version);
+    }
+
+    private Path partitionDirectory(Path directory, int partition) {
+        int width = String.valueOf(fanOut - 1).length();
+        String[] levels = new String[partitionDepth];
+        int remaining = partition;
+        for (int level = partitionDepth - 1; level >= 0; level--) {
+            levels[level] = PARTITION_KEY_PREFIX + (level + 1) + "="
+                    + String.format("%0" + width + "d", remaining % fanOut);
+            remaining /= fanOut;
+        }
+        Path path = directory;
+        for (String level : levels) {
+            path = path.resolve(level);
+        }
+        return path;
+    }
+
+    /**
+     * A row group is flushed every {@code rowsPerRowGroup} rows, the writer checking its buffered size at this
+     * interval against a minimal row group size.
+     */
+    private Path write(Path path, MessageType schema, long firstRow) throws IOException {
+        Files.createDirectories(path.getParent());
+        SimpleGroupFactory groups = new SimpleGroupFactory(schema);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new LocalOutputFile(path))
+                .withType(schema)
+                .withRowGroupSize(1)
+                .withMinRowCountForPageSizeCheck(rowsPerRowGroup)
+                .withMaxRowCountForPageSizeCheck(rowsPerRowGroup)
+                .build()) {
+            long lastRow = firstRow + (long) rowGroups * rowsPerRowGroup;
+            for (long row = firstRow; row < lastRow; row++) {
+                Group group = groups.newGroup();
+                for (Type field : schema.getFields()) {
+                    if (field.isPrimitive() && (field.isRepetition(Type.Repetition.REQUIRED)
+                            || row % NULL_PERIOD != 0)) {
+                        appendValue(group, field.asPrimitiveType(), row);
+                    }
+                }
+                writer.write(group);
+            }
+        }
+        return path;
+    }
+
+    private static void appendValue(Group group, PrimitiveType type, long row) {
+        String name = type.getName();
+        switch (type.getPrimitiveTypeName()) {
+            case INT64:
+                group.append(name, row);
+                break;
+            case INT32:
+                group.append(name, (int) row);
+                break;
+            case DOUBLE:
+                group.append(name, row / (double) NULL_PERIOD);
+                break;
+            case FLOAT:
+                group.append(name, row / (float) NULL_PERIOD);
+                break;
+            case BOOLEAN:
+                group.append(name, row % 2 == 0);
+                break;
+            case BINARY:
+                group.append(name, Binary.fromString(name + "_" + row));
+                break;
+            case FIXED_LEN_BYTE_ARRAY:
+                ByteBuffer bytes = ByteBuffer.allocate(type.getTypeLength());
+                bytes.putLong(type.getTypeLength() - Long.BYTES, row);
+                group.append(name, Binary.fromConstantByteArray(bytes.array()));
+                break;
+            default:
+                throw new IllegalStateException("Unsupported generated type: " + type);
+        }
+    }
+
+    private static List<Type> generateFields(int columns, int nestingDepth) {
+        List<Type> fields = new ArrayList<>();
+        int remaining = columns;
+        int index = 0;
+        while (remaining > 0) {
+            if (nestingDepth <= 1 || index % 2 == 0) {
+                fields.add(primitive(COLUMN_PREFIX + index, index));
+                remaining--;
+            } else {
+                int groupColumns = Math.min(remaining, COLUMNS_PER_GROUP);
+                fields.add(nestedGroup(index, groupColumns, nestingDepth - 1));
+                remaining -= groupColumns;
+            }
+            index++;
+        }
+        return fields;
+    }
+
+    private static Type nestedGroup(int index, int columns, int levels) {
+        List<Type> leaves = new ArrayList<>(columns);
+        for (int i = 0; i < columns; i++) {
+            leaves.add(primitive(COLUMN_PREFIX + i, i));
+        }
+        GroupType group = new GroupType(Type.Repetition.OPTIONAL, "level_" + levels, leaves);
+        for (int level = levels - 1; level > 0; level--) {
+            group = new GroupType(Type.Repetition.OPTIONAL, "level_" + level, List.<Type>of(group));
+        }
+        return new GroupType(Type.Repetition.OPTIONAL, "struct_" + index, List.<Type>of(group));
+    }
+
+    private static Type primitive(String name, int index) {
+        return PRIMITIVES.get(index % PRIMITIVES.size()).apply(name);
+    }
+
+    /**
+     * A column added, removed or retyped from a leaf partition on.
+     */
+    private static final class SchemaEvent {
+        private enum Kind {
+            ADD, REMOVE, RETYPE
+        }
+
+        private final Kind kind;
+        private final int partition;
+        private final String column;
+
+        SchemaEvent(Kind kind, int partition, String column) {
+            this.kind = kind;
+            this.partition = partition;
+            this.column = column;
+        }
+
+        void apply(Map<String, Type> fields) throws IllegalArgumentException {
+            if (kind == Kind.ADD) {
+                if (fields.containsKey(column)) {
+                    throw new IllegalArgumentException("Column '" + column + "' added at partition " + partition
+                            + " already exists");
+                }
+                fields.put(column, Types.optional(PrimitiveType.PrimitiveTypeName.BINARY)
+                        .as(LogicalTypeAnnotation.stringType()).named(column));
+                return;
+            }
+            if (!fields.containsKey(column)) {
+                throw new IllegalArgumentException("Column '" + column + "' " + kind.name().toLowerCase()
+                        + "d at partition " + partition + " not found");
+            }
+            if (kind == Kind.REMOVE) {
+                fields.remove(column);
+            } else {
+                // INT32 is never generated, a retyped column always changes type
+                fields.put(column, Types.optional(PrimitiveType.PrimitiveTypeName.INT32).named(column));
+            }
+        }
+    }
+
+    /**
+     * Configures a {@link ParquetDatasetGenerator}.
+     */
+    public static final class Builder {
+        private final List<SchemaEvent> events = new ArrayList<>();
+        private int partitionDepth = 1;
+        private int fanOut = 2;
+        private int filesPerPartition = 1;
+        private int columns = DEFAULT_COLUMNS;
+        private int nestingDepth = 1;
+        private int rowGroups = 1;
+        private int rowsPerRowGroup = DEFAULT_ROWS_PER_ROW_GROUP;
+
+        private Builder() {
+        }
+
+        /**
+         * @param depth    The number of partition levels, 0 for an unpartitioned dataset (default: 1).
+         * @param perLevel The number of partitions under each partition of the previous level (default: 2).
+         * @return This builder.
+         * @throws IllegalArgumentException if depth is negative or perLevel is not positive.
+         */
+        public Builder partitions(int depth, int perLevel) throws IllegalArgumentException {
+            if (depth < 0 || perLevel < 1) {
+                throw new IllegalArgumentException("Partition depth must be positive or zero and fan-out positive: "
+                        + depth + ", " + perLevel);
+            }
+            this.partitionDepth = depth;
+            this.fanOut = perLevel;
+            return this;
+        }
+
+        /**
+         * @param perPartition The number of files of each leaf partition (default: 1).
+         * @return This builder.
+         * @throws IllegalArgumentException if perPartition is not positive.
+         */
+        public Builder files(int perPartition) throws IllegalArgumentException {
+            if (perPartition < 1) {
+                throw new IllegalArgumentException("Files per partition must be positive: " + perPartition);
+            }
+            this.filesPerPartition = perPartition;
+            return this;
+        }
+
+        /**
+         * @param primitives The number of primitive columns of the schema (default: 20).
+         * @param depth      The maximum depth of nested columns, 1 for a flat schema (default: 1).
+         * @return This builder.
+         * @throws IllegalArgumentException if primitives or depth is not positive.
+         */
+        public Builder columns(int primitives, int depth) throws IllegalArgumentException {
+            if (primitives < 1 || depth < 1) {
+                throw new IllegalArgumentException("Columns and nesting depth must be positive: " + primitives
+                        + ", " + depth);
+            }
+            this.columns = primitives;
+            this.nestingDepth = depth;
+            return this;
+        }
+
+        /**
+         * @param perFile The number of row groups of each file (default: 1).
+         * @return This builder.
+         * @throws IllegalArgumentException if perFile is not positive.
+         */
+        public Builder rowGroups(int perFile) throws IllegalArgumentException {
+            if (perFile < 1) {
+                throw new IllegalArgumentException("Row groups per file must be positive: " + perFile);
+            }
+            this.rowGroups = perFile;
+            return this;
+        }
+
+        /**
+         * @param perRowGroup The number of rows of each row group (default: 10).
+         * @return This builder.
+         * @throws IllegalArgumentException if perRowGroup is not positive.
+         */
+        public Builder rows(int perRowGroup) throws IllegalArgumentException {
+            if (perRowGroup < 1) {
+                throw new IllegalArgumentException("Rows per row group must be positive: " + perRowGroup);
+            }
+            this.rowsPerRowGroup = perRowGroup;
+            return this;
+        }
+
+        /**
+         * @param partition The first leaf partition with the column.
+         * @param column    The name of the new top-level string column.
+         * @return This builder.
+         */
+        public Builder addColumn(int partition, String column) {
+            events.add(new SchemaEvent(SchemaEvent.Kind.ADD, partition, column));
+            return this;
+        }
+
+        /**
+         * @param partition The first leaf partition without the column.
+         * @param column    The name of a top-level column, such as "column_2".
+         * @return This builder.
+         */
+        public Builder removeColumn(int partition, String column) {
+            events.add(new SchemaEvent(SchemaEvent.Kind.REMOVE, partition, column));
+            return this;
+        }
+
+        /**
+         * @param partition The first leaf partition where the column is an optional INT32.
+         * @param column    The name of a top-level column, such as "column_2".
+         * @return This builder.
+         */
+        public Builder retypeColumn(int partition, String column) {
+            events.add(new SchemaEvent(SchemaEvent.Kind.RETYPE, partition, column));
+            return this;
+        }
+
+        /**
+         * @return A configured ParquetDatasetGenerator.
+         * @throws IllegalArgumentException if a schema evolution event removes or retypes a missing column, or adds
+         *                                  an existing one.
+         */
+        public ParquetDatasetGenerator build() throws IllegalArgumentException {
+            return new ParquetDatasetGenerator(this);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package io.github.romibuzi.parquetdiff;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartition;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartitionFilter;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartitions;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * Discovers the live Parquet files of a Delta Lake table from its "_delta_log" transaction log, without listing the
+ * table directories.
+ * <p>
+ * The latest complete checkpoint is loaded, then the JSON commits written after it are replayed in order: "add"
+ * actions register a file with its size, modification time and partition values, "remove" actions tombstone it.
+ * Tombstoned files are not returned even if they still exist on disk, until they are vacuumed. Files are returned
+ * sorted by path, partitions follow the partition columns order of the table metadata.
+ */
+final class ParquetDeltaLog {
+    static final String LOG_DIRECTORY_NAME = "_delta_log";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParquetDeltaLog.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Pattern COMMIT_FILE = Pattern.compile("(\\d{20})\\.json");
+    private static final Pattern CHECKPOINT_FILE =
+            Pattern.compile("(\\d{20})\\.checkpoint(?:\\.(\\d{10})\\.(\\d{10}))?\\.parquet");
+    private static final String HIVE_DEFAULT_PARTITION = "__HIVE_DEFAULT_PARTITION__";
+    private static final int VERSION_GROUP = 1;
+    private static final int PARTS_GROUP = 3;
+
+    private final FileSystem fileSystem;
+    private final Path tablePath;
+    private final Map<String, AddFile> files = new HashMap<>();
+    private List<String> partitionColumns = List.of();
+
+    private ParquetDeltaLog(FileSystem fileSystem, Path tablePath) {
+        this.fileSystem = fileSystem;
+        this.tablePath = tablePath;
+    }
+
+    /**
+     * @param fileSystem A configured Hadoop filesystem.
+     * @param tablePath  The root directory of a Delta table.
+     * @return Whether the given directory holds a Delta transaction log.
+     * @throws IOException If the filesystem can't be queried.
+     */
+    static boolean exists(FileSystem fileSystem, Path tablePath) throws IOException {
+        return fileSystem.exists(new Path(tablePath, LOG_DIRECTORY_NAME));
+    }
+
+    /**
+     * @param fileSystem       A configured Hadoop filesystem.
+     * @param tablePath        The root directory of a Delta table.
+     * @param partitionFilters The filters selecting the partitions to return.
+     * @return The live Parquet files of the table at its latest version, sorted by path.
+     * @throws IOException If the transaction log can't be read.
+     */
+    static List<FileStatus> listParquetFiles(FileSystem fileSystem, Path tablePath,
+                                             List<ParquetPartitionFilter> partitionFilters) throws IOException {
+        ParquetDeltaLog log = new ParquetDeltaLog(fileSystem, tablePath);
+        log.replay();
+        return log.liveFiles(partitionFilters);
+    }
+
+    private void replay() throws IOException {
+        Path logPath = new Path(tablePath, LOG_DIRECTORY_NAME);
+        TreeMap<Long, Path> commits = new TreeMap<>();
+        TreeMap<Long, List<Path>> checkpoints = new TreeMap<>();
+        Map<Long, Integer> checkpointsParts = new HashMap<>();
+        for (FileStatus fileStatus : fileSystem.listStatus(logPath)) {
+            String name = fileStatus.getPath().getName();
+            Matcher commit = COMMIT_FILE.matcher(name);
+            Matcher checkpoint = CHECKPOINT_FILE.matcher(name);
+            if (commit.matches()) {
+                commits.put(Long.parseLong(commit.group(VERSION_GROUP)), fileStatus.getPath());
+            } else if (checkpoint.matches()) {
+                long version = Long.parseLong(checkpoint.group(VERSION_GROUP));
+                checkpoints.computeIfAbsent(version, v -> new ArrayList<>()).add(fileStatus.getPath());
+                checkpointsParts.put(version,
+                        checkpoint.group(PARTS_GROUP) == null ? 1 : Integer.parseInt(checkpoint.group(PARTS_GROUP)));
+            }
+        }
+
+        long checkpointVersion = -1;
+        for (Map.Entry<Long, List<Path>> checkpoint : checkpoints.descendingMap().entrySet()) {
+            // multi-part checkpoints are only usable when all parts are written
+            if (checkpoint.getValue().size() == checkpointsParts.get(checkpoint.getKey())) {
+                checkpointVersion = checkpoint.getKey();
+                for (Path part : checkpoint.getValue()) {
+                    readCheckpoint(part);
+                }
+                break;
+            }
+        }
+
+        SortedMap<Long, Path> newCommits = commits.tailMap(checkpointVersion + 1);
+        if (checkpointVersion < 0 && !newCommits.containsKey(0L)) {
+            throw new IOException("Incomplete Delta log, no checkpoint nor first commit: " + logPath);
+        }
+        long expectedVersion = checkpointVersion + 1;
+        for (Map.Entry<Long, Path> commit : newCommits.entrySet()) {
+            if (commit.getKey() != expectedVersion) {
+                throw new IOException("Incomplete Delta log, missing commit " + expectedVersion + ": " + logPath);
+            }
+            readCommit(commit.getValue());
+            expectedVersion++;
+        }
+        LOGGER.debug("Replayed Delta log {} up to version {}, {} live files", logPath, expectedVersion - 1,
+                files.size());
+    }
+
+    private void readCommit(Path commitPath) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(fileSystem.open(commitPath), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode action = OBJECT_MAPPER.readTree(line);
+                if (action.has("add")) {
+                    JsonNode add = action.get("add");
+                    Map<String, String> partitionValues = new LinkedHashMap<>();
+                    for (Map.Entry<String, JsonNode> value : add.path("partitionValues").properties()) {
+                        JsonNode partitionValue = value.getValue();
+                        partitionValues.put(value.getKey(), partitionValue.isNull() ? null : partitionValue.asText());
+                    }
+                    addFile(add.get("path").asText(), add.path("size").asLong(),
+                            add.path("modificationTime").asLong(), partitionValues);
+                } else if (action.has("remove")) {
+                    files.remove(action.get("remove").get("path").asText());
+                } else if (action.has("metaData")) {
+                    List<String> columns = new ArrayList<>();
+                    action.get("metaData").path("partitionColumns").forEach(column -> columns.add(column.asText()));
+                    partitionColumns = columns;
+                }
+            }
+        }
+    }
+
+    private void readCheckpoint(Path checkpointPath) throws IOException {
+        try (org.apache.parquet.hadoop.ParquetReader<Group> reader = org.apache.parquet.hadoop.ParquetReader
+                .builder(new GroupReadSupport(), checkpointPath)
+                .withConf(fileSystem.getConf())
+                .build()) {
+            Group action;
+            while ((action = reader.read()) != null) {
+                Group add = getGroup(action, "add");
+                Group metaData = getGroup(action, "metaData");
+                if (add != null) {
+                    Map<String, String> partitionValues = new LinkedHashMap<>();
+                    Group values = getGroup(add, "partitionValues");
+                    if (values != null && values.getType().getFieldCount() > 0) {
+                        for (int i = 0; i < values.getFieldRepetitionCount(0); i++) {
+                            Group entry = values.getGroup(0, i);
+                            partitionValues.put(entry.getString("key", 0), getString(entry, "value"));
+                        }
+                    }
+                    addFile(add.getString("path", 0), add.getLong("size", 0), add.getLong("modificationTime", 0),
+                            partitionValues);
+                } else if (metaData != null) {
+                    List<String> columns = new ArrayList<>();
+                    collectStrings(getGroup(metaData, "partitionColumns"), columns);
+                    partitionColumns = columns;
+                }
+                // checkpoints only hold live files, their remove actions are tombstones of older versions
+            }
+        }
+    }
+
+    private void addFile(String path, long size, long modificationTime, Map<String, String> partitionValues) {
+        files.put(path, new AddFile(path, size, modificationTime, partitionValues));
+    }
+
+    private List<FileStatus> liveFiles(List<ParquetPartitionFilter> partitionFilters) throws IOException {
+        List<AddFile> liveFiles = new ArrayList<>(files.values());
+        liveFiles.sort(Comparator.comparing(file -> file.path));
+
+        List<FileStatus> results = new ArrayList<>(liveFiles.size());
+        Map<String, Set<String>> selectedValues = selectPartitionValues(liveFiles, partitionFilters);
+        for (AddFile file : liveFiles) {
+            ParquetPartitions partitions = toPartitions(file.partitionValues);
+            boolean selected = partitions.getPartitions().stream()
+                    .allMatch(partition -> !selectedValues.containsKey(partition.getKey())
+                            || selectedValues.get(partition.getKey()).contains(partition.getValue()));
+            if (selected) {
+                results.add(new DeltaFileStatus(file.size, file.modificationTime, toPath(file.path), partitions));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Filters are evaluated against all the values of their key in the table, since the table has no directories.
+     */
+    private Map<String, Set<String>> selectPartitionValues(List<AddFile> liveFiles,
+                                                           List<ParquetPartitionFilter> partitionFilters) {
+        Map<String, Set<String>> selectedValues = new HashMap<>();
+        for (ParquetPartitionFilter filter : partitionFilters) {
+            Set<ParquetPartition> partitions = new LinkedHashSet<>();
+            for (AddFile file : liveFiles) {
+                if (file.partitionValues.containsKey(filter.getKey())) {
+                    partitions.add(new ParquetPartition(filter.getKey(),
+                            partitionValue(file.partitionValues.get(filter.getKey()))));
+                }
+            }
+            Set<String> values = new HashSet<>();
+            for (ParquetPartition partition : filter.select(new ArrayList<>(partitions))) {
+                values.add(partition.getValue());
+            }
+            selectedValues.merge(filter.getKey(), values, (first, second) -> {
+                first.retainAll(second);
+                return first;
+            });
+        }
+        return selectedValues;
+    }
+
+    private ParquetPartitions toPartitions(Map<String, String> partitionValues) {
+        List<ParquetPartition> partitions = new ArrayList<>(partitionValues.size());
+        Collection<String> keys = partitionColumns.isEmpty() ? partitionValues.keySet() : partitionColumns;
+        for (String key : keys) {
+            if (partitionValues.containsKey(key)) {
+                partitions.add(new ParquetPartition(key, partitionValue(partitionValues.get(key))));
+            }
+        }
+        return new ParquetPartitions(partitions);
+    }
+
+    private static String partitionValue(String value) {
+        return value == null ? HIVE_DEFAULT_PARTITION : value;
+    }
+
+    /**
+     * Paths of the log are URIs, relative to the table or absolute.
+     */
+    private Path toPath(String path) throws IOException {
+        try {
+            URI uri = new URI(path);
+            return uri.isAbsolute() ? new Path(uri) : new Path(tablePath, new Path(uri));
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid path in Delta log: " + path, e);
+        }
+    }
+
+    private static Group getGroup(Group group, String field) {
+        if (!group.getType().containsField(field) || group.getFieldRepetitionCount(field) == 0) {
+            return null;
+        }
+        return group.getGroup(field, 0);
+    }
+
+    private static String getString(Group group, String field) {
+        if (!group.getType().containsField(field) || group.getFieldRepetitionCount(field) == 0) {
+            return null;
+        }
+        return group.getString(field, 0);
+    }
+
+    /**
+     * Collects the strings of a list, whatever its Parquet list encoding.
+     */
+    private static void collectStrings(Group group, List<String> results) {
+        if (group == null) {
+            return;
+        }
+        for (int field = 0; field < group.getType().getFieldCount(); field++) {
+            for (int i = 0; i < group.getFieldRepetitionCount(field); i++) {
+                if (group.getType().getType(field).isPrimitive()) {
+                    results.add(group.getString(field, i));
+                } else {
+                    collectStrings(group.getGroup(field, i), results);
+                }
+            }
+        }
+    }
+
+    /**
+     * A live file of the table.
+     */
+    private static final class AddFile {
+        private final String path;
+        private final long size;
+        private final long modificationTime;
+        private final Map<String, String> partitionValues;
+
+        AddFile(String path, long size, long modificationTime, Map<String, String> partitionValues) {
+            this.path = path;
+            this.size = size;
+            this.modificationTime = modificationTime;
+            this.partitionValues = partitionValues;
+        }
+    }
+
+    /**
+     * A file discovered from the log, with the partitions of the log instead of the ones of its path.
+     */
+    static final class DeltaFileStatus extends FileStatus {
+        private final transient ParquetPartitions partitions;
+
+        DeltaFileStatus(long length, long modificationTime, Path path, ParquetPartitions partitions) {
+            super(length, false, 1, 0, modificationTime, path);
+            this.partitions = partitions;
+        }
+
+        ParquetPartitions getPartitions() {
+            return partitions;
+        }
+    }
+}
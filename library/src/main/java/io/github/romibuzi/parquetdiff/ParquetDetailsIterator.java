@@ -0,0 +1,95 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import org.apache.hadoop.fs.FileStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Lazily reads the footers of listed Parquet files, in listing order.
+ * <p>
+ * Without executor, a footer is read when its result is requested. With an executor, a sliding window of footers
+ * is read ahead: at most {@code readAhead} results are pending or buffered at any time, so memory does not grow
+ * with the number of files. Read failures are thrown as {@link UncheckedIOException}.
+ */
+final class ParquetDetailsIterator implements Iterator<ParquetDetails>, Closeable {
+    private final Iterator<FileStatus> files;
+    private final FooterExtractor extractor;
+    private final ExecutorService executor;
+    private final int readAhead;
+    private final Deque<Future<ParquetDetails>> pending = new ArrayDeque<>();
+    private boolean closed;
+
+    /**
+     * @param files     The Parquet files to read.
+     * @param extractor Reads the footer of a file.
+     * @param executor  The executor used to read footers ahead, null to read them on demand.
+     * @param readAhead The maximum number of footers read ahead.
+     */
+    ParquetDetailsIterator(List<FileStatus> files, FooterExtractor extractor, ExecutorService executor,
+                           int readAhead) {
+        this.files = files.iterator();
+        this.extractor = extractor;
+        this.executor = executor;
+        this.readAhead = readAhead;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !closed && (!pending.isEmpty() || files.hasNext());
+    }
+
+    @Override
+    public ParquetDetails next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            if (executor == null) {
+                return extractor.extract(files.next());
+            }
+            fillWindow();
+            return Futures.await(pending.poll());
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException | Error e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Stops pending reads, no more results are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        pending.forEach(future -> future.cancel(true));
+        pending.clear();
+    }
+
+    private void fillWindow() {
+        while (pending.size() < readAhead && files.hasNext()) {
+            FileStatus fileStatus = files.next();
+            pending.add(executor.submit(() -> extractor.extract(fileStatus)));
+        }
+    }
+
+    /**
+     * Reads the footer of a single Parquet file.
+     */
+    @FunctionalInterface
+    interface FooterExtractor {
+        ParquetDetails extract(FileStatus fileStatus) throws IOException;
+    }
+}
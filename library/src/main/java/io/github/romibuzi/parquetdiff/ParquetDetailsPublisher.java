@@ -0,0 +1,164 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Flow.Publisher} of the Parquet files of a directory.
+ * <p>
+ * Each subscription starts its own scan when the first item is requested. Footers are only read when requested by
+ * the subscriber (plus the read ahead of the reader), so a slow subscriber slows down the scan instead of
+ * buffering results. The listing, the reads and the signals to the subscriber run on the given executor, one
+ * task at a time per subscription.
+ */
+final class ParquetDetailsPublisher implements Flow.Publisher<ParquetDetails> {
+    private final IteratorOpener opener;
+    private final Executor executor;
+
+    /**
+     * @param opener   Lists the Parquet files to publish.
+     * @param executor The executor running the scan and signalling the subscribers.
+     */
+    ParquetDetailsPublisher(IteratorOpener opener, Executor executor) {
+        this.opener = opener;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ParquetDetails> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        ScanSubscription subscription = new ScanSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Lists the Parquet files of a subscription.
+     */
+    @FunctionalInterface
+    interface IteratorOpener {
+        ParquetDetailsIterator open() throws IOException;
+    }
+
+    /**
+     * Signals are serialized with a work-in-progress counter: only one drain task runs at a time, and a drain
+     * requested while another one is running makes the running one loop again.
+     */
+    private final class ScanSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super ParquetDetails> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger workInProgress = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile IllegalArgumentException invalidRequest;
+        private ParquetDetailsIterator iterator;
+        private boolean terminated;
+
+        ScanSubscription(Flow.Subscriber<? super ParquetDetails> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested items must be positive: " + n);
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> {
+                    long total = current + added;
+                    return total < 0 ? Long.MAX_VALUE : total;
+                });
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (workInProgress.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    cancelled = true;
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!terminated) {
+                    drainAvailable();
+                }
+                missed = workInProgress.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drainAvailable() {
+            if (cancelled) {
+                terminate();
+                return;
+            }
+            if (invalidRequest != null) {
+                terminate();
+                subscriber.onError(invalidRequest);
+                return;
+            }
+
+            try {
+                if (iterator == null) {
+                    iterator = opener.open();
+                }
+                while (!cancelled && demand.get() > 0 && iterator.hasNext()) {
+                    ParquetDetails next = iterator.next();
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                    if (!emit(next)) {
+                        return;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                terminate();
+                subscriber.onError(e instanceof UncheckedIOException ? e.getCause() : e);
+                return;
+            }
+
+            if (cancelled) {
+                terminate();
+            } else if (!iterator.hasNext()) {
+                terminate();
+                subscriber.onComplete();
+            }
+        }
+
+        private boolean emit(ParquetDetails details) {
+            try {
+                subscriber.onNext(details);
+                return true;
+            } catch (RuntimeException e) {
+                // a failing subscriber is considered as cancelled
+                cancelled = true;
+                terminate();
+                return false;
+            }
+        }
+
+        private void terminate() {
+            terminated = true;
+            if (iterator != null) {
+                iterator.close();
+            }
+        }
+    }
+}
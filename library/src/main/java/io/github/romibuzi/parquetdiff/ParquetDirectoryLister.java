@@ -0,0 +1,231 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartition;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartitionFilter;
+import io.github.romibuzi.parquetdiff.metrics.ParquetScanMetrics;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Lists all Parquet files in a directory tree with a breadth-first traversal.
+ * <p>
+ * Directories of the same depth are listed concurrently when parallelism is greater than 1. Each level is fully
+ * listed before the next one is started, so the files are returned in the exact same order as a sequential
+ * traversal: directory by directory, each listing being sorted by path.
+ * <p>
+ * Partition filters are evaluated against the "key=value" directory names of each listing, before the next level
+ * is listed: subtrees of non-selected partitions are never listed.
+ * <p>
+ * With a scan state, leaf directories whose modification time did not change since their previous listing are not
+ * listed again, see {@link ParquetScanState}.
+ * <p>
+ * The whole tree is listed before any file is returned: the statuses of all selected Parquet files are held in
+ * memory at once, even by callers consuming them lazily.
+ */
+final class ParquetDirectoryLister {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParquetDirectoryLister.class);
+    private static final String PARQUET_EXTENSION = ".parquet";
+
+    private final FileSystem fileSystem;
+    private final int parallelism;
+    private final List<ParquetPartitionFilter> partitionFilters;
+    private final ParquetScanState scanState;
+    private final ParquetScanMetrics metrics;
+
+    /**
+     * @param fileSystem  A configured Hadoop filesystem.
+     * @param parallelism The maximum number of directories listed at the same time.
+     */
+    ParquetDirectoryLister(FileSystem fileSystem, int parallelism) {
+        this(fileSystem, parallelism, List.of());
+    }
+
+    /**
+     * @param fileSystem       A configured Hadoop filesystem.
+     * @param parallelism      The maximum number of directories listed at the same time.
+     * @param partitionFilters The filters selecting the partition directories to traverse.
+     */
+    ParquetDirectoryLister(FileSystem fileSystem, int parallelism, List<ParquetPartitionFilter> partitionFilters) {
+        this(fileSystem, parallelism, partitionFilters, null);
+    }
+
+    /**
+     * @param fileSystem       A configured Hadoop filesystem.
+     * @param parallelism      The maximum number of directories listed at the same time.
+     * @param partitionFilters The filters selecting the partition directories to traverse.
+     * @param scanState        The state storing the listings of the previous scans, null to list all directories.
+     */
+    ParquetDirectoryLister(FileSystem fileSystem, int parallelism, List<ParquetPartitionFilter> partitionFilters,
+                           ParquetScanState scanState) {
+        this(fileSystem, parallelism, partitionFilters, scanState, ParquetScanMetrics.NOOP);
+    }
+
+    /**
+     * @param fileSystem       A configured Hadoop filesystem.
+     * @param parallelism      The maximum number of directories listed at the same time.
+     * @param partitionFilters The filters selecting the partition directories to traverse.
+     * @param scanState        The state storing the listings of the previous scans, null to list all directories.
+     * @param metrics          The metrics receiving the duration of each listing.
+     */
+    ParquetDirectoryLister(FileSystem fileSystem, int parallelism, List<ParquetPartitionFilter> partitionFilters,
+                           ParquetScanState scanState, ParquetScanMetrics metrics) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Listing parallelism must be positive: " + parallelism);
+        }
+        this.fileSystem = fileSystem;
+        this.parallelism = parallelism;
+        this.partitionFilters = List.copyOf(partitionFilters);
+        this.scanState = scanState;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param root The directory to traverse.
+     * @return All Parquet files found under the given directory, in a stable order, fully listed.
+     * @throws IOException If any directory listing fails.
+     */
+    List<FileStatus> listParquetFiles(Path root) throws IOException {
+        List<FileStatus> results = new ArrayList<>();
+        List<Path> currentLevel = List.of(root);
+        // modification times of the directories to list, taken from the listing of their parent
+        Map<Path, Long> modificationTimes = new HashMap<>();
+
+        ExecutorService executor = parallelism > 1 ? ListingThreads.newExecutor(parallelism) : null;
+        try {
+            while (!currentLevel.isEmpty()) {
+                List<Path> nextLevel = new ArrayList<>();
+                for (FileStatus[] listing : listLevel(currentLevel, modificationTimes, executor)) {
+                    List<Path> directories = new ArrayList<>();
+                    for (FileStatus fileStatus : listing) {
+                        if (fileStatus.isDirectory()) {
+                            directories.add(fileStatus.getPath());
+                            modificationTimes.put(fileStatus.getPath(), fileStatus.getModificationTime());
+                        } else if (fileStatus.getPath().getName().endsWith(PARQUET_EXTENSION)) {
+                            results.add(fileStatus);
+                        }
+                    }
+                    nextLevel.addAll(selectDirectories(directories));
+                }
+                currentLevel = nextLevel;
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * @param directories Sibling directories.
+     * @return The directories that are not partitions, and the partitions selected by all filters, each filter
+     * selecting among all sibling partitions.
+     */
+    private List<Path> selectDirectories(List<Path> directories) {
+        if (partitionFilters.isEmpty()) {
+            return directories;
+        }
+
+        List<ParquetPartition> partitions = new ArrayList<>(directories.size());
+        for (Path directory : directories) {
+            if (directory.getName().contains("=")) {
+                partitions.add(ParquetPartition.fromString(directory.getName()));
+            }
+        }
+        // each filter selects among all siblings, e.g. the newest partitions are not the newest of those left by
+        // another filter
+        Set<ParquetPartition> selected = new HashSet<>(partitions);
+        for (ParquetPartitionFilter filter : partitionFilters) {
+            selected.retainAll(new HashSet<>(filter.select(partitions)));
+        }
+
+        List<Path> results = new ArrayList<>(directories.size());
+        for (Path directory : directories) {
+            if (!directory.getName().contains("=")
+                    || selected.contains(ParquetPartition.fromString(directory.getName()))) {
+                results.add(directory);
+            }
+        }
+        if (results.size() < directories.size()) {
+            LOGGER.debug("Skipped {} partitions directories out of {}", directories.size() - results.size(),
+                    directories.size());
+        }
+        return results;
+    }
+
+    private List<FileStatus[]> listLevel(List<Path> directories, Map<Path, Long> modificationTimes,
+                                         ExecutorService executor) throws IOException {
+        List<FileStatus[]> listings = new ArrayList<>(directories.size());
+        if (executor == null || directories.size() == 1) {
+            for (Path directory : directories) {
+                listings.add(listFileStatuses(directory, modificationTimes.getOrDefault(directory, 0L)));
+            }
+            return listings;
+        }
+
+        // bounds in-flight calls to the filesystem, virtual threads are not limited by the executor itself
+        Semaphore permits = new Semaphore(parallelism);
+        List<Future<FileStatus[]>> futures = new ArrayList<>(directories.size());
+        try {
+            for (Path directory : directories) {
+                long modificationTime = modificationTimes.getOrDefault(directory, 0L);
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return listFileStatuses(directory, modificationTime);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<FileStatus[]> future : futures) {
+                listings.add(Futures.await(future));
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return listings;
+    }
+
+    private FileStatus[] listFileStatuses(Path path, long modificationTime) throws IOException {
+        if (scanState != null) {
+            FileStatus[] storedFileStatuses = scanState.getListing(path, modificationTime);
+            if (storedFileStatuses != null) {
+                return storedFileStatuses;
+            }
+        }
+
+        FileStatus[] fileStatuses;
+        ParquetListStatusEvent event = new ParquetListStatusEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            fileStatuses = fileSystem.listStatus(path);
+            metrics.directoryListed(path, fileStatuses.length, System.nanoTime() - start);
+            event.setEntries(fileStatuses.length);
+        } catch (IOException e) {
+            LOGGER.error("Could not listStatus on {}", path, e);
+            throw e;
+        } finally {
+            if (event.shouldCommit()) {
+                event.setPath(path.toString());
+                event.commit();
+            }
+        }
+        Arrays.sort(fileStatuses, Comparator.comparing(FileStatus::getPath));
+        if (scanState != null) {
+            scanState.putListing(path, modificationTime, fileStatuses);
+        }
+        return fileStatuses;
+    }
+}
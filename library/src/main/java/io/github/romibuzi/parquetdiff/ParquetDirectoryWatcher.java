@@ -0,0 +1,165 @@
+package io.github.romibuzi.parquetdiff;
+
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Watches a Parquet directory and reports the files landing in it, compared to the reference schema of the
+ * directory. Example:
+ * <pre>{@code
+ * ParquetReader reader = ParquetReader.builder(FileSystem.get(new Configuration()))
+ *         .scanState(ParquetScanState.inMemory())
+ *         .build();
+ * new ParquetDirectoryWatcher(reader, new Path("my_data.parquet"), Duration.ofSeconds(10))
+ *         .watch(scan -> scan.findSchemasDifferences().forEach(diff -> diff.print(System.out)));
+ * }</pre>
+ * <p>
+ * Each change triggers an incremental scan of the reader, see {@link ParquetReader#scanParquetDirectory(Path)}:
+ * only the modified leaf directories are listed and only the new footers are read. Local directories are watched
+ * with a {@link WatchService}, changes being scanned once no event was received for a short settle time. Other
+ * filesystems are polled, unchanged leaf directories being detected by their modification time.
+ * <p>
+ * A failed scan, e.g. on a file still being written, is logged and retried on the next change or poll, the files
+ * read in the meantime being kept by the scan state.
+ */
+public final class ParquetDirectoryWatcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParquetDirectoryWatcher.class);
+    private static final String LOCAL_SCHEME = "file";
+    private static final long SETTLE_TIME_MILLIS = 500;
+
+    private final ParquetReader parquetReader;
+    private final Path directory;
+    private final Duration pollInterval;
+
+    /**
+     * @param parquetReader The reader of the directory, configured with a scan state.
+     * @param directory     The Parquet directory to watch.
+     * @param pollInterval  The interval between two scans of a directory that can't be watched, and between two
+     *                      scans of a watched directory when no event is received.
+     * @throws IllegalArgumentException if the poll interval is not positive.
+     */
+    public ParquetDirectoryWatcher(ParquetReader parquetReader, Path directory, Duration pollInterval)
+            throws IllegalArgumentException {
+        if (pollInterval.isNegative() || pollInterval.isZero()) {
+            throw new IllegalArgumentException("Poll interval must be positive: " + pollInterval);
+        }
+        this.parquetReader = Objects.requireNonNull(parquetReader, "parquetReader");
+        this.directory = Objects.requireNonNull(directory, "directory");
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Scans the directory, then scans it again on each change until the current thread is interrupted. The
+     * listener is called after each scan that found new or changed files, including the first one.
+     *
+     * @param listener Receives the scans that found new or changed files.
+     * @throws IOException          If the first scan fails.
+     * @throws InterruptedException When the current thread is interrupted.
+     */
+    public void watch(Consumer<ParquetIncrementalScan> listener) throws IOException, InterruptedException {
+        report(parquetReader.scanParquetDirectory(directory), listener);
+
+        java.nio.file.Path localDirectory = toLocalDirectory();
+        if (localDirectory != null) {
+            try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+                registerAll(localDirectory, watchService);
+                watchLocalDirectory(watchService, listener);
+                return;
+            } catch (IOException e) {
+                // e.g. when the inotify watches limit is reached
+                LOGGER.warn("Could not watch {}, polling it instead", directory, e);
+            }
+        }
+        while (true) {
+            TimeUnit.MILLISECONDS.sleep(pollInterval.toMillis());
+            scan(listener);
+        }
+    }
+
+    private void watchLocalDirectory(WatchService watchService, Consumer<ParquetIncrementalScan> listener)
+            throws InterruptedException {
+        while (true) {
+            WatchKey key = watchService.poll(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+            // waits for the writers to settle, a file is usually created then renamed or written in several steps
+            while (key != null) {
+                handleEvents(key, watchService);
+                key = watchService.poll(SETTLE_TIME_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            scan(listener);
+        }
+    }
+
+    private void handleEvents(WatchKey key, WatchService watchService) {
+        java.nio.file.Path watchedDirectory = (java.nio.file.Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() != StandardWatchEventKinds.ENTRY_CREATE) {
+                continue;
+            }
+            java.nio.file.Path created = watchedDirectory.resolve((java.nio.file.Path) event.context());
+            if (Files.isDirectory(created)) {
+                try {
+                    registerAll(created, watchService);
+                } catch (IOException e) {
+                    LOGGER.warn("Could not watch new directory {}, its changes are found by the next scans",
+                            created, e);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    private void scan(Consumer<ParquetIncrementalScan> listener) {
+        try {
+            report(parquetReader.scanParquetDirectory(directory), listener);
+        } catch (IOException e) {
+            LOGGER.warn("Scan of {} failed, retrying on next change", directory, e);
+        }
+    }
+
+    private static void report(ParquetIncrementalScan scan, Consumer<ParquetIncrementalScan> listener) {
+        if (!scan.getChangedParquets().isEmpty()) {
+            listener.accept(scan);
+        }
+    }
+
+    /**
+     * @return The directory on the local filesystem, null if the directory is on another filesystem.
+     */
+    private java.nio.file.Path toLocalDirectory() {
+        Path qualifiedDirectory = parquetReader.getFileSystem().makeQualified(directory);
+        if (!LOCAL_SCHEME.equals(qualifiedDirectory.toUri().getScheme())) {
+            return null;
+        }
+        return Paths.get(qualifiedDirectory.toUri());
+    }
+
+    private static void registerAll(java.nio.file.Path root, WatchService watchService) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(java.nio.file.Path dir, BasicFileAttributes attributes)
+                    throws IOException {
+                dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,316 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNode;
+import org.apache.hadoop.fs.FileStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * A persistent cache of Parquet footers, stored in a local directory. Example:
+ * <pre>{@code
+ * try (ParquetFooterCache cache = ParquetFooterCache.open(Paths.get("/var/cache/parquetdiff"), 1_000_000)) {
+ *     ParquetReader reader = ParquetReader.builder(FileSystem.get(new Configuration()))
+ *             .footerCache(cache)
+ *             .build();
+ *     reader.readParquetDirectory("my_data.parquet");
+ * }
+ * }</pre>
+ * <p>
+ * Entries hold the schema and the number of rows of a file, and are keyed by the file path, length and modification
+ * time taken from the listed {@link FileStatus}: a file that did not change since the previous run is not read
+ * again. The cache keeps at most the given number of entries and evicts the least recently used ones. Access times
+ * are persisted with a resolution of one hour, so that runs reading the same files again do not rewrite the cache:
+ * entries used within the same hour are evicted in any order.
+ * <p>
+ * The cache is loaded in memory when opened and written back by {@link #flush()} and {@link #close()}. Several
+ * processes can share the same directory: writes are serialized with a file lock, entries written by other
+ * processes in the meantime are merged, and the cache file is replaced atomically.
+ */
+public final class ParquetFooterCache implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParquetFooterCache.class);
+    private static final String CACHE_FILE_NAME = "footers.cache";
+    private static final String LOCK_FILE_NAME = "footers.cache.lock";
+    private static final int FORMAT_VERSION = 1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final long ACCESS_TIME_RESOLUTION_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final Path cacheFile;
+    private final Path lockFile;
+    private final int maxEntries;
+    private final Clock clock;
+    private final LinkedHashMap<String, Entry> entries;
+    private final Map<ByteBuffer, ByteBuffer> schemas = new HashMap<>();
+    private boolean modified;
+
+    private ParquetFooterCache(Path directory, int maxEntries, Clock clock) {
+        this.cacheFile = directory.resolve(CACHE_FILE_NAME);
+        this.lockFile = directory.resolve(LOCK_FILE_NAME);
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ParquetFooterCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Opens the cache stored in the given directory, the directory is created if needed.
+     *
+     * @param directory  The local directory holding the cache.
+     * @param maxEntries The maximum number of footers kept in the cache.
+     * @return The loaded cache.
+     * @throws IOException If the directory can't be created or if the cache can't be locked.
+     */
+    public static ParquetFooterCache open(Path directory, int maxEntries) throws IOException {
+        return open(directory, maxEntries, Clock.systemUTC());
+    }
+
+    /**
+     * @param directory  The local directory holding the cache.
+     * @param maxEntries The maximum number of footers kept in the cache.
+     * @param clock      The clock of the access times of the entries.
+     * @return The loaded cache.
+     * @throws IOException If the directory can't be created or if the cache can't be locked.
+     * @see #open(Path, int)
+     */
+    static ParquetFooterCache open(Path directory, int maxEntries, Clock clock) throws IOException {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Footer cache size must be positive: " + maxEntries);
+        }
+        Files.createDirectories(directory);
+        ParquetFooterCache cache = new ParquetFooterCache(directory, maxEntries, clock);
+        try (FileChannel channel = cache.openLockFile(); FileLock ignored = channel.lock()) {
+            cache.readEntries().forEach(cache::putEntry);
+        }
+        return cache;
+    }
+
+    /**
+     * @param fileStatus The listed Parquet file.
+     * @return The cached details if the file did not change since it was cached.
+     */
+    public synchronized Optional<ParquetDetails> get(FileStatus fileStatus) {
+        String key = fileStatus.getPath().toString();
+        Entry entry = entries.get(key);
+        if (entry == null || entry.length != fileStatus.getLen()
+                || entry.modificationTime != fileStatus.getModificationTime()) {
+            return Optional.empty();
+        }
+
+        ParquetSchemaNode schema;
+        try {
+            schema = ParquetSchemaCodec.decode(entry.schema.array());
+        } catch (IOException e) {
+            LOGGER.warn("Ignoring invalid cached footer: {}", key, e);
+            entries.remove(key);
+            return Optional.empty();
+        }
+
+        // the lookup moved the entry last in memory, its access time is only persisted once outdated
+        long now = clock.millis();
+        if (now - entry.lastAccess >= ACCESS_TIME_RESOLUTION_MILLIS) {
+            entries.put(key, entry.accessed(now));
+            modified = true;
+        }
+        return Optional.of(new ParquetDetails(fileStatus.getPath(), entry.numRows, schema));
+    }
+
+    /**
+     * Caches the details of the given file, replacing any previous version of the file.
+     *
+     * @param fileStatus The listed Parquet file.
+     * @param details    The details extracted from its footer.
+     */
+    public synchronized void put(FileStatus fileStatus, ParquetDetails details) {
+        byte[] schema = ParquetSchemaCodec.encode(details.getSchema());
+        if (schema == null) {
+            LOGGER.debug("Schema can't be cached: {}", fileStatus.getPath());
+            return;
+        }
+        putEntry(fileStatus.getPath().toString(), new Entry(fileStatus.getLen(), fileStatus.getModificationTime(),
+                details.getNumRows(), ByteBuffer.wrap(schema), clock.millis()));
+        modified = true;
+    }
+
+    /**
+     * @return The number of cached footers.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the cache to its directory, merged with entries written by other processes since it was opened.
+     *
+     * @throws IOException If the cache file can't be written.
+     */
+    public synchronized void flush() throws IOException {
+        if (!modified) {
+            return;
+        }
+        try (FileChannel channel = openLockFile(); FileLock ignored = channel.lock()) {
+            // the most recent access of each entry wins, then the cache size is enforced once on all entries: merging
+            // into the access-ordered map would evict entries before their access times are compared
+            Map<String, Entry> merged = new HashMap<>(readEntries());
+            entries.forEach((key, entry) -> merged.merge(key, entry,
+                    (storedEntry, ownEntry) -> storedEntry.lastAccess > ownEntry.lastAccess ? storedEntry : ownEntry));
+            writeEntries(evictLeastRecentlyUsed(merged));
+        }
+        modified = false;
+    }
+
+    /**
+     * Flushes the cache.
+     *
+     * @throws IOException If the cache file can't be written.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private void putEntry(String key, Entry entry) {
+        // footers sharing the same schema share the same bytes
+        ByteBuffer schema = schemas.computeIfAbsent(entry.schema, bytes -> bytes);
+        entries.put(key, entry.withSchema(schema));
+    }
+
+    private List<Map.Entry<String, Entry>> evictLeastRecentlyUsed(Map<String, Entry> candidates) {
+        List<Map.Entry<String, Entry>> sortedEntries = new ArrayList<>(candidates.size());
+        candidates.forEach((key, entry) -> sortedEntries.add(new AbstractMap.SimpleImmutableEntry<>(key, entry)));
+        sortedEntries.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+        List<Map.Entry<String, Entry>> keptEntries =
+                sortedEntries.subList(Math.max(0, sortedEntries.size() - maxEntries), sortedEntries.size());
+
+        entries.clear();
+        schemas.clear();
+        keptEntries.forEach(entry -> putEntry(entry.getKey(), entry.getValue()));
+        return keptEntries;
+    }
+
+    private FileChannel openLockFile() throws IOException {
+        return FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    private Map<String, Entry> readEntries() {
+        Map<String, Entry> results = new LinkedHashMap<>();
+        if (!Files.exists(cacheFile)) {
+            return results;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                LOGGER.warn("Ignoring footer cache with unsupported version {}: {}", version, cacheFile);
+                return results;
+            }
+
+            ByteBuffer[] schemaTable = new ByteBuffer[in.readInt()];
+            for (int i = 0; i < schemaTable.length; i++) {
+                byte[] schema = new byte[in.readInt()];
+                in.readFully(schema);
+                schemaTable[i] = ByteBuffer.wrap(schema);
+            }
+
+            int entriesCount = in.readInt();
+            for (int i = 0; i < entriesCount; i++) {
+                String key = in.readUTF();
+                long length = in.readLong();
+                long modificationTime = in.readLong();
+                long numRows = in.readLong();
+                long lastAccess = in.readLong();
+                ByteBuffer schema = schemaTable[in.readInt()];
+                results.put(key, new Entry(length, modificationTime, numRows, schema, lastAccess));
+            }
+        } catch (EOFException | ArrayIndexOutOfBoundsException | NegativeArraySizeException e) {
+            LOGGER.warn("Ignoring corrupted footer cache: {}", cacheFile, e);
+            results.clear();
+        } catch (IOException e) {
+            LOGGER.warn("Could not read footer cache: {}", cacheFile, e);
+            results.clear();
+        }
+        return results;
+    }
+
+    private void writeEntries(List<Map.Entry<String, Entry>> entriesToWrite) throws IOException {
+        Map<ByteBuffer, Integer> schemaIndexes = new LinkedHashMap<>();
+        entriesToWrite.forEach(entry -> schemaIndexes.putIfAbsent(entry.getValue().schema, schemaIndexes.size()));
+
+        Path temporaryFile = Files.createTempFile(cacheFile.getParent(), CACHE_FILE_NAME, ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(schemaIndexes.size());
+                for (ByteBuffer schema : schemaIndexes.keySet()) {
+                    out.writeInt(schema.remaining());
+                    out.write(schema.array(), schema.arrayOffset() + schema.position(), schema.remaining());
+                }
+                out.writeInt(entriesToWrite.size());
+                for (Map.Entry<String, Entry> entry : entriesToWrite) {
+                    Entry value = entry.getValue();
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(value.length);
+                    out.writeLong(value.modificationTime);
+                    out.writeLong(value.numRows);
+                    out.writeLong(value.lastAccess);
+                    out.writeInt(schemaIndexes.get(value.schema));
+                }
+            }
+            Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * A cached footer.
+     */
+    private static final class Entry {
+        private final long length;
+        private final long modificationTime;
+        private final long numRows;
+        private final ByteBuffer schema;
+        private final long lastAccess;
+
+        Entry(long length, long modificationTime, long numRows, ByteBuffer schema, long lastAccess) {
+            this.length = length;
+            this.modificationTime = modificationTime;
+            this.numRows = numRows;
+            this.schema = schema;
+            this.lastAccess = lastAccess;
+        }
+
+        Entry accessed(long accessTime) {
+            return new Entry(length, modificationTime, numRows, schema, accessTime);
+        }
+
+        Entry withSchema(ByteBuffer sharedSchema) {
+            return new Entry(length, modificationTime, numRows, sharedSchema, lastAccess);
+        }
+    }
+}
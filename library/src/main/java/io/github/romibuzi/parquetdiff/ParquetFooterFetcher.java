@@ -0,0 +1,122 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metrics.ParquetScanMetrics;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Fetches the serialized footer of a Parquet file.
+ * <p>
+ * A Parquet file ends with its Thrift encoded footer, the footer length (4 bytes, little endian) and the "PAR1"
+ * magic. Instead of reading the length and then the footer, the fetcher reads the last bytes of the file in a
+ * single positioned read, large enough to contain the footer in most cases. A second read is only done for the
+ * missing part of footers larger than the speculative read. The file length comes from the listed
+ * {@link FileStatus}, so no additional metadata call is made.
+ */
+final class ParquetFooterFetcher {
+    /**
+     * Default size of the speculative read at the end of the file.
+     */
+    static final int DEFAULT_TAIL_READ_SIZE = 64 * 1024;
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ENCRYPTED_FOOTER_MAGIC = "PARE".getBytes(StandardCharsets.US_ASCII);
+    private static final int FOOTER_LENGTH_SIZE = Integer.BYTES;
+    private static final int FOOTER_TRAILER_SIZE = FOOTER_LENGTH_SIZE + MAGIC.length;
+
+    private final FileSystem fileSystem;
+    private final int tailReadSize;
+    private final ParquetScanMetrics metrics;
+
+    /**
+     * @param fileSystem   A configured Hadoop filesystem.
+     * @param tailReadSize Number of bytes read at the end of the file by the first read.
+     */
+    ParquetFooterFetcher(FileSystem fileSystem, int tailReadSize) {
+        this(fileSystem, tailReadSize, ParquetScanMetrics.NOOP);
+    }
+
+    /**
+     * @param fileSystem   A configured Hadoop filesystem.
+     * @param tailReadSize Number of bytes read at the end of the file by the first read.
+     * @param metrics      The metrics receiving the size and duration of each fetch.
+     */
+    ParquetFooterFetcher(FileSystem fileSystem, int tailReadSize, ParquetScanMetrics metrics) {
+        this.fileSystem = fileSystem;
+        this.tailReadSize = checkTailReadSize(tailReadSize);
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param tailReadSize Number of bytes read at the end of the file by the first read.
+     * @return The given size.
+     * @throws IllegalArgumentException if the size can't hold the footer length and the Parquet magic.
+     */
+    static int checkTailReadSize(int tailReadSize) throws IllegalArgumentException {
+        if (tailReadSize < FOOTER_TRAILER_SIZE) {
+            throw new IllegalArgumentException("Footer tail read size must be at least " + FOOTER_TRAILER_SIZE
+                    + " bytes: " + tailReadSize);
+        }
+        return tailReadSize;
+    }
+
+    /**
+     * @param fileStatus The Parquet file to read.
+     * @return The Thrift encoded footer, or null if the file has an encrypted footer which can't be decoded as is.
+     * @throws IOException If the file is not a Parquet file or if any error happens while reading it.
+     */
+    ByteBuffer fetch(FileStatus fileStatus) throws IOException {
+        long fileLength = fileStatus.getLen();
+        if (fileLength < MAGIC.length + FOOTER_TRAILER_SIZE) {
+            throw new IOException(fileStatus.getPath() + " is not a Parquet file (length is too low: "
+                    + fileLength + ")");
+        }
+
+        int tailLength = (int) Math.min(fileLength, tailReadSize);
+        byte[] tail = new byte[tailLength];
+        long start = System.nanoTime();
+        try (FSDataInputStream stream = fileSystem.open(fileStatus.getPath())) {
+            stream.readFully(fileLength - tailLength, tail);
+
+            byte[] magic = Arrays.copyOfRange(tail, tailLength - MAGIC.length, tailLength);
+            if (Arrays.equals(ENCRYPTED_FOOTER_MAGIC, magic)) {
+                metrics.footerRead(fileStatus.getPath(), tailLength, System.nanoTime() - start);
+                return null;
+            }
+            if (!Arrays.equals(MAGIC, magic)) {
+                throw new IOException(fileStatus.getPath() + " is not a Parquet file. Expected magic number at tail "
+                        + Arrays.toString(MAGIC) + " but found " + Arrays.toString(magic));
+            }
+
+            int footerLengthIndex = tailLength - FOOTER_TRAILER_SIZE;
+            int footerLength = ByteBuffer.wrap(tail, footerLengthIndex, FOOTER_LENGTH_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .getInt();
+            long footerStart = fileLength - FOOTER_TRAILER_SIZE - footerLength;
+            if (footerLength < 0 || footerStart < MAGIC.length) {
+                throw new IOException("Corrupted file: the footer index is not within the file: " + footerStart);
+            }
+
+            int footerStartInTail = footerLengthIndex - footerLength;
+            if (footerStartInTail >= 0) {
+                metrics.footerRead(fileStatus.getPath(), tailLength, System.nanoTime() - start);
+                return ByteBuffer.wrap(tail, footerStartInTail, footerLength).slice();
+            }
+
+            // footer larger than the speculative read, only the missing head of the footer is read
+            int missingLength = -footerStartInTail;
+            byte[] footer = new byte[footerLength];
+            stream.readFully(footerStart, footer, 0, missingLength);
+            System.arraycopy(tail, 0, footer, missingLength, footerLengthIndex);
+            metrics.footerRead(fileStatus.getPath(), (long) tailLength + missingLength, System.nanoTime() - start);
+            return ByteBuffer.wrap(footer);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.romibuzi.parquetdiff;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event of the read of a Parquet footer, from its fetch to the extraction of its schema,
+ * disabled by default.
+ */
+@Name(ParquetFooterReadEvent.NAME)
+@Label("Parquet Footer Read")
+@Description("The fetch and decoding of the footer of a Parquet file")
+@Category("ParquetDiff")
+@Enabled(false)
+@StackTrace(false)
+final class ParquetFooterReadEvent extends Event {
+    static final String NAME = "io.github.romibuzi.parquetdiff.FooterRead";
+
+    @Label("Path")
+    private String path;
+
+    @Label("File Length")
+    @DataAmount
+    private long fileLength;
+
+    @Label("Footer Length")
+    @Description("The length of the serialized footer, -1 for encrypted footers read by parquet-mr")
+    @DataAmount
+    private long footerLength = -1;
+
+    @Label("Schema Nodes")
+    @Description("The number of nodes of the extracted schema, -1 if the read failed")
+    private int schemaNodes = -1;
+
+    void setPath(String readPath) {
+        this.path = readPath;
+    }
+
+    void setFileLength(long length) {
+        this.fileLength = length;
+    }
+
+    void setFooterLength(long length) {
+        this.footerLength = length;
+    }
+
+    void setSchemaNodes(int nodes) {
+        this.schemaNodes = nodes;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.diff.ParquetComparator;
+import io.github.romibuzi.parquetdiff.diff.ParquetSchemaDiff;
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * The result of an incremental scan of a Parquet directory, see
+ * {@link ParquetReader#scanParquetDirectory(org.apache.hadoop.fs.Path)}.
+ */
+public final class ParquetIncrementalScan {
+    private final List<ParquetDetails> parquets;
+    private final List<ParquetDetails> changedParquets;
+    private final ParquetDetails reference;
+
+    /**
+     * @param parquets        All Parquet files of the directory, in listing order.
+     * @param changedParquets The Parquet files read by this scan, in listing order.
+     * @param reference       The reference file of the scans, null if no file was ever found.
+     */
+    ParquetIncrementalScan(List<ParquetDetails> parquets, List<ParquetDetails> changedParquets,
+                           ParquetDetails reference) {
+        this.parquets = parquets;
+        this.changedParquets = changedParquets;
+        this.reference = reference;
+    }
+
+    /**
+     * @return All Parquet files of the directory, in listing order, unchanged files being taken from the state.
+     */
+    public List<ParquetDetails> getParquets() {
+        return Collections.unmodifiableList(parquets);
+    }
+
+    /**
+     * @return The Parquet files new or changed since the previous scans, in listing order.
+     */
+    public List<ParquetDetails> getChangedParquets() {
+        return Collections.unmodifiableList(changedParquets);
+    }
+
+    /**
+     * @return The reference file of the scans, stored by the first scan that found files.
+     */
+    public Optional<ParquetDetails> getReference() {
+        return Optional.ofNullable(reference);
+    }
+
+    /**
+     * @return The differences between the reference schema and the schemas of the new or changed files.
+     */
+    public List<ParquetSchemaDiff> findSchemasDifferences() {
+        if (reference == null) {
+            return List.of();
+        }
+        return changedParquets.stream()
+                .map(parquet -> ParquetComparator.findSchemasDifferences(reference, parquet))
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+}
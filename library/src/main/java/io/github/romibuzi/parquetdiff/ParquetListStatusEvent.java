@@ -0,0 +1,37 @@
+package io.github.romibuzi.parquetdiff;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event of a {@code listStatus} call on a directory, disabled by default.
+ */
+@Name(ParquetListStatusEvent.NAME)
+@Label("Parquet Directory Listing")
+@Description("A listStatus call on a directory of a Parquet dataset")
+@Category("ParquetDiff")
+@Enabled(false)
+@StackTrace(false)
+final class ParquetListStatusEvent extends Event {
+    static final String NAME = "io.github.romibuzi.parquetdiff.ListStatus";
+
+    @Label("Path")
+    private String path;
+
+    @Label("Entries")
+    @Description("The number of files and directories listed, -1 if the call failed")
+    private int entries = -1;
+
+    void setPath(String listedPath) {
+        this.path = listedPath;
+    }
+
+    void setEntries(int listedEntries) {
+        this.entries = listedEntries;
+    }
+}
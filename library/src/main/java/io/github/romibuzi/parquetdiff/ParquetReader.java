@@ -1,14 +1,25 @@
 package io.github.romibuzi.parquetdiff;
 
+import io.github.romibuzi.parquetdiff.metadata.ParquetColumnStatistics;
 import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartitionFilter;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartitions;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaFingerprint;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaInterner;
 import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNode;
+import io.github.romibuzi.parquetdiff.metrics.ParquetScanMetrics;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.format.FileMetaData;
+import org.apache.parquet.format.Util;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.hadoop.util.HadoopInputFile;
 import org.apache.parquet.io.InputFile;
@@ -17,19 +28,43 @@ import org.apache.parquet.schema.MessageType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Provide facilities to read Parquet directories and files.
  */
 public final class ParquetReader {
     private static final Logger LOGGER = LoggerFactory.getLogger(ParquetReader.class);
-    private static final String PARQUET_EXTENSION = ".parquet";
     private static final ParquetReadOptions PARQUET_READ_OPTIONS = ParquetReadOptions.builder().build();
+    private static final ParquetMetadataConverter METADATA_CONVERTER = new ParquetMetadataConverter();
+    private static final int DEFAULT_STREAM_READ_AHEAD = 256;
 
     private final FileSystem fileSystem;
-    private final ParquetTypeVisitor typeVisitor = new ParquetTypeVisitor();
+    private final ExecutorService footerExecutor;
+    private final ParquetDirectoryLister directoryLister;
+    private final ParquetFooterFetcher footerFetcher;
+    private final ParquetFooterCache footerCache;
+    private final ParquetScanState scanState;
+    private final ParquetSchemaInterner schemaInterner;
+    private final int streamReadAhead;
+    private final boolean schemaOnlyFooters;
+    private final boolean summaryFiles;
+    private final boolean deltaLog;
+    private final boolean columnStatistics;
+    private final List<ParquetPartitionFilter> partitionFilters;
+    private final ParquetScanMetrics metrics;
 
     /**
      * <p>
@@ -44,7 +79,42 @@ public final class ParquetReader {
      * @param fileSystem A configured Hadoop filesystem.
      */
     public ParquetReader(FileSystem fileSystem) {
-        this.fileSystem = fileSystem;
+        this(builder(fileSystem));
+    }
+
+    /**
+     * <p>
+     * Instantiate a ParquetReader instance that reads Parquet footers concurrently with the given executor.
+     * Results are still returned in the same order as the sequential reader. Example:
+     * <pre>{@code
+     * ExecutorService executor = Executors.newFixedThreadPool(16);
+     * ParquetReader reader = new ParquetReader(FileSystem.get(new Configuration()), executor);
+     * }</pre>
+     * The executor bounds the number of footers fetched at the same time and is not shut down by the reader.
+     *
+     * @param fileSystem     A configured Hadoop filesystem.
+     * @param footerExecutor The executor used to read Parquet footers.
+     */
+    public ParquetReader(FileSystem fileSystem, ExecutorService footerExecutor) {
+        this(builder(fileSystem).footerExecutor(Objects.requireNonNull(footerExecutor, "footerExecutor")));
+    }
+
+    private ParquetReader(Builder builder) {
+        this.fileSystem = builder.fileSystem;
+        this.footerExecutor = builder.footerExecutor;
+        this.partitionFilters = List.copyOf(builder.partitionFilters);
+        this.metrics = builder.metrics;
+        this.directoryLister = new ParquetDirectoryLister(builder.fileSystem, builder.listingParallelism,
+                partitionFilters, builder.scanState, metrics);
+        this.footerFetcher = new ParquetFooterFetcher(builder.fileSystem, builder.footerTailReadSize, metrics);
+        this.footerCache = builder.footerCache;
+        this.scanState = builder.scanState;
+        this.schemaInterner = builder.schemaInterner != null ? builder.schemaInterner : new ParquetSchemaInterner();
+        this.streamReadAhead = builder.streamReadAhead;
+        this.schemaOnlyFooters = builder.schemaOnlyFooters;
+        this.summaryFiles = builder.summaryFiles;
+        this.deltaLog = builder.deltaLog;
+        this.columnStatistics = builder.columnStatistics;
     }
 
     /**
@@ -55,6 +125,23 @@ public final class ParquetReader {
         return new ParquetReader(FileSystem.get(new Configuration()));
     }
 
+    /**
+     * <p>
+     * Creates a builder to configure how a ParquetReader lists and reads Parquet files. Example:
+     * <pre>{@code
+     * ParquetReader reader = ParquetReader.builder(FileSystem.get(new Configuration()))
+     *         .footerExecutor(Executors.newFixedThreadPool(16))
+     *         .listingParallelism(32)
+     *         .build();
+     * }</pre>
+     *
+     * @param fileSystem A configured Hadoop filesystem.
+     * @return A new {@link Builder} instance.
+     */
+    public static Builder builder(FileSystem fileSystem) {
+        return new Builder(fileSystem);
+    }
+
     /**
      * Extract partitions and files metadata from a Parquet directory.
      *
@@ -63,14 +150,11 @@ public final class ParquetReader {
      * @throws IOException If Parquet directory is not found or if any error happens while listing Parquet files.
      */
     public List<ParquetDetails> readParquetDirectory(Path parquetDirectoryPath) throws IOException {
-        if (!fileSystem.exists(parquetDirectoryPath)) {
-            throw new IOException("Parquet directory not found: " + parquetDirectoryPath);
-        }
-        FileStatus fileStatus = fileSystem.getFileStatus(parquetDirectoryPath);
-        if (!fileStatus.isDirectory()) {
-            throw new IOException("Parquet is not a directory: " + parquetDirectoryPath);
+        List<FileStatus> parquetFiles = listParquetDirectory(parquetDirectoryPath);
+        if (summaryFiles && !columnStatistics) {
+            return readParquetsWithSummaryFile(parquetDirectoryPath, parquetFiles);
         }
-        return readAllParquetsInDirectory(parquetDirectoryPath);
+        return readAllParquetsInDirectory(parquetFiles);
     }
 
     /**
@@ -80,6 +164,198 @@ public final class ParquetReader {
         return readParquetDirectory(new Path(parquetDirectory));
     }
 
+    /**
+     * <p>
+     * Extract partitions and files metadata from a sample of the files of a Parquet directory. Example:
+     * <pre>{@code
+     * ParquetSample sample = reader.sampleParquetDirectory(new Path("my_data.parquet"),
+     *         ParquetSampling.maxFilesPerPartition(4).withEscalation());
+     * }</pre>
+     * <p>
+     * The whole directory is listed, then only the files selected by the sampling are read in each partition.
+     * With escalation, the skipped files of partitions whose sampled schemas diverge are read in a second pass.
+     *
+     * @param parquetDirectoryPath the Parquet directory to read.
+     * @param sampling             Selects the files read in each partition.
+     * @return The Parquet files read, extracted as {@link ParquetDetails}, and the skipped files.
+     * @throws IOException If Parquet directory is not found or if any error happens while listing Parquet files.
+     */
+    public ParquetSample sampleParquetDirectory(Path parquetDirectoryPath, ParquetSampling sampling)
+            throws IOException {
+        List<List<FileStatus>> partitions = groupByDirectory(listParquetDirectory(parquetDirectoryPath));
+
+        Random random = sampling.newRandom();
+        List<FileStatus> sampledFiles = new ArrayList<>();
+        for (List<FileStatus> partition : partitions) {
+            for (int index : sampling.select(partition.size(), random)) {
+                sampledFiles.add(partition.get(index));
+            }
+        }
+        Map<Path, ParquetDetails> results = new HashMap<>();
+        readInto(sampledFiles, results);
+
+        List<Path> escalatedPartitions = new ArrayList<>();
+        if (sampling.isEscalation()) {
+            List<FileStatus> escalatedFiles = new ArrayList<>();
+            List<Set<ParquetSchemaFingerprint>> fingerprints = new ArrayList<>(partitions.size());
+            for (List<FileStatus> partition : partitions) {
+                fingerprints.add(partition.stream()
+                        .map(file -> results.get(file.getPath()))
+                        .filter(Objects::nonNull)
+                        .map(ParquetDetails::getFingerprint)
+                        .collect(Collectors.toSet()));
+            }
+            for (int i = 0; i < partitions.size(); i++) {
+                Set<ParquetSchemaFingerprint> current = fingerprints.get(i);
+                boolean diverges = current.size() > 1
+                        || i > 0 && !current.equals(fingerprints.get(i - 1))
+                        || i + 1 < partitions.size() && !current.equals(fingerprints.get(i + 1));
+                List<FileStatus> skipped = partitions.get(i).stream()
+                        .filter(file -> !results.containsKey(file.getPath()))
+                        .collect(Collectors.toList());
+                if (diverges && !skipped.isEmpty()) {
+                    escalatedPartitions.add(partitions.get(i).get(0).getPath().getParent());
+                    escalatedFiles.addAll(skipped);
+                }
+            }
+            readInto(escalatedFiles, results);
+        }
+
+        List<ParquetDetails> parquets = new ArrayList<>(results.size());
+        List<Path> skippedFiles = new ArrayList<>();
+        for (List<FileStatus> partition : partitions) {
+            for (FileStatus file : partition) {
+                ParquetDetails details = results.get(file.getPath());
+                if (details != null) {
+                    parquets.add(details);
+                } else {
+                    skippedFiles.add(file.getPath());
+                }
+            }
+        }
+        LOGGER.debug("Sampled {} Parquet files out of {}", parquets.size(), parquets.size() + skippedFiles.size());
+        return new ParquetSample(parquets, skippedFiles, escalatedPartitions);
+    }
+
+    /**
+     * @see ParquetReader#sampleParquetDirectory(Path, ParquetSampling)
+     */
+    public ParquetSample sampleParquetDirectory(String parquetDirectory, ParquetSampling sampling)
+            throws IOException {
+        return sampleParquetDirectory(new Path(parquetDirectory), sampling);
+    }
+
+    /**
+     * <p>
+     * Incrementally extract partitions and files metadata from a Parquet directory, using the scan state of the
+     * reader. Example:
+     * <pre>{@code
+     * ParquetIncrementalScan scan = reader.scanParquetDirectory(new Path("my_data.parquet"));
+     * scan.findSchemasDifferences().forEach(diff -> diff.print(System.out));
+     * }</pre>
+     * <p>
+     * Only the leaf directories modified since the previous scan are listed, and only the new or changed files are
+     * read, the other files being taken from the state. The first scan finding files stores the first one as the
+     * reference of the next scans. The state is written at the end of the scan, and periodically during it so that
+     * an interrupted scan can be resumed.
+     *
+     * @param parquetDirectoryPath the Parquet directory to read.
+     * @return All Parquet files extracted as {@link ParquetDetails}, the new or changed ones and the reference.
+     * @throws IOException If Parquet directory is not found or if any error happens while listing Parquet files.
+     * @throws IllegalStateException if the reader has no scan state, see {@link Builder#scanState(ParquetScanState)}.
+     */
+    public ParquetIncrementalScan scanParquetDirectory(Path parquetDirectoryPath) throws IOException {
+        if (scanState == null) {
+            throw new IllegalStateException("Incremental scans require a scan state");
+        }
+        List<FileStatus> parquetFiles = listParquetDirectory(parquetDirectoryPath);
+        Set<Path> changedFiles = new HashSet<>();
+        for (FileStatus fileStatus : parquetFiles) {
+            if (!scanState.contains(fileStatus)) {
+                changedFiles.add(fileStatus.getPath());
+            }
+        }
+        LOGGER.debug("{} Parquet files out of {} are new or changed", changedFiles.size(), parquetFiles.size());
+
+        List<ParquetDetails> parquets = readAllParquetsInDirectory(parquetFiles);
+        List<ParquetDetails> changedParquets = parquets.stream()
+                .filter(parquet -> changedFiles.contains(parquet.getPath()))
+                .collect(Collectors.toList());
+
+        ParquetDetails reference = scanState.getReference().map(this::internSchema).orElse(null);
+        if (reference == null && !parquets.isEmpty()) {
+            reference = parquets.get(0);
+            scanState.setReference(reference);
+        }
+        scanState.flush();
+        return new ParquetIncrementalScan(parquets, changedParquets, reference);
+    }
+
+    /**
+     * @see ParquetReader#scanParquetDirectory(Path)
+     */
+    public ParquetIncrementalScan scanParquetDirectory(String parquetDirectory) throws IOException {
+        return scanParquetDirectory(new Path(parquetDirectory));
+    }
+
+    /**
+     * <p>
+     * Lazily extract partitions and files metadata from a Parquet directory. Example:
+     * <pre>{@code
+     * try (Stream<ParquetDetails> parquets = reader.streamParquetDirectory(new Path("my_data.parquet"))) {
+     *     parquets.forEach(System.out::println);
+     * }
+     * }</pre>
+     * <p>
+     * The directory is listed when this method is called, footers are read as the stream is consumed, in listing
+     * order. With a footer executor, a bounded number of footers are read ahead, see
+     * {@link Builder#streamReadAhead(int)}. Closing the stream stops pending reads.
+     * <p>
+     * Only footers are read lazily: the whole directory tree is listed up front, the file statuses of all selected
+     * Parquet files being held in memory until the stream is closed. Partition filters bound that listing.
+     *
+     * @param parquetDirectoryPath the Parquet directory to read.
+     * @return All Parquet files extracted as {@link ParquetDetails}, read failures being thrown as
+     * {@link java.io.UncheckedIOException} while consuming the stream.
+     * @throws IOException If Parquet directory is not found or if any error happens while listing Parquet files.
+     */
+    public Stream<ParquetDetails> streamParquetDirectory(Path parquetDirectoryPath) throws IOException {
+        List<FileStatus> parquetFiles = listParquetDirectory(parquetDirectoryPath);
+        ParquetDetailsIterator iterator = newParquetDetailsIterator(parquetFiles);
+        Spliterator<ParquetDetails> spliterator = Spliterators.spliterator(iterator, parquetFiles.size(),
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+    }
+
+    /**
+     * @see ParquetReader#streamParquetDirectory(Path)
+     */
+    public Stream<ParquetDetails> streamParquetDirectory(String parquetDirectory) throws IOException {
+        return streamParquetDirectory(new Path(parquetDirectory));
+    }
+
+    /**
+     * <p>
+     * Publishes the Parquet files of a directory with backpressure. Example:
+     * <pre>{@code
+     * reader.publishParquetDirectory(new Path("my_data.parquet"), executor).subscribe(subscriber);
+     * }</pre>
+     * <p>
+     * Each subscription lists the directory when the first item is requested, then reads footers as they are
+     * requested, in listing order. Listing and read failures are signalled with {@code onError}. The listing, the
+     * reads and the signals run on the given executor, which must not be the footer executor when the latter is
+     * bounded, since subscriptions wait for footer reads.
+     *
+     * @param parquetDirectoryPath the Parquet directory to read.
+     * @param executor             The executor running subscriptions.
+     * @return A publisher of all Parquet files extracted as {@link ParquetDetails}.
+     */
+    public Flow.Publisher<ParquetDetails> publishParquetDirectory(Path parquetDirectoryPath, Executor executor) {
+        Objects.requireNonNull(executor, "executor");
+        return new ParquetDetailsPublisher(
+                () -> newParquetDetailsIterator(listParquetDirectory(parquetDirectoryPath)), executor);
+    }
+
     /**
      * Extract partitions and metadata from a single Parquet file.
      *
@@ -88,10 +364,12 @@ public final class ParquetReader {
      * @throws IOException If Parquet file is not found or if any error happens while reading it.
      */
     public ParquetDetails readParquetFile(Path parquetFilePath) throws IOException {
-        if (!fileSystem.exists(parquetFilePath)) {
-            throw new IOException("Parquet file not found: " + parquetFilePath);
+        FileStatus fileStatus;
+        try {
+            fileStatus = fileSystem.getFileStatus(parquetFilePath);
+        } catch (FileNotFoundException e) {
+            throw new IOException("Parquet file not found: " + parquetFilePath, e);
         }
-        FileStatus fileStatus = fileSystem.getFileStatus(parquetFilePath);
         if (!fileStatus.isFile()) {
             throw new IOException("Parquet is not a file: " + parquetFilePath);
         }
@@ -105,63 +383,532 @@ public final class ParquetReader {
         return readParquetFile(new Path(parquetFile));
     }
 
-    private List<ParquetDetails> readAllParquetsInDirectory(Path path) throws IOException {
-        List<ParquetDetails> results = new ArrayList<>();
-        Queue<Path> directoriesToProcess = new ArrayDeque<>();
-        directoriesToProcess.offer(path);
+    /**
+     * @return The filesystem the reader lists and reads.
+     */
+    FileSystem getFileSystem() {
+        return fileSystem;
+    }
 
-        while (!directoriesToProcess.isEmpty()) {
-            Path currentDirectory = directoriesToProcess.poll();
-            for (FileStatus fileStatus : listFileStatuses(currentDirectory)) {
-                if (fileStatus.isDirectory()) {
-                    directoriesToProcess.offer(fileStatus.getPath());
-                } else if (fileStatus.getPath().getName().endsWith(PARQUET_EXTENSION)) {
-                    ParquetDetails details = extractParquetDetails(fileStatus);
-                    results.add(details);
-                }
+    /**
+     * @return The metrics receiving the measures of the reader, {@link ParquetScanMetrics#NOOP} by default.
+     */
+    ParquetScanMetrics getMetrics() {
+        return metrics;
+    }
+
+    private List<FileStatus> listParquetDirectory(Path parquetDirectoryPath) throws IOException {
+        if (!fileSystem.exists(parquetDirectoryPath)) {
+            throw new IOException("Parquet directory not found: " + parquetDirectoryPath);
+        }
+        FileStatus fileStatus = fileSystem.getFileStatus(parquetDirectoryPath);
+        if (!fileStatus.isDirectory()) {
+            throw new IOException("Parquet is not a directory: " + parquetDirectoryPath);
+        }
+        if (deltaLog) {
+            if (!ParquetDeltaLog.exists(fileSystem, parquetDirectoryPath)) {
+                throw new IOException("Delta log not found: " + parquetDirectoryPath);
             }
+            return ParquetDeltaLog.listParquetFiles(fileSystem, parquetDirectoryPath, partitionFilters);
         }
+        return directoryLister.listParquetFiles(parquetDirectoryPath);
+    }
 
-        return results;
+    /**
+     * @param parquetFiles Listed Parquet files, the files of a directory being contiguous.
+     * @return The files grouped by parent directory, in listing order.
+     */
+    private static List<List<FileStatus>> groupByDirectory(List<FileStatus> parquetFiles) {
+        List<List<FileStatus>> partitions = new ArrayList<>();
+        Path currentDirectory = null;
+        for (FileStatus fileStatus : parquetFiles) {
+            Path directory = fileStatus.getPath().getParent();
+            if (!directory.equals(currentDirectory)) {
+                partitions.add(new ArrayList<>());
+                currentDirectory = directory;
+            }
+            partitions.get(partitions.size() - 1).add(fileStatus);
+        }
+        return partitions;
+    }
+
+    /**
+     * Files described by the summary file are not read, the other ones are read individually.
+     */
+    private List<ParquetDetails> readParquetsWithSummaryFile(Path parquetDirectoryPath, List<FileStatus> parquetFiles)
+            throws IOException {
+        Path summaryPath = new Path(parquetDirectoryPath, ParquetSummaryFile.METADATA_FILE_NAME);
+        ParquetSummaryFile summary = readSummaryFile(summaryPath);
+        if (summary == null) {
+            return readAllParquetsInDirectory(parquetFiles);
+        }
+
+        ParquetSchemaNode schema = extractSchema(summary.getSchema());
+        String root = Path.getPathWithoutSchemeAndAuthority(fileSystem.makeQualified(parquetDirectoryPath))
+                .toString() + Path.SEPARATOR;
+        Map<Path, ParquetDetails> results = new HashMap<>();
+        List<FileStatus> unsummarizedFiles = new ArrayList<>();
+        Set<String> listedFiles = new HashSet<>();
+        for (FileStatus fileStatus : parquetFiles) {
+            String filePath = Path.getPathWithoutSchemeAndAuthority(fileStatus.getPath()).toString();
+            OptionalLong numRows = OptionalLong.empty();
+            if (filePath.startsWith(root)) {
+                String relativePath = filePath.substring(root.length());
+                listedFiles.add(relativePath);
+                numRows = summary.getNumRows(relativePath, fileStatus.getModificationTime());
+            }
+            if (numRows.isPresent()) {
+                results.put(fileStatus.getPath(), newParquetDetails(fileStatus, numRows.getAsLong(), schema));
+            } else {
+                unsummarizedFiles.add(fileStatus);
+            }
+        }
+
+        long unlistedFiles = summary.getFiles().stream().filter(file -> !listedFiles.contains(file)).count();
+        if (unlistedFiles > 0) {
+            LOGGER.info("{} files of {} are not listed, deleted or filtered out", unlistedFiles, summaryPath);
+        }
+        if (!unsummarizedFiles.isEmpty()) {
+            LOGGER.info("{} files out of {} are missing from {}, modified after it or have another schema",
+                    unsummarizedFiles.size(), parquetFiles.size(), summaryPath);
+        }
+        readInto(unsummarizedFiles, results);
+
+        List<ParquetDetails> parquets = new ArrayList<>(parquetFiles.size());
+        for (FileStatus fileStatus : parquetFiles) {
+            parquets.add(results.get(fileStatus.getPath()));
+        }
+        return parquets;
+    }
+
+    /**
+     * @return The summary file, null if it doesn't exist or can't be read.
+     */
+    private ParquetSummaryFile readSummaryFile(Path summaryPath) throws IOException {
+        FileStatus summaryStatus;
+        try {
+            summaryStatus = fileSystem.getFileStatus(summaryPath);
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+        try {
+            ByteBuffer footer = footerFetcher.fetch(summaryStatus);
+            if (footer == null) {
+                LOGGER.info("Summary file {} is encrypted, reading files individually", summaryPath);
+                return null;
+            }
+            // the raw footer holds the actual types of the column chunks, not those of the merged schema
+            FileMetaData metadata = Util.readFileMetaData(new ByteArrayInputStream(footer.array(),
+                    footer.arrayOffset() + footer.position(), footer.remaining()));
+            return new ParquetSummaryFile(metadata, summaryStatus.getModificationTime());
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not read summary file {}, reading files individually", summaryPath, e);
+            return null;
+        }
+    }
+
+    private void readInto(List<FileStatus> parquetFiles, Map<Path, ParquetDetails> results) throws IOException {
+        List<ParquetDetails> parquets = readAllParquetsInDirectory(parquetFiles);
+        for (int i = 0; i < parquetFiles.size(); i++) {
+            results.put(parquetFiles.get(i).getPath(), parquets.get(i));
+        }
+    }
+
+    private ParquetDetailsIterator newParquetDetailsIterator(List<FileStatus> parquetFiles) {
+        return new ParquetDetailsIterator(parquetFiles, this::extractParquetDetails, footerExecutor,
+                streamReadAhead);
+    }
+
+    private List<ParquetDetails> readAllParquetsInDirectory(List<FileStatus> parquetFiles) throws IOException {
+        List<Callable<ParquetDetails>> tasks = new ArrayList<>(parquetFiles.size());
+        for (FileStatus fileStatus : parquetFiles) {
+            tasks.add(() -> extractParquetDetails(fileStatus));
+        }
+        // results come back in submission order, keeping the listing order
+        return Futures.runAll(footerExecutor, tasks);
     }
 
     private ParquetDetails extractParquetDetails(FileStatus fileStatus) throws IOException {
+        if (scanState != null && !columnStatistics) {
+            Optional<ParquetDetails> storedDetails = scanState.get(fileStatus);
+            if (storedDetails.isPresent()) {
+                return newParquetDetails(fileStatus, storedDetails.get().getNumRows(),
+                        storedDetails.get().getSchema());
+            }
+        }
+        if (footerCache != null && !columnStatistics) {
+            Optional<ParquetDetails> cachedDetails = footerCache.get(fileStatus);
+            if (cachedDetails.isPresent()) {
+                ParquetDetails details = newParquetDetails(fileStatus, cachedDetails.get().getNumRows(),
+                        cachedDetails.get().getSchema());
+                if (scanState != null) {
+                    scanState.put(fileStatus, details);
+                }
+                return details;
+            }
+        }
+
         try {
-            ParquetMetadata metadata = readParquetFooter(fileStatus);
-            return new ParquetDetails(
-                    fileStatus.getPath(),
-                    extractRowCount(metadata.getBlocks()),
-                    extractSchema(metadata.getFileMetaData().getSchema()));
+            ParquetDetails details = readParquetFooter(fileStatus);
+            if (footerCache != null) {
+                footerCache.put(fileStatus, details);
+            }
+            if (scanState != null) {
+                scanState.put(fileStatus, details);
+            }
+            return details;
         } catch (IOException e) {
             LOGGER.error("Error reading Parquet footer: {}", fileStatus.getPath(), e);
             throw e;
         }
     }
 
+    private ParquetDetails readParquetFooter(FileStatus fileStatus) throws IOException {
+        ParquetFooterReadEvent event = new ParquetFooterReadEvent();
+        event.begin();
+        ParquetDetails details = null;
+        try {
+            details = readParquetFooter(fileStatus, event);
+            return details;
+        } finally {
+            if (event.shouldCommit()) {
+                event.setPath(fileStatus.getPath().toString());
+                event.setFileLength(fileStatus.getLen());
+                if (details != null) {
+                    event.setSchemaNodes(details.getSchema().countNodes());
+                }
+                event.commit();
+            }
+        }
+    }
+
+    private ParquetDetails readParquetFooter(FileStatus fileStatus, ParquetFooterReadEvent event)
+            throws IOException {
+        ByteBuffer footer = footerFetcher.fetch(fileStatus);
+        if (footer == null) {
+            // encrypted footers are left to parquet-mr
+            return newParquetDetails(fileStatus, readParquetFooterWithFileReader(fileStatus));
+        }
+        event.setFooterLength(footer.remaining());
+
+        InputStream footerStream =
+                new ByteArrayInputStream(footer.array(), footer.arrayOffset() + footer.position(), footer.remaining());
+        if (schemaOnlyFooters && !columnStatistics) {
+            // row groups and column chunks are skipped by the Thrift decoder, the file holds the total row count
+            FileMetaData fileMetaData = Util.readFileMetaData(footerStream, true);
+            long start = System.nanoTime();
+            ParquetSchemaNode schema = ParquetSchemaElementConverter.convert(fileMetaData.getSchema());
+            if (schema != null) {
+                metrics.schemaExtracted(System.nanoTime() - start);
+            } else {
+                // types unknown to the converter are left to parquet-mr
+                MessageType messageType = METADATA_CONVERTER.fromParquetSchema(fileMetaData.getSchema(),
+                        fileMetaData.getColumn_orders());
+                schema = extractSchema(messageType);
+            }
+            return newParquetDetails(fileStatus, fileMetaData.getNum_rows(), schema);
+        }
+        return newParquetDetails(fileStatus,
+                METADATA_CONVERTER.readParquetMetadata(footerStream, ParquetMetadataConverter.NO_FILTER));
+    }
+
+    private ParquetDetails newParquetDetails(FileStatus fileStatus, ParquetMetadata metadata) {
+        return newParquetDetails(fileStatus, extractRowCount(metadata.getBlocks()),
+                extractSchema(metadata.getFileMetaData().getSchema()),
+                columnStatistics ? extractColumnStatistics(metadata.getBlocks()) : List.of());
+    }
+
+    private ParquetDetails newParquetDetails(FileStatus fileStatus, long numRows, ParquetSchemaNode extractedSchema) {
+        return newParquetDetails(fileStatus, numRows, extractedSchema, List.of());
+    }
+
+    private ParquetDetails newParquetDetails(FileStatus fileStatus, long numRows, ParquetSchemaNode extractedSchema,
+                                             List<ParquetColumnStatistics> statistics) {
+        ParquetSchemaNode schema = schemaInterner.intern(extractedSchema);
+        ParquetPartitions partitions = fileStatus instanceof ParquetDeltaLog.DeltaFileStatus
+                ? ((ParquetDeltaLog.DeltaFileStatus) fileStatus).getPartitions()
+                : ParquetPartitions.fromPath(fileStatus.getPath());
+        return new ParquetDetails(
+                fileStatus.getPath(),
+                numRows,
+                schema,
+                partitions,
+                schemaInterner.fingerprint(schema),
+                statistics);
+    }
+
+    private ParquetDetails internSchema(ParquetDetails details) {
+        ParquetSchemaNode schema = schemaInterner.intern(details.getSchema());
+        return new ParquetDetails(details.getPath(), details.getNumRows(), schema, details.getPartitions(),
+                schemaInterner.fingerprint(schema));
+    }
+
     private long extractRowCount(List<BlockMetaData> blocks) {
         return blocks.stream().mapToLong(BlockMetaData::getRowCount).sum();
     }
 
-    private ParquetSchemaNode extractSchema(MessageType messageType) {
-        messageType.accept(typeVisitor);
-        return typeVisitor.getSchema();
+    private List<ParquetColumnStatistics> extractColumnStatistics(List<BlockMetaData> blocks) {
+        // leaf columns in the order of the first row group, all row groups having the same columns
+        Map<String, ParquetColumnStatistics> statistics = new LinkedHashMap<>();
+        for (BlockMetaData block : blocks) {
+            for (ColumnChunkMetaData column : block.getColumns()) {
+                statistics.merge(column.getPath().toDotString(), extractColumnStatistics(column),
+                        ParquetColumnStatistics::merge);
+            }
+        }
+        return new ArrayList<>(statistics.values());
     }
 
-    private FileStatus[] listFileStatuses(Path path) throws IOException {
-        try {
-            FileStatus[] fileStatuses = fileSystem.listStatus(path);
-            Arrays.sort(fileStatuses, Comparator.comparing(FileStatus::getPath));
-            return fileStatuses;
-        } catch (IOException e) {
-            LOGGER.error("Could not listStatus on {}", path, e);
-            throw e;
+    private ParquetColumnStatistics extractColumnStatistics(ColumnChunkMetaData column) {
+        String path = column.getPath().toDotString();
+        Statistics<?> statistics = column.getStatistics();
+        if (statistics == null || statistics.isEmpty()) {
+            return new ParquetColumnStatistics(path, column.getValueCount(), -1, null, null, null, null);
+        }
+        long nullCount = statistics.isNumNullsSet() ? statistics.getNumNulls() : -1;
+        if (!statistics.hasNonNullValue()) {
+            return new ParquetColumnStatistics(path, column.getValueCount(), nullCount, null, null, null, null);
         }
+        return new ParquetColumnStatistics(path, column.getValueCount(), nullCount, statistics.minAsString(),
+                statistics.maxAsString(), toDouble(statistics.genericGetMin()), toDouble(statistics.genericGetMax()));
     }
 
-    private ParquetMetadata readParquetFooter(FileStatus fileStatus) throws IOException {
+    private static Double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : null;
+    }
+
+    private ParquetSchemaNode extractSchema(MessageType messageType) {
+        long start = System.nanoTime();
+        // the visitor holds traversal state, one instance per extraction keeps concurrent reads isolated
+        ParquetTypeVisitor typeVisitor = new ParquetTypeVisitor();
+        messageType.accept(typeVisitor);
+        metrics.schemaExtracted(System.nanoTime() - start);
+        return typeVisitor.getSchema();
+    }
+
+    private ParquetMetadata readParquetFooterWithFileReader(FileStatus fileStatus) throws IOException {
         InputFile inputFile = HadoopInputFile.fromStatus(fileStatus, fileSystem.getConf());
         try (SeekableInputStream stream = inputFile.newStream()) {
             return ParquetFileReader.readFooter(inputFile, PARQUET_READ_OPTIONS, stream);
         }
     }
+
+    /**
+     * Configures a {@link ParquetReader}.
+     */
+    public static final class Builder {
+        private final FileSystem fileSystem;
+        private final List<ParquetPartitionFilter> partitionFilters = new ArrayList<>();
+        private ExecutorService footerExecutor;
+        private int listingParallelism = 1;
+        private int footerTailReadSize = ParquetFooterFetcher.DEFAULT_TAIL_READ_SIZE;
+        private ParquetFooterCache footerCache;
+        private ParquetScanState scanState;
+        private ParquetSchemaInterner schemaInterner;
+        private int streamReadAhead = DEFAULT_STREAM_READ_AHEAD;
+        private boolean schemaOnlyFooters = true;
+        private boolean summaryFiles;
+        private boolean deltaLog;
+        private boolean columnStatistics;
+        private ParquetScanMetrics metrics = ParquetScanMetrics.NOOP;
+
+        private Builder(FileSystem fileSystem) {
+            this.fileSystem = Objects.requireNonNull(fileSystem, "fileSystem");
+        }
+
+        /**
+         * Reads Parquet footers concurrently with the given executor, results keep the listing order.
+         * The executor bounds the number of footers fetched at the same time and is not shut down by the reader.
+         *
+         * @param executor The executor used to read Parquet footers, null to read them sequentially.
+         * @return This builder.
+         */
+        public Builder footerExecutor(ExecutorService executor) {
+            this.footerExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Lists sibling directories concurrently, which avoids one sequential round trip per directory on deeply
+         * partitioned datasets. Listing threads are virtual threads on Java 21 and above, platform threads
+         * otherwise. Files are returned in the same order whatever the parallelism.
+         *
+         * @param parallelism The maximum number of directories listed at the same time, 1 by default.
+         * @return This builder.
+         * @throws IllegalArgumentException if parallelism is not positive.
+         */
+        public Builder listingParallelism(int parallelism) throws IllegalArgumentException {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Listing parallelism must be positive: " + parallelism);
+            }
+            this.listingParallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Footers are fetched with a single read of the last bytes of each file, followed by a second read only
+         * when the footer is larger. A larger size avoids the second read for wide schemas.
+         *
+         * @param bytes Number of bytes read at the end of each file, 64 KiB by default.
+         * @return This builder.
+         * @throws IllegalArgumentException if the size can't hold the footer length and the Parquet magic.
+         */
+        public Builder footerTailReadSize(int bytes) throws IllegalArgumentException {
+            this.footerTailReadSize = ParquetFooterFetcher.checkTailReadSize(bytes);
+            return this;
+        }
+
+        /**
+         * Reuses footers of files that did not change since they were cached, based on their path, length and
+         * modification time. The cache is not closed by the reader.
+         *
+         * @param cache The footer cache, null to always read footers.
+         * @return This builder.
+         * @see ParquetFooterCache
+         */
+        public Builder footerCache(ParquetFooterCache cache) {
+            this.footerCache = cache;
+            return this;
+        }
+
+        /**
+         * Stores the listings of leaf directories and the footers read in the given state, and reuses them for the
+         * directories and files that did not change since a previous scan. Required by
+         * {@link ParquetReader#scanParquetDirectory(Path)}. The state is not closed by the reader.
+         *
+         * @param state The scan state, null to always list directories and read footers.
+         * @return This builder.
+         * @see ParquetScanState
+         */
+        public Builder scanState(ParquetScanState state) {
+            this.scanState = state;
+            return this;
+        }
+
+        /**
+         * Extracted schemas are always interned, so that files with equal schemas share the same immutable
+         * {@link ParquetSchemaNode} instances. Sharing an interner between readers also shares schemas between
+         * their results.
+         *
+         * @param interner The schema interner, null to use a new interner per reader.
+         * @return This builder.
+         */
+        public Builder schemaInterner(ParquetSchemaInterner interner) {
+            this.schemaInterner = interner;
+            return this;
+        }
+
+        /**
+         * Bounds the memory used by {@link #streamParquetDirectory(Path)} and
+         * {@link #publishParquetDirectory(Path, Executor)} when footers are read concurrently: at most this number of
+         * footers are read ahead of the consumer. It should be larger than the footer executor parallelism.
+         *
+         * @param files The maximum number of footers read ahead, 256 by default.
+         * @return This builder.
+         * @throws IllegalArgumentException if the number of files is not positive.
+         */
+        public Builder streamReadAhead(int files) throws IllegalArgumentException {
+            if (files < 1) {
+                throw new IllegalArgumentException("Stream read ahead must be positive: " + files);
+            }
+            this.streamReadAhead = files;
+            return this;
+        }
+
+        /**
+         * Footers are decoded in schema-only mode by default: the schema and the total number of rows are read from
+         * the file metadata, row groups and column chunks metadata are skipped without being materialized, and the
+         * schema tree is built directly from the flat footer schema. This mode is much faster for wide tables with
+         * many row groups. When disabled, the whole footer is decoded and the number of rows is the sum of the row
+         * groups rows.
+         *
+         * @param enabled true to skip row groups metadata when decoding footers.
+         * @return This builder.
+         */
+        public Builder schemaOnlyFooters(boolean enabled) {
+            this.schemaOnlyFooters = enabled;
+            return this;
+        }
+
+        /**
+         * Only traverses the partition directories selected by the given filter: the subtrees of other partitions
+         * are never listed. Filters can be added several times, a partition being traversed if all filters of its
+         * key select it, each filter selecting among all sibling partitions: the newest 7 dates combined with a range
+         * are the dates of the range among the newest 7. Example:
+         * <pre>{@code
+         * ParquetReader reader = ParquetReader.builder(FileSystem.get(new Configuration()))
+         *         .partitionFilter(ParquetPartitionFilter.newest("date", 7))
+         *         .build();
+         * }</pre>
+         *
+         * @param filter A filter on partition directories.
+         * @return This builder.
+         */
+        public Builder partitionFilter(ParquetPartitionFilter filter) {
+            this.partitionFilters.add(Objects.requireNonNull(filter, "filter"));
+            return this;
+        }
+
+        /**
+         * Uses the "_metadata" summary file at the root of a directory, written by older Spark and MapReduce jobs,
+         * to extract all files described by the summary with a single footer read. Files missing from the summary,
+         * modified after it or with another schema than the merged schema of the summary are read individually.
+         * Only applies to {@link ParquetReader#readParquetDirectory(Path)}, disabled by default.
+         *
+         * @param enabled true to use summary files when present.
+         * @return This builder.
+         */
+        public Builder summaryFiles(boolean enabled) {
+            this.summaryFiles = enabled;
+            return this;
+        }
+
+        /**
+         * Discovers the Parquet files of Delta Lake tables from their "_delta_log" transaction log instead of
+         * listing the table directories: the latest checkpoint and the following commits are replayed to find the
+         * live files, their size, modification time and partition values. Files removed from the table but not yet
+         * vacuumed are ignored. Partition filters are evaluated against all the values of their key in the table.
+         *
+         * @param enabled true to read directories as Delta tables, failing when they have no transaction log.
+         * @return This builder.
+         */
+        public Builder deltaLog(boolean enabled) {
+            this.deltaLog = enabled;
+            return this;
+        }
+
+        /**
+         * Extracts the statistics of the leaf columns of each file from the metadata of its row groups: number of
+         * values, number of nulls, minimum and maximum, see {@link ParquetDetails#getColumnStatistics()}. Footers are
+         * then decoded entirely, whatever {@link #schemaOnlyFooters(boolean)}, and neither the footer cache, the scan
+         * state nor summary files are used to skip footer reads, as they don't hold statistics. Disabled by default.
+         *
+         * @param enabled true to extract column statistics.
+         * @return This builder.
+         */
+        public Builder columnStatistics(boolean enabled) {
+            this.columnStatistics = enabled;
+            return this;
+        }
+
+        /**
+         * Reports the directories listed, the footers read and the schemas extracted by the reader, with the
+         * duration of each call. See {@link io.github.romibuzi.parquetdiff.metrics.ParquetScanCounters} for the
+         * built-in counters, also exposed as a JMX MBean.
+         *
+         * @param scanMetrics The metrics receiving the measures of the reader.
+         * @return This builder.
+         */
+        public Builder metrics(ParquetScanMetrics scanMetrics) {
+            this.metrics = Objects.requireNonNull(scanMetrics, "scanMetrics");
+            return this;
+        }
+
+        /**
+         * @return A configured ParquetReader.
+         */
+        public ParquetReader build() {
+            return new ParquetReader(this);
+        }
+    }
 }
@@ -0,0 +1,295 @@
+package io.github.romibuzi.parquetdiff;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * The rows of one side of a data diff, hash-partitioned by key into a fixed number of buckets.
+ * <p>
+ * Rows are encoded as the values of their key columns followed by the values of their compared columns, and kept in
+ * memory until the given memory budget is exceeded. The largest bucket is then appended to its spill file in the
+ * spill directory and cleared. Reading a bucket returns its spilled rows followed by its rows still in memory.
+ * Spill files are deleted on close.
+ * <p>
+ * A bucket too large to be loaded in memory can be re-partitioned into new buckets, hashed with another seed so that
+ * its rows are spread again.
+ * <p>
+ * Rows can be added from several threads, rows being encoded before the buckets are locked. Buckets must only be read
+ * once all rows were added.
+ */
+final class ParquetRowBuckets implements Closeable {
+    // array header, length and reference held by the bucket list
+    private static final int ROW_OVERHEAD = 32;
+    private static final int NULL_VALUE = -1;
+    private static final int HASH_SHIFT = 16;
+    private static final int SECOND_HASH_SHIFT = 13;
+    private static final int FIRST_MULTIPLIER = 0x85ebca6b;
+    private static final int SECOND_MULTIPLIER = 0xc2b2ae35;
+    private static final int SEED_MULTIPLIER = 0x9e3779b9;
+
+    private final int numKeyColumns;
+    private final long memoryBudget;
+    private final Path spillDirectory;
+    private final int seed;
+    private final List<List<byte[]>> buckets;
+    private final long[] bucketsMemory;
+    private final long[] bucketsSize;
+    private final Path[] spillFiles;
+    private long memory;
+    private int numSpills;
+
+    /**
+     * @param numBuckets     The number of buckets.
+     * @param numKeyColumns  The number of key columns, the first values of each row.
+     * @param memoryBudget   The number of bytes of rows kept in memory before spilling buckets.
+     * @param spillDirectory The local directory of spill files.
+     */
+    ParquetRowBuckets(int numBuckets, int numKeyColumns, long memoryBudget, Path spillDirectory) {
+        this(numBuckets, numKeyColumns, memoryBudget, spillDirectory, 0);
+    }
+
+    /**
+     * @param numBuckets     The number of buckets.
+     * @param numKeyColumns  The number of key columns, the first values of each row.
+     * @param memoryBudget   The number of bytes of rows kept in memory before spilling buckets.
+     * @param spillDirectory The local directory of spill files.
+     * @param seed           The seed of the hash of the keys.
+     */
+    private ParquetRowBuckets(int numBuckets, int numKeyColumns, long memoryBudget, Path spillDirectory, int seed) {
+        this.numKeyColumns = numKeyColumns;
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+        this.seed = seed;
+        this.buckets = new ArrayList<>(numBuckets);
+        for (int i = 0; i < numBuckets; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.bucketsMemory = new long[numBuckets];
+        this.bucketsSize = new long[numBuckets];
+        this.spillFiles = new Path[numBuckets];
+    }
+
+    /**
+     * @param values The values of the key columns followed by the values of the compared columns, null values
+     *               being allowed.
+     * @throws IOException If a bucket can't be spilled.
+     */
+    void add(String[] values) throws IOException {
+        add(bucketOf(values), encode(values));
+    }
+
+    /**
+     * Reads all rows of a bucket, spilled ones first.
+     *
+     * @param bucket   The bucket index.
+     * @param consumer Receives the decoded rows.
+     * @throws IOException If the spill file of the bucket can't be read.
+     */
+    void readBucket(int bucket, Consumer<String[]> consumer) throws IOException {
+        forEachRow(bucket, row -> consumer.accept(decode(row)));
+    }
+
+    /**
+     * Re-partitions the rows of a bucket into new buckets, spilled to the same directory. The rows are hashed with
+     * the given seed, which must differ from the seed of these buckets for the rows to be spread.
+     *
+     * @param bucket       The re-partitioned bucket index.
+     * @param numBuckets   The number of new buckets.
+     * @param bucketBudget The number of bytes of rows of the new buckets kept in memory before spilling them.
+     * @param hashSeed     The seed of the hash of the keys, 0 being the seed of the first buckets.
+     * @return The new buckets, to be closed by the caller.
+     * @throws IOException If the bucket can't be read or if a new bucket can't be spilled.
+     */
+    ParquetRowBuckets repartition(int bucket, int numBuckets, long bucketBudget, int hashSeed) throws IOException {
+        ParquetRowBuckets repartitioned = new ParquetRowBuckets(numBuckets, numKeyColumns, bucketBudget,
+                spillDirectory, hashSeed);
+        try {
+            forEachRow(bucket, row -> repartitioned.add(repartitioned.bucketOf(decode(row)), row));
+        } catch (IOException | RuntimeException e) {
+            repartitioned.close();
+            throw e;
+        }
+        return repartitioned;
+    }
+
+    /**
+     * @param bucket The bucket index.
+     * @return The number of bytes of all rows of the bucket, spilled ones included.
+     */
+    synchronized long getBucketSize(int bucket) {
+        return bucketsSize[bucket];
+    }
+
+    private synchronized void add(int bucket, byte[] row) throws IOException {
+        buckets.get(bucket).add(row);
+        bucketsMemory[bucket] += row.length + ROW_OVERHEAD;
+        bucketsSize[bucket] += row.length + ROW_OVERHEAD;
+        memory += row.length + ROW_OVERHEAD;
+        while (memory > memoryBudget) {
+            spill(largestBucket());
+        }
+    }
+
+    private void forEachRow(int bucket, RowConsumer consumer) throws IOException {
+        if (spillFiles[bucket] != null) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+                    Files.newInputStream(spillFiles[bucket])))) {
+                while (true) {
+                    int length;
+                    try {
+                        length = input.readInt();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    byte[] row = new byte[length];
+                    input.readFully(row);
+                    consumer.accept(row);
+                }
+            }
+        }
+        for (byte[] row : buckets.get(bucket)) {
+            consumer.accept(row);
+        }
+    }
+
+    /**
+     * @return The number of buckets.
+     */
+    int getNumBuckets() {
+        return buckets.size();
+    }
+
+    /**
+     * @return The number of times a bucket was written to disk.
+     */
+    synchronized int getNumSpills() {
+        return numSpills;
+    }
+
+    /**
+     * Deletes the spill files.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        IOException failure = null;
+        for (int i = 0; i < spillFiles.length; i++) {
+            if (spillFiles[i] == null) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(spillFiles[i]);
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+            spillFiles[i] = null;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * @return The bucket of the row, from the hash of its key values only.
+     */
+    private int bucketOf(String[] values) {
+        int hash = Arrays.hashCode(Arrays.copyOf(values, numKeyColumns)) ^ seed * SEED_MULTIPLIER;
+        // mixes all bits, the hash codes of short strings mostly differ in their low bits, and the rows of a
+        // re-partitioned bucket share the low bits of their first hash
+        hash ^= hash >>> HASH_SHIFT;
+        hash *= FIRST_MULTIPLIER;
+        hash ^= hash >>> SECOND_HASH_SHIFT;
+        hash *= SECOND_MULTIPLIER;
+        hash ^= hash >>> HASH_SHIFT;
+        return Math.floorMod(hash, buckets.size());
+    }
+
+    private int largestBucket() {
+        int largest = 0;
+        for (int i = 1; i < bucketsMemory.length; i++) {
+            if (bucketsMemory[i] > bucketsMemory[largest]) {
+                largest = i;
+            }
+        }
+        return largest;
+    }
+
+    private void spill(int bucket) throws IOException {
+        if (spillFiles[bucket] == null) {
+            spillFiles[bucket] = Files.createTempFile(spillDirectory, "parquetdiff-bucket-", ".rows");
+        }
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(spillFiles[bucket], StandardOpenOption.APPEND)))) {
+            for (byte[] row : buckets.get(bucket)) {
+                output.writeInt(row.length);
+                output.write(row);
+            }
+        }
+        buckets.set(bucket, new ArrayList<>());
+        memory -= bucketsMemory[bucket];
+        bucketsMemory[bucket] = 0;
+        numSpills++;
+    }
+
+    private static byte[] encode(String[] values) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(values.length);
+            for (String value : values) {
+                if (value == null) {
+                    output.writeInt(NULL_VALUE);
+                } else {
+                    byte[] encodedValue = value.getBytes(StandardCharsets.UTF_8);
+                    output.writeInt(encodedValue.length);
+                    output.write(encodedValue);
+                }
+            }
+        } catch (IOException e) {
+            // not thrown by in-memory streams
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String[] decode(byte[] row) throws IOException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(row))) {
+            String[] values = new String[input.readInt()];
+            for (int i = 0; i < values.length; i++) {
+                int length = input.readInt();
+                if (length != NULL_VALUE) {
+                    byte[] encodedValue = new byte[length];
+                    input.readFully(encodedValue);
+                    values[i] = new String(encodedValue, StandardCharsets.UTF_8);
+                }
+            }
+            return values;
+        }
+    }
+
+    /**
+     * Receives the encoded rows of a bucket.
+     */
+    private interface RowConsumer {
+        void accept(byte[] row) throws IOException;
+    }
+}
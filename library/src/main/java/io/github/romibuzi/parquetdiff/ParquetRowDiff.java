@@ -0,0 +1,131 @@
+package io.github.romibuzi.parquetdiff;
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A row missing from the second dataset, extra in the second dataset, or with different values in both datasets,
+ * see {@link ParquetDataDiffer}.
+ */
+public final class ParquetRowDiff {
+    /**
+     * How a row differs between the two datasets.
+     */
+    public enum Kind {
+        /**
+         * The key is only in the first dataset.
+         */
+        MISSING,
+        /**
+         * The key is only in the second dataset.
+         */
+        EXTRA,
+        /**
+         * The key is in both datasets, with different values.
+         */
+        CHANGED
+    }
+
+    private final Kind kind;
+    private final Map<String, String> key;
+    private final Map<String, String> firstValues;
+    private final Map<String, String> secondValues;
+    private final List<String> changedColumns;
+
+    /**
+     * @param kind           How the row differs.
+     * @param key            The values of the key columns, by column name.
+     * @param firstValues    The values of the compared columns in the first dataset, null for an extra row.
+     * @param secondValues   The values of the compared columns in the second dataset, null for a missing row.
+     * @param changedColumns The compared columns with different values, empty unless the row changed.
+     */
+    ParquetRowDiff(Kind kind, Map<String, String> key, Map<String, String> firstValues,
+                   Map<String, String> secondValues, List<String> changedColumns) {
+        this.kind = kind;
+        this.key = key;
+        this.firstValues = firstValues;
+        this.secondValues = secondValues;
+        this.changedColumns = changedColumns;
+    }
+
+    /**
+     * @return How the row differs.
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return The values of the key columns, by column name, in key order.
+     */
+    public Map<String, String> getKey() {
+        return Collections.unmodifiableMap(key);
+    }
+
+    /**
+     * @return The values of the compared columns in the first dataset, null for an extra row.
+     */
+    public Map<String, String> getFirstValues() {
+        return firstValues == null ? null : Collections.unmodifiableMap(firstValues);
+    }
+
+    /**
+     * @return The values of the compared columns in the second dataset, null for a missing row.
+     */
+    public Map<String, String> getSecondValues() {
+        return secondValues == null ? null : Collections.unmodifiableMap(secondValues);
+    }
+
+    /**
+     * @return The compared columns with different values, empty unless the row changed.
+     */
+    public List<String> getChangedColumns() {
+        return Collections.unmodifiableList(changedColumns);
+    }
+
+    /**
+     * Prints the row difference.
+     *
+     * @param out The stream to write into, ex: System.out.
+     */
+    public void print(PrintStream out) {
+        switch (kind) {
+            case MISSING:
+                out.printf("missing row: %s.%s", key, System.lineSeparator());
+                break;
+            case EXTRA:
+                out.printf("extra row: %s.%s", key, System.lineSeparator());
+                break;
+            default:
+                out.printf("changed row: %s.%s", key, System.lineSeparator());
+                for (String column : changedColumns) {
+                    out.printf("  '%s': %s -> %s%s", column, firstValues.get(column), secondValues.get(column),
+                            System.lineSeparator());
+                }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ParquetRowDiff that = (ParquetRowDiff) o;
+        return kind == that.kind && Objects.equals(key, that.key) && Objects.equals(firstValues, that.firstValues)
+                && Objects.equals(secondValues, that.secondValues)
+                && Objects.equals(changedColumns, that.changedColumns);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, key, firstValues, secondValues, changedColumns);
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + key;
+    }
+}
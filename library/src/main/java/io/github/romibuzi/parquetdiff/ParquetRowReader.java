@@ -0,0 +1,284 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartition;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.api.InitContext;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * Reads the rows of a Parquet file as the string representations of the given columns.
+ * <p>
+ * Columns are top-level columns of the file or partition keys of its directory. Only the top-level columns are
+ * read, the chunks of the other columns being skipped. Null or empty columns are null. Repeated values are listed in
+ * brackets and nested groups are represented with their fields in braces, e.g. {@code {id: 7, tags: ["a, b"]}}:
+ * strings are quoted inside them, with their quotes and backslashes escaped, and missing values are written as
+ * {@code null}, so that {@code ["a, b"]} is not {@code ["a", "b"]} and a null field is not the string "null".
+ * <p>
+ * Values are represented from their Parquet type, so that different values never have the same representation:
+ * decimals are written with their scale, strings, enums and JSON are decoded as UTF-8, and other binaries, such as
+ * UUIDs, byte arrays or INT96 timestamps, are written as the hexadecimal string of their bytes, e.g. {@code 0x00ff}.
+ * Values which are only hashed are read with raw binaries instead: all binaries but decimals, strings included, are
+ * then written with one character per byte, so that their bytes are hashed as is, even when they are not valid UTF-8.
+ * Nested values are then encoded without separators nor quotes: each list, group and value is prefixed by its tag
+ * and its size, e.g. {@code l2:s1:as1:b} for {@code ["a", "b"]}, and null nested values are tagged {@code n}.
+ */
+final class ParquetRowReader implements Closeable {
+    private static final int HEX_RADIX = 16;
+    private static final int HALF_BYTE_BITS = 4;
+    private static final int HALF_BYTE_MASK = 0xf;
+
+    private final org.apache.parquet.hadoop.ParquetReader<Group> reader;
+    private final List<String> columns;
+    private final boolean hashed;
+    private final Map<String, String> partitionValues = new HashMap<>();
+
+    /**
+     * @param configuration The Hadoop configuration of the filesystem of the file.
+     * @param parquet       The Parquet file to read.
+     * @param columns       The columns to read, in order.
+     * @throws IOException If the file can't be opened.
+     */
+    ParquetRowReader(Configuration configuration, ParquetDetails parquet, List<String> columns) throws IOException {
+        this(configuration, parquet, columns, false);
+    }
+
+    /**
+     * @param configuration The Hadoop configuration of the filesystem of the file.
+     * @param parquet       The Parquet file to read.
+     * @param columns       The columns to read, in order.
+     * @param hashed        Whether values are only hashed: binaries are written with one character per byte rather
+     *                      than decoded, and nested values with a length-prefixed encoding.
+     * @throws IOException If the file can't be opened.
+     */
+    ParquetRowReader(Configuration configuration, ParquetDetails parquet, List<String> columns, boolean hashed)
+            throws IOException {
+        this.reader = org.apache.parquet.hadoop.ParquetReader
+                .builder(new ProjectionReadSupport(new HashSet<>(columns)), parquet.getPath())
+                .withConf(configuration)
+                .build();
+        this.columns = columns;
+        this.hashed = hashed;
+        for (ParquetPartition partition : parquet.getPartitions().getPartitions()) {
+            partitionValues.put(partition.getKey(), partition.getValue());
+        }
+    }
+
+    /**
+     * @return The values of the columns of the next row, null once all rows were read.
+     * @throws IOException If the file can't be read.
+     */
+    String[] read() throws IOException {
+        Group row = reader.read();
+        if (row == null) {
+            return null;
+        }
+        String[] values = new String[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            String column = columns.get(i);
+            values[i] = row.getType().containsField(column) ? valueOf(row, column) : partitionValues.get(column);
+        }
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String valueOf(Group row, String column) {
+        int field = row.getType().getFieldIndex(column);
+        Type type = row.getType().getType(field);
+        if (row.getFieldRepetitionCount(field) == 0) {
+            return null;
+        }
+        if (type.isPrimitive() && !type.isRepetition(Type.Repetition.REPEATED)) {
+            return valueOf(row, field, 0);
+        }
+        StringBuilder value = new StringBuilder();
+        appendField(value, row, field);
+        return value.toString();
+    }
+
+    /**
+     * Appends a nested value, quoting the text values it holds, or with length prefixes when values are hashed.
+     */
+    private void appendField(StringBuilder value, Group row, int field) {
+        Type type = row.getType().getType(field);
+        int repetitionCount = row.getFieldRepetitionCount(field);
+        if (repetitionCount == 0) {
+            value.append(hashed ? "n" : "null");
+        } else if (!type.isRepetition(Type.Repetition.REPEATED)) {
+            appendElement(value, row, field, 0);
+        } else if (hashed) {
+            value.append('l').append(repetitionCount).append(':');
+            for (int i = 0; i < repetitionCount; i++) {
+                appendElement(value, row, field, i);
+            }
+        } else {
+            value.append('[');
+            for (int i = 0; i < repetitionCount; i++) {
+                if (i > 0) {
+                    value.append(", ");
+                }
+                appendElement(value, row, field, i);
+            }
+            value.append(']');
+        }
+    }
+
+    private void appendElement(StringBuilder value, Group row, int field, int index) {
+        Type type = row.getType().getType(field);
+        if (type.isPrimitive()) {
+            String element = valueOf(row, field, index);
+            if (hashed) {
+                appendSized(value, element);
+            } else if (isText(type.asPrimitiveType())) {
+                appendQuoted(value, element);
+            } else {
+                value.append(element);
+            }
+            return;
+        }
+        Group group = row.getGroup(field, index);
+        GroupType groupType = group.getType();
+        if (hashed) {
+            value.append('g').append(groupType.getFieldCount()).append(':');
+            for (int child = 0; child < groupType.getFieldCount(); child++) {
+                appendSized(value, groupType.getFieldName(child));
+                appendField(value, group, child);
+            }
+            return;
+        }
+        value.append('{');
+        for (int child = 0; child < groupType.getFieldCount(); child++) {
+            if (child > 0) {
+                value.append(", ");
+            }
+            value.append(groupType.getFieldName(child)).append(": ");
+            appendField(value, group, child);
+        }
+        value.append('}');
+    }
+
+    private static void appendSized(StringBuilder value, String text) {
+        value.append('s').append(text.length()).append(':').append(text);
+    }
+
+    private static void appendQuoted(StringBuilder value, String text) {
+        value.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char character = text.charAt(i);
+            if (character == '"' || character == '\\') {
+                value.append('\\');
+            }
+            value.append(character);
+        }
+        value.append('"');
+    }
+
+    /**
+     * @return Whether the values of the given type are arbitrary text, which may hold separators.
+     */
+    private static boolean isText(PrimitiveType type) {
+        LogicalTypeAnnotation logicalType = type.getLogicalTypeAnnotation();
+        switch (type.getPrimitiveTypeName()) {
+            case BINARY:
+            case FIXED_LEN_BYTE_ARRAY:
+                if (logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+                    return false;
+                }
+                return logicalType instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation
+                        || logicalType instanceof LogicalTypeAnnotation.EnumLogicalTypeAnnotation
+                        || logicalType instanceof LogicalTypeAnnotation.JsonLogicalTypeAnnotation;
+            default:
+                return false;
+        }
+    }
+
+    private String valueOf(Group row, int field, int index) {
+        Type type = row.getType().getType(field);
+        PrimitiveType primitiveType = type.asPrimitiveType();
+        LogicalTypeAnnotation logicalType = primitiveType.getLogicalTypeAnnotation();
+        int scale = logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation
+                ? ((LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) logicalType).getScale()
+                : -1;
+        switch (primitiveType.getPrimitiveTypeName()) {
+            case INT32:
+                int intValue = row.getInteger(field, index);
+                return scale < 0 ? String.valueOf(intValue) : BigDecimal.valueOf(intValue, scale).toPlainString();
+            case INT64:
+                long longValue = row.getLong(field, index);
+                return scale < 0 ? String.valueOf(longValue) : BigDecimal.valueOf(longValue, scale).toPlainString();
+            case BINARY:
+            case FIXED_LEN_BYTE_ARRAY:
+                Binary binary = row.getBinary(field, index);
+                if (scale >= 0) {
+                    return new BigDecimal(new BigInteger(binary.getBytes()), scale).toPlainString();
+                }
+                if (hashed) {
+                    return new String(binary.getBytes(), StandardCharsets.ISO_8859_1);
+                }
+                if (logicalType instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation
+                        || logicalType instanceof LogicalTypeAnnotation.EnumLogicalTypeAnnotation
+                        || logicalType instanceof LogicalTypeAnnotation.JsonLogicalTypeAnnotation) {
+                    return binary.toStringUsingUTF8();
+                }
+                return toHexString(binary.getBytes());
+            case INT96:
+                byte[] bytes = row.getInt96(field, index).getBytes();
+                return hashed ? new String(bytes, StandardCharsets.ISO_8859_1) : toHexString(bytes);
+            default:
+                return row.getValueToString(field, index);
+        }
+    }
+
+    private static String toHexString(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(2 + 2 * bytes.length).append("0x");
+        for (byte value : bytes) {
+            hex.append(Character.forDigit((value >> HALF_BYTE_BITS) & HALF_BYTE_MASK, HEX_RADIX))
+                    .append(Character.forDigit(value & HALF_BYTE_MASK, HEX_RADIX));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Reads the projected top-level columns only.
+     */
+    private static final class ProjectionReadSupport extends GroupReadSupport {
+        private final Set<String> projectedColumns;
+
+        ProjectionReadSupport(Set<String> projectedColumns) {
+            this.projectedColumns = projectedColumns;
+        }
+
+        @Override
+        public ReadContext init(InitContext context) {
+            MessageType fileSchema = context.getFileSchema();
+            List<Type> fields = fileSchema.getFields().stream()
+                    .filter(field -> projectedColumns.contains(field.getName()))
+                    .collect(Collectors.toList());
+            return new ReadContext(new MessageType(fileSchema.getName(), fields));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import org.apache.hadoop.fs.Path;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of a sampled read of a Parquet directory, see
+ * {@link ParquetReader#sampleParquetDirectory(Path, ParquetSampling)}.
+ */
+public final class ParquetSample {
+    private final List<ParquetDetails> parquets;
+    private final List<Path> skippedFiles;
+    private final List<Path> escalatedPartitions;
+
+    /**
+     * @param parquets            The Parquet files read, in listing order.
+     * @param skippedFiles        The Parquet files not read, in listing order.
+     * @param escalatedPartitions The partitions fully read because their sampled schemas diverged.
+     */
+    ParquetSample(List<ParquetDetails> parquets, List<Path> skippedFiles, List<Path> escalatedPartitions) {
+        this.parquets = parquets;
+        this.skippedFiles = skippedFiles;
+        this.escalatedPartitions = escalatedPartitions;
+    }
+
+    /**
+     * @return The Parquet files read, in listing order.
+     */
+    public List<ParquetDetails> getParquets() {
+        return Collections.unmodifiableList(parquets);
+    }
+
+    /**
+     * @return The Parquet files listed but not read, in listing order.
+     */
+    public List<Path> getSkippedFiles() {
+        return Collections.unmodifiableList(skippedFiles);
+    }
+
+    /**
+     * @return The partition directories fully read because their sampled schemas diverged, empty without
+     * escalation.
+     */
+    public List<Path> getEscalatedPartitions() {
+        return Collections.unmodifiableList(escalatedPartitions);
+    }
+
+    /**
+     * @return The number of Parquet files listed, read or not.
+     */
+    public int getNumFiles() {
+        return parquets.size() + skippedFiles.size();
+    }
+}
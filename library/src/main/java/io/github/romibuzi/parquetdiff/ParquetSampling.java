@@ -0,0 +1,127 @@
+package io.github.romibuzi.parquetdiff;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * Selects the Parquet files read in each partition when sampling a directory, see
+ * {@link ParquetReader#sampleParquetDirectory(org.apache.hadoop.fs.Path, ParquetSampling)}. Example:
+ * <pre>{@code
+ * ParquetSampling sampling = ParquetSampling.maxFilesPerPartition(4).withEscalation();
+ * }</pre>
+ * <p>
+ * A partition is a directory holding Parquet files. The first and the last file of each partition, in listing
+ * order, are always read, the other files being picked at random. Samples are reproducible for a given seed.
+ */
+public final class ParquetSampling {
+    private static final int MIN_FILES_PER_PARTITION = 2;
+    private static final long DEFAULT_SEED = 0;
+    private static final int PERCENT = 100;
+
+    private final int maxFiles;
+    private final double fraction;
+    private final long seed;
+    private final boolean escalation;
+
+    private ParquetSampling(int maxFiles, double fraction, long seed, boolean escalation) {
+        this.maxFiles = maxFiles;
+        this.fraction = fraction;
+        this.seed = seed;
+        this.escalation = escalation;
+    }
+
+    /**
+     * @param files The maximum number of files read per partition, at least 2.
+     * @return A sampling reading at most the given number of files per partition.
+     * @throws IllegalArgumentException if files is lower than 2.
+     */
+    public static ParquetSampling maxFilesPerPartition(int files) throws IllegalArgumentException {
+        if (files < MIN_FILES_PER_PARTITION) {
+            throw new IllegalArgumentException("Sampled files per partition must be at least 2: " + files);
+        }
+        return new ParquetSampling(files, 0, DEFAULT_SEED, false);
+    }
+
+    /**
+     * @param fraction The fraction of files read per partition, rounded up, within ]0, 1].
+     * @return A sampling reading a fraction of the files of each partition.
+     * @throws IllegalArgumentException if fraction is not within ]0, 1].
+     */
+    public static ParquetSampling fraction(double fraction) throws IllegalArgumentException {
+        if (!(fraction > 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("Sampled fraction must be within ]0, 1]: " + fraction);
+        }
+        return new ParquetSampling(0, fraction, DEFAULT_SEED, false);
+    }
+
+    /**
+     * @param randomSeed The seed of the random selection of files.
+     * @return A copy of this sampling using the given seed.
+     */
+    public ParquetSampling withSeed(long randomSeed) {
+        return new ParquetSampling(maxFiles, fraction, randomSeed, escalation);
+    }
+
+    /**
+     * When escalation is enabled, all files of a partition are read when its sampled schemas differ from each
+     * other or from the sampled schemas of the previous or next partition.
+     *
+     * @return A copy of this sampling with escalation enabled.
+     */
+    public ParquetSampling withEscalation() {
+        return new ParquetSampling(maxFiles, fraction, seed, true);
+    }
+
+    /**
+     * @return Whether partitions with diverging sampled schemas are fully read.
+     */
+    public boolean isEscalation() {
+        return escalation;
+    }
+
+    /**
+     * @return A new random generator for a sampling run.
+     */
+    Random newRandom() {
+        return new Random(seed);
+    }
+
+    /**
+     * @param files  The number of files of a partition.
+     * @param random The random generator of the sampling run.
+     * @return The indexes of the files to read, in increasing order.
+     */
+    List<Integer> select(int files, Random random) {
+        int target = maxFiles > 0 ? maxFiles : (int) Math.ceil(fraction * files);
+        target = Math.min(files, Math.max(MIN_FILES_PER_PARTITION, target));
+
+        BitSet selected = new BitSet(files);
+        selected.set(0);
+        selected.set(files - 1);
+        // the middle files are drawn with a partial Fisher-Yates shuffle
+        int[] candidates = new int[Math.max(0, files - MIN_FILES_PER_PARTITION)];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = i + 1;
+        }
+        // the first and last files are already selected, leaving target - 2 files to draw
+        for (int i = 0; i < target - MIN_FILES_PER_PARTITION; i++) {
+            int swap = i + random.nextInt(candidates.length - i);
+            int candidate = candidates[swap];
+            candidates[swap] = candidates[i];
+            selected.set(candidate);
+        }
+
+        List<Integer> indexes = new ArrayList<>(target);
+        selected.stream().forEach(indexes::add);
+        return indexes;
+    }
+
+    @Override
+    public String toString() {
+        String files = maxFiles > 0 ? maxFiles + " files" : fraction * PERCENT + "% of files";
+        return files + " per partition" + (escalation ? ", with escalation" : "");
+    }
+}
@@ -0,0 +1,474 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNode;
+import org.apache.hadoop.fs.FileStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * <p>
+ * The state of the scans of a Parquet directory, stored in a local file, enabling incremental and resumable scans.
+ * Example:
+ * <pre>{@code
+ * try (ParquetScanState state = ParquetScanState.open(Paths.get("/var/lib/parquetdiff/my_data.state"))) {
+ *     ParquetReader reader = ParquetReader.builder(FileSystem.get(new Configuration()))
+ *             .scanState(state)
+ *             .build();
+ *     ParquetIncrementalScan scan = reader.scanParquetDirectory(new Path("my_data.parquet"));
+ * }
+ * }</pre>
+ * <p>
+ * The state holds the schema and the number of rows of every file read, keyed by path, length and modification
+ * time, the listings of the leaf directories keyed by their modification time, and the reference schema of the
+ * directory. On the next scan, a leaf directory whose modification time did not change is not listed again and
+ * unchanged files are not read again. Directories holding sub-directories are always listed: the modification time
+ * of a directory doesn't change when a file is added to one of its sub-directories. Filesystems without directory
+ * modification times, e.g. object stores, list all directories.
+ * <p>
+ * The state is written back every given number of updates, by {@link #flush()} and by {@link #close()}: a scan
+ * interrupted midway resumes from the last written state, without listing and reading again what it already did.
+ * The state file is replaced atomically and must not be shared by concurrent scans. An in-memory state, see
+ * {@link #inMemory()}, only spans the scans of a single process, e.g. the scans of a {@link ParquetDirectoryWatcher}.
+ */
+public final class ParquetScanState implements Closeable {
+    /**
+     * The default number of updates after which the state is written.
+     */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 1000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParquetScanState.class);
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path stateFile;
+    private final int checkpointInterval;
+    private final Map<String, Listing> listings = new HashMap<>();
+    private final Map<String, FileEntry> files = new HashMap<>();
+    private final Map<ByteBuffer, ByteBuffer> schemas = new HashMap<>();
+    private ReferenceEntry reference;
+    private int pendingUpdates;
+
+    private ParquetScanState(Path stateFile, int checkpointInterval) {
+        this.stateFile = stateFile;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * @return A new state that is never written, the state of the scans of a single process.
+     */
+    public static ParquetScanState inMemory() {
+        return new ParquetScanState(null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @see ParquetScanState#open(Path, int)
+     */
+    public static ParquetScanState open(Path stateFile) throws IOException {
+        return open(stateFile, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Opens the state stored in the given file, an empty state is created if the file doesn't exist.
+     *
+     * @param stateFile          The local file holding the state.
+     * @param checkpointInterval The number of listed directories and read files after which the state is written.
+     * @return The loaded state.
+     * @throws IOException If the parent directory of the state file can't be created.
+     */
+    public static ParquetScanState open(Path stateFile, int checkpointInterval) throws IOException {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + checkpointInterval);
+        }
+        Path parent = stateFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        ParquetScanState state = new ParquetScanState(stateFile, checkpointInterval);
+        state.read();
+        return state;
+    }
+
+    /**
+     * @return The reference file of the previous scans, empty for a new state.
+     */
+    public synchronized Optional<ParquetDetails> getReference() {
+        if (reference == null) {
+            return Optional.empty();
+        }
+        try {
+            ParquetSchemaNode schema = ParquetSchemaCodec.decode(reference.schema.array());
+            return Optional.of(new ParquetDetails(new org.apache.hadoop.fs.Path(reference.path), reference.numRows,
+                    schema));
+        } catch (IOException e) {
+            LOGGER.warn("Ignoring invalid reference schema: {}", reference.path, e);
+            reference = null;
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @param details The file whose schema is the reference of the next scans.
+     */
+    public synchronized void setReference(ParquetDetails details) {
+        byte[] schema = ParquetSchemaCodec.encode(details.getSchema());
+        if (schema == null) {
+            LOGGER.warn("Reference schema can't be stored: {}", details.getPath());
+            return;
+        }
+        reference = new ReferenceEntry(details.getPath().toString(), details.getNumRows(),
+                shareSchema(ByteBuffer.wrap(schema)));
+        pendingUpdates++;
+    }
+
+    /**
+     * @return The number of files in the state.
+     */
+    public synchronized int size() {
+        return files.size();
+    }
+
+    /**
+     * Writes the state to its file.
+     *
+     * @throws IOException If the state file can't be written.
+     */
+    public synchronized void flush() throws IOException {
+        if (pendingUpdates == 0 || stateFile == null) {
+            return;
+        }
+        write();
+        pendingUpdates = 0;
+    }
+
+    /**
+     * Flushes the state.
+     *
+     * @throws IOException If the state file can't be written.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    /**
+     * @param directory        A leaf directory.
+     * @param modificationTime The current modification time of the directory.
+     * @return The stored listing of the directory, null if the directory changed or was not listed yet.
+     */
+    synchronized FileStatus[] getListing(org.apache.hadoop.fs.Path directory, long modificationTime) {
+        Listing listing = listings.get(directory.toString());
+        if (modificationTime <= 0 || listing == null || listing.modificationTime != modificationTime) {
+            return null;
+        }
+        FileStatus[] fileStatuses = new FileStatus[listing.files.size()];
+        for (int i = 0; i < fileStatuses.length; i++) {
+            ListedFile file = listing.files.get(i);
+            fileStatuses[i] = new FileStatus(file.length, false, 1, 0, file.modificationTime,
+                    new org.apache.hadoop.fs.Path(directory, file.name));
+        }
+        return fileStatuses;
+    }
+
+    /**
+     * Stores the listing of a directory, forgetting the files and the directories it no longer holds.
+     *
+     * @param directory        The listed directory.
+     * @param modificationTime The modification time of the directory, 0 if unknown.
+     * @param fileStatuses     The listing of the directory.
+     * @throws IOException If the state must be written and the state file can't be written.
+     */
+    synchronized void putListing(org.apache.hadoop.fs.Path directory, long modificationTime,
+                                 FileStatus[] fileStatuses) throws IOException {
+        Set<String> names = new HashSet<>(fileStatuses.length);
+        boolean leaf = true;
+        List<ListedFile> listedFiles = new ArrayList<>(fileStatuses.length);
+        for (FileStatus fileStatus : fileStatuses) {
+            String name = fileStatus.getPath().getName();
+            names.add(name);
+            if (fileStatus.isDirectory()) {
+                leaf = false;
+            } else {
+                listedFiles.add(new ListedFile(name, fileStatus.getLen(), fileStatus.getModificationTime()));
+            }
+        }
+
+        String key = directory.toString();
+        Listing previous = listings.remove(key);
+        if (previous != null) {
+            for (String child : previous.children) {
+                if (!names.contains(child)) {
+                    forget(new org.apache.hadoop.fs.Path(directory, child).toString());
+                }
+            }
+        }
+        // only leaf listings can be reused, the others are kept to forget their removed children
+        listings.put(key, new Listing(leaf ? modificationTime : 0, names, leaf ? listedFiles : List.of()));
+        updated();
+    }
+
+    /**
+     * @param fileStatus The listed Parquet file.
+     * @return Whether the file is in the state and did not change since.
+     */
+    synchronized boolean contains(FileStatus fileStatus) {
+        FileEntry entry = files.get(fileStatus.getPath().toString());
+        return entry != null && entry.length == fileStatus.getLen()
+                && entry.modificationTime == fileStatus.getModificationTime();
+    }
+
+    /**
+     * @param fileStatus The listed Parquet file.
+     * @return The stored details if the file did not change since it was stored.
+     */
+    synchronized Optional<ParquetDetails> get(FileStatus fileStatus) {
+        if (!contains(fileStatus)) {
+            return Optional.empty();
+        }
+        String key = fileStatus.getPath().toString();
+        FileEntry entry = files.get(key);
+        try {
+            ParquetSchemaNode schema = ParquetSchemaCodec.decode(entry.schema.array());
+            return Optional.of(new ParquetDetails(fileStatus.getPath(), entry.numRows, schema));
+        } catch (IOException e) {
+            LOGGER.warn("Ignoring invalid stored schema: {}", key, e);
+            files.remove(key);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the details of the given file, replacing any previous version of the file.
+     *
+     * @param fileStatus The listed Parquet file.
+     * @param details    The details extracted from its footer.
+     * @throws IOException If the state must be written and the state file can't be written.
+     */
+    synchronized void put(FileStatus fileStatus, ParquetDetails details) throws IOException {
+        byte[] schema = ParquetSchemaCodec.encode(details.getSchema());
+        if (schema == null) {
+            LOGGER.debug("Schema can't be stored: {}", fileStatus.getPath());
+            return;
+        }
+        files.put(fileStatus.getPath().toString(), new FileEntry(fileStatus.getLen(),
+                fileStatus.getModificationTime(), details.getNumRows(), shareSchema(ByteBuffer.wrap(schema))));
+        updated();
+    }
+
+    private void forget(String path) {
+        files.remove(path);
+        Listing listing = listings.remove(path);
+        if (listing != null) {
+            listing.children.forEach(child -> forget(path + org.apache.hadoop.fs.Path.SEPARATOR + child));
+        }
+    }
+
+    private void updated() throws IOException {
+        pendingUpdates++;
+        if (pendingUpdates >= checkpointInterval) {
+            flush();
+        }
+    }
+
+    private ByteBuffer shareSchema(ByteBuffer schema) {
+        // files sharing the same schema share the same bytes
+        return schemas.computeIfAbsent(schema, bytes -> bytes);
+    }
+
+    private void read() {
+        if (!Files.exists(stateFile)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(stateFile)))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                LOGGER.warn("Ignoring scan state with unsupported version {}: {}", version, stateFile);
+                return;
+            }
+
+            ByteBuffer[] schemaTable = new ByteBuffer[in.readInt()];
+            for (int i = 0; i < schemaTable.length; i++) {
+                byte[] schema = new byte[in.readInt()];
+                in.readFully(schema);
+                schemaTable[i] = shareSchema(ByteBuffer.wrap(schema));
+            }
+
+            if (in.readBoolean()) {
+                reference = new ReferenceEntry(in.readUTF(), in.readLong(), schemaTable[in.readInt()]);
+            }
+
+            int filesCount = in.readInt();
+            for (int i = 0; i < filesCount; i++) {
+                String key = in.readUTF();
+                files.put(key, new FileEntry(in.readLong(), in.readLong(), in.readLong(), schemaTable[in.readInt()]));
+            }
+
+            int listingsCount = in.readInt();
+            for (int i = 0; i < listingsCount; i++) {
+                String key = in.readUTF();
+                long modificationTime = in.readLong();
+                Set<String> children = new HashSet<>();
+                int childrenCount = in.readInt();
+                for (int j = 0; j < childrenCount; j++) {
+                    children.add(in.readUTF());
+                }
+                List<ListedFile> listedFiles = new ArrayList<>();
+                int listedFilesCount = in.readInt();
+                for (int j = 0; j < listedFilesCount; j++) {
+                    listedFiles.add(new ListedFile(in.readUTF(), in.readLong(), in.readLong()));
+                }
+                listings.put(key, new Listing(modificationTime, children, listedFiles));
+            }
+        } catch (EOFException | ArrayIndexOutOfBoundsException | NegativeArraySizeException e) {
+            LOGGER.warn("Ignoring corrupted scan state: {}", stateFile, e);
+            clear();
+        } catch (IOException e) {
+            LOGGER.warn("Could not read scan state: {}", stateFile, e);
+            clear();
+        }
+    }
+
+    private void clear() {
+        listings.clear();
+        files.clear();
+        schemas.clear();
+        reference = null;
+    }
+
+    private void write() throws IOException {
+        Map<ByteBuffer, Integer> schemaIndexes = new LinkedHashMap<>();
+        if (reference != null) {
+            schemaIndexes.put(reference.schema, 0);
+        }
+        files.values().forEach(entry -> schemaIndexes.putIfAbsent(entry.schema, schemaIndexes.size()));
+
+        Path temporaryFile = Files.createTempFile(stateFile.toAbsolutePath().getParent(),
+                stateFile.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(schemaIndexes.size());
+                for (ByteBuffer schema : schemaIndexes.keySet()) {
+                    out.writeInt(schema.remaining());
+                    out.write(schema.array(), schema.arrayOffset() + schema.position(), schema.remaining());
+                }
+
+                out.writeBoolean(reference != null);
+                if (reference != null) {
+                    out.writeUTF(reference.path);
+                    out.writeLong(reference.numRows);
+                    out.writeInt(schemaIndexes.get(reference.schema));
+                }
+
+                out.writeInt(files.size());
+                for (Map.Entry<String, FileEntry> entry : files.entrySet()) {
+                    FileEntry file = entry.getValue();
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(file.length);
+                    out.writeLong(file.modificationTime);
+                    out.writeLong(file.numRows);
+                    out.writeInt(schemaIndexes.get(file.schema));
+                }
+
+                out.writeInt(listings.size());
+                for (Map.Entry<String, Listing> entry : listings.entrySet()) {
+                    Listing listing = entry.getValue();
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(listing.modificationTime);
+                    out.writeInt(listing.children.size());
+                    for (String child : listing.children) {
+                        out.writeUTF(child);
+                    }
+                    out.writeInt(listing.files.size());
+                    for (ListedFile file : listing.files) {
+                        out.writeUTF(file.name);
+                        out.writeLong(file.length);
+                        out.writeLong(file.modificationTime);
+                    }
+                }
+            }
+            Files.move(temporaryFile, stateFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+        LOGGER.debug("Wrote scan state of {} files and {} directories: {}", files.size(), listings.size(),
+                stateFile);
+    }
+
+    /**
+     * A stored file.
+     */
+    private static final class FileEntry {
+        private final long length;
+        private final long modificationTime;
+        private final long numRows;
+        private final ByteBuffer schema;
+
+        FileEntry(long length, long modificationTime, long numRows, ByteBuffer schema) {
+            this.length = length;
+            this.modificationTime = modificationTime;
+            this.numRows = numRows;
+            this.schema = schema;
+        }
+    }
+
+    /**
+     * The reference file of the scans.
+     */
+    private static final class ReferenceEntry {
+        private final String path;
+        private final long numRows;
+        private final ByteBuffer schema;
+
+        ReferenceEntry(String path, long numRows, ByteBuffer schema) {
+            this.path = path;
+            this.numRows = numRows;
+            this.schema = schema;
+        }
+    }
+
+    /**
+     * The listing of a directory: the names of all its children, and its files for a leaf directory.
+     */
+    private static final class Listing {
+        private final long modificationTime;
+        private final Set<String> children;
+        private final List<ListedFile> files;
+
+        Listing(long modificationTime, Set<String> children, List<ListedFile> files) {
+            this.modificationTime = modificationTime;
+            this.children = children;
+            this.files = files;
+        }
+    }
+
+    /**
+     * A file of a leaf directory listing.
+     */
+    private static final class ListedFile {
+        private final String name;
+        private final long length;
+        private final long modificationTime;
+
+        ListedFile(String name, long length, long modificationTime) {
+            this.name = name;
+            this.length = length;
+            this.modificationTime = modificationTime;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNode;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaType;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary serialization of {@link ParquetSchemaNode} trees, used to persist schemas between runs.
+ * <p>
+ * Nodes are written in pre-order, each node followed by its number of children.
+ */
+final class ParquetSchemaCodec {
+    private static final int NO_VALUE = -1;
+
+    private static final int STRING = 1;
+    private static final int MAP = 2;
+    private static final int LIST = 3;
+    private static final int ENUM = 4;
+    private static final int DECIMAL = 5;
+    private static final int DATE = 6;
+    private static final int TIME = 7;
+    private static final int TIMESTAMP = 8;
+    private static final int INTEGER = 9;
+    private static final int JSON = 10;
+    private static final int BSON = 11;
+    private static final int UUID = 12;
+    private static final int INTERVAL = 13;
+    private static final int MAP_KEY_VALUE = 14;
+    private static final int FLOAT16 = 15;
+
+    private ParquetSchemaCodec() {
+    }
+
+    /**
+     * @param schema The schema to serialize.
+     * @return The serialized schema, or null if the schema holds a logical type unknown to the codec.
+     */
+    static byte[] encode(ParquetSchemaNode schema) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            if (!write(schema, out)) {
+                return null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // not thrown by in-memory streams
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param bytes A schema serialized with {@link #encode(ParquetSchemaNode)}.
+     * @return The deserialized schema.
+     * @throws IOException If the bytes are not a valid serialized schema.
+     */
+    static ParquetSchemaNode decode(byte[] bytes) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return read(in);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Invalid serialized schema", e);
+        }
+    }
+
+    private static boolean write(ParquetSchemaNode node, DataOutput out) throws IOException {
+        out.writeUTF(node.getName());
+        out.writeByte(node.getType().ordinal());
+        out.writeByte(node.getRepetition().ordinal());
+        out.writeByte(node.getPrimitiveType() == null ? NO_VALUE : node.getPrimitiveType().ordinal());
+        if (!writeLogicalType(node.getLogicalType(), out)) {
+            return false;
+        }
+        out.writeInt(node.getChildren().size());
+        for (ParquetSchemaNode child : node.getChildren()) {
+            if (!write(child, out)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ParquetSchemaNode read(DataInput in) throws IOException {
+        String name = in.readUTF();
+        ParquetSchemaType type = ParquetSchemaType.values()[in.readByte()];
+        Type.Repetition repetition = Type.Repetition.values()[in.readByte()];
+        byte primitiveOrdinal = in.readByte();
+        PrimitiveType.PrimitiveTypeName primitiveType = primitiveOrdinal == NO_VALUE
+                ? null
+                : PrimitiveType.PrimitiveTypeName.values()[primitiveOrdinal];
+        LogicalTypeAnnotation logicalType = readLogicalType(in);
+
+        int childrenCount = in.readInt();
+        List<ParquetSchemaNode> children = new ArrayList<>(childrenCount);
+        for (int i = 0; i < childrenCount; i++) {
+            children.add(read(in));
+        }
+        return new ParquetSchemaNode(name, type, repetition, primitiveType, logicalType, children);
+    }
+
+    private static boolean writeLogicalType(LogicalTypeAnnotation logicalType, DataOutput out) throws IOException {
+        if (logicalType == null) {
+            out.writeByte(NO_VALUE);
+        } else if (logicalType instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation) {
+            out.writeByte(STRING);
+        } else if (logicalType instanceof LogicalTypeAnnotation.MapLogicalTypeAnnotation) {
+            out.writeByte(MAP);
+        } else if (logicalType instanceof LogicalTypeAnnotation.ListLogicalTypeAnnotation) {
+            out.writeByte(LIST);
+        } else if (logicalType instanceof LogicalTypeAnnotation.EnumLogicalTypeAnnotation) {
+            out.writeByte(ENUM);
+        } else if (logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+            LogicalTypeAnnotation.DecimalLogicalTypeAnnotation decimal =
+                    (LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) logicalType;
+            out.writeByte(DECIMAL);
+            out.writeInt(decimal.getScale());
+            out.writeInt(decimal.getPrecision());
+        } else if (logicalType instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation) {
+            out.writeByte(DATE);
+        } else if (logicalType instanceof LogicalTypeAnnotation.TimeLogicalTypeAnnotation) {
+            LogicalTypeAnnotation.TimeLogicalTypeAnnotation time =
+                    (LogicalTypeAnnotation.TimeLogicalTypeAnnotation) logicalType;
+            out.writeByte(TIME);
+            out.writeByte(time.getUnit().ordinal());
+            out.writeBoolean(time.isAdjustedToUTC());
+        } else if (logicalType instanceof LogicalTypeAnnotation.TimestampLogicalTypeAnnotation) {
+            LogicalTypeAnnotation.TimestampLogicalTypeAnnotation timestamp =
+                    (LogicalTypeAnnotation.TimestampLogicalTypeAnnotation) logicalType;
+            out.writeByte(TIMESTAMP);
+            out.writeByte(timestamp.getUnit().ordinal());
+            out.writeBoolean(timestamp.isAdjustedToUTC());
+        } else if (logicalType instanceof LogicalTypeAnnotation.IntLogicalTypeAnnotation) {
+            LogicalTypeAnnotation.IntLogicalTypeAnnotation integer =
+                    (LogicalTypeAnnotation.IntLogicalTypeAnnotation) logicalType;
+            out.writeByte(INTEGER);
+            out.writeByte(integer.getBitWidth());
+            out.writeBoolean(integer.isSigned());
+        } else if (logicalType instanceof LogicalTypeAnnotation.JsonLogicalTypeAnnotation) {
+            out.writeByte(JSON);
+        } else if (logicalType instanceof LogicalTypeAnnotation.BsonLogicalTypeAnnotation) {
+            out.writeByte(BSON);
+        } else if (logicalType instanceof LogicalTypeAnnotation.UUIDLogicalTypeAnnotation) {
+            out.writeByte(UUID);
+        } else if (logicalType instanceof LogicalTypeAnnotation.IntervalLogicalTypeAnnotation) {
+            out.writeByte(INTERVAL);
+        } else if (logicalType instanceof LogicalTypeAnnotation.MapKeyValueTypeAnnotation) {
+            out.writeByte(MAP_KEY_VALUE);
+        } else if (logicalType instanceof LogicalTypeAnnotation.Float16LogicalTypeAnnotation) {
+            out.writeByte(FLOAT16);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static LogicalTypeAnnotation readLogicalType(DataInput in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NO_VALUE:
+                return null;
+            case STRING:
+                return LogicalTypeAnnotation.stringType();
+            case MAP:
+                return LogicalTypeAnnotation.mapType();
+            case LIST:
+                return LogicalTypeAnnotation.listType();
+            case ENUM:
+                return LogicalTypeAnnotation.enumType();
+            case DECIMAL:
+                int scale = in.readInt();
+                int precision = in.readInt();
+                return LogicalTypeAnnotation.decimalType(scale, precision);
+            case DATE:
+                return LogicalTypeAnnotation.dateType();
+            case TIME:
+                LogicalTypeAnnotation.TimeUnit timeUnit = LogicalTypeAnnotation.TimeUnit.values()[in.readByte()];
+                return LogicalTypeAnnotation.timeType(in.readBoolean(), timeUnit);
+            case TIMESTAMP:
+                LogicalTypeAnnotation.TimeUnit timestampUnit = LogicalTypeAnnotation.TimeUnit.values()[in.readByte()];
+                return LogicalTypeAnnotation.timestampType(in.readBoolean(), timestampUnit);
+            case INTEGER:
+                int bitWidth = in.readByte();
+                return LogicalTypeAnnotation.intType(bitWidth, in.readBoolean());
+            case JSON:
+                return LogicalTypeAnnotation.jsonType();
+            case BSON:
+                return LogicalTypeAnnotation.bsonType();
+            case UUID:
+                return LogicalTypeAnnotation.uuidType();
+            case INTERVAL:
+                return LogicalTypeAnnotation.IntervalLogicalTypeAnnotation.getInstance();
+            case MAP_KEY_VALUE:
+                return LogicalTypeAnnotation.MapKeyValueTypeAnnotation.getInstance();
+            case FLOAT16:
+                return LogicalTypeAnnotation.float16Type();
+            default:
+                throw new IOException("Unknown logical type tag: " + tag);
+        }
+    }
+}
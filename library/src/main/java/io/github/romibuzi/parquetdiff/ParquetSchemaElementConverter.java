@@ -0,0 +1,264 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNode;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaType;
+import org.apache.parquet.format.ConvertedType;
+import org.apache.parquet.format.FieldRepetitionType;
+import org.apache.parquet.format.LogicalType;
+import org.apache.parquet.format.SchemaElement;
+import org.apache.parquet.format.TimeUnit;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a {@link ParquetSchemaNode} tree directly from the flat schema of a Parquet footer.
+ * <p>
+ * The footer stores the schema as a list of {@link SchemaElement} in pre-order, each group giving its number of
+ * children. The tree is built in a single iterative pass over this list, without the intermediate parquet-mr
+ * {@link org.apache.parquet.schema.MessageType} nor a recursive visit. The result is the same as the one of
+ * {@link ParquetTypeVisitor} on the equivalent MessageType.
+ */
+final class ParquetSchemaElementConverter {
+    private static final int BIT_WIDTH_8 = 8;
+    private static final int BIT_WIDTH_16 = 16;
+    private static final int BIT_WIDTH_32 = 32;
+    private static final int BIT_WIDTH_64 = 64;
+
+    private ParquetSchemaElementConverter() {
+    }
+
+    /**
+     * @param elements The flat schema of a Parquet footer, starting with the root element.
+     * @return The schema, or null if the schema holds a type unknown to the converter.
+     * @throws IOException If the elements don't describe a valid tree.
+     */
+    static ParquetSchemaNode convert(List<SchemaElement> elements) throws IOException {
+        if (elements == null || elements.isEmpty()) {
+            throw new IOException("Invalid Parquet schema: no root element");
+        }
+
+        SchemaElement rootElement = elements.get(0);
+        int rootChildren = rootElement.isSetNum_children() ? rootElement.getNum_children() : 0;
+        ParquetSchemaNode root = new ParquetSchemaNode(ParquetSchemaType.MESSAGE.toString(), ParquetSchemaType.MESSAGE,
+                Type.Repetition.REPEATED, null, null, new ArrayList<>(rootChildren));
+
+        // groups being filled, by depth, with their number of children still expected
+        ParquetSchemaNode[] parents = new ParquetSchemaNode[elements.size()];
+        int[] remainingChildren = new int[elements.size()];
+        int depth = 0;
+        parents[0] = root;
+        remainingChildren[0] = rootChildren;
+
+        for (int i = 1; i < elements.size(); i++) {
+            while (depth >= 0 && remainingChildren[depth] == 0) {
+                depth--;
+            }
+            if (depth < 0) {
+                throw new IOException("Invalid Parquet schema: " + (elements.size() - i) + " unexpected elements");
+            }
+
+            SchemaElement element = elements.get(i);
+            ParquetSchemaNode node = convertElement(element);
+            if (node == null) {
+                return null;
+            }
+            parents[depth].addChild(node);
+            remainingChildren[depth]--;
+
+            if (node.getType() != ParquetSchemaType.PRIMITIVE && element.getNum_children() > 0) {
+                depth++;
+                parents[depth] = node;
+                remainingChildren[depth] = element.getNum_children();
+            }
+        }
+
+        for (int level = 0; level <= depth; level++) {
+            if (remainingChildren[level] > 0) {
+                throw new IOException("Invalid Parquet schema: missing children for " + parents[level].getName());
+            }
+        }
+        return root;
+    }
+
+    private static ParquetSchemaNode convertElement(SchemaElement element) {
+        LogicalTypeAnnotation logicalType = convertLogicalType(element);
+        if (!element.isSetRepetition_type()
+                || logicalType == null && (element.isSetLogicalType() || element.isSetConverted_type())) {
+            return null; // left to parquet-mr
+        }
+        Type.Repetition repetition = convertRepetition(element.getRepetition_type());
+
+        if (!element.isSetType()) {
+            int children = element.isSetNum_children() ? element.getNum_children() : 0;
+            return new ParquetSchemaNode(element.getName(), ParquetSchemaNodeConverter.findGroupType(logicalType),
+                    repetition, null, null, new ArrayList<>(children));
+        }
+        return new ParquetSchemaNode(element.getName(), ParquetSchemaType.PRIMITIVE, repetition,
+                convertPrimitiveType(element.getType()), logicalType, List.of());
+    }
+
+    private static Type.Repetition convertRepetition(FieldRepetitionType repetition) {
+        switch (repetition) {
+            case REQUIRED:
+                return Type.Repetition.REQUIRED;
+            case OPTIONAL:
+                return Type.Repetition.OPTIONAL;
+            case REPEATED:
+            default:
+                return Type.Repetition.REPEATED;
+        }
+    }
+
+    /**
+     * @param type A physical type of a Thrift footer.
+     * @return The parquet-mr physical type.
+     */
+    static PrimitiveType.PrimitiveTypeName convertPrimitiveType(org.apache.parquet.format.Type type) {
+        switch (type) {
+            case BOOLEAN:
+                return PrimitiveType.PrimitiveTypeName.BOOLEAN;
+            case INT32:
+                return PrimitiveType.PrimitiveTypeName.INT32;
+            case INT64:
+                return PrimitiveType.PrimitiveTypeName.INT64;
+            case INT96:
+                return PrimitiveType.PrimitiveTypeName.INT96;
+            case FLOAT:
+                return PrimitiveType.PrimitiveTypeName.FLOAT;
+            case DOUBLE:
+                return PrimitiveType.PrimitiveTypeName.DOUBLE;
+            case FIXED_LEN_BYTE_ARRAY:
+                return PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
+            case BYTE_ARRAY:
+            default:
+                return PrimitiveType.PrimitiveTypeName.BINARY;
+        }
+    }
+
+    /**
+     * Same precedence as parquet-mr: the logical type, unless the legacy converted type maps to another original
+     * type, in which case the converted type overrides it. Both agree for files of compliant writers.
+     */
+    private static LogicalTypeAnnotation convertLogicalType(SchemaElement element) {
+        LogicalTypeAnnotation logicalType = element.isSetLogicalType()
+                ? convertLogicalType(element.getLogicalType())
+                : null;
+        if (!element.isSetConverted_type()) {
+            return logicalType;
+        }
+        LogicalTypeAnnotation convertedType = convertConvertedType(element.getConverted_type(), element);
+        if (convertedType == null) {
+            return null; // left to parquet-mr
+        }
+        if (logicalType != null && convertedType.toOriginalType() == logicalType.toOriginalType()) {
+            return logicalType;
+        }
+        return convertedType;
+    }
+
+    private static LogicalTypeAnnotation convertLogicalType(LogicalType logicalType) {
+        if (logicalType.isSetSTRING()) {
+            return LogicalTypeAnnotation.stringType();
+        } else if (logicalType.isSetMAP()) {
+            return LogicalTypeAnnotation.mapType();
+        } else if (logicalType.isSetLIST()) {
+            return LogicalTypeAnnotation.listType();
+        } else if (logicalType.isSetENUM()) {
+            return LogicalTypeAnnotation.enumType();
+        } else if (logicalType.isSetDECIMAL()) {
+            return LogicalTypeAnnotation.decimalType(logicalType.getDECIMAL().getScale(),
+                    logicalType.getDECIMAL().getPrecision());
+        } else if (logicalType.isSetDATE()) {
+            return LogicalTypeAnnotation.dateType();
+        } else if (logicalType.isSetTIME()) {
+            LogicalTypeAnnotation.TimeUnit unit = convertTimeUnit(logicalType.getTIME().getUnit());
+            return unit == null
+                    ? null
+                    : LogicalTypeAnnotation.timeType(logicalType.getTIME().isIsAdjustedToUTC(), unit);
+        } else if (logicalType.isSetTIMESTAMP()) {
+            LogicalTypeAnnotation.TimeUnit unit = convertTimeUnit(logicalType.getTIMESTAMP().getUnit());
+            return unit == null
+                    ? null
+                    : LogicalTypeAnnotation.timestampType(logicalType.getTIMESTAMP().isIsAdjustedToUTC(), unit);
+        } else if (logicalType.isSetINTEGER()) {
+            return LogicalTypeAnnotation.intType(logicalType.getINTEGER().getBitWidth(),
+                    logicalType.getINTEGER().isIsSigned());
+        } else if (logicalType.isSetJSON()) {
+            return LogicalTypeAnnotation.jsonType();
+        } else if (logicalType.isSetBSON()) {
+            return LogicalTypeAnnotation.bsonType();
+        } else if (logicalType.isSetUUID()) {
+            return LogicalTypeAnnotation.uuidType();
+        } else if (logicalType.isSetFLOAT16()) {
+            return LogicalTypeAnnotation.float16Type();
+        }
+        return null;
+    }
+
+    private static LogicalTypeAnnotation.TimeUnit convertTimeUnit(TimeUnit unit) {
+        if (unit.isSetMILLIS()) {
+            return LogicalTypeAnnotation.TimeUnit.MILLIS;
+        } else if (unit.isSetMICROS()) {
+            return LogicalTypeAnnotation.TimeUnit.MICROS;
+        } else if (unit.isSetNANOS()) {
+            return LogicalTypeAnnotation.TimeUnit.NANOS;
+        }
+        return null;
+    }
+
+    private static LogicalTypeAnnotation convertConvertedType(ConvertedType convertedType, SchemaElement element) {
+        switch (convertedType) {
+            case UTF8:
+                return LogicalTypeAnnotation.stringType();
+            case MAP:
+                return LogicalTypeAnnotation.mapType();
+            case MAP_KEY_VALUE:
+                return LogicalTypeAnnotation.MapKeyValueTypeAnnotation.getInstance();
+            case LIST:
+                return LogicalTypeAnnotation.listType();
+            case ENUM:
+                return LogicalTypeAnnotation.enumType();
+            case DECIMAL:
+                return LogicalTypeAnnotation.decimalType(element.getScale(), element.getPrecision());
+            case DATE:
+                return LogicalTypeAnnotation.dateType();
+            case TIME_MILLIS:
+                return LogicalTypeAnnotation.timeType(true, LogicalTypeAnnotation.TimeUnit.MILLIS);
+            case TIME_MICROS:
+                return LogicalTypeAnnotation.timeType(true, LogicalTypeAnnotation.TimeUnit.MICROS);
+            case TIMESTAMP_MILLIS:
+                return LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MILLIS);
+            case TIMESTAMP_MICROS:
+                return LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MICROS);
+            case UINT_8:
+                return LogicalTypeAnnotation.intType(BIT_WIDTH_8, false);
+            case UINT_16:
+                return LogicalTypeAnnotation.intType(BIT_WIDTH_16, false);
+            case UINT_32:
+                return LogicalTypeAnnotation.intType(BIT_WIDTH_32, false);
+            case UINT_64:
+                return LogicalTypeAnnotation.intType(BIT_WIDTH_64, false);
+            case INT_8:
+                return LogicalTypeAnnotation.intType(BIT_WIDTH_8, true);
+            case INT_16:
+                return LogicalTypeAnnotation.intType(BIT_WIDTH_16, true);
+            case INT_32:
+                return LogicalTypeAnnotation.intType(BIT_WIDTH_32, true);
+            case INT_64:
+                return LogicalTypeAnnotation.intType(BIT_WIDTH_64, true);
+            case JSON:
+                return LogicalTypeAnnotation.jsonType();
+            case BSON:
+                return LogicalTypeAnnotation.bsonType();
+            case INTERVAL:
+                return LogicalTypeAnnotation.IntervalLogicalTypeAnnotation.getInstance();
+            default:
+                return null;
+        }
+    }
+}
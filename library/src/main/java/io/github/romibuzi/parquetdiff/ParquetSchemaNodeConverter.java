@@ -37,7 +37,10 @@ interface ParquetSchemaNodeConverter {
     }
 
     static ParquetSchemaType findGroupType(GroupType groupType) {
-        LogicalTypeAnnotation logicalType = groupType.getLogicalTypeAnnotation();
+        return findGroupType(groupType.getLogicalTypeAnnotation());
+    }
+
+    static ParquetSchemaType findGroupType(LogicalTypeAnnotation logicalType) {
         if (logicalType == null) {
             return ParquetSchemaType.GROUP;
         } else if (logicalType == LogicalTypeAnnotation.listType()) {
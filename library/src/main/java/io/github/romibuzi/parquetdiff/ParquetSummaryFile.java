@@ -0,0 +1,112 @@
+package io.github.romibuzi.parquetdiff;
+
+import org.apache.parquet.format.ColumnChunk;
+import org.apache.parquet.format.ColumnMetaData;
+import org.apache.parquet.format.FileMetaData;
+import org.apache.parquet.format.RowGroup;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * The "_metadata" summary file written by older Spark and MapReduce jobs at the root of a Parquet directory.
+ * <p>
+ * The summary holds the merged schema of all files and the row groups of every file, each row group referencing its
+ * file by a path relative to the directory. A file is described by the summary only if it is referenced, if it was
+ * not modified after the summary and if its row groups have the exact leaf columns of the merged schema, each column
+ * chunk having the physical type of its column. Chunk types are read from the raw Thrift footer: parquet-mr decodes
+ * column chunks with the types of the merged schema, which would hide any difference. A file with a different schema
+ * must be read individually. Column chunks don't record logical types, lengths nor repetitions: summaries written
+ * with a strict merge, e.g. by parquet-mr, reject incompatible ones, a more lenient summary can hide such drifts. The
+ * "_common_metadata" file only holds the schema, without row counts, and is not used.
+ */
+final class ParquetSummaryFile {
+    static final String METADATA_FILE_NAME = "_metadata";
+
+    private static final ParquetMetadataConverter METADATA_CONVERTER = new ParquetMetadataConverter();
+
+    private final MessageType schema;
+    private final long modificationTime;
+    private final Map<String, FileSummary> files = new HashMap<>();
+
+    /**
+     * @param metadata         The Thrift footer of the summary file, row groups included.
+     * @param modificationTime The modification time of the summary file.
+     */
+    ParquetSummaryFile(FileMetaData metadata, long modificationTime) {
+        this.schema = METADATA_CONVERTER.fromParquetSchema(metadata.getSchema(), metadata.getColumn_orders());
+        this.modificationTime = modificationTime;
+
+        Map<ColumnPath, PrimitiveType.PrimitiveTypeName> schemaColumns = schema.getColumns().stream()
+                .collect(Collectors.toMap(column -> ColumnPath.get(column.getPath()),
+                        column -> column.getPrimitiveType().getPrimitiveTypeName()));
+        for (RowGroup rowGroup : metadata.getRow_groups()) {
+            // the file of a row group is the one of its chunks
+            String path = rowGroup.getColumns().isEmpty() ? null : rowGroup.getColumns().get(0).getFile_path();
+            if (path == null) {
+                continue;
+            }
+            FileSummary file = files.computeIfAbsent(path, key -> new FileSummary());
+            file.numRows += rowGroup.getNum_rows();
+            Set<ColumnPath> columns = new HashSet<>(rowGroup.getColumns().size());
+            for (ColumnChunk column : rowGroup.getColumns()) {
+                ColumnMetaData columnMetaData = column.getMeta_data();
+                if (columnMetaData == null) {
+                    file.sameSchema = false;
+                    continue;
+                }
+                ColumnPath columnPath = ColumnPath.get(columnMetaData.getPath_in_schema().toArray(new String[0]));
+                columns.add(columnPath);
+                file.sameSchema &= path.equals(column.getFile_path())
+                        && ParquetSchemaElementConverter.convertPrimitiveType(columnMetaData.getType())
+                        == schemaColumns.get(columnPath);
+            }
+            file.sameSchema &= columns.equals(schemaColumns.keySet());
+        }
+    }
+
+    /**
+     * @return The merged schema of all files.
+     */
+    MessageType getSchema() {
+        return schema;
+    }
+
+    /**
+     * @return The paths of all files referenced by the summary, relative to the directory.
+     */
+    Set<String> getFiles() {
+        return Collections.unmodifiableSet(files.keySet());
+    }
+
+    /**
+     * @param relativePath     The path of a listed file, relative to the directory.
+     * @param fileModification The modification time of the listed file.
+     * @return The number of rows of the file, empty if the summary can't describe the file.
+     */
+    OptionalLong getNumRows(String relativePath, long fileModification) {
+        FileSummary file = files.get(relativePath);
+        if (file == null || !file.sameSchema || fileModification > modificationTime) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(file.numRows);
+    }
+
+    /**
+     * The row groups of a file, summarized.
+     */
+    private static final class FileSummary {
+        private long numRows;
+        private boolean sameSchema = true;
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.romibuzi.parquetdiff.diff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartitions;
+
+import java.io.PrintStream;
+import java.util.Objects;
+
+/**
+ * A column statistic of a partition deviating sharply from the neighbouring partitions, see
+ * {@link ParquetComparator#findColumnsDrift(java.util.List, ParquetDriftThresholds)}.
+ */
+public final class ParquetColumnDrift {
+    /**
+     * The drifting statistic.
+     */
+    public enum Kind {
+        /**
+         * The ratio of null values.
+         */
+        NULL_RATIO,
+        /**
+         * The number of values.
+         */
+        VALUE_COUNT,
+        /**
+         * The minimum of a numeric column, below the usual range.
+         */
+        MIN,
+        /**
+         * The maximum of a numeric column, above the usual range.
+         */
+        MAX
+    }
+
+    private final ParquetPartitions partitions;
+    private final String column;
+    private final Kind kind;
+    private final double value;
+    private final double expected;
+
+    /**
+     * @param partitions The drifting partition.
+     * @param column     The dotted path of the leaf column.
+     * @param kind       The drifting statistic.
+     * @param value      The statistic in the partition.
+     * @param expected   The median of the statistic in the neighbouring partitions.
+     */
+    ParquetColumnDrift(ParquetPartitions partitions, String column, Kind kind, double value, double expected) {
+        this.partitions = partitions;
+        this.column = column;
+        this.kind = kind;
+        this.value = value;
+        this.expected = expected;
+    }
+
+    /**
+     * @return The drifting partition.
+     */
+    public ParquetPartitions getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * @return The dotted path of the leaf column.
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * @return The drifting statistic.
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return The statistic in the partition.
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * @return The median of the statistic in the neighbouring partitions.
+     */
+    public double getExpected() {
+        return expected;
+    }
+
+    /**
+     * Prints the drift.
+     *
+     * @param out The stream to write into, ex: System.out.
+     */
+    public void print(PrintStream out) {
+        out.printf("Partition %s column %s: %s %s, neighbouring partitions median %s.%s", partitions, column,
+                kind.name().toLowerCase().replace('_', ' '), format(value), format(expected), System.lineSeparator());
+    }
+
+    private static String format(double number) {
+        return number == Math.rint(number) && Math.abs(number) < Long.MAX_VALUE
+                ? Long.toString((long) number)
+                : String.valueOf(number);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ParquetColumnDrift that = (ParquetColumnDrift) o;
+        return Double.compare(value, that.value) == 0 && Double.compare(expected, that.expected) == 0
+                && Objects.equals(partitions, that.partitions) && column.equals(that.column) && kind == that.kind;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(partitions, column, kind, value, expected);
+    }
+
+    @Override
+    public String toString() {
+        return partitions + " " + column + " " + kind + " " + value + " (" + expected + ")";
+    }
+}
@@ -1,12 +1,23 @@
 package io.github.romibuzi.parquetdiff.diff;
 
+import io.github.romibuzi.parquetdiff.metadata.ParquetColumnStatistics;
+import io.github.romibuzi.parquetdiff.metadata.ParquetContentFingerprint;
 import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartition;
 import io.github.romibuzi.parquetdiff.metadata.ParquetPartitions;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaFingerprint;
 import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNode;
 import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNodePath;
+import io.github.romibuzi.parquetdiff.metrics.ParquetScanMetrics;
 
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Provide facilities to compare Parquet Schemas.
@@ -63,27 +74,404 @@ public final class ParquetComparator {
      * @return A list of {@link ParquetSchemaDiff} instances with all differences found.
      */
     public static List<ParquetSchemaDiff> findSchemasDifferences(List<ParquetDetails> parquets) {
-        if (parquets.isEmpty()) {
-            return Collections.emptyList();
-        }
+        return findSchemasDifferences(parquets, ParquetScanMetrics.NOOP);
+    }
+
+    /**
+     * @param parquets Parquets to find schemas differences.
+     * @param metrics  The metrics receiving the nodes compared, the differences found and the duration of each
+     *                 comparison.
+     * @return A list of {@link ParquetSchemaDiff} instances with all differences found.
+     * @see ParquetComparator#findSchemasDifferences(List)
+     */
+    public static List<ParquetSchemaDiff> findSchemasDifferences(List<ParquetDetails> parquets,
+                                                                 ParquetScanMetrics metrics) {
+        return findSchemasDifferences(parquets.stream(), metrics).collect(Collectors.toList());
+    }
 
-        List<ParquetSchemaDiff> results = new ArrayList<>();
+    /**
+     * <p>
+     * Incremental counterpart of {@link #findSchemasDifferences(List)}: differences are emitted as soon as they are
+     * found while the given stream is consumed. Only the current reference is kept between two comparisons, so
+     * memory does not depend on the number of Parquets. Example:
+     * <pre>{@code
+     * try (Stream<ParquetSchemaDiff> diffs =
+     *              ParquetComparator.findSchemasDifferences(reader.streamParquetDirectory(path))) {
+     *     diffs.forEach(diff -> diff.print(System.out));
+     * }
+     * }</pre>
+     * Closing the returned stream closes the given stream.
+     *
+     * @param parquets Parquets to find schemas differences, consumed lazily.
+     * @return A lazy stream of {@link ParquetSchemaDiff} instances with all differences found.
+     */
+    public static Stream<ParquetSchemaDiff> findSchemasDifferences(Stream<ParquetDetails> parquets) {
+        return findSchemasDifferences(parquets, ParquetScanMetrics.NOOP);
+    }
 
+    /**
+     * @param parquets Parquets to find schemas differences, consumed lazily.
+     * @param metrics  The metrics receiving the nodes compared, the differences found and the duration of each
+     *                 comparison.
+     * @return A lazy stream of {@link ParquetSchemaDiff} instances with all differences found.
+     * @see ParquetComparator#findSchemasDifferences(Stream)
+     */
+    public static Stream<ParquetSchemaDiff> findSchemasDifferences(Stream<ParquetDetails> parquets,
+                                                                   ParquetScanMetrics metrics) {
         Iterator<ParquetDetails> iterator = parquets.iterator();
-        ParquetDetails reference = iterator.next();
+        Spliterator<ParquetSchemaDiff> spliterator =
+                new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                    private ParquetDetails reference;
 
+                    @Override
+                    public boolean tryAdvance(Consumer<? super ParquetSchemaDiff> action) {
+                        if (reference == null) {
+                            if (!iterator.hasNext()) {
+                                return false;
+                            }
+                            reference = iterator.next();
+                        }
+                        while (iterator.hasNext()) {
+                            ParquetDetails parquet = iterator.next();
+                            ParquetSchemaDiff diff = compareSchemas(reference, parquet, metrics);
+                            if (diff.hasDifferences()) {
+                                reference = parquet;
+                                action.accept(diff);
+                                return true;
+                            }
+                        }
+                        return false;
+                    }
+                };
+        return StreamSupport.stream(spliterator, false).onClose(parquets::close);
+    }
+
+    /**
+     * <p>
+     * Aligns the partitions of two Parquet datasets and compares them partition by partition, e.g. to check a table
+     * migrated between two clusters. Example:
+     * <pre>{@code
+     * try (Stream<ParquetPartitionComparison> comparisons = ParquetComparator.compareDatasets(
+     *         reader.streamParquetDirectory(oldPath), reader.streamParquetDirectory(newPath))) {
+     *     comparisons.filter(ParquetPartitionComparison::hasDifferences).forEach(c -> c.print(System.out));
+     * }
+     * }</pre>
+     * <p>
+     * Both streams are merged lazily on their partitions, only the Parquets of the current partition of each side
+     * are held in memory. Partitions present on a single side are reported as such. Both streams must be sorted
+     * by partitions, with the files of a partition being contiguous, which is the listing order of
+     * {@link io.github.romibuzi.parquetdiff.ParquetReader} for datasets whose files are all at the same depth.
+     * Closing the returned stream closes both given streams.
+     * <p>
+     * Streams of {@link io.github.romibuzi.parquetdiff.ParquetReader} still list their whole directory up front: the
+     * file statuses of both datasets are held in memory, only their footers are read partition by partition.
+     *
+     * @param first  Parquets of the first dataset, the reference, consumed lazily.
+     * @param second Parquets of the second dataset, consumed lazily.
+     * @return A lazy stream of {@link ParquetPartitionComparison}, one per partition of any dataset, sorted by
+     * partitions.
+     * @throws IllegalStateException while consuming the stream, if a dataset is not sorted by partitions.
+     */
+    public static Stream<ParquetPartitionComparison> compareDatasets(Stream<ParquetDetails> first,
+                                                                     Stream<ParquetDetails> second) {
+        return compareDatasets(first, second, ParquetScanMetrics.NOOP);
+    }
+
+    /**
+     * @param first   Parquets of the first dataset, the reference, consumed lazily.
+     * @param second  Parquets of the second dataset, consumed lazily.
+     * @param metrics The metrics receiving the nodes compared, the differences found and the duration of each schema
+     *                comparison.
+     * @return A lazy stream of {@link ParquetPartitionComparison}, one per partition of any dataset, sorted by
+     * partitions.
+     * @see ParquetComparator#compareDatasets(Stream, Stream)
+     */
+    public static Stream<ParquetPartitionComparison> compareDatasets(Stream<ParquetDetails> first,
+                                                                     Stream<ParquetDetails> second,
+                                                                     ParquetScanMetrics metrics) {
+        PartitionIterator firstPartitions = new PartitionIterator(first.iterator());
+        PartitionIterator secondPartitions = new PartitionIterator(second.iterator());
+        Spliterator<ParquetPartitionComparison> spliterator =
+                new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                    @Override
+                    public boolean tryAdvance(Consumer<? super ParquetPartitionComparison> action) {
+                        if (!firstPartitions.hasNext() && !secondPartitions.hasNext()) {
+                            return false;
+                        }
+                        int order;
+                        if (!firstPartitions.hasNext()) {
+                            order = 1;
+                        } else if (!secondPartitions.hasNext()) {
+                            order = -1;
+                        } else {
+                            order = PartitionIterator.compare(firstPartitions.peekPartitions(),
+                                    secondPartitions.peekPartitions());
+                        }
+
+                        List<ParquetDetails> firstParquets = order <= 0 ? firstPartitions.next() : List.of();
+                        List<ParquetDetails> secondParquets = order >= 0 ? secondPartitions.next() : List.of();
+                        action.accept(comparePartitions(firstParquets, secondParquets, metrics));
+                        return true;
+                    }
+                };
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                first.close();
+            } finally {
+                second.close();
+            }
+        });
+    }
+
+    private static ParquetPartitionComparison comparePartitions(List<ParquetDetails> first,
+                                                                List<ParquetDetails> second,
+                                                                ParquetScanMetrics metrics) {
+        ParquetPartitions partitions = (first.isEmpty() ? second : first).get(0).getPartitions();
+        List<ParquetSchemaDiff> differences = new ArrayList<>();
+        if (!first.isEmpty()) {
+            ParquetDetails reference = first.get(0);
+            Set<ParquetSchemaFingerprint> fingerprints = new HashSet<>();
+            for (ParquetDetails parquet : second) {
+                if (fingerprints.add(parquet.getFingerprint())) {
+                    ParquetSchemaDiff diff = compareSchemas(reference, parquet, metrics);
+                    if (diff.hasDifferences()) {
+                        differences.add(diff);
+                    }
+                }
+            }
+        }
+        return new ParquetPartitionComparison(partitions, first.size(), countRows(first), second.size(),
+                countRows(second), differences);
+    }
+
+    private static long countRows(List<ParquetDetails> parquets) {
+        return parquets.stream().mapToLong(ParquetDetails::getNumRows).sum();
+    }
+
+    /**
+     * Groups Parquets by schema fingerprint into equivalence classes, in order of first appearance.
+     *
+     * @param parquets Parquets to group.
+     * @return A list of {@link ParquetSchemaGroup} instances, one per distinct schema.
+     */
+    public static List<ParquetSchemaGroup> groupBySchema(List<ParquetDetails> parquets) {
+        return groupBySchema(parquets.stream());
+    }
+
+    /**
+     * Streaming counterpart of {@link #groupBySchema(List)}: only one Parquet per class is kept while the given
+     * stream is consumed, so memory depends on the number of distinct schemas, not on the number of Parquets.
+     *
+     * @param parquets Parquets to group, consumed but not closed.
+     * @return A list of {@link ParquetSchemaGroup} instances, one per distinct schema.
+     */
+    public static List<ParquetSchemaGroup> groupBySchema(Stream<ParquetDetails> parquets) {
+        Map<ParquetSchemaFingerprint, ParquetSchemaGroup> groups = new LinkedHashMap<>();
+        Iterator<ParquetDetails> iterator = parquets.iterator();
+        ParquetSchemaGroup previous = null;
         while (iterator.hasNext()) {
             ParquetDetails parquet = iterator.next();
-            ParquetSchemaDiff diff = compareSchemas(reference, parquet);
-            if (diff.hasDifferences()) {
-                results.add(diff);
-                reference = parquet;
+            ParquetSchemaGroup group = groups.computeIfAbsent(parquet.getFingerprint(),
+                    fingerprint -> new ParquetSchemaGroup(parquet));
+            group.add(parquet, group == previous);
+            previous = group;
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * Compares the schemas of the given classes like {@link #findSchemasDifferences(List)}, using one representative
+     * per class: n distinct schemas are compared with at most n - 1 tree walks, whatever the number of Parquets.
+     *
+     * @param groups Classes of Parquets sharing the same schema, see {@link #groupBySchema(List)}.
+     * @return A list of {@link ParquetSchemaDiff} instances between representatives.
+     */
+    public static List<ParquetSchemaDiff> findSchemasGroupsDifferences(List<ParquetSchemaGroup> groups) {
+        return findSchemasGroupsDifferences(groups, ParquetScanMetrics.NOOP);
+    }
+
+    /**
+     * @param groups  Classes of Parquets sharing the same schema, see {@link #groupBySchema(List)}.
+     * @param metrics The metrics receiving the nodes compared, the differences found and the duration of each
+     *                comparison.
+     * @return A list of {@link ParquetSchemaDiff} instances between representatives.
+     * @see ParquetComparator#findSchemasGroupsDifferences(List)
+     */
+    public static List<ParquetSchemaDiff> findSchemasGroupsDifferences(List<ParquetSchemaGroup> groups,
+                                                                       ParquetScanMetrics metrics) {
+        return findSchemasDifferences(groups.stream().map(ParquetSchemaGroup::getRepresentative), metrics)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Finds files holding the same rows, such as duplicate writes or the outputs of retried tasks. Empty files are
+     * ignored.
+     *
+     * @param parquets     Parquets whose content was fingerprinted.
+     * @param fingerprints The content fingerprints of the Parquets, in the same order.
+     * @return The groups of at least two Parquets with equal fingerprints, in order of first appearance.
+     * @throws IllegalArgumentException if there is not one fingerprint per Parquet.
+     */
+    public static List<List<ParquetDetails>> findSameContentFiles(List<ParquetDetails> parquets,
+                                                                  List<ParquetContentFingerprint> fingerprints)
+            throws IllegalArgumentException {
+        checkFingerprints(parquets, fingerprints);
+        Map<ParquetContentFingerprint, List<ParquetDetails>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < parquets.size(); i++) {
+            if (fingerprints.get(i).getNumRows() > 0) {
+                groups.computeIfAbsent(fingerprints.get(i), fingerprint -> new ArrayList<>()).add(parquets.get(i));
             }
         }
+        return groups.values().stream().filter(group -> group.size() > 1).collect(Collectors.toList());
+    }
 
+    /**
+     * Merges the content fingerprints of the files of each partition, without reading them again.
+     *
+     * @param parquets     Parquets whose content was fingerprinted.
+     * @param fingerprints The content fingerprints of the Parquets, in the same order.
+     * @return The content fingerprint of each partition, in order of first appearance.
+     * @throws IllegalArgumentException if there is not one fingerprint per Parquet, or if fingerprints of a
+     *                                  partition have different columns.
+     */
+    public static Map<ParquetPartitions, ParquetContentFingerprint> mergeByPartitions(
+            List<ParquetDetails> parquets, List<ParquetContentFingerprint> fingerprints)
+            throws IllegalArgumentException {
+        checkFingerprints(parquets, fingerprints);
+        Map<ParquetPartitions, ParquetContentFingerprint> partitions = new LinkedHashMap<>();
+        for (int i = 0; i < parquets.size(); i++) {
+            partitions.merge(parquets.get(i).getPartitions(), fingerprints.get(i), ParquetContentFingerprint::merge);
+        }
+        return partitions;
+    }
+
+    /**
+     * Compares the content of the partitions of two datasets, see {@link #mergeByPartitions(List, List)}.
+     *
+     * @param first  The content fingerprints of the partitions of the first dataset.
+     * @param second The content fingerprints of the partitions of the second dataset.
+     * @return The partitions whose fingerprints differ or which are only in one dataset, the partitions of the first
+     * dataset first.
+     */
+    public static List<ParquetPartitions> findDifferentPartitionsContent(
+            Map<ParquetPartitions, ParquetContentFingerprint> first,
+            Map<ParquetPartitions, ParquetContentFingerprint> second) {
+        List<ParquetPartitions> results = new ArrayList<>();
+        first.forEach((partitions, fingerprint) -> {
+            if (!fingerprint.equals(second.get(partitions))) {
+                results.add(partitions);
+            }
+        });
+        second.keySet().stream().filter(partitions -> !first.containsKey(partitions)).forEach(results::add);
         return results;
     }
 
+    /**
+     * @see ParquetComparator#findColumnsDrift(List, ParquetDriftThresholds)
+     */
+    public static List<ParquetColumnDrift> findColumnsDrift(List<ParquetDetails> parquets) {
+        return findColumnsDrift(parquets, ParquetDriftThresholds.defaults());
+    }
+
+    /**
+     * <p>
+     * Finds the partitions whose column statistics deviate sharply from the neighbouring partitions, such as a
+     * column suddenly null, a partition with much fewer values or values out of the usual range. Statistics are
+     * read from the footers, see {@link io.github.romibuzi.parquetdiff.ParquetReader.Builder#columnStatistics}.
+     * <p>
+     * The statistics of the files of each partition are merged, then each partition is compared to the median of
+     * the statistics of its neighbours, in order of first appearance. A statistic needs at least two neighbours to be
+     * compared. Only the minimums and maximums of numeric columns are compared.
+     *
+     * @param parquets   Parquets read with their column statistics.
+     * @param thresholds The thresholds above which a statistic is drifting.
+     * @return The drifting statistics, by partition and column.
+     */
+    public static List<ParquetColumnDrift> findColumnsDrift(List<ParquetDetails> parquets,
+                                                            ParquetDriftThresholds thresholds) {
+        Map<ParquetPartitions, Map<String, ParquetColumnStatistics>> statisticsByPartitions = new LinkedHashMap<>();
+        for (ParquetDetails parquet : parquets) {
+            Map<String, ParquetColumnStatistics> partitionStatistics = statisticsByPartitions
+                    .computeIfAbsent(parquet.getPartitions(), partitions -> new LinkedHashMap<>());
+            for (ParquetColumnStatistics statistics : parquet.getColumnStatistics()) {
+                partitionStatistics.merge(statistics.getColumn(), statistics, ParquetColumnStatistics::merge);
+            }
+        }
+
+        List<ParquetPartitions> partitions = new ArrayList<>(statisticsByPartitions.keySet());
+        List<Map<String, ParquetColumnStatistics>> statistics = new ArrayList<>(statisticsByPartitions.values());
+        List<ParquetColumnDrift> drifts = new ArrayList<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            int from = Math.max(0, i - thresholds.getWindow());
+            int to = Math.min(partitions.size(), i + thresholds.getWindow() + 1);
+            for (ParquetColumnStatistics columnStatistics : statistics.get(i).values()) {
+                List<ParquetColumnStatistics> neighbours = new ArrayList<>();
+                for (int j = from; j < to; j++) {
+                    ParquetColumnStatistics neighbour = statistics.get(j).get(columnStatistics.getColumn());
+                    if (j != i && neighbour != null) {
+                        neighbours.add(neighbour);
+                    }
+                }
+                findColumnDrift(partitions.get(i), columnStatistics, neighbours, thresholds, drifts::add);
+            }
+        }
+        return drifts;
+    }
+
+    private static void findColumnDrift(ParquetPartitions partitions, ParquetColumnStatistics statistics,
+                                        List<ParquetColumnStatistics> neighbours, ParquetDriftThresholds thresholds,
+                                        Consumer<ParquetColumnDrift> drifts) {
+        String column = statistics.getColumn();
+        double valueCount = statistics.getValueCount();
+        double expectedValueCount = median(neighbours.stream().mapToDouble(ParquetColumnStatistics::getValueCount));
+        if (valueCount > expectedValueCount * thresholds.getValueCountFactor()
+                || valueCount * thresholds.getValueCountFactor() < expectedValueCount) {
+            drifts.accept(new ParquetColumnDrift(partitions, column, ParquetColumnDrift.Kind.VALUE_COUNT,
+                    valueCount, expectedValueCount));
+        }
+
+        double nullRatio = statistics.getNullRatio();
+        double expectedNullRatio = median(neighbours.stream().mapToDouble(ParquetColumnStatistics::getNullRatio));
+        if (Math.abs(nullRatio - expectedNullRatio) > thresholds.getNullRatio()) {
+            drifts.accept(new ParquetColumnDrift(partitions, column, ParquetColumnDrift.Kind.NULL_RATIO,
+                    nullRatio, expectedNullRatio));
+        }
+
+        double expectedMin = median(neighbours.stream().map(ParquetColumnStatistics::getNumericMin)
+                .filter(Objects::nonNull).mapToDouble(Double::doubleValue));
+        double expectedMax = median(neighbours.stream().map(ParquetColumnStatistics::getNumericMax)
+                .filter(Objects::nonNull).mapToDouble(Double::doubleValue));
+        double tolerance = (expectedMax - expectedMin) * thresholds.getRangeFactor();
+        if (statistics.getNumericMin() != null && statistics.getNumericMin() < expectedMin - tolerance) {
+            drifts.accept(new ParquetColumnDrift(partitions, column, ParquetColumnDrift.Kind.MIN,
+                    statistics.getNumericMin(), expectedMin));
+        }
+        if (statistics.getNumericMax() != null && statistics.getNumericMax() > expectedMax + tolerance) {
+            drifts.accept(new ParquetColumnDrift(partitions, column, ParquetColumnDrift.Kind.MAX,
+                    statistics.getNumericMax(), expectedMax));
+        }
+    }
+
+    /**
+     * @return The median of the known values, NaN with less than two of them so that comparisons are false.
+     */
+    private static double median(DoubleStream values) {
+        double[] sorted = values.filter(value -> !Double.isNaN(value)).sorted().toArray();
+        if (sorted.length < 2) {
+            return Double.NaN;
+        }
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    private static void checkFingerprints(List<ParquetDetails> parquets,
+                                          List<ParquetContentFingerprint> fingerprints) {
+        if (parquets.size() != fingerprints.size()) {
+            throw new IllegalArgumentException("Expected one fingerprint per Parquet: " + fingerprints.size()
+                    + " fingerprints for " + parquets.size() + " Parquets");
+        }
+    }
+
     /**
      * @see ParquetComparator#findSchemasDifferences(List)
      */
@@ -97,21 +485,45 @@ public final class ParquetComparator {
 
     /**
      * Compare two ParquetDetails schemas and find differences.
+     * Schemas with the same fingerprint are equal, their trees are not walked.
      *
      * @param firstParquet  The first Parquet.
      * @param secondParquet The second Parquet.
      * @return A {@link ParquetSchemaDiff} instance with all differences found.
      */
     static ParquetSchemaDiff compareSchemas(ParquetDetails firstParquet, ParquetDetails secondParquet) {
+        return compareSchemas(firstParquet, secondParquet, ParquetScanMetrics.NOOP);
+    }
+
+    private static ParquetSchemaDiff compareSchemas(ParquetDetails firstParquet, ParquetDetails secondParquet,
+                                                    ParquetScanMetrics metrics) {
+        ParquetSchemaComparisonEvent event = new ParquetSchemaComparisonEvent();
+        event.begin();
+        long start = System.nanoTime();
         ParquetSchemaDiff diff = new ParquetSchemaDiff(firstParquet, secondParquet);
-        compareSchemasNodes(firstParquet.getSchema(), secondParquet.getSchema(), null, diff);
+        int nodes = 0;
+        if (firstParquet.getSchema() != secondParquet.getSchema()
+                && !firstParquet.getFingerprint().equals(secondParquet.getFingerprint())) {
+            nodes = compareSchemasNodes(firstParquet.getSchema(), secondParquet.getSchema(), null, diff);
+        }
+        metrics.schemasCompared(nodes, diff.countDifferences(), System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.setPaths(firstParquet.getPath().toString(), secondParquet.getPath().toString());
+            event.setSchemaNodes(firstParquet.getSchema().countNodes(), secondParquet.getSchema().countNodes());
+            event.setNodesCompared(nodes);
+            event.setDifferences(diff.countDifferences());
+            event.commit();
+        }
         return diff;
     }
 
-    private static void compareSchemasNodes(ParquetSchemaNode first,
-                                            ParquetSchemaNode second,
-                                            ParquetSchemaNodePath path,
-                                            ParquetSchemaDiff diff) {
+    /**
+     * @return The number of compared nodes, the given ones and their descendants present in both schemas.
+     */
+    private static int compareSchemasNodes(ParquetSchemaNode first,
+                                           ParquetSchemaNode second,
+                                           ParquetSchemaNodePath path,
+                                           ParquetSchemaDiff diff) {
         ParquetSchemaNodePath currentPath = path == null
                 ? new ParquetSchemaNodePath(first.getName())
                 : path.add(first.getName());
@@ -121,11 +533,12 @@ public final class ParquetComparator {
         Map<String, ParquetSchemaNode> firstChildren = first.getChildrenMap();
         Map<String, ParquetSchemaNode> secondChildren = second.getChildrenMap();
 
+        int nodes = 1;
         for (String child : firstChildren.keySet()) {
             if (!secondChildren.containsKey(child)) {
                 diff.addMissingNode(currentPath.add(child));
             } else {
-                compareSchemasNodes(firstChildren.get(child), secondChildren.get(child), currentPath, diff);
+                nodes += compareSchemasNodes(firstChildren.get(child), secondChildren.get(child), currentPath, diff);
             }
         }
 
@@ -134,6 +547,7 @@ public final class ParquetComparator {
                 diff.addAdditionalNode(currentPath.add(childName));
             }
         }
+        return nodes;
     }
 
     private static void findSchemasNodesDifferences(ParquetSchemaNode first, ParquetSchemaNode second,
@@ -153,4 +567,75 @@ public final class ParquetComparator {
                     second.getPrimitiveType()));
         }
     }
+
+    /**
+     * Groups consecutive Parquets of the same partitions, checking that partitions are sorted.
+     */
+    private static final class PartitionIterator {
+        private final Iterator<ParquetDetails> parquets;
+        private ParquetDetails pending;
+        private ParquetPartitions previous;
+
+        PartitionIterator(Iterator<ParquetDetails> parquets) {
+            this.parquets = parquets;
+        }
+
+        boolean hasNext() {
+            return pending != null || parquets.hasNext();
+        }
+
+        ParquetPartitions peekPartitions() {
+            if (pending == null) {
+                pending = parquets.next();
+            }
+            return pending.getPartitions();
+        }
+
+        List<ParquetDetails> next() {
+            ParquetPartitions partitions = peekPartitions();
+            if (previous != null && compare(previous, partitions) >= 0) {
+                throw new IllegalStateException("Parquets are not sorted by partitions: " + partitions
+                        + " after " + previous);
+            }
+            previous = partitions;
+
+            List<ParquetDetails> results = new ArrayList<>();
+            results.add(pending);
+            pending = null;
+            while (parquets.hasNext()) {
+                ParquetDetails parquet = parquets.next();
+                if (!parquet.getPartitions().equals(partitions)) {
+                    pending = parquet;
+                    break;
+                }
+                results.add(parquet);
+            }
+            return results;
+        }
+
+        /**
+         * Partitions are compared by encoded directory name, like sorted listings: Hadoop paths are ordered by their
+         * URI, in which partition values are escaped, e.g. {@code x=a!b} comes before {@code x=a%20b}.
+         */
+        static int compare(ParquetPartitions first, ParquetPartitions second) {
+            List<ParquetPartition> firstPartitions = first.getPartitions();
+            List<ParquetPartition> secondPartitions = second.getPartitions();
+            for (int i = 0; i < Math.min(firstPartitions.size(), secondPartitions.size()); i++) {
+                int order = encodedName(firstPartitions.get(i)).compareTo(encodedName(secondPartitions.get(i)));
+                if (order != 0) {
+                    return order;
+                }
+            }
+            return Integer.compare(firstPartitions.size(), secondPartitions.size());
+        }
+
+        private static String encodedName(ParquetPartition partition) {
+            try {
+                // the leading slash keeps a colon of the name from being parsed as a URI scheme
+                return new URI(null, null, "/" + partition, null).getRawPath().substring(1);
+            } catch (URISyntaxException e) {
+                return partition.toString();
+            }
+        }
+    }
 }
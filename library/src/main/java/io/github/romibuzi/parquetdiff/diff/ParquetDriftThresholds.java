@@ -0,0 +1,115 @@
+package io.github.romibuzi.parquetdiff.diff;
+
+/**
+ * <p>
+ * The thresholds above which the column statistics of a partition are reported as drifting from the neighbouring
+ * partitions, see {@link ParquetComparator#findColumnsDrift(java.util.List, ParquetDriftThresholds)}. Example:
+ * <pre>{@code
+ * ParquetDriftThresholds thresholds = ParquetDriftThresholds.defaults().withNullRatio(0.05).withWindow(7);
+ * }</pre>
+ * <p>
+ * Each partition is compared to the median of the statistics of its neighbours, the partitions before and after it
+ * in listing order.
+ */
+public final class ParquetDriftThresholds {
+    private static final double DEFAULT_NULL_RATIO = 0.2;
+    private static final double DEFAULT_VALUE_COUNT_FACTOR = 10;
+    private static final double DEFAULT_RANGE_FACTOR = 3;
+    private static final int DEFAULT_WINDOW = 3;
+
+    private final double nullRatio;
+    private final double valueCountFactor;
+    private final double rangeFactor;
+    private final int window;
+
+    private ParquetDriftThresholds(double nullRatio, double valueCountFactor, double rangeFactor, int window) {
+        this.nullRatio = nullRatio;
+        this.valueCountFactor = valueCountFactor;
+        this.rangeFactor = rangeFactor;
+        this.window = window;
+    }
+
+    /**
+     * @return Thresholds of a 0.2 null ratio difference, a 10 times value count factor and a range factor of 3, over
+     * 3 partitions on each side.
+     */
+    public static ParquetDriftThresholds defaults() {
+        return new ParquetDriftThresholds(DEFAULT_NULL_RATIO, DEFAULT_VALUE_COUNT_FACTOR, DEFAULT_RANGE_FACTOR,
+                DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param difference The maximum difference between the null ratio of a column and its median in the
+     *                   neighbouring partitions, within [0, 1[.
+     * @return A copy of these thresholds with the given null ratio difference.
+     * @throws IllegalArgumentException if difference is not within [0, 1[.
+     */
+    public ParquetDriftThresholds withNullRatio(double difference) throws IllegalArgumentException {
+        if (!(difference >= 0 && difference < 1)) {
+            throw new IllegalArgumentException("Null ratio difference must be within [0, 1[: " + difference);
+        }
+        return new ParquetDriftThresholds(difference, valueCountFactor, rangeFactor, window);
+    }
+
+    /**
+     * @param factor The maximum factor between the number of values of a column and its median in the neighbouring
+     *               partitions, at least 1.
+     * @return A copy of these thresholds with the given value count factor.
+     * @throws IllegalArgumentException if factor is lower than 1.
+     */
+    public ParquetDriftThresholds withValueCountFactor(double factor) throws IllegalArgumentException {
+        if (!(factor >= 1)) {
+            throw new IllegalArgumentException("Value count factor must be at least 1: " + factor);
+        }
+        return new ParquetDriftThresholds(nullRatio, factor, rangeFactor, window);
+    }
+
+    /**
+     * Numeric minimums and maximums are reported when they exceed the median range of the neighbouring partitions
+     * by more than the given factor of its width.
+     *
+     * @param factor The tolerated excess, as a factor of the width of the median range, positive or zero.
+     * @return A copy of these thresholds with the given range factor.
+     * @throws IllegalArgumentException if factor is negative.
+     */
+    public ParquetDriftThresholds withRangeFactor(double factor) throws IllegalArgumentException {
+        if (!(factor >= 0)) {
+            throw new IllegalArgumentException("Range factor must be positive or zero: " + factor);
+        }
+        return new ParquetDriftThresholds(nullRatio, valueCountFactor, factor, window);
+    }
+
+    /**
+     * @param partitions The number of neighbouring partitions on each side of a partition, at least 1.
+     * @return A copy of these thresholds with the given window.
+     * @throws IllegalArgumentException if partitions is lower than 1.
+     */
+    public ParquetDriftThresholds withWindow(int partitions) throws IllegalArgumentException {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Drift window must be positive: " + partitions);
+        }
+        return new ParquetDriftThresholds(nullRatio, valueCountFactor, rangeFactor, partitions);
+    }
+
+    double getNullRatio() {
+        return nullRatio;
+    }
+
+    double getValueCountFactor() {
+        return valueCountFactor;
+    }
+
+    double getRangeFactor() {
+        return rangeFactor;
+    }
+
+    int getWindow() {
+        return window;
+    }
+
+    @Override
+    public String toString() {
+        return "null ratio +/-" + nullRatio + ", value count x" + valueCountFactor + ", range x" + rangeFactor
+                + ", window " + window;
+    }
+}
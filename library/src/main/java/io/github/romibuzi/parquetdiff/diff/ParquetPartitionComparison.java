@@ -0,0 +1,153 @@
+package io.github.romibuzi.parquetdiff.diff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartitions;
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>
+ * The comparison of the same partition in two Parquet datasets, see
+ * {@link ParquetComparator#compareDatasets(java.util.stream.Stream, java.util.stream.Stream)}.
+ * <p>
+ * A partition present in a single dataset has no files on the other side. Otherwise, the schemas of the second
+ * dataset are compared to the schema of the first file of the first dataset, one file per distinct schema.
+ */
+public final class ParquetPartitionComparison {
+    private final ParquetPartitions partitions;
+    private final long firstNumFiles;
+    private final long firstNumRows;
+    private final long secondNumFiles;
+    private final long secondNumRows;
+    private final List<ParquetSchemaDiff> schemasDifferences;
+
+    /**
+     * @param partitions         The compared partition.
+     * @param firstNumFiles      The number of files of the partition in the first dataset.
+     * @param firstNumRows       The number of rows of the partition in the first dataset.
+     * @param secondNumFiles     The number of files of the partition in the second dataset.
+     * @param secondNumRows      The number of rows of the partition in the second dataset.
+     * @param schemasDifferences The schemas differences of the second dataset compared to the first one.
+     */
+    ParquetPartitionComparison(ParquetPartitions partitions, long firstNumFiles, long firstNumRows,
+                               long secondNumFiles, long secondNumRows, List<ParquetSchemaDiff> schemasDifferences) {
+        this.partitions = partitions;
+        this.firstNumFiles = firstNumFiles;
+        this.firstNumRows = firstNumRows;
+        this.secondNumFiles = secondNumFiles;
+        this.secondNumRows = secondNumRows;
+        this.schemasDifferences = schemasDifferences;
+    }
+
+    /**
+     * @return The compared partition.
+     */
+    public ParquetPartitions getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * @return The number of files of the partition in the first dataset.
+     */
+    public long getFirstNumFiles() {
+        return firstNumFiles;
+    }
+
+    /**
+     * @return The number of rows of the partition in the first dataset.
+     */
+    public long getFirstNumRows() {
+        return firstNumRows;
+    }
+
+    /**
+     * @return The number of files of the partition in the second dataset.
+     */
+    public long getSecondNumFiles() {
+        return secondNumFiles;
+    }
+
+    /**
+     * @return The number of rows of the partition in the second dataset.
+     */
+    public long getSecondNumRows() {
+        return secondNumRows;
+    }
+
+    /**
+     * @return The schemas differences of the second dataset, compared to the first one.
+     */
+    public List<ParquetSchemaDiff> getSchemasDifferences() {
+        return Collections.unmodifiableList(schemasDifferences);
+    }
+
+    /**
+     * @return Whether the partition is only present in the first dataset.
+     */
+    public boolean isFirstOnly() {
+        return secondNumFiles == 0;
+    }
+
+    /**
+     * @return Whether the partition is only present in the second dataset.
+     */
+    public boolean isSecondOnly() {
+        return firstNumFiles == 0;
+    }
+
+    /**
+     * @return Whether the partition is present in both datasets with different numbers of rows.
+     */
+    public boolean hasRowCountMismatch() {
+        return !isFirstOnly() && !isSecondOnly() && firstNumRows != secondNumRows;
+    }
+
+    /**
+     * @return Whether the partition is missing from a dataset, or has different rows counts or schemas.
+     */
+    public boolean hasDifferences() {
+        return isFirstOnly() || isSecondOnly() || hasRowCountMismatch() || !schemasDifferences.isEmpty();
+    }
+
+    /**
+     * Prints a summary of the comparison.
+     *
+     * @param out The stream to write into, ex: System.out.
+     */
+    public void print(PrintStream out) {
+        if (isFirstOnly()) {
+            out.printf("Partition %s only in first dataset: %d files, %d rows.%s", partitions, firstNumFiles,
+                    firstNumRows, System.lineSeparator());
+        } else if (isSecondOnly()) {
+            out.printf("Partition %s only in second dataset: %d files, %d rows.%s", partitions, secondNumFiles,
+                    secondNumRows, System.lineSeparator());
+        } else if (hasRowCountMismatch()) {
+            out.printf("Partition %s rows differ: %d rows in first dataset, %d rows in second dataset.%s",
+                    partitions, firstNumRows, secondNumRows, System.lineSeparator());
+        } else {
+            out.printf("Partition %s has %d rows in both datasets.%s", partitions, firstNumRows,
+                    System.lineSeparator());
+        }
+        schemasDifferences.forEach(diff -> diff.print(out));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ParquetPartitionComparison that = (ParquetPartitionComparison) o;
+        return firstNumFiles == that.firstNumFiles && firstNumRows == that.firstNumRows
+                && secondNumFiles == that.secondNumFiles && secondNumRows == that.secondNumRows
+                && Objects.equals(partitions, that.partitions)
+                && Objects.equals(schemasDifferences, that.schemasDifferences);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(partitions, firstNumFiles, firstNumRows, secondNumFiles, secondNumRows,
+                schemasDifferences);
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.romibuzi.parquetdiff.diff;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event of the comparison of two schemas, disabled by default.
+ */
+@Name(ParquetSchemaComparisonEvent.NAME)
+@Label("Parquet Schema Comparison")
+@Description("The comparison of the schemas of two Parquet files")
+@Category("ParquetDiff")
+@Enabled(false)
+@StackTrace(false)
+final class ParquetSchemaComparisonEvent extends Event {
+    static final String NAME = "io.github.romibuzi.parquetdiff.SchemaComparison";
+
+    @Label("First Path")
+    private String firstPath;
+
+    @Label("Second Path")
+    private String secondPath;
+
+    @Label("First Schema Nodes")
+    private int firstSchemaNodes;
+
+    @Label("Second Schema Nodes")
+    private int secondSchemaNodes;
+
+    @Label("Nodes Compared")
+    @Description("0 when the schemas have equal fingerprints and their trees are not walked")
+    private int nodesCompared;
+
+    @Label("Differences")
+    private int differences;
+
+    void setPaths(String first, String second) {
+        this.firstPath = first;
+        this.secondPath = second;
+    }
+
+    void setSchemaNodes(int first, int second) {
+        this.firstSchemaNodes = first;
+        this.secondSchemaNodes = second;
+    }
+
+    void setNodesCompared(int nodes) {
+        this.nodesCompared = nodes;
+    }
+
+    void setDifferences(int count) {
+        this.differences = count;
+    }
+}
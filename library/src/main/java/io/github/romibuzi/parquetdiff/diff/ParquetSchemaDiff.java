@@ -41,6 +41,15 @@ public final class ParquetSchemaDiff {
                 .anyMatch(list -> !list.isEmpty());
     }
 
+    /**
+     * @return The number of differences recorded between the two schemas.
+     */
+    int countDifferences() {
+        return Stream.of(additionalNodes, missingNodes, typeDiffs, primitiveTypeDiffs, repetitionDiffs)
+                .mapToInt(List::size)
+                .sum();
+    }
+
     /**
      * This is the schema that served as reference when establishing differences.
      *
@@ -0,0 +1,164 @@
+package io.github.romibuzi.parquetdiff.diff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartitions;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaFingerprint;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * An equivalence class of Parquet files sharing the same schema, identified by its
+ * {@link ParquetSchemaFingerprint}. Schemas only differing in the order of their columns belong to the same class.
+ * <p>
+ * Only the first file of the class is kept, as its representative. The other files are summarized by their count,
+ * their number of rows and the ranges of consecutive partitions they belong to, in listing order.
+ */
+public final class ParquetSchemaGroup {
+    private final ParquetSchemaFingerprint fingerprint;
+    private final ParquetDetails representative;
+    private final List<PartitionsRange> partitionsRanges = new ArrayList<>();
+    private long numFiles;
+    private long numRows;
+
+    /**
+     * @param representative The first Parquet of the class.
+     */
+    ParquetSchemaGroup(ParquetDetails representative) {
+        this.fingerprint = representative.getFingerprint();
+        this.representative = representative;
+    }
+
+    /**
+     * @return The fingerprint shared by all schemas of the class.
+     */
+    public ParquetSchemaFingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return The first Parquet of the class, whose schema is equal to the one of every Parquet of the class up to
+     *         column order.
+     */
+    public ParquetDetails getRepresentative() {
+        return representative;
+    }
+
+    /**
+     * @return The number of Parquet files in the class.
+     */
+    public long getNumFiles() {
+        return numFiles;
+    }
+
+    /**
+     * @return The total number of rows of the Parquet files in the class.
+     */
+    public long getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * @return The ranges of consecutive partitions holding the Parquet files of the class, in listing order.
+     */
+    public List<PartitionsRange> getPartitionsRanges() {
+        return Collections.unmodifiableList(partitionsRanges);
+    }
+
+    /**
+     * Prints a summary of the class.
+     *
+     * @param out The stream to write into, ex: System.out.
+     */
+    public void print(PrintStream out) {
+        out.printf("Schema %s: %d files, %d rows, partitions %s.%s", fingerprint, numFiles, numRows,
+                partitionsRanges.stream().map(PartitionsRange::toString).collect(Collectors.joining(", ")),
+                System.lineSeparator());
+    }
+
+    /**
+     * @param parquet        A Parquet of the class.
+     * @param continuesRange Whether the previous listed Parquet belongs to the class, so the Parquet extends the
+     *                       last partitions range instead of starting a new one.
+     */
+    void add(ParquetDetails parquet, boolean continuesRange) {
+        numFiles++;
+        numRows += parquet.getNumRows();
+
+        ParquetPartitions partitions = parquet.getPartitions();
+        PartitionsRange last = partitionsRanges.isEmpty() ? null : partitionsRanges.get(partitionsRanges.size() - 1);
+        if (last != null && (continuesRange || last.last.equals(partitions))) {
+            last.last = partitions;
+        } else {
+            partitionsRanges.add(new PartitionsRange(partitions));
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ParquetSchemaGroup that = (ParquetSchemaGroup) o;
+        return numFiles == that.numFiles && numRows == that.numRows
+                && Objects.equals(fingerprint, that.fingerprint)
+                && Objects.equals(representative, that.representative)
+                && Objects.equals(partitionsRanges, that.partitionsRanges);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fingerprint, representative, partitionsRanges, numFiles, numRows);
+    }
+
+    /**
+     * A range of consecutive partitions, in listing order.
+     */
+    public static final class PartitionsRange {
+        private final ParquetPartitions first;
+        private ParquetPartitions last;
+
+        PartitionsRange(ParquetPartitions partitions) {
+            this.first = partitions;
+            this.last = partitions;
+        }
+
+        /**
+         * @return The first partitions of the range.
+         */
+        public ParquetPartitions getFirst() {
+            return first;
+        }
+
+        /**
+         * @return The last partitions of the range, equal to the first one for a single partition.
+         */
+        public ParquetPartitions getLast() {
+            return last;
+        }
+
+        @Override
+        public String toString() {
+            return first.equals(last) ? first.toString() : first + " to " + last;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PartitionsRange that = (PartitionsRange) o;
+            return Objects.equals(first, that.first) && Objects.equals(last, that.last);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(first, last);
+        }
+    }
+}
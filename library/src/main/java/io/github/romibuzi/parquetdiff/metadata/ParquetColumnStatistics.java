@@ -0,0 +1,177 @@
+package io.github.romibuzi.parquetdiff.metadata;
+
+import java.util.Objects;
+
+/**
+ * <p>
+ * The statistics of a leaf column of a Parquet file, aggregated over the column chunks of all its row groups.
+ * <p>
+ * The minimum and maximum are the string representations of the values, and are also kept as numbers for numeric
+ * columns. They are null when no row group holds statistics for the column, when a row group with non-null values
+ * has no bounds, or when all its values are null.
+ */
+public final class ParquetColumnStatistics {
+    private static final long UNKNOWN = -1;
+
+    private final String column;
+    private final long valueCount;
+    private final long nullCount;
+    private final String min;
+    private final String max;
+    private final Double numericMin;
+    private final Double numericMax;
+
+    /**
+     * @param column     The dotted path of the leaf column, e.g. "address.city".
+     * @param valueCount The number of values, nulls included.
+     * @param nullCount  The number of null values, -1 when unknown.
+     * @param min        The minimum value, null if unknown.
+     * @param max        The maximum value, null if unknown.
+     * @param numericMin The minimum value of a numeric column, null otherwise.
+     * @param numericMax The maximum value of a numeric column, null otherwise.
+     */
+    public ParquetColumnStatistics(String column, long valueCount, long nullCount, String min, String max,
+                                   Double numericMin, Double numericMax) {
+        this.column = column;
+        this.valueCount = valueCount;
+        this.nullCount = nullCount < 0 ? UNKNOWN : nullCount;
+        this.min = min;
+        this.max = max;
+        this.numericMin = numericMin;
+        this.numericMax = numericMax;
+    }
+
+    /**
+     * Merges the statistics of the same column in two files, e.g. to get the statistics of a partition. As for the
+     * null count, a bound is unknown when it is unknown for either file, unless that file only holds nulls.
+     *
+     * @param other The statistics of the same column.
+     * @return The statistics of the values of both.
+     * @throws IllegalArgumentException if the statistics are not of the same column.
+     */
+    public ParquetColumnStatistics merge(ParquetColumnStatistics other) throws IllegalArgumentException {
+        if (!column.equals(other.column)) {
+            throw new IllegalArgumentException("Can't merge statistics of columns " + column + " and "
+                    + other.column);
+        }
+        long mergedNullCount = hasNullCount() && other.hasNullCount() ? nullCount + other.nullCount : UNKNOWN;
+        boolean unknownMin = mayHaveValues() && min == null || other.mayHaveValues() && other.min == null;
+        boolean unknownMax = mayHaveValues() && max == null || other.mayHaveValues() && other.max == null;
+        boolean otherMin = other.min != null
+                && (min == null || compare(other.min, other.numericMin, min, numericMin) < 0);
+        boolean otherMax = other.max != null
+                && (max == null || compare(other.max, other.numericMax, max, numericMax) > 0);
+        String mergedMin = otherMin ? other.min : min;
+        String mergedMax = otherMax ? other.max : max;
+        Double mergedNumericMin = otherMin ? other.numericMin : numericMin;
+        Double mergedNumericMax = otherMax ? other.numericMax : numericMax;
+        return new ParquetColumnStatistics(column, valueCount + other.valueCount, mergedNullCount,
+                unknownMin ? null : mergedMin, unknownMax ? null : mergedMax,
+                unknownMin ? null : mergedNumericMin, unknownMax ? null : mergedNumericMax);
+    }
+
+    /**
+     * @return Whether some values may be non-null, i.e. whether missing bounds are unknown rather than absent.
+     */
+    private boolean mayHaveValues() {
+        return valueCount > 0 && (!hasNullCount() || nullCount < valueCount);
+    }
+
+    /**
+     * Numbers are compared numerically, other values by their string representation.
+     */
+    private static int compare(String first, Double firstNumber, String second, Double secondNumber) {
+        if (firstNumber != null && secondNumber != null) {
+            return Double.compare(firstNumber, secondNumber);
+        }
+        return first.compareTo(second);
+    }
+
+    /**
+     * @return The dotted path of the leaf column.
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * @return The number of values, nulls included.
+     */
+    public long getValueCount() {
+        return valueCount;
+    }
+
+    /**
+     * @return Whether the number of null values is known.
+     */
+    public boolean hasNullCount() {
+        return nullCount != UNKNOWN;
+    }
+
+    /**
+     * @return The number of null values, -1 when unknown.
+     */
+    public long getNullCount() {
+        return nullCount;
+    }
+
+    /**
+     * @return The ratio of null values among all values, 0 without values, NaN when unknown.
+     */
+    public double getNullRatio() {
+        if (!hasNullCount()) {
+            return Double.NaN;
+        }
+        return valueCount == 0 ? 0 : (double) nullCount / valueCount;
+    }
+
+    /**
+     * @return The minimum value, null if unknown.
+     */
+    public String getMin() {
+        return min;
+    }
+
+    /**
+     * @return The maximum value, null if unknown.
+     */
+    public String getMax() {
+        return max;
+    }
+
+    /**
+     * @return The minimum value of a numeric column, null if unknown or if the column is not numeric.
+     */
+    public Double getNumericMin() {
+        return numericMin;
+    }
+
+    /**
+     * @return The maximum value of a numeric column, null if unknown or if the column is not numeric.
+     */
+    public Double getNumericMax() {
+        return numericMax;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ParquetColumnStatistics that = (ParquetColumnStatistics) o;
+        return valueCount == that.valueCount && nullCount == that.nullCount && column.equals(that.column)
+                && Objects.equals(min, that.min) && Objects.equals(max, that.max)
+                && Objects.equals(numericMin, that.numericMin) && Objects.equals(numericMax, that.numericMax);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(column, valueCount, nullCount, min, max);
+    }
+
+    @Override
+    public String toString() {
+        return column + ": " + valueCount + " values, " + (hasNullCount() ? nullCount : "unknown") + " nulls, ["
+                + min + ", " + max + "]";
+    }
+}
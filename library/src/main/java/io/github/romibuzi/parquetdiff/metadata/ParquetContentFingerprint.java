@@ -0,0 +1,170 @@
+package io.github.romibuzi.parquetdiff.metadata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * An order-insensitive fingerprint of the rows of a Parquet file, or of several files.
+ * <p>
+ * Each value of the given columns is hashed from its string representation, which must be lossless: the values read
+ * by {@code ParquetContentFingerprinter} represent binaries with one character per byte, so that their bytes are
+ * hashed, and nested values with a length-prefixed encoding tagging nulls, so that lists and groups are hashed
+ * element by element. Each row is hashed from the hashes of its values. The fingerprint holds the number of rows,
+ * the 128-bit wrapping sum of the rows hashes and, for each column, the 64-bit wrapping sum of its values hashes. Sums
+ * being commutative, the fingerprint does not depend on the order of the rows, and the fingerprints of several files
+ * are merged into the fingerprint of their union without reading them again, see
+ * {@link #merge(ParquetContentFingerprint)}. Duplicate rows are counted as many times as they appear.
+ * <p>
+ * Two fingerprints of the same columns are equal when the rows are the same, with a negligible probability of
+ * collision.
+ */
+public final class ParquetContentFingerprint {
+    private final List<String> columns;
+    private final long numRows;
+    private final long firstRowsSum;
+    private final long secondRowsSum;
+    private final long[] columnsSums;
+
+    private ParquetContentFingerprint(List<String> columns, long numRows, long firstRowsSum, long secondRowsSum,
+                                      long[] columnsSums) {
+        this.columns = columns;
+        this.numRows = numRows;
+        this.firstRowsSum = firstRowsSum;
+        this.secondRowsSum = secondRowsSum;
+        this.columnsSums = columnsSums;
+    }
+
+    /**
+     * @param columns The fingerprinted columns, in the order of the values of the added rows.
+     * @return An accumulator of the fingerprint of the rows added to it.
+     */
+    public static Accumulator accumulator(List<String> columns) {
+        return new Accumulator(List.copyOf(columns));
+    }
+
+    /**
+     * @param other The fingerprint of other rows, with the same columns.
+     * @return The fingerprint of the rows of both fingerprints.
+     * @throws IllegalArgumentException if the fingerprints have different columns.
+     */
+    public ParquetContentFingerprint merge(ParquetContentFingerprint other) throws IllegalArgumentException {
+        if (!columns.equals(other.columns)) {
+            throw new IllegalArgumentException("Can't merge fingerprints of different columns: " + columns
+                    + " and " + other.columns);
+        }
+        long[] mergedColumnsSums = new long[columnsSums.length];
+        for (int i = 0; i < columnsSums.length; i++) {
+            mergedColumnsSums[i] = columnsSums[i] + other.columnsSums[i];
+        }
+        return new ParquetContentFingerprint(columns, numRows + other.numRows, firstRowsSum + other.firstRowsSum,
+                secondRowsSum + other.secondRowsSum, mergedColumnsSums);
+    }
+
+    /**
+     * @return The fingerprinted columns.
+     */
+    public List<String> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * @return The number of fingerprinted rows.
+     */
+    public long getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * @param other Another fingerprint.
+     * @return The columns of this fingerprint whose values differ in the other one, including the columns the other
+     * one does not have.
+     */
+    public List<String> findDifferentColumns(ParquetContentFingerprint other) {
+        List<String> differentColumns = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            int otherIndex = other.columns.indexOf(columns.get(i));
+            if (otherIndex < 0 || columnsSums[i] != other.columnsSums[otherIndex]) {
+                differentColumns.add(columns.get(i));
+            }
+        }
+        return differentColumns;
+    }
+
+    /**
+     * @return The rows fingerprint as a 32 characters hexadecimal string.
+     */
+    public String toHexString() {
+        return String.format("%016x%016x", firstRowsSum, secondRowsSum);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ParquetContentFingerprint that = (ParquetContentFingerprint) o;
+        return numRows == that.numRows && firstRowsSum == that.firstRowsSum && secondRowsSum == that.secondRowsSum
+                && columns.equals(that.columns) && Arrays.equals(columnsSums, that.columnsSums);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(firstRowsSum ^ secondRowsSum);
+    }
+
+    @Override
+    public String toString() {
+        return numRows + " rows " + toHexString();
+    }
+
+    /**
+     * Accumulates the fingerprint of rows, not thread-safe. Accumulators of several threads are merged once done.
+     */
+    public static final class Accumulator {
+        private final List<String> columns;
+        private final long[] columnsSums;
+        private long numRows;
+        private long firstRowsSum;
+        private long secondRowsSum;
+
+        private Accumulator(List<String> columns) {
+            this.columns = columns;
+            this.columnsSums = new long[columns.size()];
+        }
+
+        /**
+         * @param values The string representations of the values of the row, in the order of the columns, null
+         *               values being allowed.
+         * @return This accumulator.
+         * @throws IllegalArgumentException if the number of values is not the number of columns.
+         */
+        public Accumulator add(String[] values) throws IllegalArgumentException {
+            if (values.length != columnsSums.length) {
+                throw new IllegalArgumentException("Expected " + columnsSums.length + " values: "
+                        + Arrays.toString(values));
+            }
+            ParquetSchemaFingerprint.Hasher rowHasher = new ParquetSchemaFingerprint.Hasher();
+            for (int i = 0; i < values.length; i++) {
+                ParquetSchemaFingerprint.Hasher valueHasher = new ParquetSchemaFingerprint.Hasher();
+                valueHasher.add(values[i]);
+                columnsSums[i] += valueHasher.getFirst();
+                rowHasher.add(valueHasher.getFirst());
+                rowHasher.add(valueHasher.getSecond());
+            }
+            numRows++;
+            firstRowsSum += rowHasher.getFirst();
+            secondRowsSum += rowHasher.getSecond();
+            return this;
+        }
+
+        /**
+         * @return The fingerprint of the rows added so far.
+         */
+        public ParquetContentFingerprint toFingerprint() {
+            return new ParquetContentFingerprint(columns, numRows, firstRowsSum, secondRowsSum, columnsSums.clone());
+        }
+    }
+}
@@ -3,6 +3,8 @@ package io.github.romibuzi.parquetdiff.metadata;
 import org.apache.hadoop.fs.Path;
 
 import java.io.PrintStream;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -13,18 +15,40 @@ public final class ParquetDetails {
     private final long numRows;
     private final ParquetSchemaNode schema;
     private final ParquetPartitions partitions;
+    private final List<ParquetColumnStatistics> columnStatistics;
+    private ParquetSchemaFingerprint fingerprint;
 
     /**
-     * @param path       The complete Path of the file.
-     * @param numRows    Number of rows in the file.
-     * @param schema     Schema of the file.
-     * @param partitions Extracted partitions from the file Path.
+     * @param path             The complete Path of the file.
+     * @param numRows          Number of rows in the file.
+     * @param schema           Schema of the file.
+     * @param partitions       Extracted partitions from the file Path.
+     * @param fingerprint      Fingerprint of the schema, computed on first access if null.
+     * @param columnStatistics Statistics of the leaf columns of the file, empty if they were not read.
      */
-    public ParquetDetails(Path path, long numRows, ParquetSchemaNode schema, ParquetPartitions partitions) {
+    public ParquetDetails(Path path, long numRows, ParquetSchemaNode schema, ParquetPartitions partitions,
+                          ParquetSchemaFingerprint fingerprint, List<ParquetColumnStatistics> columnStatistics) {
         this.path = path;
         this.numRows = numRows;
         this.schema = schema;
         this.partitions = partitions;
+        this.fingerprint = fingerprint;
+        this.columnStatistics = List.copyOf(columnStatistics);
+    }
+
+    /**
+     * Creates a ParquetDetails instance without column statistics.
+     */
+    public ParquetDetails(Path path, long numRows, ParquetSchemaNode schema, ParquetPartitions partitions,
+                          ParquetSchemaFingerprint fingerprint) {
+        this(path, numRows, schema, partitions, fingerprint, List.of());
+    }
+
+    /**
+     * Creates a ParquetDetails instance where the schema fingerprint will be computed on first access.
+     */
+    public ParquetDetails(Path path, long numRows, ParquetSchemaNode schema, ParquetPartitions partitions) {
+        this(path, numRows, schema, partitions, null);
     }
 
     /**
@@ -50,6 +74,26 @@ public final class ParquetDetails {
         return partitions;
     }
 
+    /**
+     * @return The structural fingerprint of the schema, equal fingerprints meaning equal schemas.
+     * @see ParquetSchemaFingerprint
+     */
+    public ParquetSchemaFingerprint getFingerprint() {
+        // racy but idempotent, the fingerprint is immutable
+        if (fingerprint == null) {
+            fingerprint = ParquetSchemaFingerprint.of(schema);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * @return The statistics of the leaf columns of the file, in the order of the schema, empty unless the reader
+     * extracts them.
+     */
+    public List<ParquetColumnStatistics> getColumnStatistics() {
+        return Collections.unmodifiableList(columnStatistics);
+    }
+
     /**
      * Prints the Schema in a tree format.
      *
@@ -66,7 +110,7 @@ public final class ParquetDetails {
         }
         ParquetDetails that = (ParquetDetails) o;
         return numRows == that.numRows && Objects.equals(path, that.path) && Objects.equals(schema, that.schema)
-                && Objects.equals(partitions, that.partitions);
+                && Objects.equals(partitions, that.partitions) && columnStatistics.equals(that.columnStatistics);
     }
 
     @Override
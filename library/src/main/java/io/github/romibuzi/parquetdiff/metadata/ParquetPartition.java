@@ -15,13 +15,17 @@ public final class ParquetPartition {
     }
 
     /**
-     * Parses a partition represented as "key=value".
+     * Parses a partition represented as "key=value", e.g. a partition directory name.
      *
      * @param partition The input partition.
      * @return A {@link ParquetPartition} instance.
+     * @throws IllegalArgumentException if the partition has no "=" separator.
      */
-    static ParquetPartition fromString(String partition) {
+    public static ParquetPartition fromString(String partition) throws IllegalArgumentException {
         String[] splits = partition.split("=", 2);
+        if (splits.length != 2) {
+            throw new IllegalArgumentException("Invalid partition, expected key=value: " + partition);
+        }
         return new ParquetPartition(splits[0], splits[1]);
     }
 
@@ -0,0 +1,153 @@
+package io.github.romibuzi.parquetdiff.metadata;
+
+import org.apache.hadoop.fs.GlobPattern;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * Selects the partitions of a given key among sibling partitions, e.g. the "key=value" directories of a same
+ * parent directory. Example:
+ * <pre>{@code
+ * ParquetPartitionFilter lastWeek = ParquetPartitionFilter.newest("date", 7);
+ * ParquetPartitionFilter europe = ParquetPartitionFilter.in("country", "France", "Spain");
+ * }</pre>
+ * <p>
+ * Numbers are ordered numerically and before all other values, which are ordered as strings, so ISO-8601 dates and
+ * zero-padded values are ordered chronologically. Partitions of other keys are always selected.
+ */
+public final class ParquetPartitionFilter {
+    private static final Comparator<String> VALUE_COMPARATOR = ParquetPartitionFilter::compareValues;
+
+    private final String key;
+    private final Predicate<String> predicate;
+    private final int newest;
+    private final String description;
+
+    private ParquetPartitionFilter(String key, Predicate<String> predicate, int newest, String description) {
+        this.key = Objects.requireNonNull(key, "key");
+        this.predicate = predicate;
+        this.newest = newest;
+        this.description = description;
+    }
+
+    /**
+     * @param key    The partition key.
+     * @param values The accepted values.
+     * @return A filter selecting the partitions with one of the given values.
+     */
+    public static ParquetPartitionFilter in(String key, String... values) {
+        Set<String> accepted = new HashSet<>(Arrays.asList(values));
+        return new ParquetPartitionFilter(key, accepted::contains, 0,
+                key + " in " + String.join(", ", values));
+    }
+
+    /**
+     * @param key  The partition key.
+     * @param from The lowest accepted value, inclusive, null for no lower bound.
+     * @param to   The highest accepted value, inclusive, null for no upper bound.
+     * @return A filter selecting the partitions with a value within the given range.
+     */
+    public static ParquetPartitionFilter between(String key, String from, String to) {
+        return new ParquetPartitionFilter(key,
+                value -> (from == null || compareValues(value, from) >= 0)
+                        && (to == null || compareValues(value, to) <= 0), 0,
+                key + " between " + Objects.toString(from, "*") + " and " + Objects.toString(to, "*"));
+    }
+
+    /**
+     * @param key  The partition key.
+     * @param glob A glob pattern, e.g. "2024-0[1-3]-*".
+     * @return A filter selecting the partitions with a value matching the given pattern.
+     * @throws IllegalArgumentException if the pattern is invalid.
+     */
+    public static ParquetPartitionFilter glob(String key, String glob) throws IllegalArgumentException {
+        GlobPattern pattern = new GlobPattern(glob);
+        return new ParquetPartitionFilter(key, pattern::matches, 0, key + " matches " + glob);
+    }
+
+    /**
+     * The newest values are selected among siblings: for nested partitions, e.g. "year=.../month=...", the newest
+     * months are selected within each year.
+     *
+     * @param key   The partition key.
+     * @param count The number of values to select.
+     * @return A filter selecting the partitions with the greatest values.
+     * @throws IllegalArgumentException if count is not positive.
+     */
+    public static ParquetPartitionFilter newest(String key, int count) throws IllegalArgumentException {
+        if (count < 1) {
+            throw new IllegalArgumentException("Newest partitions count must be positive: " + count);
+        }
+        return new ParquetPartitionFilter(key, value -> true, count, key + " newest " + count);
+    }
+
+    /**
+     * @return The filtered partition key.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @param partitions Sibling partitions.
+     * @return The selected partitions, in the same order.
+     */
+    public List<ParquetPartition> select(List<ParquetPartition> partitions) {
+        List<String> values = partitions.stream()
+                .filter(partition -> key.equals(partition.getKey()))
+                .map(ParquetPartition::getValue)
+                .filter(predicate)
+                .distinct()
+                .sorted(VALUE_COMPARATOR.reversed())
+                .collect(Collectors.toList());
+        Set<String> selected = new HashSet<>(newest > 0 && values.size() > newest ? values.subList(0, newest) : values);
+
+        List<ParquetPartition> results = new ArrayList<>(partitions.size());
+        for (ParquetPartition partition : partitions) {
+            if (!key.equals(partition.getKey()) || selected.contains(partition.getValue())) {
+                results.add(partition);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * A total order, comparing numbers with non-numbers as strings would not be transitive: "9" &gt; "1a" &gt; "10".
+     */
+    private static int compareValues(String first, String second) {
+        BigDecimal firstNumber = toNumber(first);
+        BigDecimal secondNumber = toNumber(second);
+        if (firstNumber == null || secondNumber == null) {
+            if (firstNumber != null || secondNumber != null) {
+                return firstNumber != null ? -1 : 1;
+            }
+            return first.compareTo(second);
+        }
+        int comparison = firstNumber.compareTo(secondNumber);
+        // equal numbers with different representations, e.g. "1" and "1.0", are still distinct values
+        return comparison != 0 ? comparison : first.compareTo(second);
+    }
+
+    private static BigDecimal toNumber(String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -23,7 +23,7 @@ public final class ParquetPartitions {
      * @param path The full path to a Parquet file.
      * @return A {@link ParquetPartitions} instance with extracted partitions.
      */
-    static ParquetPartitions fromPath(Path path) {
+    public static ParquetPartitions fromPath(Path path) {
         List<ParquetPartition> partitions =
                 Arrays.stream(path.toUri().getPath().split("/"))
                         .filter(part -> part.contains("="))
@@ -0,0 +1,148 @@
+package io.github.romibuzi.parquetdiff.metadata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * <p>
+ * A 128-bit structural fingerprint of a {@link ParquetSchemaNode} tree.
+ * <p>
+ * The fingerprint covers, for every node, its name, {@link ParquetSchemaType}, repetition, primitive type and
+ * logical type, and the fingerprints of its children sorted by name. It is built bottom-up like a Merkle tree, so
+ * the fingerprint of a node only depends on its own attributes and the fingerprints of its children. Children are
+ * hashed by name rather than in physical order since schemas are compared by name: two schemas with equal
+ * fingerprints have no differences, with a negligible probability of collision, even if their columns are ordered
+ * differently. Fingerprints are stable between runs and versions: they don't depend on object identity nor on enums
+ * order.
+ */
+public final class ParquetSchemaFingerprint {
+    private static final long FIRST_SEED = 0x9e3779b97f4a7c15L;
+    private static final long SECOND_SEED = 0xbf58476d1ce4e5b9L;
+    private static final long FIRST_MULTIPLIER = 0x94d049bb133111ebL;
+    private static final long SECOND_MULTIPLIER = 0x2545f4914f6cdd1dL;
+    private static final long SECOND_LANE_SALT = 0x632be59bd9b4e019L;
+    private static final long MIX_FIRST_CONSTANT = 0xff51afd7ed558ccdL;
+    private static final long MIX_SECOND_CONSTANT = 0xc4ceb9fe1a85ec53L;
+    private static final int MIX_SHIFT = 33;
+    private static final int NO_VALUE = -1;
+
+    private final long high;
+    private final long low;
+
+    private ParquetSchemaFingerprint(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * @param schema A schema or a node of a schema.
+     * @return The fingerprint of the given schema.
+     */
+    public static ParquetSchemaFingerprint of(ParquetSchemaNode schema) {
+        List<ParquetSchemaFingerprint> children = new ArrayList<>(schema.getChildren().size());
+        for (ParquetSchemaNode child : schema.getChildren()) {
+            children.add(of(child));
+        }
+        return of(schema, children);
+    }
+
+    /**
+     * @param node     A schema node.
+     * @param children The fingerprints of the node children, in the order of {@link ParquetSchemaNode#getChildren()}.
+     * @return The fingerprint of the given node.
+     */
+    static ParquetSchemaFingerprint of(ParquetSchemaNode node, List<ParquetSchemaFingerprint> children) {
+        Hasher hasher = new Hasher();
+        hasher.add(node.getName());
+        hasher.add(node.getType().name());
+        hasher.add(node.getRepetition() == null ? null : node.getRepetition().name());
+        hasher.add(node.getPrimitiveType() == null ? null : node.getPrimitiveType().name());
+        hasher.add(node.getLogicalType() == null ? null : node.getLogicalType().toString());
+        hasher.add(children.size());
+        // names are unique among siblings, fingerprints only order duplicated names deterministically
+        List<ParquetSchemaNode> childrenNodes = node.getChildren();
+        Integer[] order = new Integer[children.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer, String>comparing(i -> childrenNodes.get(i).getName(),
+                        Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparingLong(i -> children.get(i).high)
+                .thenComparingLong(i -> children.get(i).low));
+        for (int i : order) {
+            hasher.add(children.get(i).high);
+            hasher.add(children.get(i).low);
+        }
+        return new ParquetSchemaFingerprint(hasher.first, hasher.second);
+    }
+
+    /**
+     * @return The fingerprint as a 32 characters hexadecimal string.
+     */
+    public String toHexString() {
+        return String.format("%016x%016x", high, low);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ParquetSchemaFingerprint that = (ParquetSchemaFingerprint) o;
+        return high == that.high && low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high ^ low);
+    }
+
+    @Override
+    public String toString() {
+        return toHexString();
+    }
+
+    /**
+     * Two independent 64-bit lanes fed with the same values.
+     */
+    static final class Hasher {
+        private long first = FIRST_SEED;
+        private long second = SECOND_SEED;
+
+        long getFirst() {
+            return first;
+        }
+
+        long getSecond() {
+            return second;
+        }
+
+        void add(long value) {
+            first = mix(first * FIRST_MULTIPLIER + value);
+            second = mix(second * SECOND_MULTIPLIER + (value ^ SECOND_LANE_SALT));
+        }
+
+        void add(String value) {
+            if (value == null) {
+                add(NO_VALUE);
+                return;
+            }
+            add(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                add(value.charAt(i));
+            }
+        }
+
+        private static long mix(long value) {
+            long result = value;
+            result ^= result >>> MIX_SHIFT;
+            result *= MIX_FIRST_CONSTANT;
+            result ^= result >>> MIX_SHIFT;
+            result *= MIX_SECOND_CONSTANT;
+            result ^= result >>> MIX_SHIFT;
+            return result;
+        }
+    }
+}
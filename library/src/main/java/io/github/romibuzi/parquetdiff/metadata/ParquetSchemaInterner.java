@@ -0,0 +1,139 @@
+package io.github.romibuzi.parquetdiff.metadata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * Shares identical {@link ParquetSchemaNode} trees between files. Example:
+ * <pre>{@code
+ * ParquetSchemaInterner interner = new ParquetSchemaInterner();
+ * ParquetSchemaNode first = interner.intern(firstSchema);
+ * ParquetSchemaNode second = interner.intern(secondSchema);
+ * first == second; // true if both schemas are equal
+ * }</pre>
+ * <p>
+ * Interning is done bottom-up down to the subtree level: equal nested groups and equal primitives are shared even
+ * between schemas that differ elsewhere. Since children are interned first, two nodes are equal if their own
+ * attributes are equal and their children are the same instances, so a node is interned without walking its
+ * subtree again. The retained memory depends on the number of distinct subtrees, not on the number of files.
+ * <p>
+ * Interned nodes are immutable: their children list can't be modified. Interning is thread-safe.
+ */
+public final class ParquetSchemaInterner {
+    private final Map<NodeKey, InternedNode> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * @param schema A schema or a node of a schema.
+     * @return The shared instance equal to the given schema.
+     */
+    public ParquetSchemaNode intern(ParquetSchemaNode schema) {
+        return internNode(schema).node;
+    }
+
+    /**
+     * Fingerprints are computed once per distinct node when it is interned, from the fingerprints of its children.
+     *
+     * @param schema A schema or a node of a schema, interned if it was not already.
+     * @return The fingerprint of the given schema.
+     */
+    public ParquetSchemaFingerprint fingerprint(ParquetSchemaNode schema) {
+        return internNode(schema).fingerprint;
+    }
+
+    private InternedNode internNode(ParquetSchemaNode schema) {
+        // the schema is already interned if its children are already the shared instances
+        InternedNode interned = nodes.get(new NodeKey(schema));
+        if (interned != null) {
+            return interned;
+        }
+
+        List<ParquetSchemaNode> children = new ArrayList<>(schema.getChildren().size());
+        List<ParquetSchemaFingerprint> childrenFingerprints = new ArrayList<>(schema.getChildren().size());
+        for (ParquetSchemaNode child : schema.getChildren()) {
+            InternedNode internedChild = internNode(child);
+            children.add(internedChild.node);
+            childrenFingerprints.add(internedChild.fingerprint);
+        }
+        ParquetSchemaNode node = new ParquetSchemaNode(schema.getName(), schema.getType(), schema.getRepetition(),
+                schema.getPrimitiveType(), schema.getLogicalType(), List.copyOf(children));
+        InternedNode internedNode = new InternedNode(node, ParquetSchemaFingerprint.of(node, childrenFingerprints));
+        return nodes.computeIfAbsent(new NodeKey(node), key -> internedNode);
+    }
+
+    /**
+     * @return The number of distinct nodes interned.
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * A shared node and its fingerprint.
+     */
+    private static final class InternedNode {
+        private final ParquetSchemaNode node;
+        private final ParquetSchemaFingerprint fingerprint;
+
+        InternedNode(ParquetSchemaNode node, ParquetSchemaFingerprint fingerprint) {
+            this.node = node;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    /**
+     * A node compared by its attributes and the identity of its children.
+     */
+    private static final class NodeKey {
+        private static final int HASH_MULTIPLIER = 31;
+
+        private final ParquetSchemaNode node;
+        private final int hash;
+
+        NodeKey(ParquetSchemaNode node) {
+            this.node = node;
+            int result = Objects.hash(node.getName(), node.getType(), node.getRepetition(), node.getPrimitiveType(),
+                    node.getLogicalType());
+            for (ParquetSchemaNode child : node.getChildren()) {
+                result = HASH_MULTIPLIER * result + System.identityHashCode(child);
+            }
+            this.hash = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ParquetSchemaNode other = ((NodeKey) o).node;
+            if (!Objects.equals(node.getName(), other.getName()) || node.getType() != other.getType()
+                    || node.getRepetition() != other.getRepetition()
+                    || node.getPrimitiveType() != other.getPrimitiveType()
+                    || !Objects.equals(node.getLogicalType(), other.getLogicalType())) {
+                return false;
+            }
+            List<ParquetSchemaNode> children = node.getChildren();
+            List<ParquetSchemaNode> otherChildren = other.getChildren();
+            if (children.size() != otherChildren.size()) {
+                return false;
+            }
+            for (int i = 0; i < children.size(); i++) {
+                if (children.get(i) != otherChildren.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -64,7 +64,8 @@ public final class ParquetSchemaNode {
      * Adds a child node to this schema/group node.
      *
      * @param child The child node to be added.
-     * @throws UnsupportedOperationException if the node is not a group node.
+     * @throws UnsupportedOperationException if the node is not a group node, or if the node is immutable.
+     * @see ParquetSchemaInterner
      */
     public void addChild(ParquetSchemaNode child) throws UnsupportedOperationException {
         if (ParquetSchemaType.PRIMITIVE == type) {
@@ -136,6 +137,17 @@ public final class ParquetSchemaNode {
         return !children.isEmpty();
     }
 
+    /**
+     * @return The number of nodes of the tree rooted at this node, this one included.
+     */
+    public int countNodes() {
+        int nodes = 1;
+        for (ParquetSchemaNode child : children) {
+            nodes += child.countNodes();
+        }
+        return nodes;
+    }
+
     /**
      * @param other the other node.
      * @return true if the other node has the same type as the current one.
@@ -214,6 +226,9 @@ public final class ParquetSchemaNode {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true; // interned schemas share their nodes
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
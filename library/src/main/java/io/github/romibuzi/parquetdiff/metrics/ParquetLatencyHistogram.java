@@ -0,0 +1,123 @@
+package io.github.romibuzi.parquetdiff.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * A lock-free histogram of durations, with one bucket per power of two nanoseconds: a recorded duration is counted in
+ * the bucket of its highest bit. Percentiles are the upper bound of the bucket they fall in, capped by the maximum,
+ * i.e. accurate within a factor of 2, which is enough to tell 5 ms calls from 500 ms ones.
+ * <p>
+ * Recording is a few atomic increments, without allocation. Concurrent reads see a consistent state only when no
+ * durations are being recorded.
+ */
+public final class ParquetLatencyHistogram {
+    private static final int BUCKETS = Long.SIZE;
+    private static final double MAX_PERCENTILE = 100;
+    private static final double MEDIAN = 50;
+    private static final double P99 = 99;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param nanos A duration, negative durations being recorded as 0.
+     */
+    public void record(long nanos) {
+        long duration = Math.max(0, nanos);
+        // bucket i holds the durations within [2^i, 2^(i + 1) - 1], 0 being counted in the first one
+        buckets.incrementAndGet(Math.max(0, BUCKETS - 1 - Long.numberOfLeadingZeros(duration)));
+        count.increment();
+        totalNanos.add(duration);
+        maxNanos.accumulate(duration);
+    }
+
+    /**
+     * @return The number of recorded durations.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return The sum of the recorded durations, in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * @return The longest recorded duration, in nanoseconds, 0 if none.
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * @return The average recorded duration, in nanoseconds, 0 if none.
+     */
+    public long getMeanNanos() {
+        long recorded = getCount();
+        return recorded == 0 ? 0 : getTotalNanos() / recorded;
+    }
+
+    /**
+     * @param percentile A percentile within [0, 100], e.g. 99.
+     * @return An upper bound of the durations below the percentile, in nanoseconds, 0 if none.
+     * @throws IllegalArgumentException if the percentile is not within [0, 100].
+     */
+    public long getPercentileNanos(double percentile) throws IllegalArgumentException {
+        if (!(percentile >= 0 && percentile <= MAX_PERCENTILE)) {
+            throw new IllegalArgumentException("Percentile must be within [0, 100]: " + percentile);
+        }
+        long recorded = 0;
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            recorded += counts[i];
+        }
+        long rank = (long) Math.ceil(recorded * percentile / MAX_PERCENTILE);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen > 0 && seen >= rank) {
+                long upperBound = i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                return Math.min(upperBound, getMaxNanos());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param percentile A percentile within [0, 100], e.g. 99.
+     * @return An upper bound of the durations below the percentile, in microseconds, 0 if none.
+     * @throws IllegalArgumentException if the percentile is not within [0, 100].
+     */
+    public long getPercentileMicros(double percentile) throws IllegalArgumentException {
+        return TimeUnit.NANOSECONDS.toMicros(getPercentileNanos(percentile));
+    }
+
+    /**
+     * Forgets all recorded durations.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return getCount() + " calls, mean " + TimeUnit.NANOSECONDS.toMicros(getMeanNanos()) + " us, p50 "
+                + getPercentileMicros(MEDIAN) + " us, p99 " + getPercentileMicros(P99) + " us, max "
+                + TimeUnit.NANOSECONDS.toMicros(getMaxNanos()) + " us";
+    }
+}
@@ -0,0 +1,199 @@
+package io.github.romibuzi.parquetdiff.metrics;
+
+import org.apache.hadoop.fs.Path;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * Built-in {@link ParquetScanMetrics} accumulating counters and latency histograms, which can be registered as a JMX
+ * MBean to watch a long-running scan live, e.g. from JConsole. Example:
+ * <pre>{@code
+ * ParquetScanCounters counters = new ParquetScanCounters();
+ * ObjectName name = counters.registerMBean("my_data");
+ * ParquetReader reader = ParquetReader.builder(fileSystem).metrics(counters).build();
+ * }</pre>
+ * <p>
+ * Counters are cumulated over all scans and comparisons they are given to, until {@link #reset()}.
+ */
+public final class ParquetScanCounters implements ParquetScanMetrics, ParquetScanCountersMXBean {
+    /**
+     * The JMX domain of the registered MBeans.
+     */
+    public static final String JMX_DOMAIN = "io.github.romibuzi.parquetdiff";
+
+    private static final int MEDIAN = 50;
+    private static final int P99 = 99;
+
+    private final LongAdder directoriesListed = new LongAdder();
+    private final LongAdder footerBytes = new LongAdder();
+    private final LongAdder schemasExtracted = new LongAdder();
+    private final LongAdder schemaExtractionNanos = new LongAdder();
+    private final LongAdder nodesCompared = new LongAdder();
+    private final LongAdder diffsFound = new LongAdder();
+    private final ParquetLatencyHistogram listStatusLatencies = new ParquetLatencyHistogram();
+    private final ParquetLatencyHistogram footerReadLatencies = new ParquetLatencyHistogram();
+    private final ParquetLatencyHistogram comparisonLatencies = new ParquetLatencyHistogram();
+
+    /**
+     * Registers these counters in the platform MBean server, under the type "ParquetScan" of {@link #JMX_DOMAIN}.
+     * They are unregistered with {@code ManagementFactory.getPlatformMBeanServer().unregisterMBean(name)}.
+     *
+     * @param name The name of the scan, e.g. the name of the dataset, unique among the registered counters.
+     * @return The name of the registered MBean.
+     * @throws JMException If the name is invalid or already registered.
+     */
+    public ObjectName registerMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=ParquetScan,name=" + ObjectName.quote(name));
+        return ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName).getObjectName();
+    }
+
+    @Override
+    public void directoryListed(Path directory, int entries, long nanos) {
+        directoriesListed.increment();
+        listStatusLatencies.record(nanos);
+    }
+
+    @Override
+    public void footerRead(Path file, long bytes, long nanos) {
+        footerBytes.add(bytes);
+        footerReadLatencies.record(nanos);
+    }
+
+    @Override
+    public void schemaExtracted(long nanos) {
+        schemasExtracted.increment();
+        schemaExtractionNanos.add(nanos);
+    }
+
+    @Override
+    public void schemasCompared(int nodes, int differences, long nanos) {
+        nodesCompared.add(nodes);
+        diffsFound.add(differences);
+        comparisonLatencies.record(nanos);
+    }
+
+    /**
+     * @return The durations of {@code listStatus} calls.
+     */
+    public ParquetLatencyHistogram getListStatusLatencies() {
+        return listStatusLatencies;
+    }
+
+    /**
+     * @return The durations of footer reads.
+     */
+    public ParquetLatencyHistogram getFooterReadLatencies() {
+        return footerReadLatencies;
+    }
+
+    /**
+     * @return The durations of schema comparisons.
+     */
+    public ParquetLatencyHistogram getComparisonLatencies() {
+        return comparisonLatencies;
+    }
+
+    @Override
+    public long getDirectoriesListed() {
+        return directoriesListed.sum();
+    }
+
+    @Override
+    public long getFilesRead() {
+        return footerReadLatencies.getCount();
+    }
+
+    @Override
+    public long getFooterBytes() {
+        return footerBytes.sum();
+    }
+
+    @Override
+    public long getListStatusP50Micros() {
+        return listStatusLatencies.getPercentileMicros(MEDIAN);
+    }
+
+    @Override
+    public long getListStatusP99Micros() {
+        return listStatusLatencies.getPercentileMicros(P99);
+    }
+
+    @Override
+    public long getListStatusMaxMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(listStatusLatencies.getMaxNanos());
+    }
+
+    @Override
+    public long getFooterReadP50Micros() {
+        return footerReadLatencies.getPercentileMicros(MEDIAN);
+    }
+
+    @Override
+    public long getFooterReadP99Micros() {
+        return footerReadLatencies.getPercentileMicros(P99);
+    }
+
+    @Override
+    public long getFooterReadMaxMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(footerReadLatencies.getMaxNanos());
+    }
+
+    @Override
+    public long getSchemasExtracted() {
+        return schemasExtracted.sum();
+    }
+
+    @Override
+    public long getSchemaExtractionMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(schemaExtractionNanos.sum());
+    }
+
+    @Override
+    public long getSchemasCompared() {
+        return comparisonLatencies.getCount();
+    }
+
+    @Override
+    public long getNodesCompared() {
+        return nodesCompared.sum();
+    }
+
+    @Override
+    public long getDiffsFound() {
+        return diffsFound.sum();
+    }
+
+    @Override
+    public long getComparisonMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(comparisonLatencies.getTotalNanos());
+    }
+
+    @Override
+    public void reset() {
+        directoriesListed.reset();
+        footerBytes.reset();
+        schemasExtracted.reset();
+        schemaExtractionNanos.reset();
+        nodesCompared.reset();
+        diffsFound.reset();
+        listStatusLatencies.reset();
+        footerReadLatencies.reset();
+        comparisonLatencies.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.join(System.lineSeparator(),
+                "Directories listed: " + getDirectoriesListed() + ", listStatus: " + listStatusLatencies,
+                "Files read: " + getFilesRead() + ", footer bytes: " + getFooterBytes() + ", footer reads: "
+                        + footerReadLatencies,
+                "Schemas extracted: " + getSchemasExtracted() + " in " + getSchemaExtractionMillis() + " ms",
+                "Schemas compared: " + getSchemasCompared() + ", nodes compared: " + getNodesCompared()
+                        + ", diffs found: " + getDiffsFound() + " in " + getComparisonMillis() + " ms");
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.romibuzi.parquetdiff.metrics;
+
+/**
+ * The JMX view of {@link ParquetScanCounters}, see {@link ParquetScanCounters#registerMBean(String)}. Durations are
+ * in microseconds for calls and in milliseconds for totals.
+ */
+public interface ParquetScanCountersMXBean {
+    /**
+     * @return The number of directories listed with {@code listStatus}.
+     */
+    long getDirectoriesListed();
+
+    /**
+     * @return The number of Parquet footers fetched from the filesystem.
+     */
+    long getFilesRead();
+
+    /**
+     * @return The number of bytes read to fetch footers.
+     */
+    long getFooterBytes();
+
+    /**
+     * @return The median duration of {@code listStatus} calls.
+     */
+    long getListStatusP50Micros();
+
+    /**
+     * @return The 99th percentile of the durations of {@code listStatus} calls.
+     */
+    long getListStatusP99Micros();
+
+    /**
+     * @return The longest {@code listStatus} call.
+     */
+    long getListStatusMaxMicros();
+
+    /**
+     * @return The median duration of footer reads.
+     */
+    long getFooterReadP50Micros();
+
+    /**
+     * @return The 99th percentile of the durations of footer reads.
+     */
+    long getFooterReadP99Micros();
+
+    /**
+     * @return The longest footer read.
+     */
+    long getFooterReadMaxMicros();
+
+    /**
+     * @return The number of footer schemas converted to schema trees.
+     */
+    long getSchemasExtracted();
+
+    /**
+     * @return The total time spent converting footer schemas.
+     */
+    long getSchemaExtractionMillis();
+
+    /**
+     * @return The number of schema comparisons.
+     */
+    long getSchemasCompared();
+
+    /**
+     * @return The total number of schema nodes compared.
+     */
+    long getNodesCompared();
+
+    /**
+     * @return The total number of schema differences found.
+     */
+    long getDiffsFound();
+
+    /**
+     * @return The total time spent comparing schemas.
+     */
+    long getComparisonMillis();
+
+    /**
+     * Resets all counters and histograms, e.g. between two scans of a long-running process.
+     */
+    void reset();
+}
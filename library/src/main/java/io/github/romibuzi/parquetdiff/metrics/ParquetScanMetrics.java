@@ -0,0 +1,69 @@
+package io.github.romibuzi.parquetdiff.metrics;
+
+import org.apache.hadoop.fs.Path;
+
+/**
+ * <p>
+ * Receives the measures of the work done by a scan, to find out whether listing, footer reads, schema extraction or
+ * comparison dominates its duration. Example:
+ * <pre>{@code
+ * ParquetScanCounters counters = new ParquetScanCounters();
+ * ParquetReader reader = ParquetReader.builder(fileSystem).metrics(counters).build();
+ * List<ParquetDetails> parquets = reader.readParquetDirectory("my_data.parquet");
+ * ParquetComparator.findSchemasDifferences(parquets, counters);
+ * System.out.println(counters);
+ * }</pre>
+ * <p>
+ * Methods are called from the listing and footer reading threads, implementations must be thread-safe and should
+ * not block. All methods do nothing by default. Only actual filesystem calls are measured: directories and footers
+ * taken from a scan state or a footer cache are not reported.
+ *
+ * @see ParquetScanCounters
+ */
+public interface ParquetScanMetrics {
+    /**
+     * Metrics ignoring all measures, the default of readers and comparisons.
+     */
+    ParquetScanMetrics NOOP = new ParquetScanMetrics() {
+    };
+
+    /**
+     * Called after each {@code listStatus} call on a directory.
+     *
+     * @param directory The listed directory.
+     * @param entries   The number of files and directories listed.
+     * @param nanos     The duration of the call.
+     */
+    default void directoryListed(Path directory, int entries, long nanos) {
+    }
+
+    /**
+     * Called after the footer of a file is fetched from the filesystem, before it is decoded.
+     *
+     * @param file  The Parquet file.
+     * @param bytes The number of bytes read from the end of the file.
+     * @param nanos The duration of the open and read calls.
+     */
+    default void footerRead(Path file, long bytes, long nanos) {
+    }
+
+    /**
+     * Called after the schema of a footer is converted to a
+     * {@link io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNode} tree.
+     *
+     * @param nanos The duration of the conversion.
+     */
+    default void schemaExtracted(long nanos) {
+    }
+
+    /**
+     * Called after two schemas are compared. Schemas with equal fingerprints are compared without walking their
+     * trees, no node being compared.
+     *
+     * @param nodes       The number of nodes of the first schema compared to a node of the second one.
+     * @param differences The number of differences found, missing and additional nodes included.
+     * @param nanos       The duration of the comparison.
+     */
+    default void schemasCompared(int nodes, int differences, long nanos) {
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains the metrics API of scans and schema comparisons, and its built-in implementation exposed as a JMX MBean.
+ */
+package io.github.romibuzi.parquetdiff.metrics;
@@ -0,0 +1,21 @@
+package io.github.romibuzi.parquetdiff;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the threads used to list directories concurrently, Java 21 version using virtual threads.
+ */
+final class ListingThreads {
+    private ListingThreads() {
+    }
+
+    /**
+     * @param parallelism The maximum number of directories listed at the same time, enforced by the caller since
+     *                    virtual threads are not pooled.
+     * @return A new executor starting one virtual thread per listing.
+     */
+    static ExecutorService newExecutor(int parallelism) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("parquetdiff-listing-", 0).factory());
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.diff.ParquetComparator;
+import io.github.romibuzi.parquetdiff.metadata.ParquetContentFingerprint;
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.io.LocalOutputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Types;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParquetContentFingerprinterTest {
+    private static final String TEST_DATA = "src/test/resources/test_data.parquet";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void findSameContentFiles() throws IOException {
+        ParquetReader parquetReader = new ParquetReader(FileSystem.get(new Configuration()));
+        List<ParquetDetails> parquets = parquetReader.readParquetDirectory(TEST_DATA);
+        List<String> columns = ParquetContentFingerprinter.findCommonColumns(parquets);
+        assertFalse(columns.isEmpty());
+        assertFalse(columns.contains("date"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ParquetContentFingerprinter fingerprinter = new ParquetContentFingerprinter(parquetReader, executor);
+            List<ParquetContentFingerprint> fingerprints = fingerprinter.fingerprint(parquets, columns);
+
+            assertEquals(2, fingerprints.size());
+            assertEquals(1, fingerprints.get(0).getNumRows());
+            // same location and vaccine, the vaccinations counts differ between both days
+            assertTrue(ParquetComparator.findSameContentFiles(parquets, fingerprints).isEmpty());
+            List<String> differentColumns = fingerprints.get(0).findDifferentColumns(fingerprints.get(1));
+            assertFalse(differentColumns.isEmpty());
+            assertFalse(differentColumns.contains("location"));
+            assertTrue(ParquetComparator.findDifferentPartitionsContent(
+                    ParquetComparator.mergeByPartitions(parquets, fingerprints),
+                    ParquetComparator.mergeByPartitions(parquets, fingerprints)).isEmpty());
+
+            List<ParquetContentFingerprint> locationFingerprints =
+                    fingerprinter.fingerprint(parquets, List.of("location", "vaccine"));
+            assertEquals(List.of(parquets), ParquetComparator.findSameContentFiles(parquets, locationFingerprints));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void fingerprintBytesOfInvalidUtf8Strings() throws IOException {
+        MessageType schema = Types.buildMessage()
+                .required(PrimitiveType.PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("name")
+                .named("rows");
+        // 0xff and 0xfe are both invalid UTF-8 bytes, decoded as the same replacement character
+        Path first = writeName(schema, "first.parquet", (byte) 0xff);
+        Path second = writeName(schema, "second.parquet", (byte) 0xfe);
+
+        FileSystem fileSystem = FileSystem.getLocal(new Configuration());
+        ParquetReader parquetReader = new ParquetReader(fileSystem);
+        List<ParquetDetails> parquets = List.of(
+                parquetReader.readParquetFile(new org.apache.hadoop.fs.Path(first.toUri())),
+                parquetReader.readParquetFile(new org.apache.hadoop.fs.Path(second.toUri())));
+        List<ParquetContentFingerprint> fingerprints = new ParquetContentFingerprinter(parquetReader, null)
+                .fingerprint(parquets, List.of("name"));
+
+        assertNotEquals(fingerprints.get(0), fingerprints.get(1));
+        assertEquals(List.of("name"), fingerprints.get(0).findDifferentColumns(fingerprints.get(1)));
+    }
+
+    @Test
+    void fingerprintNestedValuesStructurally() throws IOException {
+        MessageType schema = Types.buildMessage()
+                .repeated(PrimitiveType.PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("names")
+                .requiredGroup()
+                .optional(PrimitiveType.PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("city")
+                .named("address")
+                .named("rows");
+        SimpleGroupFactory groups = new SimpleGroupFactory(schema);
+        Group first = groups.newGroup().append("names", "a, b");
+        first.addGroup("address");
+        Group second = groups.newGroup().append("names", "a").append("names", "b");
+        second.addGroup("address").append("city", "null");
+        Path firstFile = directory.resolve("first.parquet");
+        Path secondFile = directory.resolve("second.parquet");
+        for (Path file : List.of(firstFile, secondFile)) {
+            try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new LocalOutputFile(file))
+                    .withType(schema)
+                    .build()) {
+                writer.write(file == firstFile ? first : second);
+            }
+        }
+
+        FileSystem fileSystem = FileSystem.getLocal(new Configuration());
+        ParquetReader parquetReader = new ParquetReader(fileSystem);
+        List<ParquetDetails> parquets = List.of(
+                parquetReader.readParquetFile(new org.apache.hadoop.fs.Path(firstFile.toUri())),
+                parquetReader.readParquetFile(new org.apache.hadoop.fs.Path(secondFile.toUri())));
+        List<ParquetContentFingerprint> fingerprints = new ParquetContentFingerprinter(parquetReader, null)
+                .fingerprint(parquets, List.of("names", "address"));
+
+        // ["a, b"] is not ["a", "b"], a null city is not the string "null"
+        assertNotEquals(fingerprints.get(0), fingerprints.get(1));
+        assertEquals(List.of("names", "address"), fingerprints.get(0).findDifferentColumns(fingerprints.get(1)));
+    }
+
+    private Path writeName(MessageType schema, String fileName, byte last) throws IOException {
+        Path file = directory.resolve(fileName);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new LocalOutputFile(file))
+                .withType(schema)
+                .build()) {
+            writer.write(new SimpleGroupFactory(schema).newGroup()
+                    .append("name", Binary.fromConstantByteArray(new byte[]{'a', last})));
+        }
+        return file;
+    }
+}
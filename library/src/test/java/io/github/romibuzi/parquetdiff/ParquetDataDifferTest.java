@@ -0,0 +1,139 @@
+package io.github.romibuzi.parquetdiff;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParquetDataDifferTest {
+    private static final Path TEST_DATA = Paths.get("src", "test", "resources", "test_data.parquet");
+    private static final Path TEST_FILE = TEST_DATA.resolve("date=2020-12-27").resolve("part-00000.parquet");
+
+    private static ParquetReader parquetReader;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void setup() throws IOException {
+        parquetReader = new ParquetReader(FileSystem.get(new Configuration()));
+    }
+
+    @Test
+    void diffSameDataset() throws IOException {
+        List<ParquetRowDiff> diffs = new ArrayList<>();
+        ParquetDataDiffResult result = ParquetDataDiffer.builder(parquetReader, "date").build()
+                .diff(TEST_DATA.toString(), TEST_DATA.toString(), diffs::add);
+
+        assertTrue(diffs.isEmpty());
+        assertFalse(result.hasDifferences());
+        assertEquals(2, result.getFirstNumRows());
+        assertEquals(2, result.getSecondNumRows());
+        assertEquals(2, result.getMatchingRows());
+        assertEquals(List.of("date"), result.getKeyColumns());
+        assertFalse(result.getComparedColumns().isEmpty());
+        assertFalse(result.getComparedColumns().contains("date"));
+    }
+
+    @Test
+    void diffMissingAndExtraRowsWithSpilling() throws IOException {
+        Path second = directory.resolve("second.parquet");
+        copyTestFile(second, "date=2020-12-27");
+        copyTestFile(second, "date=2020-12-29");
+
+        List<ParquetRowDiff> diffs = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ParquetDataDiffResult result = ParquetDataDiffer.builder(parquetReader, "date")
+                    .buckets(4)
+                    .memoryBudget(1) // every row is spilled
+                    .spillDirectory(directory)
+                    .executor(executor)
+                    .build()
+                    .diff(TEST_DATA.toString(), second.toString(), diffs::add);
+
+            assertEquals(1, result.getMissingRows());
+            assertEquals(1, result.getExtraRows());
+            assertEquals(0, result.getChangedRows());
+            assertEquals(1, result.getMatchingRows());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, diffs.size());
+        for (ParquetRowDiff diff : diffs) {
+            if (diff.getKind() == ParquetRowDiff.Kind.MISSING) {
+                assertEquals(Map.of("date", "2020-12-28"), diff.getKey());
+            } else {
+                assertEquals(ParquetRowDiff.Kind.EXTRA, diff.getKind());
+                assertEquals(Map.of("date", "2020-12-29"), diff.getKey());
+            }
+        }
+        // spill files are deleted
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(second), files.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void diffChangedRows() throws IOException {
+        Path first = directory.resolve("first.parquet");
+        Path second = directory.resolve("second.parquet");
+        copyTestFile(first, "date=2020-12-27");
+        copyTestFile(second, "date=2020-12-28");
+
+        List<ParquetRowDiff> diffs = new ArrayList<>();
+        ParquetDataDiffResult result = ParquetDataDiffer.builder(parquetReader, "location")
+                .columns("date")
+                .build()
+                .diff(first.toString(), second.toString(), diffs::add);
+
+        assertEquals(List.of("date"), result.getComparedColumns());
+        assertEquals(1, result.getChangedRows());
+        assertEquals(1, diffs.size());
+        ParquetRowDiff diff = diffs.get(0);
+        assertEquals(ParquetRowDiff.Kind.CHANGED, diff.getKind());
+        assertEquals(List.of("date"), diff.getChangedColumns());
+        assertEquals(Map.of("date", "2020-12-27"), diff.getFirstValues());
+        assertEquals(Map.of("date", "2020-12-28"), diff.getSecondValues());
+    }
+
+    @Test
+    void diffUnknownKeyColumn() {
+        ParquetDataDiffer differ = ParquetDataDiffer.builder(parquetReader, "unknown").build();
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> differ.diff(TEST_DATA.toString(), TEST_DATA.toString(), diff -> { }));
+        assertTrue(exception.getMessage().startsWith("Key column 'unknown' not found in "));
+    }
+
+    @Test
+    void invalidBuilder() {
+        assertThrows(IllegalArgumentException.class, () -> ParquetDataDiffer.builder(parquetReader));
+        assertThrows(IllegalArgumentException.class,
+                () -> ParquetDataDiffer.builder(parquetReader, "date").buckets(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> ParquetDataDiffer.builder(parquetReader, "date").memoryBudget(0));
+    }
+
+    private static void copyTestFile(Path dataset, String partition) throws IOException {
+        Files.createDirectories(dataset.resolve(partition));
+        Files.copy(TEST_FILE, dataset.resolve(partition).resolve("part-00000.parquet"));
+    }
+}
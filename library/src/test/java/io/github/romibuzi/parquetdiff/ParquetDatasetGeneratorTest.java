@@ -0,0 +1,103 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.diff.ParquetComparator;
+import io.github.romibuzi.parquetdiff.diff.ParquetSchemaDiff;
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartition;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartitions;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNodePath;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParquetDatasetGeneratorTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void generate() throws IOException {
+        Path dataset = directory.resolve("generated.parquet");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Path> files;
+        try {
+            files = ParquetDatasetGenerator.builder()
+                    .partitions(2, 2)
+                    .files(2)
+                    .columns(10, 3)
+                    .rowGroups(3)
+                    .rows(5)
+                    .addColumn(1, "added")
+                    .removeColumn(2, "column_2")
+                    .retypeColumn(3, "column_0")
+                    .build()
+                    .generate(dataset, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(8, files.size());
+        assertEquals(dataset.resolve("level1=0").resolve("level2=1").resolve("part-00001.parquet"), files.get(3));
+
+        Configuration configuration = new Configuration();
+        try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(
+                new org.apache.hadoop.fs.Path(files.get(0).toUri()), configuration))) {
+            assertEquals(3, reader.getRowGroups().size());
+        }
+
+        List<ParquetDetails> parquets = new ParquetReader(FileSystem.getLocal(configuration))
+                .readParquetDirectory(dataset.toString());
+        assertEquals(8, parquets.size());
+        assertEquals(new ParquetPartitions(List.of(new ParquetPartition("level1", "1"),
+                new ParquetPartition("level2", "1"))), parquets.get(7).getPartitions());
+        parquets.forEach(parquet -> assertEquals(15, parquet.getNumRows()));
+
+        List<ParquetSchemaDiff> differences = ParquetComparator.findSchemasDifferences(parquets);
+        assertEquals(3, differences.size());
+        assertEquals(List.of(new ParquetSchemaNodePath("generated", "added")),
+                differences.get(0).getAdditionalNodes());
+        assertEquals(List.of(new ParquetSchemaNodePath("generated", "column_2")),
+                differences.get(1).getMissingNodes());
+        assertEquals(1, differences.get(2).getPrimitiveTypeDiffs().size());
+    }
+
+    @Test
+    void generateUnpartitioned() throws IOException {
+        List<Path> files = ParquetDatasetGenerator.builder().partitions(0, 1).files(3).build()
+                .generate(directory, null);
+
+        assertEquals(List.of(directory.resolve("part-00000.parquet"), directory.resolve("part-00001.parquet"),
+                directory.resolve("part-00002.parquet")), files);
+    }
+
+    @Test
+    void generateIntoNonEmptyDirectory() throws IOException {
+        Files.createFile(directory.resolve("existing"));
+        ParquetDatasetGenerator generator = ParquetDatasetGenerator.builder().build();
+
+        assertThrows(FileAlreadyExistsException.class, () -> generator.generate(directory, null));
+    }
+
+    @Test
+    void invalidSchemaEvents() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ParquetDatasetGenerator.builder().removeColumn(1, "missing").build());
+        assertThrows(IllegalArgumentException.class,
+                () -> ParquetDatasetGenerator.builder().addColumn(1, "column_0").build());
+        assertThrows(IllegalArgumentException.class,
+                () -> ParquetDatasetGenerator.builder().partitions(-1, 2));
+    }
+}
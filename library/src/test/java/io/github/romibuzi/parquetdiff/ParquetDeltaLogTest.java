@@ -0,0 +1,116 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartition;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartitionFilter;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartitions;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParquetDeltaLogTest {
+    private static final java.nio.file.Path TEST_FILE =
+            Paths.get("src", "test", "resources", "test_data.parquet", "date=2020-12-27", "part-00000.parquet");
+
+    private static FileSystem fileSystem;
+
+    @TempDir
+    java.nio.file.Path directory;
+
+    private Path root;
+
+    @BeforeAll
+    static void setup() throws IOException {
+        fileSystem = FileSystem.get(new Configuration());
+    }
+
+    @BeforeEach
+    void createTable() throws IOException {
+        for (String file : List.of("part-00000.parquet", "part-00001.parquet", "part-00002.parquet")) {
+            Files.copy(TEST_FILE, directory.resolve(file));
+        }
+        writeCommit(0,
+                "{\"metaData\":{\"id\":\"table\",\"partitionColumns\":[\"date\"]}}",
+                "{\"add\":{\"path\":\"part-00000.parquet\",\"partitionValues\":{\"date\":\"2020-12-27\"},"
+                        + "\"size\":100,\"modificationTime\":1000,\"dataChange\":true}}",
+                "{\"add\":{\"path\":\"part-00001.parquet\",\"partitionValues\":{\"date\":\"2020-12-28\"},"
+                        + "\"size\":100,\"modificationTime\":1000,\"dataChange\":true}}");
+        // the removed file stays on disk until it's vacuumed
+        writeCommit(1,
+                "{\"commitInfo\":{\"operation\":\"WRITE\"}}",
+                "{\"remove\":{\"path\":\"part-00001.parquet\",\"dataChange\":true}}",
+                "{\"add\":{\"path\":\"part-00002.parquet\",\"partitionValues\":{\"date\":\"2020-12-29\"},"
+                        + "\"size\":200,\"modificationTime\":2000,\"dataChange\":true}}");
+        root = new Path(directory.toUri());
+    }
+
+    @Test
+    void listParquetFiles() throws IOException {
+        List<FileStatus> results = ParquetDeltaLog.listParquetFiles(fileSystem, root, List.of());
+
+        assertEquals(List.of("part-00000.parquet", "part-00002.parquet"), names(results));
+        assertEquals(200, results.get(1).getLen());
+        assertEquals(2000, results.get(1).getModificationTime());
+        assertEquals(new ParquetPartitions(List.of(new ParquetPartition("date", "2020-12-29"))),
+                ((ParquetDeltaLog.DeltaFileStatus) results.get(1)).getPartitions());
+    }
+
+    @Test
+    void listParquetFilesWithPartitionFilters() throws IOException {
+        List<FileStatus> results = ParquetDeltaLog.listParquetFiles(fileSystem, root,
+                List.of(ParquetPartitionFilter.newest("date", 1)));
+
+        assertEquals(List.of("part-00002.parquet"), names(results));
+    }
+
+    @Test
+    void listParquetFilesWithMissingCommit() throws IOException {
+        writeCommit(3, "{\"remove\":{\"path\":\"part-00000.parquet\",\"dataChange\":true}}");
+
+        assertThrows(IOException.class, () -> ParquetDeltaLog.listParquetFiles(fileSystem, root, List.of()));
+    }
+
+    @Test
+    void readParquetDirectory() throws IOException {
+        ParquetReader parquetReader = ParquetReader.builder(fileSystem).deltaLog(true).build();
+
+        List<ParquetDetails> results = parquetReader.readParquetDirectory(root);
+
+        assertEquals(2, results.size());
+        assertEquals(new ParquetPartitions(List.of(new ParquetPartition("date", "2020-12-27"))),
+                results.get(0).getPartitions());
+        assertEquals(new ParquetPartitions(List.of(new ParquetPartition("date", "2020-12-29"))),
+                results.get(1).getPartitions());
+    }
+
+    @Test
+    void readParquetDirectoryWithoutDeltaLog(@TempDir java.nio.file.Path otherDirectory) {
+        ParquetReader parquetReader = ParquetReader.builder(fileSystem).deltaLog(true).build();
+
+        assertThrows(IOException.class, () -> parquetReader.readParquetDirectory(new Path(otherDirectory.toUri())));
+    }
+
+    private void writeCommit(long version, String... actions) throws IOException {
+        java.nio.file.Path log = directory.resolve(ParquetDeltaLog.LOG_DIRECTORY_NAME);
+        Files.createDirectories(log);
+        Files.write(log.resolve(String.format("%020d.json", version)), List.of(actions));
+    }
+
+    private static List<String> names(List<FileStatus> files) {
+        return files.stream().map(file -> file.getPath().getName()).collect(Collectors.toList());
+    }
+}
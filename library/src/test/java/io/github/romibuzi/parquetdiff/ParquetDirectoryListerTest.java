@@ -0,0 +1,113 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartitionFilter;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParquetDirectoryListerTest {
+    private static FileSystem fileSystem;
+
+    @TempDir
+    java.nio.file.Path directory;
+
+    @BeforeAll
+    static void setup() throws IOException {
+        fileSystem = FileSystem.get(new Configuration());
+    }
+
+    @Test
+    void listParquetFilesConcurrently() throws IOException {
+        createFiles("year=2021/month=01/part-00000.parquet",
+                "year=2020/month=12/part-00001.parquet",
+                "year=2020/month=12/part-00000.parquet",
+                "year=2020/month=11/part-00000.parquet",
+                "year=2020/month=11/_SUCCESS",
+                "year=2020/part-00000.parquet");
+        Path root = new Path(directory.toUri());
+
+        List<String> sequential = relativePaths(new ParquetDirectoryLister(fileSystem, 1).listParquetFiles(root));
+        List<String> concurrent = relativePaths(new ParquetDirectoryLister(fileSystem, 4).listParquetFiles(root));
+
+        assertEquals(List.of("year=2020/part-00000.parquet",
+                "year=2020/month=11/part-00000.parquet",
+                "year=2020/month=12/part-00000.parquet",
+                "year=2020/month=12/part-00001.parquet",
+                "year=2021/month=01/part-00000.parquet"), sequential);
+        assertEquals(sequential, concurrent);
+    }
+
+    @Test
+    void listParquetFilesWithPartitionFilters() throws IOException {
+        createFiles("year=2021/month=01/part-00000.parquet",
+                "year=2021/month=02/part-00000.parquet",
+                "year=2020/month=12/part-00000.parquet",
+                "year=2020/month=11/part-00000.parquet",
+                "year=2019/month=12/part-00000.parquet",
+                "year=2019/part-00000.parquet");
+        Path root = new Path(directory.toUri());
+
+        ParquetDirectoryLister lister = new ParquetDirectoryLister(fileSystem, 1, List.of(
+                ParquetPartitionFilter.between("year", "2020", null),
+                ParquetPartitionFilter.newest("month", 1)));
+
+        assertEquals(List.of("year=2020/month=12/part-00000.parquet",
+                "year=2021/month=02/part-00000.parquet"), relativePaths(lister.listParquetFiles(root)));
+    }
+
+    @Test
+    void listParquetFilesWithFiltersOfSameKey() throws IOException {
+        for (int day = 1; day <= 7; day++) {
+            createFiles("day=0" + day + "/part-00000.parquet");
+        }
+        Path root = new Path(directory.toUri());
+
+        // the newest days are chosen among all days, not among the days left by the range
+        ParquetDirectoryLister lister = new ParquetDirectoryLister(fileSystem, 1, List.of(
+                ParquetPartitionFilter.between("day", "01", "05"),
+                ParquetPartitionFilter.newest("day", 3)));
+
+        assertEquals(List.of("day=05/part-00000.parquet"), relativePaths(lister.listParquetFiles(root)));
+    }
+
+    @Test
+    void listParquetFilesEmptyDirectory() throws IOException {
+        ParquetDirectoryLister lister = new ParquetDirectoryLister(fileSystem, 4);
+        assertEquals(List.of(), lister.listParquetFiles(new Path(directory.toUri())));
+    }
+
+    @Test
+    void invalidParallelism() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new ParquetDirectoryLister(fileSystem, 0));
+        assertEquals("Listing parallelism must be positive: 0", exception.getMessage());
+    }
+
+    private void createFiles(String... relativePaths) throws IOException {
+        for (String relativePath : relativePaths) {
+            java.nio.file.Path file = directory.resolve(relativePath);
+            Files.createDirectories(file.getParent());
+            Files.createFile(file);
+        }
+    }
+
+    private List<String> relativePaths(List<FileStatus> fileStatuses) {
+        String root = new Path(directory.toUri()).toUri().getPath();
+        return fileStatuses.stream()
+                .map(fileStatus -> fileStatus.getPath().toUri().getPath().substring(root.length()))
+                .map(path -> path.startsWith("/") ? path.substring(1) : path)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartition;
+import io.github.romibuzi.parquetdiff.metadata.ParquetPartitions;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParquetDirectoryWatcherTest {
+    private static final java.nio.file.Path TEST_FILE =
+            Paths.get("src", "test", "resources", "test_data.parquet", "date=2020-12-27", "part-00000.parquet");
+
+    private static FileSystem fileSystem;
+
+    @TempDir
+    java.nio.file.Path directory;
+
+    @BeforeAll
+    static void setup() throws IOException {
+        fileSystem = FileSystem.get(new Configuration());
+    }
+
+    @Test
+    void watchNewFiles() throws Exception {
+        copyTestFile("date=2020-12-27");
+        ParquetReader parquetReader = ParquetReader.builder(fileSystem).scanState(ParquetScanState.inMemory())
+                .build();
+        ParquetDirectoryWatcher watcher = new ParquetDirectoryWatcher(parquetReader, new Path(directory.toUri()),
+                Duration.ofMillis(200));
+        BlockingQueue<ParquetIncrementalScan> scans = new LinkedBlockingQueue<>();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                watcher.watch(scans::add);
+                return null;
+            });
+
+            ParquetIncrementalScan first = scans.poll(10, TimeUnit.SECONDS);
+            assertNotNull(first);
+            assertEquals(1, first.getChangedParquets().size());
+
+            copyTestFile("date=2020-12-28");
+            ParquetIncrementalScan second = scans.poll(10, TimeUnit.SECONDS);
+            assertNotNull(second);
+            assertEquals(2, second.getParquets().size());
+            List<ParquetDetails> changedParquets = second.getChangedParquets();
+            assertEquals(1, changedParquets.size());
+            assertEquals(new ParquetPartitions(List.of(new ParquetPartition("date", "2020-12-28"))),
+                    changedParquets.get(0).getPartitions());
+            assertTrue(second.findSchemasDifferences().isEmpty());
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void invalidPollInterval() {
+        ParquetReader parquetReader = new ParquetReader(fileSystem);
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParquetDirectoryWatcher(parquetReader, new Path(directory.toUri()), Duration.ZERO));
+    }
+
+    private void copyTestFile(String partition) throws IOException {
+        // written then renamed, like the output committers of the writers
+        java.nio.file.Path temporary = Files.createTempFile(directory.getParent(), "part", ".tmp");
+        Files.copy(TEST_FILE, temporary, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        Files.createDirectories(directory.resolve(partition));
+        Files.move(temporary, directory.resolve(partition).resolve("part-00000.parquet"));
+    }
+}
@@ -0,0 +1,178 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNode;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaType;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParquetFooterCacheTest {
+    private static final ParquetSchemaNode SCHEMA = new ParquetSchemaNode("message",
+            ParquetSchemaType.MESSAGE, Type.Repetition.REPEATED, null, null,
+            List.of(new ParquetSchemaNode("id", ParquetSchemaType.PRIMITIVE, Type.Repetition.REQUIRED,
+                            PrimitiveType.PrimitiveTypeName.INT64, null),
+                    new ParquetSchemaNode("created_at", ParquetSchemaType.PRIMITIVE, Type.Repetition.OPTIONAL,
+                            PrimitiveType.PrimitiveTypeName.INT64,
+                            LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MICROS)),
+                    new ParquetSchemaNode("amount", ParquetSchemaType.PRIMITIVE, Type.Repetition.OPTIONAL,
+                            PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY,
+                            LogicalTypeAnnotation.decimalType(2, 10))));
+
+    @TempDir
+    java.nio.file.Path directory;
+
+    @Test
+    void getCachedFooter() throws IOException {
+        FileStatus fileStatus = fileStatus("/data/date=2020-12-27/part-00000.parquet", 100, 1000);
+        ParquetDetails details = new ParquetDetails(fileStatus.getPath(), 42, SCHEMA);
+
+        try (ParquetFooterCache cache = ParquetFooterCache.open(directory, 10)) {
+            assertFalse(cache.get(fileStatus).isPresent());
+            cache.put(fileStatus, details);
+            assertEquals(Optional.of(details), cache.get(fileStatus));
+        }
+    }
+
+    @Test
+    void ignoreChangedFile() throws IOException {
+        String path = "/data/part-00000.parquet";
+        try (ParquetFooterCache cache = ParquetFooterCache.open(directory, 10)) {
+            cache.put(fileStatus(path, 100, 1000), new ParquetDetails(new Path(path), 42, SCHEMA));
+
+            assertFalse(cache.get(fileStatus(path, 101, 1000)).isPresent());
+            assertFalse(cache.get(fileStatus(path, 100, 1001)).isPresent());
+        }
+    }
+
+    @Test
+    void persistBetweenRuns() throws IOException {
+        FileStatus fileStatus = fileStatus("/data/part-00000.parquet", 100, 1000);
+        ParquetDetails details = new ParquetDetails(fileStatus.getPath(), 42, SCHEMA);
+
+        try (ParquetFooterCache cache = ParquetFooterCache.open(directory, 10)) {
+            cache.put(fileStatus, details);
+        }
+
+        try (ParquetFooterCache cache = ParquetFooterCache.open(directory, 10)) {
+            assertEquals(1, cache.size());
+            assertEquals(Optional.of(details), cache.get(fileStatus));
+        }
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() throws IOException {
+        FileStatus first = fileStatus("/data/part-00000.parquet", 100, 1000);
+        FileStatus second = fileStatus("/data/part-00001.parquet", 100, 1000);
+        FileStatus third = fileStatus("/data/part-00002.parquet", 100, 1000);
+
+        try (ParquetFooterCache cache = ParquetFooterCache.open(directory, 2)) {
+            cache.put(first, new ParquetDetails(first.getPath(), 1, SCHEMA));
+            cache.put(second, new ParquetDetails(second.getPath(), 2, SCHEMA));
+            cache.get(first);
+            cache.put(third, new ParquetDetails(third.getPath(), 3, SCHEMA));
+
+            assertEquals(2, cache.size());
+            assertTrue(cache.get(first).isPresent());
+            assertFalse(cache.get(second).isPresent());
+            assertTrue(cache.get(third).isPresent());
+        }
+    }
+
+    @Test
+    void mergeEntriesOfConcurrentRuns() throws IOException {
+        FileStatus first = fileStatus("/data/part-00000.parquet", 100, 1000);
+        FileStatus second = fileStatus("/data/part-00001.parquet", 100, 1000);
+
+        ParquetFooterCache firstRun = ParquetFooterCache.open(directory, 10);
+        ParquetFooterCache secondRun = ParquetFooterCache.open(directory, 10);
+        firstRun.put(first, new ParquetDetails(first.getPath(), 1, SCHEMA));
+        secondRun.put(second, new ParquetDetails(second.getPath(), 2, SCHEMA));
+        firstRun.close();
+        secondRun.close();
+
+        try (ParquetFooterCache cache = ParquetFooterCache.open(directory, 10)) {
+            assertEquals(2, cache.size());
+            assertTrue(cache.get(first).isPresent());
+            assertTrue(cache.get(second).isPresent());
+        }
+    }
+
+    @Test
+    void evictOnceMergedWithStoredEntries() throws IOException {
+        FileStatus first = fileStatus("/data/part-00000.parquet", 100, 1000);
+        FileStatus second = fileStatus("/data/part-00001.parquet", 100, 1000);
+        FileStatus third = fileStatus("/data/part-00002.parquet", 100, 1000);
+
+        try (ParquetFooterCache cache = ParquetFooterCache.open(directory, 2, clockAt(1))) {
+            cache.put(first, new ParquetDetails(first.getPath(), 1, SCHEMA));
+        }
+        try (ParquetFooterCache cache = ParquetFooterCache.open(directory, 2, clockAt(2))) {
+            cache.put(second, new ParquetDetails(second.getPath(), 2, SCHEMA));
+        }
+        // the first footer is evicted in memory, the stored one must not be merged back in place of the second one
+        try (ParquetFooterCache cache = ParquetFooterCache.open(directory, 2, clockAt(3))) {
+            cache.put(third, new ParquetDetails(third.getPath(), 3, SCHEMA));
+        }
+
+        try (ParquetFooterCache cache = ParquetFooterCache.open(directory, 2, clockAt(4))) {
+            assertEquals(2, cache.size());
+            assertFalse(cache.get(first).isPresent());
+            assertTrue(cache.get(second).isPresent());
+            assertTrue(cache.get(third).isPresent());
+        }
+    }
+
+    @Test
+    void persistAccessTimesOncePerHour() throws IOException {
+        FileStatus fileStatus = fileStatus("/data/part-00000.parquet", 100, 1000);
+        java.nio.file.Path cacheFile = directory.resolve("footers.cache");
+        try (ParquetFooterCache cache = ParquetFooterCache.open(directory, 10, clockAt(0))) {
+            cache.put(fileStatus, new ParquetDetails(fileStatus.getPath(), 1, SCHEMA));
+        }
+        byte[] stored = Files.readAllBytes(cacheFile);
+
+        try (ParquetFooterCache cache = ParquetFooterCache.open(directory, 10, clockAt(59))) {
+            assertTrue(cache.get(fileStatus).isPresent());
+        }
+        assertArrayEquals(stored, Files.readAllBytes(cacheFile));
+
+        try (ParquetFooterCache cache = ParquetFooterCache.open(directory, 10, clockAt(60))) {
+            assertTrue(cache.get(fileStatus).isPresent());
+        }
+        assertFalse(Arrays.equals(stored, Files.readAllBytes(cacheFile)));
+    }
+
+    @Test
+    void invalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> ParquetFooterCache.open(directory, 0));
+    }
+
+    private static Clock clockAt(long minutes) {
+        return Clock.fixed(Instant.EPOCH.plus(minutes, ChronoUnit.MINUTES), ZoneOffset.UTC);
+    }
+
+    private static FileStatus fileStatus(String path, long length, long modificationTime) {
+        return new FileStatus(length, false, 1, 128, modificationTime, new Path(path));
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.romibuzi.parquetdiff;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParquetFooterFetcherTest {
+    private static final java.nio.file.Path PARQUET_FILE = Paths.get("src", "test", "resources",
+            "test_data.parquet", "date=2020-12-27", "part-00000.parquet").toAbsolutePath();
+
+    private static FileSystem fileSystem;
+
+    @TempDir
+    java.nio.file.Path directory;
+
+    @BeforeAll
+    static void setup() throws IOException {
+        fileSystem = FileSystem.get(new Configuration());
+    }
+
+    @Test
+    void fetchFooterInSingleRead() throws IOException {
+        ByteBuffer footer = fetch(PARQUET_FILE, ParquetFooterFetcher.DEFAULT_TAIL_READ_SIZE);
+        assertEquals(expectedFooter(), footer);
+    }
+
+    @Test
+    void fetchFooterLargerThanTailRead() throws IOException {
+        ByteBuffer footer = fetch(PARQUET_FILE, 16);
+        assertEquals(expectedFooter(), footer);
+    }
+
+    @Test
+    void fetchEncryptedFooter() throws IOException {
+        java.nio.file.Path file = writeFile("PARE", 10, "PARE");
+        assertNull(fetch(file, ParquetFooterFetcher.DEFAULT_TAIL_READ_SIZE));
+    }
+
+    @Test
+    void fetchNotAParquetFile() throws IOException {
+        java.nio.file.Path file = writeFile("PAR1", 10, "ABCD");
+        IOException exception = assertThrows(IOException.class,
+                () -> fetch(file, ParquetFooterFetcher.DEFAULT_TAIL_READ_SIZE));
+        assertTrue(exception.getMessage().contains("is not a Parquet file"));
+    }
+
+    @Test
+    void fetchCorruptedFooterLength() throws IOException {
+        java.nio.file.Path file = writeFile("PAR1", 1000, "PAR1");
+        IOException exception = assertThrows(IOException.class,
+                () -> fetch(file, ParquetFooterFetcher.DEFAULT_TAIL_READ_SIZE));
+        assertTrue(exception.getMessage().startsWith("Corrupted file"));
+    }
+
+    @Test
+    void invalidTailReadSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ParquetFooterFetcher(fileSystem, 4));
+    }
+
+    private ByteBuffer fetch(java.nio.file.Path file, int tailReadSize) throws IOException {
+        FileStatus fileStatus = fileSystem.getFileStatus(new Path(file.toUri()));
+        return new ParquetFooterFetcher(fileSystem, tailReadSize).fetch(fileStatus);
+    }
+
+    private ByteBuffer expectedFooter() throws IOException {
+        byte[] content = Files.readAllBytes(PARQUET_FILE);
+        int footerLength = ByteBuffer.wrap(content, content.length - 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        return ByteBuffer.wrap(content, content.length - 8 - footerLength, footerLength);
+    }
+
+    private java.nio.file.Path writeFile(String headMagic, int footerLength, String tailMagic) throws IOException {
+        ByteBuffer content = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        content.put(headMagic.getBytes(StandardCharsets.US_ASCII));
+        content.put(new byte[4]);
+        content.putInt(footerLength);
+        content.put(tailMagic.getBytes(StandardCharsets.US_ASCII));
+        java.nio.file.Path file = directory.resolve("file.parquet");
+        Files.write(file, content.array());
+        return file;
+    }
+}
@@ -1,24 +1,48 @@
 package io.github.romibuzi.parquetdiff;
 
+import io.github.romibuzi.parquetdiff.metadata.ParquetColumnStatistics;
 import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
 import io.github.romibuzi.parquetdiff.metadata.ParquetPartition;
 import io.github.romibuzi.parquetdiff.metadata.ParquetPartitions;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaFingerprint;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaInterner;
+import io.github.romibuzi.parquetdiff.metrics.ParquetScanCounters;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.LocatedFileStatus;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.RemoteIterator;
+import org.apache.parquet.hadoop.Footer;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetFileWriter;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
@@ -60,6 +84,209 @@ class ParquetReaderTest {
                 secondParquet.getPartitions());
     }
 
+    @Test
+    void readParquetDirectoryConcurrently() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ParquetReader concurrentReader = new ParquetReader(fileSystem, executor);
+            ParquetReader sequentialReader = new ParquetReader(fileSystem);
+
+            List<ParquetDetails> results = concurrentReader.readParquetDirectory(DIRECTORY);
+
+            assertEquals(sequentialReader.readParquetDirectory(DIRECTORY), results);
+            assertEquals(parquetPartitionPath("date=2020-12-27"), results.get(0).getPath());
+            assertEquals(parquetPartitionPath("date=2020-12-28"), results.get(1).getPath());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void readParquetDirectoryWithFullFooters() throws IOException {
+        ParquetReader fullFooterReader = ParquetReader.builder(fileSystem).schemaOnlyFooters(false).build();
+
+        List<ParquetDetails> results = fullFooterReader.readParquetDirectory(DIRECTORY);
+
+        assertEquals(new ParquetReader(fileSystem).readParquetDirectory(DIRECTORY), results);
+    }
+
+    @Test
+    void readParquetDirectoryWithColumnStatistics() throws IOException {
+        ParquetReader statisticsReader = ParquetReader.builder(fileSystem).columnStatistics(true).build();
+
+        List<ParquetDetails> results = statisticsReader.readParquetDirectory(DIRECTORY);
+
+        assertEquals(2, results.size());
+        for (ParquetDetails parquet : results) {
+            ParquetColumnStatistics location = parquet.getColumnStatistics().stream()
+                    .filter(statistics -> statistics.getColumn().equals("location"))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(1, location.getValueCount());
+            assertEquals("Belgium", location.getMin());
+            assertEquals("Belgium", location.getMax());
+            assertNull(location.getNumericMin());
+        }
+        assertEquals(List.of(), new ParquetReader(fileSystem).readParquetFile(results.get(0).getPath())
+                .getColumnStatistics());
+    }
+
+    @Test
+    void readParquetDirectoryWithMetrics() throws IOException {
+        ParquetScanCounters counters = new ParquetScanCounters();
+        ParquetReader parquetReader = ParquetReader.builder(fileSystem).metrics(counters).build();
+
+        List<ParquetDetails> results = parquetReader.readParquetDirectory(DIRECTORY);
+
+        // the root and both partitions
+        assertEquals(3, counters.getDirectoriesListed());
+        assertEquals(3, counters.getListStatusLatencies().getCount());
+        assertEquals(2, counters.getFilesRead());
+        // files smaller than the tail read are read entirely
+        long filesLength = 0;
+        for (ParquetDetails parquet : results) {
+            filesLength += fileSystem.getFileStatus(parquet.getPath()).getLen();
+        }
+        assertEquals(filesLength, counters.getFooterBytes());
+        assertEquals(2, counters.getSchemasExtracted());
+    }
+
+    @Test
+    void readParquetDirectoryWithFlightRecorderEvents(@TempDir java.nio.file.Path directory) throws IOException {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(ParquetListStatusEvent.NAME);
+            recording.enable(ParquetFooterReadEvent.NAME);
+            recording.start();
+            new ParquetReader(fileSystem).readParquetDirectory(DIRECTORY);
+            recording.stop();
+            java.nio.file.Path recordingFile = directory.resolve("scan.jfr");
+            recording.dump(recordingFile);
+            events = RecordingFile.readAllEvents(recordingFile);
+        }
+
+        List<RecordedEvent> listings = events.stream()
+                .filter(event -> event.getEventType().getName().equals(ParquetListStatusEvent.NAME))
+                .collect(Collectors.toList());
+        assertEquals(3, listings.size());
+        assertEquals(DIRECTORY_PATH.toString(), new Path(listings.get(0).getString("path")).toUri().getPath());
+        assertEquals(2, listings.get(0).getInt("entries"));
+
+        List<RecordedEvent> footerReads = events.stream()
+                .filter(event -> event.getEventType().getName().equals(ParquetFooterReadEvent.NAME))
+                .collect(Collectors.toList());
+        assertEquals(2, footerReads.size());
+        for (RecordedEvent footerRead : footerReads) {
+            assertTrue(footerRead.getLong("footerLength") > 0);
+            assertTrue(footerRead.getLong("footerLength") < footerRead.getLong("fileLength"));
+            assertTrue(footerRead.getInt("schemaNodes") > 1);
+        }
+    }
+
+    @Test
+    void streamParquetDirectory() throws IOException {
+        ParquetReader parquetReader = new ParquetReader(fileSystem);
+
+        try (Stream<ParquetDetails> results = parquetReader.streamParquetDirectory(DIRECTORY)) {
+            assertEquals(parquetReader.readParquetDirectory(DIRECTORY), results.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void streamParquetDirectoryConcurrently() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ParquetReader concurrentReader = ParquetReader.builder(fileSystem)
+                    .footerExecutor(executor)
+                    .streamReadAhead(1)
+                    .build();
+
+            try (Stream<ParquetDetails> results = concurrentReader.streamParquetDirectory(DIRECTORY)) {
+                assertEquals(new ParquetReader(fileSystem).readParquetDirectory(DIRECTORY),
+                        results.collect(Collectors.toList()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void publishParquetDirectory() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ParquetReader parquetReader = new ParquetReader(fileSystem);
+            List<ParquetDetails> results = new ArrayList<>();
+            CompletableFuture<Void> completion = new CompletableFuture<>();
+
+            parquetReader.publishParquetDirectory(DIRECTORY_PATH, executor).subscribe(new Flow.Subscriber<>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(ParquetDetails item) {
+                    results.add(item);
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    completion.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    completion.complete(null);
+                }
+            });
+
+            completion.get(10, TimeUnit.SECONDS);
+            assertEquals(parquetReader.readParquetDirectory(DIRECTORY), results);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void publishParquetDirectoryNotFound() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Path missing = new Path(DIRECTORY, "missing");
+            CompletableFuture<Void> completion = new CompletableFuture<>();
+
+            new ParquetReader(fileSystem).publishParquetDirectory(missing, executor).subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(ParquetDetails item) {
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    completion.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    completion.complete(null);
+                }
+            });
+
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> completion.get(10, TimeUnit.SECONDS));
+            assertEquals("Parquet directory not found: " + missing, exception.getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void readEmptyParquetDirectory() throws IOException {
         String emptyDirectory = Files.createTempDirectory("empty.parquet").toAbsolutePath().toString();
@@ -132,16 +359,156 @@ class ParquetReaderTest {
     void readParquetFileNotFound() throws IOException {
         Path parquetFilePath = parquetPartitionPath("date=2020-12-27");
         FileSystem fileSystem = mock(FileSystem.class);
-        when(fileSystem.exists(eq(parquetFilePath))).thenReturn(false);
+        when(fileSystem.getFileStatus(eq(parquetFilePath))).thenThrow(FileNotFoundException.class);
         ParquetReader parquetReader = new ParquetReader(fileSystem);
 
         IOException exception = assertThrows(IOException.class, () -> parquetReader.readParquetFile(parquetFilePath));
 
         assertEquals("Parquet file not found: " + parquetFilePath, exception.getMessage());
-        verify(fileSystem).exists(eq(parquetFilePath));
+        verify(fileSystem).getFileStatus(eq(parquetFilePath));
         verifyNoMoreInteractions(fileSystem);
     }
 
+    @Test
+    void readParquetFileWithSmallTailRead() throws IOException {
+        Path parquetFilePath = parquetPartitionPath("date=2020-12-27");
+        ParquetReader parquetReader = ParquetReader.builder(fileSystem).footerTailReadSize(16).build();
+
+        ParquetDetails results = parquetReader.readParquetFile(parquetFilePath);
+
+        assertEquals(new ParquetReader(fileSystem).readParquetFile(parquetFilePath), results);
+    }
+
+    @Test
+    void readParquetFilesShareSchemas() throws IOException {
+        Path parquetFilePath = parquetPartitionPath("date=2020-12-27");
+        ParquetSchemaInterner interner = new ParquetSchemaInterner();
+
+        ParquetDetails first = ParquetReader.builder(fileSystem).schemaInterner(interner).build()
+                .readParquetFile(parquetFilePath);
+        ParquetDetails second = ParquetReader.builder(fileSystem).schemaInterner(interner).build()
+                .readParquetFile(parquetFilePath);
+
+        assertSame(first.getSchema(), second.getSchema());
+        assertEquals(ParquetSchemaFingerprint.of(first.getSchema()), first.getFingerprint());
+    }
+
+    @Test
+    void sampleParquetDirectory(@TempDir java.nio.file.Path directory) throws IOException {
+        java.nio.file.Path source = Paths.get(DIRECTORY, "date=2020-12-27", "part-00000.parquet");
+        for (int i = 0; i < 5; i++) {
+            java.nio.file.Path target = directory.resolve("date=2020-12-27").resolve("part-0000" + i + ".parquet");
+            Files.createDirectories(target.getParent());
+            Files.copy(source, target);
+        }
+        Files.createDirectories(directory.resolve("date=2020-12-28"));
+        Files.copy(source, directory.resolve("date=2020-12-28").resolve("part-00000.parquet"));
+        ParquetReader parquetReader = new ParquetReader(fileSystem);
+
+        ParquetSample sample = parquetReader.sampleParquetDirectory(new Path(directory.toUri()),
+                ParquetSampling.maxFilesPerPartition(3).withEscalation());
+
+        assertEquals(6, sample.getNumFiles());
+        assertEquals(4, sample.getParquets().size());
+        assertEquals(List.of("part-00000.parquet", "part-00004.parquet", "part-00000.parquet"),
+                List.of(sample.getParquets().get(0).getPath().getName(),
+                        sample.getParquets().get(2).getPath().getName(),
+                        sample.getParquets().get(3).getPath().getName()));
+        assertEquals(2, sample.getSkippedFiles().size());
+        // all sampled schemas are equal, no partition is fully read
+        assertTrue(sample.getEscalatedPartitions().isEmpty());
+    }
+
+    @Test
+    void readParquetDirectoryWithSummaryFile(@TempDir java.nio.file.Path directory) throws IOException {
+        Path root = copyTestData(directory);
+        writeSummaryFile(root);
+        // an unreadable file older than the summary is only described by the summary
+        java.nio.file.Path corrupted = directory.resolve("date=2020-12-28").resolve("part-00000.parquet");
+        FileTime modificationTime = Files.getLastModifiedTime(corrupted);
+        Files.write(corrupted, new byte[]{1, 2, 3});
+        Files.setLastModifiedTime(corrupted, FileTime.fromMillis(modificationTime.toMillis() - 60_000));
+        Files.setLastModifiedTime(directory.resolve(ParquetSummaryFile.METADATA_FILE_NAME), modificationTime);
+
+        List<ParquetDetails> results = ParquetReader.builder(fileSystem).summaryFiles(true).build()
+                .readParquetDirectory(root);
+
+        List<ParquetDetails> expected = new ParquetReader(fileSystem).readParquetDirectory(DIRECTORY);
+        assertEquals(2, results.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getPartitions(), results.get(i).getPartitions());
+            assertEquals(expected.get(i).getNumRows(), results.get(i).getNumRows());
+            assertEquals(expected.get(i).getFingerprint(), results.get(i).getFingerprint());
+        }
+        assertThrows(IOException.class, () -> new ParquetReader(fileSystem).readParquetDirectory(root));
+    }
+
+    @Test
+    void readParquetDirectoryWithStaleSummaryFile(@TempDir java.nio.file.Path directory) throws IOException {
+        Path root = copyTestData(directory);
+        writeSummaryFile(root);
+        // a file modified after the summary is read individually
+        java.nio.file.Path modified = directory.resolve("date=2020-12-28").resolve("part-00000.parquet");
+        Files.write(modified, new byte[]{1, 2, 3});
+        Files.setLastModifiedTime(modified, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+
+        ParquetReader parquetReader = ParquetReader.builder(fileSystem).summaryFiles(true).build();
+        assertThrows(IOException.class, () -> parquetReader.readParquetDirectory(root));
+    }
+
+    @Test
+    void scanParquetDirectoryIncrementally(@TempDir java.nio.file.Path directory) throws IOException {
+        Path root = copyTestData(directory);
+        java.nio.file.Path stateFile = directory.resolve("scan.state");
+
+        try (ParquetScanState state = ParquetScanState.open(stateFile)) {
+            ParquetIncrementalScan scan = ParquetReader.builder(fileSystem).scanState(state).build()
+                    .scanParquetDirectory(root);
+            assertEquals(2, scan.getParquets().size());
+            assertEquals(2, scan.getChangedParquets().size());
+            assertEquals(scan.getParquets().get(0).getPath(), scan.getReference().orElseThrow().getPath());
+        }
+
+        java.nio.file.Path partition = directory.resolve("date=2020-12-29");
+        Files.createDirectories(partition);
+        Files.copy(Paths.get(DIRECTORY, "date=2020-12-27", "part-00000.parquet"),
+                partition.resolve("part-00000.parquet"));
+        try (ParquetScanState state = ParquetScanState.open(stateFile)) {
+            ParquetIncrementalScan scan = ParquetReader.builder(fileSystem).scanState(state).build()
+                    .scanParquetDirectory(root);
+            assertEquals(3, scan.getParquets().size());
+            assertEquals(List.of(new ParquetPartitions(List.of(new ParquetPartition("date", "2020-12-29")))),
+                    scan.getChangedParquets().stream().map(ParquetDetails::getPartitions)
+                            .collect(Collectors.toList()));
+            assertTrue(scan.findSchemasDifferences().isEmpty());
+        }
+    }
+
+    @Test
+    void scanParquetDirectoryWithoutState() {
+        ParquetReader parquetReader = new ParquetReader(fileSystem);
+        assertThrows(IllegalStateException.class, () -> parquetReader.scanParquetDirectory(DIRECTORY));
+    }
+
+    private Path copyTestData(java.nio.file.Path directory) throws IOException {
+        for (String partition : List.of("date=2020-12-27", "date=2020-12-28")) {
+            Files.createDirectories(directory.resolve(partition));
+            Files.copy(Paths.get(DIRECTORY, partition, "part-00000.parquet"),
+                    directory.resolve(partition).resolve("part-00000.parquet"));
+        }
+        return new Path(directory.toUri());
+    }
+
+    @SuppressWarnings("deprecation")
+    private void writeSummaryFile(Path root) throws IOException {
+        List<Footer> footers = new ArrayList<>();
+        for (String partition : List.of("date=2020-12-27", "date=2020-12-28")) {
+            Path file = fileSystem.makeQualified(new Path(new Path(root, partition), "part-00000.parquet"));
+            footers.add(new Footer(file, ParquetFileReader.readFooter(fileSystem.getConf(), file)));
+        }
+        ParquetFileWriter.writeMetadataFile(fileSystem.getConf(), fileSystem.makeQualified(root), footers);
+    }
+
     private Path parquetPartitionPath(String partition) {
         URI uri = Paths.get(DIRECTORY, partition, "part-00000.parquet").toUri();
         return new Path(uri);
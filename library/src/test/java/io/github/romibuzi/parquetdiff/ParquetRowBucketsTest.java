@@ -0,0 +1,56 @@
+package io.github.romibuzi.parquetdiff;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParquetRowBucketsTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void repartitionSpilledBucket() throws IOException {
+        try (ParquetRowBuckets buckets = new ParquetRowBuckets(1, 1, 256, directory)) {
+            for (int i = 0; i < 100; i++) {
+                buckets.add(new String[]{"key-" + i, i % 2 == 0 ? null : "value-" + i});
+            }
+            assertTrue(buckets.getNumSpills() > 0);
+            assertTrue(buckets.getBucketSize(0) > 256);
+
+            Set<String> keys = new HashSet<>();
+            int nonEmptyBuckets = 0;
+            try (ParquetRowBuckets repartitioned = buckets.repartition(0, 8, 128, 1)) {
+                assertEquals(8, repartitioned.getNumBuckets());
+                for (int bucket = 0; bucket < 8; bucket++) {
+                    List<String[]> rows = new ArrayList<>();
+                    repartitioned.readBucket(bucket, rows::add);
+                    if (!rows.isEmpty()) {
+                        nonEmptyBuckets++;
+                    }
+                    for (String[] row : rows) {
+                        assertTrue(keys.add(row[0]));
+                        int i = Integer.parseInt(row[0].substring("key-".length()));
+                        assertEquals(i % 2 == 0 ? null : "value-" + i, row[1]);
+                    }
+                }
+            }
+            assertEquals(100, keys.size());
+            assertTrue(nonEmptyBuckets > 1);
+        }
+        // spill files of both buckets are deleted
+        try (var files = Files.list(directory)) {
+            assertFalse(files.findAny().isPresent());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.io.LocalOutputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Types;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ParquetRowReaderTest {
+    private static final MessageType SCHEMA = Types.buildMessage()
+            .required(PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY).length(4)
+            .as(LogicalTypeAnnotation.decimalType(2, 9)).named("amount")
+            .required(PrimitiveType.PrimitiveTypeName.BINARY).named("payload")
+            .optional(PrimitiveType.PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("name")
+            .required(PrimitiveType.PrimitiveTypeName.INT64)
+            .as(LogicalTypeAnnotation.decimalType(3, 18)).named("price")
+            .requiredGroup()
+            .required(PrimitiveType.PrimitiveTypeName.INT32).named("id")
+            .repeated(PrimitiveType.PrimitiveTypeName.BINARY).named("tags")
+            .named("nested")
+            .named("rows");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readValuesDifferingInInvalidUtf8Bytes() throws IOException {
+        Path file = directory.resolve("rows.parquet");
+        SimpleGroupFactory groups = new SimpleGroupFactory(SCHEMA);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new LocalOutputFile(file))
+                .withType(SCHEMA)
+                .build()) {
+            // 0xff and 0xfe are both invalid UTF-8 bytes, decoded as the same replacement character
+            for (byte last : new byte[]{(byte) 0xff, (byte) 0xfe}) {
+                Group row = groups.newGroup()
+                        .append("amount", Binary.fromConstantByteArray(new byte[]{0, 0, 0, last}))
+                        .append("payload", Binary.fromConstantByteArray(new byte[]{1, last}))
+                        .append("price", -1234L);
+                if (last == (byte) 0xff) {
+                    row.append("name", "Belgium");
+                }
+                Group nested = row.addGroup("nested").append("id", 7);
+                nested.append("tags", Binary.fromConstantByteArray(new byte[]{last}));
+                nested.append("tags", Binary.fromConstantByteArray(new byte[]{0x0a}));
+                writer.write(row);
+            }
+        }
+
+        FileSystem fileSystem = FileSystem.getLocal(new Configuration());
+        ParquetDetails parquet = new ParquetReader(fileSystem)
+                .readParquetFile(new org.apache.hadoop.fs.Path(file.toUri()));
+        List<String> columns = List.of("amount", "payload", "name", "price", "nested");
+        try (ParquetRowReader rowReader = new ParquetRowReader(fileSystem.getConf(), parquet, columns)) {
+            assertArrayEquals(new String[]{"2.55", "0x01ff", "Belgium", "-1.234", "{id: 7, tags: [0xff, 0x0a]}"},
+                    rowReader.read());
+            assertArrayEquals(new String[]{"2.54", "0x01fe", null, "-1.234", "{id: 7, tags: [0xfe, 0x0a]}"},
+                    rowReader.read());
+            assertNull(rowReader.read());
+        }
+    }
+
+    @Test
+    void readNestedValuesHoldingSeparatorsAndNulls() throws IOException {
+        MessageType schema = Types.buildMessage()
+                .repeated(PrimitiveType.PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("names")
+                .requiredGroup()
+                .optional(PrimitiveType.PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("city")
+                .named("address")
+                .named("rows");
+        Path file = directory.resolve("nested.parquet");
+        SimpleGroupFactory groups = new SimpleGroupFactory(schema);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new LocalOutputFile(file))
+                .withType(schema)
+                .build()) {
+            Group first = groups.newGroup().append("names", "a, b");
+            first.addGroup("address");
+            writer.write(first);
+            Group second = groups.newGroup().append("names", "a").append("names", "b");
+            second.addGroup("address").append("city", "null");
+            writer.write(second);
+            Group third = groups.newGroup().append("names", "say \"hi\"\\");
+            third.addGroup("address").append("city", "");
+            writer.write(third);
+        }
+
+        FileSystem fileSystem = FileSystem.getLocal(new Configuration());
+        ParquetDetails parquet = new ParquetReader(fileSystem)
+                .readParquetFile(new org.apache.hadoop.fs.Path(file.toUri()));
+        try (ParquetRowReader rowReader = new ParquetRowReader(fileSystem.getConf(), parquet,
+                List.of("names", "address"))) {
+            assertArrayEquals(new String[]{"[\"a, b\"]", "{city: null}"}, rowReader.read());
+            assertArrayEquals(new String[]{"[\"a\", \"b\"]", "{city: \"null\"}"}, rowReader.read());
+            assertArrayEquals(new String[]{"[\"say \\\"hi\\\"\\\\\"]", "{city: \"\"}"}, rowReader.read());
+            assertNull(rowReader.read());
+        }
+    }
+}
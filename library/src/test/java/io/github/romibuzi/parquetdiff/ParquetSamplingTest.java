@@ -0,0 +1,59 @@
+package io.github.romibuzi.parquetdiff;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParquetSamplingTest {
+    @Test
+    void selectMaxFiles() {
+        ParquetSampling sampling = ParquetSampling.maxFilesPerPartition(4);
+        List<Integer> indexes = sampling.select(100, sampling.newRandom());
+
+        assertEquals(4, indexes.size());
+        assertEquals(0, indexes.get(0));
+        assertEquals(99, indexes.get(3));
+        assertTrue(indexes.get(1) < indexes.get(2));
+        assertEquals(indexes, sampling.select(100, sampling.newRandom()));
+    }
+
+    @Test
+    void selectFewFiles() {
+        ParquetSampling sampling = ParquetSampling.maxFilesPerPartition(4);
+        assertEquals(List.of(0), sampling.select(1, new Random()));
+        assertEquals(List.of(0, 1, 2), sampling.select(3, new Random()));
+    }
+
+    @Test
+    void selectFraction() {
+        ParquetSampling sampling = ParquetSampling.fraction(0.1);
+        assertEquals(11, sampling.select(101, new Random()).size());
+        // first and last files are always selected
+        assertEquals(List.of(0, 9), sampling.select(10, new Random()));
+    }
+
+    @Test
+    void withSeed() {
+        ParquetSampling sampling = ParquetSampling.maxFilesPerPartition(10);
+        assertFalse(sampling.isEscalation());
+        assertTrue(sampling.withEscalation().isEscalation());
+        assertEquals(sampling.withSeed(42).select(1000, sampling.withSeed(42).newRandom()),
+                sampling.withSeed(42).select(1000, sampling.withSeed(42).newRandom()));
+    }
+
+    @Test
+    void invalidSampling() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ParquetSampling.maxFilesPerPartition(1));
+        assertEquals("Sampled files per partition must be at least 2: 1", exception.getMessage());
+
+        exception = assertThrows(IllegalArgumentException.class, () -> ParquetSampling.fraction(1.5));
+        assertEquals("Sampled fraction must be within ]0, 1]: 1.5", exception.getMessage());
+    }
+}
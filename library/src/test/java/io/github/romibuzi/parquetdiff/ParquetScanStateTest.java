@@ -0,0 +1,121 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNode;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaType;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParquetScanStateTest {
+    private static final ParquetSchemaNode SCHEMA = new ParquetSchemaNode("message",
+            ParquetSchemaType.MESSAGE, Type.Repetition.REPEATED, null, null,
+            List.of(new ParquetSchemaNode("id", ParquetSchemaType.PRIMITIVE, Type.Repetition.REQUIRED,
+                    PrimitiveType.PrimitiveTypeName.INT64, null)));
+
+    @TempDir
+    java.nio.file.Path directory;
+
+    @Test
+    void persistBetweenRuns() throws IOException {
+        FileStatus fileStatus = fileStatus("/data/date=2020-12-27/part-00000.parquet", 100, 1000);
+        ParquetDetails details = new ParquetDetails(fileStatus.getPath(), 42, SCHEMA);
+
+        try (ParquetScanState state = ParquetScanState.open(stateFile())) {
+            assertFalse(state.getReference().isPresent());
+            state.put(fileStatus, details);
+            state.setReference(details);
+        }
+
+        try (ParquetScanState state = ParquetScanState.open(stateFile())) {
+            assertEquals(1, state.size());
+            assertTrue(state.contains(fileStatus));
+            assertEquals(Optional.of(details), state.get(fileStatus));
+            assertEquals(Optional.of(details), state.getReference());
+            assertFalse(state.contains(fileStatus("/data/date=2020-12-27/part-00000.parquet", 100, 1001)));
+        }
+    }
+
+    @Test
+    void resumeFromCheckpoint() throws IOException {
+        FileStatus first = fileStatus("/data/part-00000.parquet", 100, 1000);
+        FileStatus second = fileStatus("/data/part-00001.parquet", 100, 1000);
+
+        // the state is never closed, as if the scan was interrupted
+        ParquetScanState interrupted = ParquetScanState.open(stateFile(), 2);
+        interrupted.put(first, new ParquetDetails(first.getPath(), 1, SCHEMA));
+        interrupted.put(second, new ParquetDetails(second.getPath(), 2, SCHEMA));
+
+        try (ParquetScanState state = ParquetScanState.open(stateFile())) {
+            assertTrue(state.contains(first));
+            assertTrue(state.contains(second));
+        }
+    }
+
+    @Test
+    void reuseUnchangedLeafListings() throws IOException {
+        Path root = new Path("/data");
+        Path partition = new Path("/data/date=2020-12-27");
+        FileStatus[] rootListing = {directoryStatus(partition, 2000)};
+        FileStatus[] partitionListing = {fileStatus("/data/date=2020-12-27/part-00000.parquet", 100, 1000)};
+
+        try (ParquetScanState state = ParquetScanState.open(stateFile())) {
+            state.putListing(root, 3000, rootListing);
+            state.putListing(partition, 2000, partitionListing);
+
+            assertNull(state.getListing(root, 3000));
+            assertArrayEquals(partitionListing, state.getListing(partition, 2000));
+            assertNull(state.getListing(partition, 2001));
+            assertNull(state.getListing(partition, 0));
+        }
+    }
+
+    @Test
+    void forgetRemovedDirectories() throws IOException {
+        Path root = new Path("/data");
+        Path partition = new Path("/data/date=2020-12-27");
+        FileStatus file = fileStatus("/data/date=2020-12-27/part-00000.parquet", 100, 1000);
+
+        try (ParquetScanState state = ParquetScanState.open(stateFile())) {
+            state.putListing(root, 3000, new FileStatus[]{directoryStatus(partition, 2000)});
+            state.putListing(partition, 2000, new FileStatus[]{file});
+            state.put(file, new ParquetDetails(file.getPath(), 42, SCHEMA));
+
+            state.putListing(root, 4000, new FileStatus[0]);
+
+            assertEquals(0, state.size());
+            assertNull(state.getListing(partition, 2000));
+        }
+    }
+
+    @Test
+    void invalidCheckpointInterval() {
+        assertThrows(IllegalArgumentException.class, () -> ParquetScanState.open(stateFile(), 0));
+    }
+
+    private java.nio.file.Path stateFile() {
+        return directory.resolve("scan.state");
+    }
+
+    private static FileStatus fileStatus(String path, long length, long modificationTime) {
+        return new FileStatus(length, false, 1, 0, modificationTime, new Path(path));
+    }
+
+    private static FileStatus directoryStatus(Path path, long modificationTime) {
+        return new FileStatus(0, true, 0, 0, modificationTime, path);
+    }
+}
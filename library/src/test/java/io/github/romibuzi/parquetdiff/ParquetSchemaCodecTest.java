@@ -0,0 +1,47 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNode;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaType;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParquetSchemaCodecTest {
+
+    @Test
+    void roundTrip() throws IOException {
+        ParquetSchemaNode schema = new ParquetSchemaNode("message", ParquetSchemaType.MESSAGE,
+                Type.Repetition.REPEATED, null, null, List.of(
+                primitive("name", PrimitiveType.PrimitiveTypeName.BINARY, LogicalTypeAnnotation.stringType()),
+                primitive("day", PrimitiveType.PrimitiveTypeName.INT32, LogicalTypeAnnotation.dateType()),
+                primitive("small", PrimitiveType.PrimitiveTypeName.INT32, LogicalTypeAnnotation.intType(8, false)),
+                primitive("time", PrimitiveType.PrimitiveTypeName.INT64,
+                        LogicalTypeAnnotation.timeType(false, LogicalTypeAnnotation.TimeUnit.NANOS)),
+                primitive("price", PrimitiveType.PrimitiveTypeName.INT64, LogicalTypeAnnotation.decimalType(4, 18)),
+                primitive("raw", PrimitiveType.PrimitiveTypeName.DOUBLE, null),
+                new ParquetSchemaNode("tags", ParquetSchemaType.LIST, Type.Repetition.OPTIONAL, null, null, List.of(
+                        new ParquetSchemaNode("list", ParquetSchemaType.GROUP, Type.Repetition.REPEATED, null, null,
+                                List.of(primitive("element", PrimitiveType.PrimitiveTypeName.BINARY,
+                                        LogicalTypeAnnotation.stringType())))))));
+
+        assertEquals(schema, ParquetSchemaCodec.decode(ParquetSchemaCodec.encode(schema)));
+    }
+
+    @Test
+    void decodeInvalidBytes() {
+        assertThrows(IOException.class, () -> ParquetSchemaCodec.decode(new byte[]{0, 1, 'a', 42}));
+    }
+
+    private static ParquetSchemaNode primitive(String name, PrimitiveType.PrimitiveTypeName primitiveType,
+                                               LogicalTypeAnnotation logicalType) {
+        return new ParquetSchemaNode(name, ParquetSchemaType.PRIMITIVE, Type.Repetition.OPTIONAL, primitiveType,
+                logicalType);
+    }
+}
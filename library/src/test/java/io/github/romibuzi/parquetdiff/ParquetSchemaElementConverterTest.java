@@ -0,0 +1,115 @@
+package io.github.romibuzi.parquetdiff;
+
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNode;
+import org.apache.parquet.format.ConvertedType;
+import org.apache.parquet.format.SchemaElement;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParquetSchemaElementConverterTest {
+    private static final ParquetMetadataConverter METADATA_CONVERTER = new ParquetMetadataConverter();
+
+    @Test
+    void convertSameAsVisitor() throws IOException {
+        String schemaInput = "message test_schema {\n" +
+                "   required int64 id;\n" +
+                "   optional binary name (STRING);\n" +
+                "   optional int32 day (DATE);\n" +
+                "   optional int32 small (INT_8);\n" +
+                "   optional int64 created_at (TIMESTAMP(MICROS,true));\n" +
+                "   optional int64 local_time (TIME(NANOS,false));\n" +
+                "   optional fixed_len_byte_array(16) amount (DECIMAL(38,4));\n" +
+                "   optional int96 legacy_timestamp;\n" +
+                "   optional group address {\n" +
+                "       optional binary city (UTF8);\n" +
+                "       optional group location {\n" +
+                "           required double latitude;\n" +
+                "           required double longitude;\n" +
+                "       }\n" +
+                "   }\n" +
+                "   optional group tags (LIST) {\n" +
+                "       repeated group list {\n" +
+                "           optional binary element (STRING);\n" +
+                "       }\n" +
+                "   }\n" +
+                "   optional group attributes (MAP) {\n" +
+                "       repeated group key_value {\n" +
+                "           required binary key (STRING);\n" +
+                "           optional boolean value;\n" +
+                "       }\n" +
+                "   }\n" +
+                "   optional float score;\n" +
+                "}";
+        MessageType messageType = MessageTypeParser.parseMessageType(schemaInput);
+
+        ParquetSchemaNode schema = ParquetSchemaElementConverter.convert(
+                METADATA_CONVERTER.toParquetSchema(messageType));
+
+        assertEquals(visit(messageType), schema);
+    }
+
+    @Test
+    void convertEmptyGroup() throws IOException {
+        MessageType messageType = MessageTypeParser.parseMessageType(
+                "message test_schema { optional group empty {} required int32 id; }");
+
+        ParquetSchemaNode schema = ParquetSchemaElementConverter.convert(
+                METADATA_CONVERTER.toParquetSchema(messageType));
+
+        assertEquals(visit(messageType), schema);
+    }
+
+    @Test
+    void convertDisagreeingConvertedType() throws IOException {
+        List<SchemaElement> elements = METADATA_CONVERTER.toParquetSchema(MessageTypeParser.parseMessageType(
+                "message test_schema {\n" +
+                        "   optional int32 day (DATE);\n" +
+                        "   optional int64 created_at (TIMESTAMP(MICROS,true));\n" +
+                        "}"));
+        // the converted type overrides a logical type of another original type, not one of the same original type
+        elements.get(1).setConverted_type(ConvertedType.INT_32);
+        elements.get(2).getLogicalType().getTIMESTAMP().setIsAdjustedToUTC(false);
+
+        ParquetSchemaNode schema = ParquetSchemaElementConverter.convert(elements);
+
+        assertEquals(visit(METADATA_CONVERTER.fromParquetSchema(elements, null)), schema);
+        assertEquals(LogicalTypeAnnotation.intType(32, true), schema.getChildren().get(0).getLogicalType());
+        assertEquals(LogicalTypeAnnotation.timestampType(false, LogicalTypeAnnotation.TimeUnit.MICROS),
+                schema.getChildren().get(1).getLogicalType());
+    }
+
+    @Test
+    void convertMissingChildren() {
+        List<SchemaElement> elements = METADATA_CONVERTER.toParquetSchema(
+                MessageTypeParser.parseMessageType("message test_schema { required int32 id; required int32 id2; }"));
+
+        IOException exception = assertThrows(IOException.class,
+                () -> ParquetSchemaElementConverter.convert(elements.subList(0, 2)));
+        assertEquals("Invalid Parquet schema: missing children for root", exception.getMessage());
+    }
+
+    @Test
+    void convertUnexpectedElements() {
+        List<SchemaElement> elements = METADATA_CONVERTER.toParquetSchema(
+                MessageTypeParser.parseMessageType("message test_schema { required int32 id; }"));
+        elements.get(0).setNum_children(0);
+
+        IOException exception = assertThrows(IOException.class, () -> ParquetSchemaElementConverter.convert(elements));
+        assertEquals("Invalid Parquet schema: 1 unexpected elements", exception.getMessage());
+    }
+
+    private static ParquetSchemaNode visit(MessageType messageType) {
+        ParquetTypeVisitor visitor = new ParquetTypeVisitor();
+        messageType.accept(visitor);
+        return visitor.getSchema();
+    }
+}
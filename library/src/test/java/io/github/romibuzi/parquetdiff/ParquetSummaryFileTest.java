@@ -0,0 +1,63 @@
+package io.github.romibuzi.parquetdiff;
+
+import org.apache.parquet.format.ColumnChunk;
+import org.apache.parquet.format.ColumnMetaData;
+import org.apache.parquet.format.CompressionCodec;
+import org.apache.parquet.format.Encoding;
+import org.apache.parquet.format.FileMetaData;
+import org.apache.parquet.format.RowGroup;
+import org.apache.parquet.format.Type;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Types;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ParquetSummaryFileTest {
+    private static final MessageType SCHEMA = Types.buildMessage()
+            .required(PrimitiveType.PrimitiveTypeName.INT64).named("id")
+            .optional(PrimitiveType.PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("name")
+            .named("schema");
+
+    @Test
+    void describeFilesWithTheColumnTypesOfTheMergedSchema() {
+        FileMetaData metadata = new FileMetaData(1, new ParquetMetadataConverter().toParquetSchema(SCHEMA), 40,
+                List.of(rowGroup("same.parquet", Type.INT64, Type.BYTE_ARRAY),
+                        rowGroup("missing.parquet", Type.INT64),
+                        // the chunk keeps the type written in the file, the merged schema widened it
+                        rowGroup("retyped.parquet", Type.INT32, Type.BYTE_ARRAY),
+                        rowGroup("renamed.parquet", Type.INT64, Type.BYTE_ARRAY)));
+        metadata.getRow_groups().get(3).getColumns().get(1).getMeta_data().setPath_in_schema(List.of("label"));
+
+        ParquetSummaryFile summary = new ParquetSummaryFile(metadata, 1000);
+
+        assertEquals(Set.of("same.parquet", "missing.parquet", "retyped.parquet", "renamed.parquet"),
+                summary.getFiles());
+        assertEquals(OptionalLong.of(10), summary.getNumRows("same.parquet", 1000));
+        assertEquals(OptionalLong.empty(), summary.getNumRows("same.parquet", 1001));
+        assertEquals(OptionalLong.empty(), summary.getNumRows("missing.parquet", 1000));
+        assertEquals(OptionalLong.empty(), summary.getNumRows("retyped.parquet", 1000));
+        assertEquals(OptionalLong.empty(), summary.getNumRows("renamed.parquet", 1000));
+        assertEquals(SCHEMA.toString(), summary.getSchema().toString());
+    }
+
+    private static RowGroup rowGroup(String path, Type... types) {
+        List<ColumnChunk> columns = new ArrayList<>();
+        for (int i = 0; i < types.length; i++) {
+            ColumnChunk column = new ColumnChunk(0);
+            column.setFile_path(path);
+            column.setMeta_data(new ColumnMetaData(types[i], List.of(Encoding.PLAIN),
+                    List.of(SCHEMA.getFieldName(i)), CompressionCodec.UNCOMPRESSED, 10, 100, 100, 4));
+            columns.add(column);
+        }
+        return new RowGroup(columns, 100, 10);
+    }
+}
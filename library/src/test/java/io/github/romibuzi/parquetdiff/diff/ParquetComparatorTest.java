@@ -1,18 +1,34 @@
 package io.github.romibuzi.parquetdiff.diff;
 
 import io.github.romibuzi.parquetdiff.TestUtils;
+import io.github.romibuzi.parquetdiff.metadata.ParquetColumnStatistics;
+import io.github.romibuzi.parquetdiff.metadata.ParquetContentFingerprint;
 import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
 import io.github.romibuzi.parquetdiff.metadata.ParquetPartitions;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaFingerprint;
 import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNode;
 import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNodePath;
 import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaType;
+import io.github.romibuzi.parquetdiff.metrics.ParquetScanCounters;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.apache.hadoop.fs.Path;
 import org.apache.parquet.schema.LogicalTypeAnnotation;
 import org.apache.parquet.schema.PrimitiveType;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static io.github.romibuzi.parquetdiff.metadata.ParquetSchemaType.MESSAGE;
 import static io.github.romibuzi.parquetdiff.metadata.ParquetSchemaType.PRIMITIVE;
@@ -20,6 +36,7 @@ import static org.apache.parquet.schema.Type.Repetition.REPEATED;
 import static org.apache.parquet.schema.Type.Repetition.REQUIRED;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ParquetComparatorTest {
@@ -269,6 +286,37 @@ class ParquetComparatorTest {
         assertEquals(expectedDiff, result.get(0));
     }
 
+    @Test
+    void findSchemasDifferencesIncrementally() {
+        ParquetSchemaNode id = new ParquetSchemaNode("id", PRIMITIVE, REQUIRED,
+                PrimitiveType.PrimitiveTypeName.INT32, null);
+        ParquetSchemaNode name = new ParquetSchemaNode("name", PRIMITIVE, REQUIRED,
+                PrimitiveType.PrimitiveTypeName.BINARY, LogicalTypeAnnotation.stringType());
+
+        ParquetSchemaNode firstSchema = new ParquetSchemaNode("test_schema", MESSAGE, REPEATED, null,
+                null, List.of(id));
+        ParquetSchemaNode secondSchema = new ParquetSchemaNode("test_schema", MESSAGE, REPEATED, null,
+                null, List.of(id, name));
+
+        List<ParquetDetails> parquets = List.of(TestUtils.generateParquetDetails(firstSchema),
+                TestUtils.generateParquetDetails(secondSchema),
+                TestUtils.generateParquetDetails(secondSchema),
+                TestUtils.generateParquetDetails(firstSchema));
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicBoolean closed = new AtomicBoolean();
+
+        try (Stream<ParquetSchemaDiff> diffs = ParquetComparator.findSchemasDifferences(
+                parquets.stream().peek(parquet -> consumed.incrementAndGet()).onClose(() -> closed.set(true)))) {
+            Iterator<ParquetSchemaDiff> iterator = diffs.iterator();
+
+            assertEquals(ParquetComparator.compareSchemas(parquets.get(0), parquets.get(1)), iterator.next());
+            assertEquals(2, consumed.get());
+            assertEquals(ParquetComparator.compareSchemas(parquets.get(1), parquets.get(3)), iterator.next());
+            assertFalse(iterator.hasNext());
+        }
+        assertTrue(closed.get());
+    }
+
     private ParquetSchemaNode createNestedSchema(String baseName, ParquetSchemaNode finalPrimitiveNode, int depth) {
         if (depth == 0) {
             return finalPrimitiveNode;
@@ -278,9 +326,290 @@ class ParquetComparatorTest {
         return new ParquetSchemaNode(baseName, ParquetSchemaType.GROUP, REQUIRED, null, null, List.of(child));
     }
 
+    @Test
+    void compareSchemasSameFingerprint() {
+        ParquetSchemaNode firstSchema = new ParquetSchemaNode("test_schema", MESSAGE, REPEATED, null, null,
+                List.of(new ParquetSchemaNode("id", PRIMITIVE, REQUIRED, PrimitiveType.PrimitiveTypeName.INT32, null)));
+        ParquetSchemaNode secondSchema = new ParquetSchemaNode("test_schema", MESSAGE, REPEATED, null, null);
+        Path path = new Path("test_data.parquet/date=2025-04-20/part-000.parquet");
+        ParquetSchemaFingerprint fingerprint = ParquetSchemaFingerprint.of(firstSchema);
+
+        // the fingerprint is trusted, the trees are not walked
+        ParquetSchemaDiff result = ParquetComparator.compareSchemas(
+                new ParquetDetails(path, 1, firstSchema, ParquetPartitions.fromPath(path), fingerprint),
+                new ParquetDetails(path, 1, secondSchema, ParquetPartitions.fromPath(path), fingerprint));
+        assertFalse(result.hasDifferences());
+    }
+
+    @Test
+    void groupBySchema() {
+        ParquetSchemaNode id = new ParquetSchemaNode("id", PRIMITIVE, REQUIRED,
+                PrimitiveType.PrimitiveTypeName.INT32, null);
+        ParquetSchemaNode name = new ParquetSchemaNode("name", PRIMITIVE, REQUIRED,
+                PrimitiveType.PrimitiveTypeName.BINARY, LogicalTypeAnnotation.stringType());
+        ParquetSchemaNode firstSchema = new ParquetSchemaNode("test_schema", MESSAGE, REPEATED, null,
+                null, List.of(id));
+        ParquetSchemaNode secondSchema = new ParquetSchemaNode("test_schema", MESSAGE, REPEATED, null,
+                null, List.of(id, name));
+
+        List<ParquetDetails> parquets = List.of(
+                new ParquetDetails(new Path("data.parquet/date=2025-04-20/part-000.parquet"), 10, firstSchema),
+                new ParquetDetails(new Path("data.parquet/date=2025-04-21/part-000.parquet"), 20, firstSchema),
+                new ParquetDetails(new Path("data.parquet/date=2025-04-22/part-000.parquet"), 30, secondSchema),
+                new ParquetDetails(new Path("data.parquet/date=2025-04-23/part-000.parquet"), 40, firstSchema));
+
+        List<ParquetSchemaGroup> groups = ParquetComparator.groupBySchema(parquets);
+        assertEquals(2, groups.size());
+
+        ParquetSchemaGroup firstGroup = groups.get(0);
+        assertEquals(ParquetSchemaFingerprint.of(firstSchema), firstGroup.getFingerprint());
+        assertEquals(parquets.get(0), firstGroup.getRepresentative());
+        assertEquals(3, firstGroup.getNumFiles());
+        assertEquals(70, firstGroup.getNumRows());
+        assertEquals(2, firstGroup.getPartitionsRanges().size());
+        assertEquals(parquets.get(0).getPartitions(), firstGroup.getPartitionsRanges().get(0).getFirst());
+        assertEquals(parquets.get(1).getPartitions(), firstGroup.getPartitionsRanges().get(0).getLast());
+        assertEquals(parquets.get(3).getPartitions(), firstGroup.getPartitionsRanges().get(1).getFirst());
+
+        ParquetSchemaGroup secondGroup = groups.get(1);
+        assertEquals(parquets.get(2), secondGroup.getRepresentative());
+        assertEquals(1, secondGroup.getNumFiles());
+        assertEquals(30, secondGroup.getNumRows());
+
+        List<ParquetSchemaDiff> differences = ParquetComparator.findSchemasGroupsDifferences(groups);
+        assertEquals(List.of(ParquetComparator.compareSchemas(parquets.get(0), parquets.get(2))), differences);
+    }
+
+    @Test
+    void groupBySchemaEmpty() {
+        assertTrue(ParquetComparator.groupBySchema(Collections.emptyList()).isEmpty());
+        assertTrue(ParquetComparator.findSchemasGroupsDifferences(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    void compareDatasets() {
+        ParquetSchemaNode id = new ParquetSchemaNode("id", PRIMITIVE, REQUIRED,
+                PrimitiveType.PrimitiveTypeName.INT32, null);
+        ParquetSchemaNode name = new ParquetSchemaNode("name", PRIMITIVE, REQUIRED,
+                PrimitiveType.PrimitiveTypeName.BINARY, LogicalTypeAnnotation.stringType());
+        ParquetSchemaNode firstSchema = new ParquetSchemaNode("test_schema", MESSAGE, REPEATED, null,
+                null, List.of(id));
+        ParquetSchemaNode secondSchema = new ParquetSchemaNode("test_schema", MESSAGE, REPEATED, null,
+                null, List.of(id, name));
+
+        Stream<ParquetDetails> first = Stream.of(
+                new ParquetDetails(new Path("old.parquet/date=2025-04-20/part-000.parquet"), 10, firstSchema),
+                new ParquetDetails(new Path("old.parquet/date=2025-04-20/part-001.parquet"), 10, firstSchema),
+                new ParquetDetails(new Path("old.parquet/date=2025-04-21/part-000.parquet"), 20, firstSchema),
+                new ParquetDetails(new Path("old.parquet/date=2025-04-22/part-000.parquet"), 30, firstSchema));
+        Stream<ParquetDetails> second = Stream.of(
+                new ParquetDetails(new Path("new.parquet/date=2025-04-20/part-000.parquet"), 20, firstSchema),
+                new ParquetDetails(new Path("new.parquet/date=2025-04-22/part-000.parquet"), 25, secondSchema),
+                new ParquetDetails(new Path("new.parquet/date=2025-04-23/part-000.parquet"), 40, firstSchema));
+
+        List<ParquetPartitionComparison> comparisons = ParquetComparator.compareDatasets(first, second)
+                .collect(Collectors.toList());
+
+        assertEquals(4, comparisons.size());
+        assertFalse(comparisons.get(0).hasDifferences());
+        assertEquals(2, comparisons.get(0).getFirstNumFiles());
+        assertEquals(1, comparisons.get(0).getSecondNumFiles());
+        assertTrue(comparisons.get(1).isFirstOnly());
+        assertTrue(comparisons.get(2).hasRowCountMismatch());
+        assertEquals(1, comparisons.get(2).getSchemasDifferences().size());
+        assertEquals(List.of(new ParquetSchemaNodePath("test_schema", "name")),
+                comparisons.get(2).getSchemasDifferences().get(0).getAdditionalNodes());
+        assertTrue(comparisons.get(3).isSecondOnly());
+        assertEquals("[date=2025-04-23]", comparisons.get(3).getPartitions().toString());
+    }
+
+    @Test
+    void compareDatasetsEscapedPartitions() {
+        ParquetSchemaNode schema = new ParquetSchemaNode("test_schema", MESSAGE, REPEATED, null, null);
+        // listings are sorted by encoded path: "a b" is escaped as "a%20b", which comes after "a!b"
+        List<Path> paths = new ArrayList<>(List.of(new Path("data.parquet/x=a b/part-000.parquet"),
+                new Path("data.parquet/x=a!b/part-000.parquet")));
+        Collections.sort(paths);
+        assertEquals("[x=a!b]", ParquetPartitions.fromPath(paths.get(0)).toString());
+
+        List<ParquetPartitionComparison> comparisons = ParquetComparator.compareDatasets(
+                        paths.stream().map(path -> new ParquetDetails(path, 10, schema)),
+                        paths.stream().map(path -> new ParquetDetails(path, 10, schema)))
+                .collect(Collectors.toList());
+
+        assertEquals(2, comparisons.size());
+        assertEquals("[x=a!b]", comparisons.get(0).getPartitions().toString());
+        assertEquals("[x=a b]", comparisons.get(1).getPartitions().toString());
+        assertFalse(comparisons.get(0).hasDifferences());
+        assertFalse(comparisons.get(1).hasDifferences());
+    }
+
+    @Test
+    void compareDatasetsUnsorted() {
+        ParquetSchemaNode schema = new ParquetSchemaNode("test_schema", MESSAGE, REPEATED, null, null);
+        Stream<ParquetDetails> first = Stream.of(
+                new ParquetDetails(new Path("old.parquet/date=2025-04-21/part-000.parquet"), 10, schema),
+                new ParquetDetails(new Path("old.parquet/date=2025-04-20/part-000.parquet"), 10, schema));
+
+        Stream<ParquetPartitionComparison> comparisons = ParquetComparator.compareDatasets(first, Stream.empty());
+        assertThrows(IllegalStateException.class, () -> comparisons.collect(Collectors.toList()));
+    }
+
+    @Test
+    void findSchemasDifferencesWithMetrics() {
+        ParquetSchemaNode id32 = new ParquetSchemaNode("id", PRIMITIVE, REQUIRED,
+                PrimitiveType.PrimitiveTypeName.INT32, null);
+        ParquetSchemaNode id64 = new ParquetSchemaNode("id", PRIMITIVE, REQUIRED,
+                PrimitiveType.PrimitiveTypeName.INT64, null);
+        ParquetSchemaNode name = new ParquetSchemaNode("name", PRIMITIVE, REQUIRED,
+                PrimitiveType.PrimitiveTypeName.BINARY, LogicalTypeAnnotation.stringType());
+        ParquetSchemaNode city = new ParquetSchemaNode("city", PRIMITIVE, REQUIRED,
+                PrimitiveType.PrimitiveTypeName.BINARY, LogicalTypeAnnotation.stringType());
+        ParquetSchemaNode first = new ParquetSchemaNode("test_schema", MESSAGE, REPEATED, null, null,
+                List.of(id32, name));
+        ParquetSchemaNode second = new ParquetSchemaNode("test_schema", MESSAGE, REPEATED, null, null,
+                List.of(id64, city));
+
+        ParquetScanCounters counters = new ParquetScanCounters();
+        List<ParquetSchemaDiff> differences = ParquetComparator.findSchemasDifferences(List.of(
+                TestUtils.generateParquetDetails(first),
+                TestUtils.generateParquetDetails(second),
+                TestUtils.generateParquetDetails(second)), counters);
+
+        assertEquals(1, differences.size());
+        assertEquals(2, counters.getSchemasCompared());
+        // the root and "id" in the first comparison, none between equal schemas
+        assertEquals(2, counters.getNodesCompared());
+        // missing "name", additional "city" and the primitive type of "id"
+        assertEquals(3, counters.getDiffsFound());
+    }
+
+    @Test
+    void compareSchemasFlightRecorderEvent(@TempDir java.nio.file.Path directory) throws IOException {
+        ParquetSchemaNode id = new ParquetSchemaNode("id", PRIMITIVE, REQUIRED,
+                PrimitiveType.PrimitiveTypeName.INT32, null);
+        ParquetSchemaNode name = new ParquetSchemaNode("name", PRIMITIVE, REQUIRED,
+                PrimitiveType.PrimitiveTypeName.BINARY, LogicalTypeAnnotation.stringType());
+        ParquetSchemaNode first = new ParquetSchemaNode("test_schema", MESSAGE, REPEATED, null, null,
+                List.of(id, name));
+        ParquetSchemaNode second = new ParquetSchemaNode("test_schema", MESSAGE, REPEATED, null, null,
+                List.of(id));
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(ParquetSchemaComparisonEvent.NAME);
+            recording.start();
+            compareSchemas(first, second);
+            recording.stop();
+            java.nio.file.Path recordingFile = directory.resolve("comparison.jfr");
+            recording.dump(recordingFile);
+            events = RecordingFile.readAllEvents(recordingFile).stream()
+                    .filter(event -> event.getEventType().getName().equals(ParquetSchemaComparisonEvent.NAME))
+                    .collect(Collectors.toList());
+        }
+
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("test_data.parquet/date=2025-04-20/part-000.parquet", event.getString("firstPath"));
+        assertEquals(3, event.getInt("firstSchemaNodes"));
+        assertEquals(2, event.getInt("secondSchemaNodes"));
+        assertEquals(2, event.getInt("nodesCompared"));
+        assertEquals(1, event.getInt("differences"));
+    }
+
     private ParquetSchemaDiff compareSchemas(ParquetSchemaNode firstSchema, ParquetSchemaNode secondSchema) {
         return ParquetComparator.compareSchemas(
                 TestUtils.generateParquetDetails(firstSchema),
                 TestUtils.generateParquetDetails(secondSchema));
     }
+
+    @Test
+    void findSameContentFiles() {
+        ParquetDetails first = new ParquetDetails(new Path("data.parquet/date=2020-12-27/part-0000.parquet"), 1, null);
+        ParquetDetails second = new ParquetDetails(new Path("data.parquet/date=2020-12-27/part-0001.parquet"), 1, null);
+        ParquetDetails third = new ParquetDetails(new Path("data.parquet/date=2020-12-28/part-0000.parquet"), 1, null);
+        ParquetDetails empty = new ParquetDetails(new Path("data.parquet/date=2020-12-28/part-0001.parquet"), 0, null);
+        ParquetDetails otherEmpty =
+                new ParquetDetails(new Path("data.parquet/date=2020-12-28/part-0002.parquet"), 0, null);
+
+        List<List<ParquetDetails>> results = ParquetComparator.findSameContentFiles(
+                List.of(first, second, third, empty, otherEmpty),
+                List.of(contentFingerprint("a"), contentFingerprint("b"), contentFingerprint("a"),
+                        contentFingerprint(), contentFingerprint()));
+        assertEquals(List.of(List.of(first, third)), results);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ParquetComparator.findSameContentFiles(List.of(first), List.of()));
+    }
+
+    @Test
+    void findDifferentPartitionsContent() {
+        ParquetDetails first = new ParquetDetails(new Path("v1.parquet/date=2020-12-27/part-0000.parquet"), 1, null);
+        ParquetDetails second = new ParquetDetails(new Path("v1.parquet/date=2020-12-27/part-0001.parquet"), 1, null);
+        ParquetDetails third = new ParquetDetails(new Path("v1.parquet/date=2020-12-28/part-0000.parquet"), 1, null);
+        ParquetDetails merged = new ParquetDetails(new Path("v2.parquet/date=2020-12-27/part-0000.parquet"), 2, null);
+        ParquetDetails changed = new ParquetDetails(new Path("v2.parquet/date=2020-12-28/part-0000.parquet"), 1, null);
+        ParquetDetails extra = new ParquetDetails(new Path("v2.parquet/date=2020-12-29/part-0000.parquet"), 1, null);
+
+        Map<ParquetPartitions, ParquetContentFingerprint> firstPartitions = ParquetComparator.mergeByPartitions(
+                List.of(first, second, third),
+                List.of(contentFingerprint("a"), contentFingerprint("b"), contentFingerprint("c")));
+        Map<ParquetPartitions, ParquetContentFingerprint> secondPartitions = ParquetComparator.mergeByPartitions(
+                List.of(merged, changed, extra),
+                List.of(contentFingerprint("b", "a"), contentFingerprint("d"), contentFingerprint("e")));
+
+        assertEquals(2, firstPartitions.size());
+        assertEquals(2, firstPartitions.get(first.getPartitions()).getNumRows());
+        assertEquals(List.of(third.getPartitions(), extra.getPartitions()),
+                ParquetComparator.findDifferentPartitionsContent(firstPartitions, secondPartitions));
+    }
+
+    @Test
+    void findColumnsDrift() {
+        List<ParquetDetails> parquets = List.of(
+                statisticsDetails("2025-04-20", 0, 100, 1, 10, 20),
+                statisticsDetails("2025-04-21", 0, 50, 0, 10, 15),
+                statisticsDetails("2025-04-21", 1, 50, 1, 12, 21),
+                statisticsDetails("2025-04-22", 0, 100, 90, 11, 19),
+                statisticsDetails("2025-04-23", 0, 5, 0, 9, 500),
+                statisticsDetails("2025-04-24", 0, 100, 1, 10, 20));
+
+        List<ParquetColumnDrift> drifts = ParquetComparator.findColumnsDrift(parquets);
+
+        assertEquals(List.of(
+                new ParquetColumnDrift(parquets.get(3).getPartitions(), "amount", ParquetColumnDrift.Kind.NULL_RATIO,
+                        0.9, 0.01),
+                new ParquetColumnDrift(parquets.get(4).getPartitions(), "amount", ParquetColumnDrift.Kind.VALUE_COUNT,
+                        5, 100),
+                new ParquetColumnDrift(parquets.get(4).getPartitions(), "amount", ParquetColumnDrift.Kind.MAX,
+                        500, 20)), drifts);
+        assertEquals(List.of(), ParquetComparator.findColumnsDrift(parquets.subList(0, 2)));
+        assertEquals(3, ParquetComparator.findColumnsDrift(parquets,
+                ParquetDriftThresholds.defaults().withNullRatio(0.5).withWindow(1)).size());
+    }
+
+    @Test
+    void invalidDriftThresholds() {
+        assertThrows(IllegalArgumentException.class, () -> ParquetDriftThresholds.defaults().withNullRatio(1));
+        assertThrows(IllegalArgumentException.class,
+                () -> ParquetDriftThresholds.defaults().withValueCountFactor(0.5));
+        assertThrows(IllegalArgumentException.class, () -> ParquetDriftThresholds.defaults().withRangeFactor(-1));
+        assertThrows(IllegalArgumentException.class, () -> ParquetDriftThresholds.defaults().withWindow(0));
+    }
+
+    private static ParquetDetails statisticsDetails(String date, int part, long values, long nulls, int min,
+                                                    int max) {
+        Path path = new Path("data.parquet/date=" + date + "/part-000" + part + ".parquet");
+        ParquetColumnStatistics statistics = new ParquetColumnStatistics("amount", values, nulls,
+                String.valueOf(min), String.valueOf(max), (double) min, (double) max);
+        return new ParquetDetails(path, values, null, ParquetPartitions.fromPath(path), null, List.of(statistics));
+    }
+
+    private static ParquetContentFingerprint contentFingerprint(String... ids) {
+        ParquetContentFingerprint.Accumulator accumulator = ParquetContentFingerprint.accumulator(List.of("id"));
+        for (String id : ids) {
+            accumulator.add(new String[]{id});
+        }
+        return accumulator.toFingerprint();
+    }
 }
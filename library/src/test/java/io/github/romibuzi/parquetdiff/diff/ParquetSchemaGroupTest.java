@@ -0,0 +1,54 @@
+package io.github.romibuzi.parquetdiff.diff;
+
+import io.github.romibuzi.parquetdiff.TestUtils;
+import io.github.romibuzi.parquetdiff.metadata.ParquetDetails;
+import io.github.romibuzi.parquetdiff.metadata.ParquetSchemaNode;
+import org.apache.hadoop.fs.Path;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static io.github.romibuzi.parquetdiff.metadata.ParquetSchemaType.MESSAGE;
+import static org.apache.parquet.schema.Type.Repetition.REPEATED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ParquetSchemaGroupTest {
+    private static final ParquetSchemaNode SCHEMA = new ParquetSchemaNode("test_schema", MESSAGE, REPEATED,
+            null, null);
+
+    @Test
+    void addSamePartitions() {
+        ParquetDetails first = parquet("data.parquet/date=2025-04-20/part-000.parquet", 1);
+        ParquetDetails second = parquet("data.parquet/date=2025-04-20/part-001.parquet", 2);
+        ParquetSchemaGroup group = new ParquetSchemaGroup(first);
+        group.add(first, false);
+        // same partitions as the last range, even if other classes were listed in between
+        group.add(second, false);
+
+        assertEquals(2, group.getNumFiles());
+        assertEquals(3, group.getNumRows());
+        assertEquals(1, group.getPartitionsRanges().size());
+    }
+
+    @Test
+    void print() {
+        ParquetDetails first = parquet("data.parquet/date=2025-04-20/part-000.parquet", 1);
+        ParquetSchemaGroup group = new ParquetSchemaGroup(first);
+        group.add(first, false);
+        group.add(parquet("data.parquet/date=2025-04-21/part-000.parquet", 2), true);
+        group.add(parquet("data.parquet/date=2025-04-25/part-000.parquet", 3), false);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        group.print(new PrintStream(outputStream));
+
+        String[] lines = TestUtils.getLines(outputStream.toString());
+        assertEquals(1, lines.length);
+        assertEquals("Schema " + first.getFingerprint().toHexString() + ": 3 files, 6 rows, partitions "
+                + "[date=2025-04-20] to [date=2025-04-21], [date=2025-04-25].", lines[0]);
+    }
+
+    private static ParquetDetails parquet(String path, long numRows) {
+        return new ParquetDetails(new Path(path), numRows, SCHEMA);
+    }
+}
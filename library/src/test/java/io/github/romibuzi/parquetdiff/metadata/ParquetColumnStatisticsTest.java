@@ -0,0 +1,67 @@
+package io.github.romibuzi.parquetdiff.metadata;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParquetColumnStatisticsTest {
+    @Test
+    void mergeNumericColumn() {
+        // "9" is greater than "10" as a string, numeric columns are compared as numbers
+        ParquetColumnStatistics first = new ParquetColumnStatistics("amount", 10, 2, "9", "50", 9d, 50d);
+        ParquetColumnStatistics second = new ParquetColumnStatistics("amount", 30, 1, "10", "100", 10d, 100d);
+
+        ParquetColumnStatistics merged = first.merge(second);
+
+        assertEquals(new ParquetColumnStatistics("amount", 40, 3, "9", "100", 9d, 100d), merged);
+        assertEquals(0.075, merged.getNullRatio());
+    }
+
+    @Test
+    void mergeStringColumn() {
+        ParquetColumnStatistics first = new ParquetColumnStatistics("name", 2, 0, "Bob", "Carol", null, null);
+        ParquetColumnStatistics second = new ParquetColumnStatistics("name", 2, 0, "Alice", "Bob", null, null);
+
+        assertEquals(new ParquetColumnStatistics("name", 4, 0, "Alice", "Carol", null, null), first.merge(second));
+    }
+
+    @Test
+    void mergeUnknownStatistics() {
+        ParquetColumnStatistics known = new ParquetColumnStatistics("name", 2, 0, "Alice", "Bob", null, null);
+        ParquetColumnStatistics allNulls = new ParquetColumnStatistics("name", 3, 3, null, null, null, null);
+        ParquetColumnStatistics unknown = new ParquetColumnStatistics("name", 1, -1, null, null, null, null);
+
+        ParquetColumnStatistics merged = known.merge(allNulls);
+        assertEquals(new ParquetColumnStatistics("name", 5, 3, "Alice", "Bob", null, null), merged);
+        assertTrue(merged.hasNullCount());
+
+        // the values of the unknown statistics may be lower or greater than the known bounds
+        ParquetColumnStatistics mergedUnknown = unknown.merge(merged);
+        assertFalse(mergedUnknown.hasNullCount());
+        assertTrue(Double.isNaN(mergedUnknown.getNullRatio()));
+        assertNull(mergedUnknown.getMin());
+        assertNull(mergedUnknown.getMax());
+        assertEquals(mergedUnknown, merged.merge(unknown));
+    }
+
+    @Test
+    void mergeMissingBounds() {
+        ParquetColumnStatistics known = new ParquetColumnStatistics("amount", 2, 0, "1", "5", 1d, 5d);
+        ParquetColumnStatistics noMax = new ParquetColumnStatistics("amount", 2, 1, "0", null, 0d, null);
+
+        assertEquals(new ParquetColumnStatistics("amount", 4, 1, "0", null, 0d, null), known.merge(noMax));
+        assertEquals(new ParquetColumnStatistics("amount", 4, 1, "0", null, 0d, null), noMax.merge(known));
+    }
+
+    @Test
+    void mergeDifferentColumns() {
+        ParquetColumnStatistics first = new ParquetColumnStatistics("id", 1, 0, "1", "1", 1d, 1d);
+        ParquetColumnStatistics second = new ParquetColumnStatistics("name", 1, 0, "Alice", "Alice", null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> first.merge(second));
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.romibuzi.parquetdiff.metadata;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParquetContentFingerprintTest {
+    private static final List<String> COLUMNS = List.of("id", "name");
+
+    @Test
+    void orderInsensitive() {
+        ParquetContentFingerprint first = ParquetContentFingerprint.accumulator(COLUMNS)
+                .add(new String[]{"1", "Alice"})
+                .add(new String[]{"2", null})
+                .toFingerprint();
+        ParquetContentFingerprint second = ParquetContentFingerprint.accumulator(COLUMNS)
+                .add(new String[]{"2", null})
+                .add(new String[]{"1", "Alice"})
+                .toFingerprint();
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals(first.toHexString(), second.toHexString());
+        assertEquals(2, first.getNumRows());
+    }
+
+    @Test
+    void rowsAreNotColumnsPermutations() {
+        // same values per column, paired in different rows
+        ParquetContentFingerprint first = ParquetContentFingerprint.accumulator(COLUMNS)
+                .add(new String[]{"1", "Alice"})
+                .add(new String[]{"2", "Bob"})
+                .toFingerprint();
+        ParquetContentFingerprint second = ParquetContentFingerprint.accumulator(COLUMNS)
+                .add(new String[]{"1", "Bob"})
+                .add(new String[]{"2", "Alice"})
+                .toFingerprint();
+
+        assertNotEquals(first, second);
+        assertEquals(List.of(), first.findDifferentColumns(second));
+    }
+
+    @Test
+    void duplicateRows() {
+        ParquetContentFingerprint once = ParquetContentFingerprint.accumulator(COLUMNS)
+                .add(new String[]{"1", "Alice"})
+                .toFingerprint();
+        ParquetContentFingerprint twice = ParquetContentFingerprint.accumulator(COLUMNS)
+                .add(new String[]{"1", "Alice"})
+                .add(new String[]{"1", "Alice"})
+                .toFingerprint();
+
+        assertNotEquals(once, twice);
+        assertEquals(twice, once.merge(once));
+    }
+
+    @Test
+    void merge() {
+        ParquetContentFingerprint all = ParquetContentFingerprint.accumulator(COLUMNS)
+                .add(new String[]{"1", "Alice"})
+                .add(new String[]{"2", "Bob"})
+                .add(new String[]{"3", "Carol"})
+                .toFingerprint();
+        ParquetContentFingerprint first = ParquetContentFingerprint.accumulator(COLUMNS)
+                .add(new String[]{"2", "Bob"})
+                .toFingerprint();
+        ParquetContentFingerprint second = ParquetContentFingerprint.accumulator(COLUMNS)
+                .add(new String[]{"3", "Carol"})
+                .add(new String[]{"1", "Alice"})
+                .toFingerprint();
+
+        assertEquals(all, first.merge(second));
+        assertEquals(all, second.merge(first));
+    }
+
+    @Test
+    void findDifferentColumns() {
+        ParquetContentFingerprint first = ParquetContentFingerprint.accumulator(COLUMNS)
+                .add(new String[]{"1", "Alice"})
+                .toFingerprint();
+        ParquetContentFingerprint second = ParquetContentFingerprint.accumulator(COLUMNS)
+                .add(new String[]{"1", "Bob"})
+                .toFingerprint();
+        ParquetContentFingerprint other = ParquetContentFingerprint.accumulator(List.of("id"))
+                .add(new String[]{"1"})
+                .toFingerprint();
+
+        assertEquals(List.of("name"), first.findDifferentColumns(second));
+        assertEquals(List.of("name"), first.findDifferentColumns(other));
+    }
+
+    @Test
+    void invalidRowsAndMerges() {
+        ParquetContentFingerprint.Accumulator accumulator = ParquetContentFingerprint.accumulator(COLUMNS);
+        assertThrows(IllegalArgumentException.class, () -> accumulator.add(new String[]{"1"}));
+
+        ParquetContentFingerprint other = ParquetContentFingerprint.accumulator(List.of("id")).toFingerprint();
+        assertThrows(IllegalArgumentException.class, () -> accumulator.toFingerprint().merge(other));
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.romibuzi.parquetdiff.metadata;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParquetPartitionFilterTest {
+    private static final List<ParquetPartition> PARTITIONS = partitions("date=2024-01-30", "date=2024-01-31",
+            "date=2024-02-01", "date=2024-02-02", "country=Spain");
+
+    @Test
+    void in() {
+        ParquetPartitionFilter filter = ParquetPartitionFilter.in("date", "2024-01-31", "2024-02-02", "2024-02-03");
+        assertEquals(partitions("date=2024-01-31", "date=2024-02-02", "country=Spain"), filter.select(PARTITIONS));
+    }
+
+    @Test
+    void between() {
+        ParquetPartitionFilter filter = ParquetPartitionFilter.between("date", "2024-01-31", "2024-02-01");
+        assertEquals(partitions("date=2024-01-31", "date=2024-02-01", "country=Spain"), filter.select(PARTITIONS));
+
+        filter = ParquetPartitionFilter.between("date", "2024-02-01", null);
+        assertEquals(partitions("date=2024-02-01", "date=2024-02-02", "country=Spain"), filter.select(PARTITIONS));
+    }
+
+    @Test
+    void betweenNumbers() {
+        ParquetPartitionFilter filter = ParquetPartitionFilter.between("hour", "2", "10");
+        assertEquals(partitions("hour=2", "hour=9", "hour=10"),
+                filter.select(partitions("hour=1", "hour=2", "hour=9", "hour=10", "hour=11")));
+    }
+
+    @Test
+    void glob() {
+        ParquetPartitionFilter filter = ParquetPartitionFilter.glob("date", "2024-01-*");
+        assertEquals(partitions("date=2024-01-30", "date=2024-01-31", "country=Spain"), filter.select(PARTITIONS));
+    }
+
+    @Test
+    void newest() {
+        ParquetPartitionFilter filter = ParquetPartitionFilter.newest("date", 2);
+        assertEquals(partitions("date=2024-02-01", "date=2024-02-02", "country=Spain"), filter.select(PARTITIONS));
+
+        filter = ParquetPartitionFilter.newest("hour", 2);
+        assertEquals(partitions("hour=9", "hour=10"), filter.select(partitions("hour=10", "hour=8", "hour=9")));
+    }
+
+    @Test
+    void newestMixedNumbersAndStrings() {
+        // numbers are ordered before strings, comparing them as strings would give "9" > "1a" > "10" > "9"
+        ParquetPartitionFilter filter = ParquetPartitionFilter.newest("hour", 2);
+        assertEquals(partitions("hour=1a", "hour=10"),
+                filter.select(partitions("hour=9", "hour=1a", "hour=10", "hour=2")));
+
+        filter = ParquetPartitionFilter.between("hour", "2", "10");
+        assertEquals(partitions("hour=9", "hour=10"), filter.select(partitions("hour=9", "hour=1a", "hour=10")));
+    }
+
+    @Test
+    void newestInvalidCount() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ParquetPartitionFilter.newest("date", 0));
+        assertEquals("Newest partitions count must be positive: 0", exception.getMessage());
+    }
+
+    private static List<ParquetPartition> partitions(String... partitions) {
+        return Stream.of(partitions).map(ParquetPartition::fromString).collect(Collectors.toList());
+    }
+}
@@ -3,6 +3,7 @@ package io.github.romibuzi.parquetdiff.metadata;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ParquetPartitionTest {
     @Test
@@ -11,4 +12,17 @@ class ParquetPartitionTest {
         assertEquals("date", partition.getKey());
         assertEquals("2022-03-26", partition.getValue());
     }
+
+    @Test
+    void fromString() {
+        assertEquals(new ParquetPartition("date", "2022-03-26"), ParquetPartition.fromString("date=2022-03-26"));
+        assertEquals(new ParquetPartition("query", "a=b"), ParquetPartition.fromString("query=a=b"));
+    }
+
+    @Test
+    void fromStringInvalid() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ParquetPartition.fromString("date"));
+        assertEquals("Invalid partition, expected key=value: date", exception.getMessage());
+    }
 }
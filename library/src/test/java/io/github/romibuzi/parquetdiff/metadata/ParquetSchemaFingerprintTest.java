@@ -0,0 +1,90 @@
+package io.github.romibuzi.parquetdiff.metadata;
+
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.apache.parquet.schema.Type.Repetition.OPTIONAL;
+import static org.apache.parquet.schema.Type.Repetition.REPEATED;
+import static org.apache.parquet.schema.Type.Repetition.REQUIRED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ParquetSchemaFingerprintTest {
+    private static final ParquetSchemaNode NAME = primitive("name", OPTIONAL,
+            PrimitiveType.PrimitiveTypeName.BINARY, LogicalTypeAnnotation.stringType());
+
+    @Test
+    void equalSchemas() {
+        ParquetSchemaNode first = schema(primitive("id", REQUIRED, PrimitiveType.PrimitiveTypeName.INT64, null), NAME);
+        ParquetSchemaNode second = schema(primitive("id", REQUIRED, PrimitiveType.PrimitiveTypeName.INT64, null), NAME);
+
+        assertEquals(ParquetSchemaFingerprint.of(first), ParquetSchemaFingerprint.of(second));
+        assertEquals(ParquetSchemaFingerprint.of(first).toHexString(), ParquetSchemaFingerprint.of(second).toString());
+        assertEquals(32, ParquetSchemaFingerprint.of(first).toHexString().length());
+    }
+
+    @Test
+    void differentSchemas() {
+        ParquetSchemaFingerprint reference = ParquetSchemaFingerprint.of(
+                schema(primitive("id", REQUIRED, PrimitiveType.PrimitiveTypeName.INT64, null), NAME));
+
+        List<ParquetSchemaNode> others = List.of(
+                schema(primitive("key", REQUIRED, PrimitiveType.PrimitiveTypeName.INT64, null), NAME),
+                schema(primitive("id", OPTIONAL, PrimitiveType.PrimitiveTypeName.INT64, null), NAME),
+                schema(primitive("id", REQUIRED, PrimitiveType.PrimitiveTypeName.INT32, null), NAME),
+                schema(primitive("id", REQUIRED, PrimitiveType.PrimitiveTypeName.INT64,
+                        LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MILLIS)), NAME),
+                schema(primitive("id", REQUIRED, PrimitiveType.PrimitiveTypeName.INT64, null)),
+                new ParquetSchemaNode("MESSAGE", ParquetSchemaType.GROUP, REPEATED, null, null, List.of(
+                        primitive("id", REQUIRED, PrimitiveType.PrimitiveTypeName.INT64, null), NAME)));
+
+        for (ParquetSchemaNode other : others) {
+            assertNotEquals(reference, ParquetSchemaFingerprint.of(other));
+        }
+    }
+
+    @Test
+    void reorderedColumns() {
+        ParquetSchemaNode id = primitive("id", REQUIRED, PrimitiveType.PrimitiveTypeName.INT64, null);
+        ParquetSchemaNode first = schema(id, new ParquetSchemaNode("address", ParquetSchemaType.GROUP, OPTIONAL, null,
+                null, List.of(NAME, id)));
+        ParquetSchemaNode second = schema(new ParquetSchemaNode("address", ParquetSchemaType.GROUP, OPTIONAL, null,
+                null, List.of(id, NAME)), id);
+
+        // columns are compared by name, their order is not a difference
+        assertEquals(ParquetSchemaFingerprint.of(first), ParquetSchemaFingerprint.of(second));
+        assertEquals(ParquetSchemaFingerprint.of(first), new ParquetSchemaInterner().fingerprint(second));
+    }
+
+    @Test
+    void differentLogicalTypeParameters() {
+        ParquetSchemaNode first = schema(primitive("amount", REQUIRED, PrimitiveType.PrimitiveTypeName.INT64,
+                LogicalTypeAnnotation.decimalType(2, 18)));
+        ParquetSchemaNode second = schema(primitive("amount", REQUIRED, PrimitiveType.PrimitiveTypeName.INT64,
+                LogicalTypeAnnotation.decimalType(4, 18)));
+
+        assertNotEquals(ParquetSchemaFingerprint.of(first), ParquetSchemaFingerprint.of(second));
+    }
+
+    @Test
+    void internedFingerprint() {
+        ParquetSchemaNode schema = schema(primitive("id", REQUIRED, PrimitiveType.PrimitiveTypeName.INT64, null),
+                NAME);
+
+        assertEquals(ParquetSchemaFingerprint.of(schema), new ParquetSchemaInterner().fingerprint(schema));
+    }
+
+    private static ParquetSchemaNode schema(ParquetSchemaNode... children) {
+        return new ParquetSchemaNode("MESSAGE", ParquetSchemaType.MESSAGE, REPEATED, null, null, List.of(children));
+    }
+
+    private static ParquetSchemaNode primitive(String name, Type.Repetition repetition,
+                                               PrimitiveType.PrimitiveTypeName primitiveType,
+                                               LogicalTypeAnnotation logicalType) {
+        return new ParquetSchemaNode(name, ParquetSchemaType.PRIMITIVE, repetition, primitiveType, logicalType);
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.romibuzi.parquetdiff.metadata;
+
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.apache.parquet.schema.Type.Repetition.OPTIONAL;
+import static org.apache.parquet.schema.Type.Repetition.REPEATED;
+import static org.apache.parquet.schema.Type.Repetition.REQUIRED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParquetSchemaInternerTest {
+    @Test
+    void internEqualSchemas() {
+        ParquetSchemaInterner interner = new ParquetSchemaInterner();
+        ParquetSchemaNode first = schema(PrimitiveType.PrimitiveTypeName.INT64);
+        ParquetSchemaNode second = schema(PrimitiveType.PrimitiveTypeName.INT64);
+
+        ParquetSchemaNode internedFirst = interner.intern(first);
+        ParquetSchemaNode internedSecond = interner.intern(second);
+
+        assertEquals(first, internedFirst);
+        assertSame(internedFirst, internedSecond);
+        assertSame(internedFirst, interner.intern(internedFirst));
+    }
+
+    @Test
+    void shareEqualSubtrees() {
+        ParquetSchemaInterner interner = new ParquetSchemaInterner();
+
+        ParquetSchemaNode first = interner.intern(schema(PrimitiveType.PrimitiveTypeName.INT64));
+        ParquetSchemaNode second = interner.intern(schema(PrimitiveType.PrimitiveTypeName.INT32));
+
+        assertNotSame(first, second);
+        assertSame(first.getChildrenMap().get("address"), second.getChildrenMap().get("address"));
+        assertSame(first.getChildrenMap().get("name"), second.getChildrenMap().get("name"));
+        assertEquals(8, interner.size());
+    }
+
+    @Test
+    void internedSchemaIsImmutable() {
+        ParquetSchemaNode interned = new ParquetSchemaInterner().intern(schema(PrimitiveType.PrimitiveTypeName.INT64));
+
+        assertThrows(UnsupportedOperationException.class, () -> interned.addChild(
+                new ParquetSchemaNode("other", ParquetSchemaType.PRIMITIVE, OPTIONAL,
+                        PrimitiveType.PrimitiveTypeName.INT32, null)));
+    }
+
+    private static ParquetSchemaNode schema(PrimitiveType.PrimitiveTypeName idType) {
+        ParquetSchemaNode address = new ParquetSchemaNode("address", ParquetSchemaType.GROUP, OPTIONAL, null, null);
+        address.addChild(new ParquetSchemaNode("city", ParquetSchemaType.PRIMITIVE, OPTIONAL,
+                PrimitiveType.PrimitiveTypeName.BINARY, LogicalTypeAnnotation.stringType()));
+        address.addChild(new ParquetSchemaNode("zip", ParquetSchemaType.PRIMITIVE, OPTIONAL,
+                PrimitiveType.PrimitiveTypeName.INT32, null));
+
+        return new ParquetSchemaNode("message", ParquetSchemaType.MESSAGE, REPEATED, null, null, List.of(
+                new ParquetSchemaNode("id", ParquetSchemaType.PRIMITIVE, REQUIRED, idType, null),
+                new ParquetSchemaNode("name", ParquetSchemaType.PRIMITIVE, OPTIONAL,
+                        PrimitiveType.PrimitiveTypeName.BINARY, LogicalTypeAnnotation.stringType()),
+                address));
+    }
+}
@@ -26,6 +26,8 @@ class ParquetSchemaNodeTest {
         assertTrue(node.hasChildren());
         assertEquals(child, node.getChildren().get(0));
         assertFalse(child.hasChildren());
+        assertEquals(2, node.countNodes());
+        assertEquals(1, child.countNodes());
     }
 
     @Test
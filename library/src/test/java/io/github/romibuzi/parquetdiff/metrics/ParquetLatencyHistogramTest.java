@@ -0,0 +1,53 @@
+package io.github.romibuzi.parquetdiff.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParquetLatencyHistogramTest {
+    @Test
+    void percentiles() {
+        ParquetLatencyHistogram histogram = new ParquetLatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), histogram.getMaxNanos());
+        // 100 us falls in the bucket [65536, 131071] ns
+        assertEquals(131_071, histogram.getPercentileNanos(50));
+        assertEquals(131, histogram.getPercentileMicros(99));
+        // the last bucket is capped by the maximum
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), histogram.getPercentileNanos(100));
+        assertEquals((99 * TimeUnit.MICROSECONDS.toNanos(100) + TimeUnit.MILLISECONDS.toNanos(500)) / 100,
+                histogram.getMeanNanos());
+    }
+
+    @Test
+    void emptyAndReset() {
+        ParquetLatencyHistogram histogram = new ParquetLatencyHistogram();
+        assertEquals(0, histogram.getPercentileNanos(99));
+        assertEquals(0, histogram.getMeanNanos());
+
+        histogram.record(0);
+        histogram.record(-1);
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(0, histogram.getPercentileNanos(50));
+    }
+
+    @Test
+    void invalidPercentile() {
+        ParquetLatencyHistogram histogram = new ParquetLatencyHistogram();
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileNanos(101));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileNanos(Double.NaN));
+    }
+}
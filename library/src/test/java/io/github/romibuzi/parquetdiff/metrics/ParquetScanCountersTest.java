@@ -0,0 +1,59 @@
+package io.github.romibuzi.parquetdiff.metrics;
+
+import org.apache.hadoop.fs.Path;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ParquetScanCountersTest {
+    @Test
+    void counters() {
+        ParquetScanCounters counters = new ParquetScanCounters();
+        counters.directoryListed(new Path("data.parquet"), 2, TimeUnit.MILLISECONDS.toNanos(20));
+        counters.footerRead(new Path("data.parquet/part-000.parquet"), 1000, TimeUnit.MILLISECONDS.toNanos(5));
+        counters.footerRead(new Path("data.parquet/part-001.parquet"), 500, TimeUnit.MILLISECONDS.toNanos(5));
+        counters.schemaExtracted(TimeUnit.MILLISECONDS.toNanos(3));
+        counters.schemasCompared(10, 2, TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertEquals(1, counters.getDirectoriesListed());
+        assertEquals(20, counters.getListStatusMaxMicros() / 1000);
+        assertEquals(2, counters.getFilesRead());
+        assertEquals(1500, counters.getFooterBytes());
+        assertEquals(5000, counters.getFooterReadMaxMicros());
+        assertEquals(1, counters.getSchemasExtracted());
+        assertEquals(3, counters.getSchemaExtractionMillis());
+        assertEquals(1, counters.getSchemasCompared());
+        assertEquals(10, counters.getNodesCompared());
+        assertEquals(2, counters.getDiffsFound());
+
+        counters.reset();
+        assertEquals(0, counters.getFilesRead());
+        assertEquals(0, counters.getFooterBytes());
+        assertEquals(0, counters.getNodesCompared());
+    }
+
+    @Test
+    void registerMBean() throws JMException {
+        ParquetScanCounters counters = new ParquetScanCounters();
+        ObjectName name = counters.registerMBean("test, data");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            counters.footerRead(new Path("data.parquet/part-000.parquet"), 1000, 1);
+
+            assertEquals(ParquetScanCounters.JMX_DOMAIN, name.getDomain());
+            assertEquals(1L, server.getAttribute(name, "FilesRead"));
+            assertEquals(1000L, server.getAttribute(name, "FooterBytes"));
+
+            server.invoke(name, "reset", new Object[0], new String[0]);
+            assertEquals(0L, server.getAttribute(name, "FilesRead"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}